@@ -0,0 +1,100 @@
+package src.com.learningpath.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.data.DataManager;
+import src.com.learningpath.data.codec.BinaryCodec;
+import src.com.learningpath.data.codec.Compression;
+import src.com.learningpath.users.User;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tamaño en disco frente a tiempo de carga según la compresión de los archivos de datos.
+ * <p>
+ * La preparación guarda un snapshot con el códec del parámetro {@code codec} e imprime el
+ * tamaño de cada archivo; {@code saveProgresses} mide la escritura con compresión y
+ * {@code loadAndDecodeProgresses} la lectura, descompresión y decodificación de todos los progresos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// Los datos sintéticos crean miles de usuarios: el hash de contraseñas usa el costo mínimo.
+@Fork(value = 1, jvmArgsAppend = "-Dlearningpath.passwordIterations=1000")
+public class CompressionBenchmark {
+
+    @Param({"none", "deflate:1", "deflate:6", "deflate:9"})
+    public String codec;
+
+    @Param({"10000", "100000"})
+    public int records;
+
+    private File folder;
+    private List<Progress> progresses;
+    private List<User> loadedUsers;
+    private List<LearningPath> loadedPaths;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BinaryCodec.setCompression(Compression.parse(codec));
+        folder = Files.createTempDirectory("learningpath-bench").toFile();
+        DataManager.setDataFolder(folder.getPath() + File.separator);
+        SyntheticData data = SyntheticData.generate(records, 2024, 42);
+        progresses = data.getProgresses();
+        DataManager.saveSnapshot(data.getUsers(), data.getLearningPaths(), progresses);
+        for (String name : new String[]{"users.dat", "learning_paths.dat", "progresses.dat"}) {
+            System.out.println("Tamaño de " + name + " con " + codec + ": " + new File(folder, name).length() + " bytes");
+        }
+        try {
+            loadedUsers = DataManager.loadUsers();
+            loadedPaths = DataManager.loadLearningPaths(loadedUsers);
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BinaryCodec.setCompression(Compression.NONE);
+        DataManager.getJournal().close();
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+        Files.deleteIfExists(folder.toPath());
+    }
+
+    @Benchmark
+    public void saveProgresses() throws IOException {
+        DataManager.saveProgresses(progresses);
+    }
+
+    @Benchmark
+    public void loadAndDecodeProgresses(Blackhole blackhole) throws Exception {
+        for (Progress progress : DataManager.loadProgresses(loadedUsers, loadedPaths)) {
+            blackhole.consume(progress.getStudent());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package src.com.learningpath.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.analytics.CompletionHistogram;
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.users.Teacher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminos críticos del dominio que usa la interfaz. MainFrame delega {@code findProgress}
+ * en {@link Repository} y {@code getDailyActivityCountForYear} en {@link CompletionHistogram};
+ * se miden esas clases directamente porque MainFrame necesita un entorno gráfico.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+// Los datos sintéticos crean miles de usuarios: el hash de contraseñas usa el costo mínimo.
+@Fork(value = 1, jvmArgsAppend = "-Dlearningpath.passwordIterations=1000")
+public class DomainBenchmark {
+    private static final int YEAR = 2024;
+
+    @Param({"1000", "10000", "100000"})
+    public int records;
+
+    private Repository repository;
+    private CompletionHistogram histogram;
+    private List<Progress> progresses;
+    private Teacher copier;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = SyntheticData.generate(records, YEAR, 42);
+        progresses = data.getProgresses();
+        repository = new Repository(data.getUsers(), data.getLearningPaths(), progresses);
+        histogram = CompletionHistogram.build(progresses);
+        copier = data.getTeachers().get(0);
+        random = new Random(7);
+    }
+
+    private Progress anyProgress() {
+        return progresses.get(random.nextInt(progresses.size()));
+    }
+
+    @Benchmark
+    public double calculateCompletionPercentage() {
+        return anyProgress().calculateCompletionPercentage();
+    }
+
+    @Benchmark
+    public Progress findProgress() {
+        Progress p = anyProgress();
+        return repository.findProgress(p.getStudent(), p.getLearningPath());
+    }
+
+    @Benchmark
+    public Map<LocalDate, Integer> getDailyActivityCountForYear() {
+        return histogram.getDailyCounts(YEAR);
+    }
+
+    @Benchmark
+    public LearningPath copyLearningPath() {
+        return new LearningPath(anyProgress().getLearningPath(), copier);
+    }
+}
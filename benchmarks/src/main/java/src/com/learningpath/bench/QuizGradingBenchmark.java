@@ -0,0 +1,92 @@
+package src.com.learningpath.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.grading.GradingResult;
+import src.com.learningpath.grading.QuizGrader;
+import src.com.learningpath.grading.QuizSubmission;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recalificación de todas las entregas de quizzes de los datos sintéticos: el recorrido por
+ * pregunta que hacían la consola y la interfaz, entrega por entrega, frente a
+ * {@link QuizGrader} con claves de respuestas precalculadas y tramos en paralelo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+// Los datos sintéticos crean miles de usuarios: el hash de contraseñas usa el costo mínimo.
+@Fork(value = 1, jvmArgsAppend = "-Dlearningpath.passwordIterations=1000")
+public class QuizGradingBenchmark {
+    private static final int YEAR = 2024;
+
+    @Param({"10000", "100000"})
+    public int records;
+
+    private List<QuizSubmission> submissions;
+    private List<List<Integer>> answerLists;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = SyntheticData.generate(records, YEAR, 42);
+        submissions = new ArrayList<>();
+        answerLists = new ArrayList<>();
+        for (Progress progress : data.getProgresses()) {
+            for (Activity activity : progress.getLearningPath().getActivities()) {
+                if (activity instanceof Quiz) {
+                    List<Integer> answers = progress.getQuizResponses((Quiz) activity);
+                    if (answers != null) {
+                        submissions.add(QuizSubmission.of(progress, (Quiz) activity, answers));
+                        answerLists.add(answers);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int perSubmission() {
+        int passed = 0;
+        for (int s = 0; s < submissions.size(); s++) {
+            Quiz quiz = submissions.get(s).getQuiz();
+            List<Integer> answers = answerLists.get(s);
+            List<Question> questions = quiz.getQuestions();
+            int correct = 0;
+            for (int i = 0; i < questions.size(); i++) {
+                if (answers.get(i) == questions.get(i).getCorrectOptionIndex()) {
+                    correct++;
+                }
+            }
+            double score = (double) correct / questions.size() * 100;
+            if (score >= quiz.getPassingScore()) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+
+    @Benchmark
+    public int batch() {
+        GradingResult result = QuizGrader.grade(submissions);
+        return result.getPassedCount();
+    }
+}
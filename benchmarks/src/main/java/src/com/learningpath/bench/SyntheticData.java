@@ -0,0 +1,201 @@
+package src.com.learningpath.bench;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.ActivityType;
+import src.com.learningpath.activities.Assignment;
+import src.com.learningpath.activities.OpenEndedExam;
+import src.com.learningpath.activities.OpenEndedQuestion;
+import src.com.learningpath.activities.OpenEndedResponse;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.ResourceReview;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyQuestion;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generador determinista de datos sintéticos para los benchmarks: profesores, estudiantes,
+ * Learning Paths con los cinco tipos de actividad y progresos con una mezcla realista de
+ * estados, fechas de completado repartidas en el año y respuestas a quizzes, encuestas y
+ * exámenes. La misma semilla produce siempre los mismos datos.
+ */
+public class SyntheticData {
+    private static final ActivityStatus[] STATUSES = ActivityStatus.values();
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Teacher> teachers = new ArrayList<>();
+    private final List<Student> students = new ArrayList<>();
+    private final List<LearningPath> learningPaths = new ArrayList<>();
+    private final List<Progress> progresses = new ArrayList<>();
+
+    /**
+     * Genera un conjunto de datos con la cantidad de progresos indicada. Cada estudiante se
+     * inscribe en unos 5 Learning Paths y cada profesor crea 4, con 6 a 12 actividades cada uno.
+     *
+     * @param progressCount La cantidad de progresos.
+     * @param year          El año en el que se reparten las fechas de completado.
+     * @param seed          La semilla del generador.
+     * @return Los datos generados.
+     */
+    public static SyntheticData generate(int progressCount, int year, long seed) {
+        Random random = new Random(seed);
+        SyntheticData data = new SyntheticData();
+        int enrollmentsPerStudent = 5;
+        int studentCount = Math.max(1, (progressCount + enrollmentsPerStudent - 1) / enrollmentsPerStudent);
+        int pathCount = Math.max(enrollmentsPerStudent, Math.min(2_000, progressCount / 50));
+        int teacherCount = Math.max(1, pathCount / 4);
+
+        for (int i = 0; i < teacherCount; i++) {
+            Teacher teacher = new Teacher("teacher" + i, "password" + i, "Profesor " + i);
+            data.teachers.add(teacher);
+            data.users.add(teacher);
+        }
+        for (int i = 0; i < pathCount; i++) {
+            data.learningPaths.add(learningPath(random, i, data.teachers.get(i % teacherCount)));
+        }
+        for (int i = 0; i < studentCount; i++) {
+            Student student = new Student("student" + i, "password" + i, "Estudiante " + i);
+            data.students.add(student);
+            data.users.add(student);
+        }
+
+        // Cada estudiante se inscribe en Learning Paths distintos consecutivos a partir de uno al azar.
+        LocalDate start = LocalDate.of(year, 1, 1);
+        int daysInYear = start.lengthOfYear();
+        for (int i = 0; i < progressCount; i++) {
+            Student student = data.students.get(i / enrollmentsPerStudent);
+            int first = Math.floorMod(student.getUsername().hashCode(), pathCount);
+            LearningPath lp = data.learningPaths.get((first + i % enrollmentsPerStudent) % pathCount);
+            data.progresses.add(progress(random, student, lp, start, daysInYear));
+        }
+        return data;
+    }
+
+    /**
+     * Crea un Learning Path con actividades de todos los tipos.
+     */
+    public static LearningPath learningPath(Random random, int index, Teacher creator) {
+        LearningPath lp = new LearningPath("Learning Path " + index, "Descripción del Learning Path " + index,
+                "Objetivos del Learning Path " + index, 1 + random.nextInt(5), creator);
+        int activityCount = 6 + random.nextInt(7);
+        for (int i = 0; i < activityCount; i++) {
+            lp.addActivity(activity(random, index + "." + i));
+        }
+        return lp;
+    }
+
+    private static Activity activity(Random random, String id) {
+        int difficulty = 1 + random.nextInt(5);
+        int duration = 15 + random.nextInt(120);
+        boolean mandatory = random.nextInt(4) != 0;
+        switch (random.nextInt(5)) {
+            case 0:
+                return new ResourceReview("Lectura " + id, "Revisar el recurso " + id, "Comprender el tema " + id,
+                        difficulty, duration, mandatory, "http://example.com/recurso/" + id);
+            case 1:
+                return new Assignment("Tarea " + id, "Resolver la tarea " + id, "Aplicar el tema " + id,
+                        difficulty, duration, mandatory, "Entregar el código en la plataforma");
+            case 2: {
+                List<Question> questions = new ArrayList<>();
+                int questionCount = 5 + random.nextInt(6);
+                for (int q = 0; q < questionCount; q++) {
+                    questions.add(new Question("Pregunta " + q + " del quiz " + id,
+                            new String[]{"Opción A", "Opción B", "Opción C", "Opción D"}, random.nextInt(4), "Explicación " + q));
+                }
+                return new Quiz("Quiz " + id, "Evaluar el tema " + id, "Medir la comprensión",
+                        difficulty, duration, mandatory, questions, 60 + random.nextInt(31));
+            }
+            case 3: {
+                Survey survey = new Survey("Encuesta " + id, "Opinión sobre el tema " + id, "Recoger retroalimentación",
+                        difficulty, duration, false);
+                survey.addSurveyQuestion(new SurveyQuestion("¿Qué tan útil fue el contenido?"));
+                survey.addSurveyQuestion(new SurveyQuestion("¿Qué mejorarías?"));
+                return survey;
+            }
+            default: {
+                List<OpenEndedQuestion> questions = new ArrayList<>();
+                questions.add(new OpenEndedQuestion("Explique el tema " + id));
+                questions.add(new OpenEndedQuestion("Dé un ejemplo del tema " + id));
+                return new OpenEndedExam("Examen " + id, "Examen abierto del tema " + id, "Evaluar la argumentación",
+                        difficulty, duration, mandatory, Collections.<ActivityType>emptySet(), questions);
+            }
+        }
+    }
+
+    private static Progress progress(Random random, Student student, LearningPath lp, LocalDate start, int daysInYear) {
+        Progress progress = new Progress(student, lp);
+        // Los estudiantes avanzan en orden: las primeras actividades suelen estar completas.
+        int reached = random.nextInt(lp.getActivities().size() + 1);
+        for (int i = 0; i < lp.getActivities().size(); i++) {
+            Activity activity = lp.getActivities().get(i);
+            ActivityStatus status;
+            if (i < reached) {
+                status = random.nextInt(10) == 0 ? ActivityStatus.FAILED
+                        : activity instanceof Assignment ? ActivityStatus.SUBMITTED : ActivityStatus.COMPLETED;
+            } else if (i == reached) {
+                status = STATUSES[random.nextInt(STATUSES.length)];
+            } else {
+                status = ActivityStatus.PENDING;
+            }
+            if (status == ActivityStatus.PENDING) {
+                continue;
+            }
+            progress.updateActivityStatus(activity, status, start.plusDays(random.nextInt(daysInYear)));
+            if (activity instanceof Quiz) {
+                Quiz quiz = (Quiz) activity;
+                List<Integer> answers = new ArrayList<>();
+                for (Question question : quiz.getQuestions()) {
+                    answers.add(random.nextInt(3) == 0 ? random.nextInt(4) : question.getCorrectOptionIndex());
+                }
+                progress.saveQuizResponses(quiz, answers);
+            } else if (activity instanceof Survey) {
+                Survey survey = (Survey) activity;
+                SurveyResponse response = new SurveyResponse(student, survey);
+                for (SurveyQuestion question : survey.getSurveyQuestions()) {
+                    response.addAnswer(question.getQuestionText(), "Respuesta " + random.nextInt(5));
+                }
+                progress.addSurveyResponse(survey, response);
+            } else if (activity instanceof OpenEndedExam) {
+                OpenEndedExam exam = (OpenEndedExam) activity;
+                OpenEndedResponse response = new OpenEndedResponse(student, exam);
+                for (OpenEndedQuestion question : exam.getExamQuestions()) {
+                    response.addAnswer(question.getQuestionText(), "Desarrollo de la respuesta del estudiante " + student.getUsername());
+                }
+                progress.addExamResponse(exam, response);
+            }
+        }
+        return progress;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public List<Teacher> getTeachers() {
+        return teachers;
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public List<LearningPath> getLearningPaths() {
+        return learningPaths;
+    }
+
+    public List<Progress> getProgresses() {
+        return progresses;
+    }
+}
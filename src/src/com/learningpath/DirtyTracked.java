@@ -0,0 +1,24 @@
+package src.com.learningpath;
+
+/**
+ * Entidad persistible que registra si cambió desde la última vez que se guardó.
+ * Las instancias nuevas nacen sucias y las restauradas desde disco, limpias; DataManager
+ * solo reescribe los archivos que contienen entidades sucias y después las limpia.
+ */
+public interface DirtyTracked {
+
+    /**
+     * Indica si la entidad cambió desde el último guardado.
+     */
+    boolean isDirty();
+
+    /**
+     * Marca la entidad como modificada.
+     */
+    void markDirty();
+
+    /**
+     * Marca la entidad como guardada.
+     */
+    void clearDirty();
+}
@@ -0,0 +1,47 @@
+package src.com.learningpath;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Secuencia de identificadores numéricos para entidades que se usan como claves de mapas
+ * (actividades y Learning Paths). Los identificadores nuevos son positivos y crecientes;
+ * al restaurar una entidad persistida se informa su identificador con {@link #observe(int)}
+ * para que la secuencia no lo vuelva a entregar.
+ * <p>
+ * Los datos guardados antes de que existieran los identificadores reciben uno derivado de
+ * sus campos ({@link #legacyId(String...)}), siempre negativo para no chocar con la secuencia
+ * y el mismo para todas las copias de la entidad en los distintos archivos.
+ */
+public final class IdSequence {
+    private final AtomicInteger next = new AtomicInteger(1);
+
+    /**
+     * Entrega el siguiente identificador.
+     */
+    public int next() {
+        return next.getAndIncrement();
+    }
+
+    /**
+     * Registra un identificador restaurado desde la persistencia.
+     *
+     * @param id El identificador.
+     */
+    public void observe(int id) {
+        if (id > 0) {
+            next.accumulateAndGet(id + 1, Math::max);
+        }
+    }
+
+    /**
+     * Deriva el identificador de una entidad guardada sin él, a partir de los campos que
+     * antes definían su igualdad.
+     *
+     * @param fields Los campos.
+     * @return Un identificador negativo.
+     */
+    public static int legacyId(String... fields) {
+        return Arrays.hashCode(fields) | Integer.MIN_VALUE;
+    }
+}
@@ -8,36 +8,58 @@
 			import src.com.learningpath.activities.OpenEndedExam;
 			import src.com.learningpath.users.Teacher;
 			
+			import java.io.IOException;
+			import java.io.ObjectInputStream;
 			import java.io.Serializable;
 			import java.util.ArrayList;
 			import java.util.Arrays;
 			import java.util.Date;
+			import java.util.HashMap;
 			import java.util.HashSet;
 			import java.util.List;
-			import java.util.Objects;
+			import java.util.Map;
 			import java.util.Set;
+			import java.util.concurrent.CopyOnWriteArrayList;
 			
 			/**
 			 * La clase LearningPath representa un camino de aprendizaje creado por un profesor.
 			 * Permite gestionar actividades, feedback y versiones.
+			 * <p>
+			 * Concurrencia: las actividades y el feedback son listas copy-on-write, que los estudiantes
+			 * recorren sin lock mientras un profesor edita; cada recorrido ve la lista de un instante.
+			 * Las mutaciones que cambian varios campos (por ejemplo, añadir una actividad y sumar su
+			 * duración) usan el monitor del Learning Path, y los campos que cambian se leen sin lock
+			 * porque son volatile. Una actividad debe estar completa antes de añadirse: añadirla
+			 * publica su estado a los hilos que la encuentren en la lista.
 			 */
-			public class LearningPath implements Serializable {
+			public class LearningPath implements Serializable, DirtyTracked {
 			    private static final long serialVersionUID = 1L;
 			
+			    private static final IdSequence IDS = new IdSequence();
+			
+			    // Identificador estable asignado al crear el Learning Path y persistido con él.
+			    private int id;
+			
 			    // Atributos básicos del Learning Path
 			    private String title;
 			    private String description;
 			    private String objectives;
 			    private int difficultyLevel;
-			    private int duration; // en minutos
-			    private double rating;
+			    private volatile int duration; // en minutos
+			    private volatile double rating;
 			    private Date creationDate;
-			    private Date modificationDate;
+			    private volatile Date modificationDate;
 			    private String version;
 			    private Teacher creator;
 			    private List<Activity> activities;
 			    private List<String> feedbackList;
 			
+			    // Cambios pendientes de guardar. Al deserializar queda en false.
+			    private transient volatile boolean dirty = true;
+			
+			    // Posiciones de las actividades que comparten los progresos; se reconstruye si la lista cambia.
+			    private transient volatile ActivityPositions activityPositions;
+			
 			    /**
 			     * Constructor principal para crear un nuevo Learning Path.
 			     *
@@ -53,13 +75,14 @@
 			        this.objectives = objectives;
 			        this.difficultyLevel = difficultyLevel;
 			        this.creator = creator;
-			        this.activities = new ArrayList<>();
-			        this.feedbackList = new ArrayList<>();
+			        this.activities = new CopyOnWriteArrayList<>();
+			        this.feedbackList = new CopyOnWriteArrayList<>();
 			        this.creationDate = new Date();
 			        this.modificationDate = new Date();
 			        this.version = "1.0";
 			        this.duration = 0;
 			        this.rating = 0.0;
+			        this.id = IDS.next();
 			    }
 			
 			    /**
@@ -74,16 +97,40 @@
 			        this.objectives = original.objectives;
 			        this.difficultyLevel = original.difficultyLevel;
 			        this.creator = newCreator;
-			        this.activities = new ArrayList<>();
+			        List<Activity> copies = new ArrayList<>();
 			        for (Activity activity : original.activities) {
-			            this.activities.add(copyActivity(activity));
+			            copies.add(copyActivity(activity));
 			        }
-			        this.feedbackList = new ArrayList<>();
+			        this.activities = new CopyOnWriteArrayList<>(copies);
+			        this.feedbackList = new CopyOnWriteArrayList<>();
 			        this.creationDate = new Date();
 			        this.modificationDate = new Date();
 			        this.version = "1.0";
 			        this.duration = original.duration;
 			        this.rating = original.rating;
+			        this.id = IDS.next();
+			    }
+			
+			    /**
+			     * Constructor de restauración usado por los codecs de persistencia.
+			     * Reconstruye el Learning Path con todo su estado, sin recalcular duración ni fechas.
+			     */
+			    public LearningPath(String title, String description, String objectives, int difficultyLevel, int duration,
+			                        double rating, Date creationDate, Date modificationDate, String version, Teacher creator,
+			                        List<Activity> activities, List<String> feedbackList) {
+			        this.title = title;
+			        this.description = description;
+			        this.objectives = objectives;
+			        this.difficultyLevel = difficultyLevel;
+			        this.duration = duration;
+			        this.rating = rating;
+			        this.creationDate = creationDate;
+			        this.modificationDate = modificationDate;
+			        this.version = version;
+			        this.creator = creator;
+			        this.activities = new CopyOnWriteArrayList<>(activities);
+			        this.feedbackList = new CopyOnWriteArrayList<>(feedbackList);
+			        this.id = IDS.next();
 			    }
 			
 			    /**
@@ -183,11 +230,12 @@
 			     * @param activity La actividad a añadir.
 			     * @return True si se añade exitosamente, false en caso contrario.
 			     */
-			    public boolean addActivity(Activity activity) {
+			    public synchronized boolean addActivity(Activity activity) {
 			        if (activity != null) {
 			            this.activities.add(activity);
 			            this.duration += activity.getExpectedDuration();
 			            this.modificationDate = new Date();
+			            this.dirty = true;
 			            return true;
 			        }
 			        return false;
@@ -199,10 +247,11 @@
 			     * @param activity La actividad a eliminar.
 			     * @return True si se elimina exitosamente, false en caso contrario.
 			     */
-			    public boolean removeActivity(Activity activity) {
+			    public synchronized boolean removeActivity(Activity activity) {
 			        if (this.activities.remove(activity)) {
 			            this.duration -= activity.getExpectedDuration();
 			            this.modificationDate = new Date();
+			            this.dirty = true;
 			            return true;
 			        }
 			        return false;
@@ -230,9 +279,10 @@
 			     *
 			     * @param newRating La nueva calificación.
 			     */
-			    public void updateRating(double newRating) {
+			    public synchronized void updateRating(double newRating) {
 			        this.rating = newRating;
 			        this.modificationDate = new Date();
+			        this.dirty = true;
 			    }
 			
 			    /**
@@ -240,13 +290,62 @@
 			     *
 			     * @param feedback El feedback a añadir.
 			     */
-			    public void addFeedback(String feedback) {
+			    public synchronized void addFeedback(String feedback) {
 			        if (feedback != null && !feedback.trim().isEmpty()) {
 			            this.feedbackList.add(feedback);
 			            this.modificationDate = new Date();
+			            this.dirty = true;
 			        }
 			    }
 			
+			    // Seguimiento de cambios
+			
+			    @Override
+			    public boolean isDirty() {
+			        return dirty;
+			    }
+			
+			    /**
+			     * Marca el Learning Path como modificado. Se usa cuando cambia el estado interno de
+			     * sus actividades (por ejemplo, respuestas a una encuesta), que no pasa por sus métodos.
+			     */
+			    @Override
+			    public void markDirty() {
+			        dirty = true;
+			    }
+			
+			    @Override
+			    public void clearDirty() {
+			        dirty = false;
+			    }
+			
+			    // Identificador
+			
+			    /**
+			     * Obtiene el identificador estable del Learning Path.
+			     */
+			    public int getId() {
+			        return id;
+			    }
+			
+			    /**
+			     * Restaura el identificador guardado. Solo debe usarlo la capa de persistencia.
+			     *
+			     * @param id El identificador persistido.
+			     */
+			    public void restoreId(int id) {
+			        this.id = id;
+			        IDS.observe(id);
+			    }
+			
+			    /**
+			     * Identificador de un Learning Path guardado antes de que existieran los identificadores,
+			     * derivado del título y el usuario del creador.
+			     */
+			    public static int legacyId(String title, String creatorUsername) {
+			        return IdSequence.legacyId(title, creatorUsername);
+			    }
+			
 			    // Getters
 			
 			    public String getTitle() {
@@ -293,24 +392,98 @@
 			        return activities;
 			    }
 			
+			    /**
+			     * Obtiene las actividades en orden junto con su índice actividad → posición, compartido
+			     * por los progresos del Learning Path para ubicar cada actividad en O(1). El índice se
+			     * reconstruye solo si la lista cambió desde la última vez, lo que se comprueba por identidad.
+			     */
+			    ActivityPositions getActivityPositions() {
+			        Activity[] current = activities.toArray(new Activity[0]);
+			        ActivityPositions cached = activityPositions;
+			        if (cached == null || !cached.matches(current)) {
+			            cached = new ActivityPositions(current);
+			            activityPositions = cached;
+			        }
+			        return cached;
+			    }
+			
 			    public List<String> getFeedbackList() {
 			        return feedbackList;
 			    }
 			
-			    // Sobrescribir equals y hashCode basados en title y creator (asumiendo que juntos son únicos)
+			    // equals y hashCode basados en el identificador: las copias cargadas desde distintos
+			    // archivos son iguales aunque su creador sea otra instancia del mismo profesor.
 			
 			    @Override
 			    
 			    public boolean equals(Object o) {
 			        if (this == o) return true;
 			        if (!(o instanceof LearningPath)) return false;
-			        LearningPath that = (LearningPath) o;
-			        return title.equals(that.title) && creator.equals(that.creator);
+			        return id == ((LearningPath) o).id;
 			    }
 		
 			    @Override
 			    public int hashCode() {
-			        return Objects.hash(title, creator);
+			        return id;
+			    }
+
+			    /**
+			     * Los datos serializados antes de existir el identificador reciben uno derivado.
+			     */
+			    private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
+			        ois.defaultReadObject();
+			        // Las versiones anteriores serializaban ArrayList.
+			        activities = new CopyOnWriteArrayList<>(activities);
+			        feedbackList = new CopyOnWriteArrayList<>(feedbackList);
+			        if (id == 0) {
+			            id = legacyId(title, creator.getUsername());
+			        } else {
+			            IDS.observe(id);
+			        }
+			    }
+			
+			    /**
+			     * Actividades de un Learning Path en un instante y la posición de cada una (la primera,
+			     * si está repetida). Es inmutable, así que puede compartirse entre hilos.
+			     */
+			    static final class ActivityPositions {
+			        private final Activity[] activities;
+			        private final Map<Activity, Integer> positions;
+			
+			        private ActivityPositions(Activity[] activities) {
+			            this.activities = activities;
+			            this.positions = new HashMap<>(activities.length * 2);
+			            for (int i = 0; i < activities.length; i++) {
+			                positions.putIfAbsent(activities[i], i);
+			            }
+			        }
+			
+			        /**
+			         * Obtiene una copia de las actividades, en orden.
+			         */
+			        Activity[] toArray() {
+			            return activities.clone();
+			        }
+			
+			        /**
+			         * Obtiene la posición de una actividad, o -1 si no está.
+			         */
+			        int positionOf(Activity activity) {
+			            Integer position = positions.get(activity);
+			            return position == null ? -1 : position;
+			        }
+			
+			        private boolean matches(Activity[] current) {
+			            if (current.length != activities.length) {
+			                return false;
+			            }
+			            for (int i = 0; i < current.length; i++) {
+			                if (current[i] != activities[i]) {
+			                    return false;
+			                }
+			            }
+			            return true;
+			        }
 			    }
 			    
 			    
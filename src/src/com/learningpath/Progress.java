@@ -5,27 +5,104 @@ import src.com.learningpath.users.Student;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Clase que representa el progreso de un estudiante en un Learning Path.
+ * <p>
+ * El estado y la fecha de completado de cada actividad se guardan en arreglos densos
+ * indexados por la posición de la actividad ({@code slots}, que empieza con las
+ * actividades del Learning Path en orden): el estado como un byte y la fecha como días
+ * desde la época. Así cada inscripción ocupa unos pocos bytes por actividad en lugar de
+ * dos entradas de HashMap y un LocalDate. {@link #getActivityStatuses()} y
+ * {@link #getCompletionDates()} exponen vistas de mapa sobre esos arreglos.
+ * <p>
+ * Concurrencia: cada progreso es su propio lock. Los arreglos de estados y fechas solo se
+ * leen y escriben con el monitor del progreso; las respuestas están en mapas concurrentes
+ * que se leen sin lock. Progresos distintos no comparten ningún lock, así que las entregas
+ * de distintos estudiantes no se bloquean entre sí. El contrato es:
+ * <ul>
+ *     <li>Toda mutación hecha antes de que vuelva un método de este progreso es visible para
+ *     cualquier lectura posterior en otro hilo (happens-before por el monitor del progreso o
+ *     por el mapa concurrente).</li>
+ *     <li>Los observadores se notifican fuera del monitor, pero en el mismo orden en que se
+ *     aplicaron las mutaciones: dos cambios simultáneos llegan al journal en el orden en que
+ *     quedaron en memoria. Un guardado que lee el progreso nunca espera a un observador.</li>
+ *     <li>Las listas de respuestas de un Quiz se copian al guardarse y las respuestas de
+ *     encuestas y exámenes no deben modificarse después de añadirse.</li>
+ *     <li>Las vistas de mapa y sus iteradores son consistentes: muestran el progreso en un
+ *     único instante, aunque cambie mientras se recorren.</li>
+ * </ul>
  */
-public class Progress implements Serializable {
+public class Progress implements Serializable, DirtyTracked {
     private static final long serialVersionUID = 2L; // Actualizado después de añadir nuevos campos
 
-    private Student student;
-    private LearningPath learningPath;
-    private Map<Activity, ActivityStatus> activityStatuses;
+    // La forma serializada conserva los mapas de versiones anteriores.
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("student", Student.class),
+            new ObjectStreamField("learningPath", LearningPath.class),
+            new ObjectStreamField("activityStatuses", Map.class),
+            new ObjectStreamField("surveyResponses", Map.class),
+            new ObjectStreamField("examResponses", Map.class),
+            new ObjectStreamField("quizResponses", Map.class),
+            new ObjectStreamField("completionDates", Map.class)
+    };
+
+    // Códigos de estado que no son un ordinal de ActivityStatus.
+    private static final byte ABSENT = -2;
+    private static final byte NULL_STATUS = -1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final ActivityStatus[] STATUSES = ActivityStatus.values();
+
+    private volatile Student student;
+    private volatile LearningPath learningPath;
     private Map<Survey, SurveyResponse> surveyResponses;
     private Map<OpenEndedExam, OpenEndedResponse> examResponses;
     private Map<Quiz, List<Integer>> quizResponses;
 
-    // Nuevo mapa para almacenar la fecha de completado/entrega de las actividades.
-    private Map<Activity, LocalDate> completionDates;
+    // Actividades por posición, y su estado (ordinal, ABSENT o NULL_STATUS) y fecha de
+    // completado (día desde la época o NO_DATE) en la misma posición. Las fechas se crean
+    // con la primera que se registra.
+    private transient Activity[] slots;
+    // Índice del Learning Path con el que se crearon los slots: sus posiciones son las primeras
+    // de slots. Las actividades añadidas después van en extraSlots, que se crea al necesitarse.
+    private transient LearningPath.ActivityPositions slotPositions;
+    private transient Map<Activity, Integer> extraSlots;
+    private transient byte[] statuses;
+    private transient int[] dates;
+    // Cantidad de actividades con estado (posiciones distintas de ABSENT) y con fecha.
+    private transient int statusSize;
+    private transient int dateSize;
+
+    // Observadores de las mutaciones (journal, índices...). No se persisten.
+    private transient List<ProgressListener> listeners;
+    // Ordena las notificaciones: se toma antes que el monitor del progreso y se suelta después
+    // de notificar, de modo que los observadores reciben los cambios en el orden en que se aplicaron.
+    private transient Object notificationLock;
+
+    // Cantidad de actividades en cada estado, indexada por ordinal de ActivityStatus.
+    // Se mantiene en cada cambio de estado y se reconstruye al deserializar.
+    private transient int[] statusCounts;
+
+    // Cambios pendientes de guardar. Al deserializar queda en false.
+    private transient volatile boolean dirty = true;
 
     /**
      * Constructor para crear un progreso de Learning Path.
@@ -36,16 +113,16 @@ public class Progress implements Serializable {
     public Progress(Student student, LearningPath learningPath) {
         this.student = student;
         this.learningPath = learningPath;
-        this.activityStatuses = new HashMap<>();
-        this.surveyResponses = new HashMap<>();
-        this.examResponses = new HashMap<>();
-        this.quizResponses = new HashMap<>();
-        this.completionDates = new HashMap<>();
+        this.surveyResponses = new ConcurrentHashMap<>();
+        this.examResponses = new ConcurrentHashMap<>();
+        this.quizResponses = new ConcurrentHashMap<>();
+        initConcurrency();
 
         // Inicializar estados de actividades
-        for (Activity activity : learningPath.getActivities()) {
-            activityStatuses.put(activity, ActivityStatus.PENDING);
-        }
+        initSlots();
+        Arrays.fill(statuses, (byte) ActivityStatus.PENDING.ordinal());
+        statusSize = slots.length;
+        rebuildStatusCounts();
     }
 
     // Getters y setters
@@ -62,6 +139,7 @@ public class Progress implements Serializable {
      */
     public void setStudent(Student student) {
         this.student = student;
+        this.dirty = true;
     }
 
     /**
@@ -76,13 +154,30 @@ public class Progress implements Serializable {
      */
     public void setLearningPath(LearningPath learningPath) {
         this.learningPath = learningPath;
+        this.dirty = true;
     }
 
     /**
-     * Obtiene el estado de todas las actividades.
+     * Obtiene el estado de todas las actividades, en el orden del Learning Path. El mapa es
+     * una vista de solo lectura: los cambios de estado deben pasar por
+     * {@link #updateActivityStatus(Activity, ActivityStatus)} para mantener los contadores.
      */
     public Map<Activity, ActivityStatus> getActivityStatuses() {
-        return activityStatuses;
+        return Collections.unmodifiableMap(new StatusView());
+    }
+
+    /**
+     * Reemplaza el estado de todas las actividades sin notificar a los observadores.
+     * Se usa al restaurar un progreso desde la capa de persistencia.
+     */
+    public synchronized void setActivityStatuses(Map<Activity, ActivityStatus> activityStatuses) {
+        Arrays.fill(statuses, ABSENT);
+        statusSize = 0;
+        for (Map.Entry<Activity, ActivityStatus> entry : activityStatuses.entrySet()) {
+            setStatus(slotOf(entry.getKey(), true), entry.getValue());
+        }
+        rebuildStatusCounts();
+        this.dirty = true;
     }
 
     /**
@@ -107,17 +202,23 @@ public class Progress implements Serializable {
     }
 
     /**
-     * Obtiene las fechas de completado de las actividades.
+     * Obtiene las fechas de completado de las actividades. El mapa es una vista modificable
+     * sobre el arreglo de fechas; sus cambios no se notifican a los observadores.
      */
     public Map<Activity, LocalDate> getCompletionDates() {
-        return completionDates;
+        return new DateView();
     }
 
     /**
      * Establece las fechas de completado de las actividades.
      */
-    public void setCompletionDates(Map<Activity, LocalDate> completionDates) {
-        this.completionDates = completionDates;
+    public synchronized void setCompletionDates(Map<Activity, LocalDate> completionDates) {
+        dates = null;
+        dateSize = 0;
+        for (Map.Entry<Activity, LocalDate> entry : completionDates.entrySet()) {
+            setDate(slotOf(entry.getKey(), true), entry.getValue());
+        }
+        this.dirty = true;
     }
 
     /**
@@ -127,11 +228,71 @@ public class Progress implements Serializable {
      * @param status   El nuevo estado.
      */
     public void updateActivityStatus(Activity activity, ActivityStatus status) {
-        activityStatuses.put(activity, status);
-        // Si la actividad se completa o se entrega (COMPLETED o SUBMITTED),
-        // registramos la fecha actual como fecha de finalización.
-        if (status == ActivityStatus.COMPLETED || status == ActivityStatus.SUBMITTED) {
-            completionDates.put(activity, LocalDate.now());
+        updateActivityStatus(activity, status, LocalDate.now());
+    }
+
+    /**
+     * Actualiza el estado de una actividad usando una fecha de completado explícita.
+     * Se usa al reproducir el journal para conservar la fecha original.
+     *
+     * @param activity La actividad a actualizar.
+     * @param status   El nuevo estado.
+     * @param date     La fecha a registrar si el estado es COMPLETED o SUBMITTED.
+     */
+    public void updateActivityStatus(Activity activity, ActivityStatus status, LocalDate date) {
+        synchronized (notificationLock) {
+            LocalDate previousCounted;
+            LocalDate counted;
+            LocalDate completionDate = null;
+            synchronized (this) {
+                int slot = slotOf(activity, true);
+                previousCounted = countedDate(slot);
+                setStatus(slot, status);
+                dirty = true;
+                // Si la actividad se completa o se entrega (COMPLETED o SUBMITTED),
+                // registramos la fecha como fecha de finalización.
+                if ((status == ActivityStatus.COMPLETED || status == ActivityStatus.SUBMITTED) && date != null) {
+                    completionDate = date;
+                    setDate(slot, completionDate);
+                }
+                counted = countedDate(slot);
+            }
+            for (ProgressListener listener : listeners) {
+                listener.activityStatusChanged(this, activity, status, completionDate);
+                if (!Objects.equals(previousCounted, counted)) {
+                    listener.completionDateChanged(this, activity, previousCounted, counted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtiene el día en que la actividad cuenta como finalizada: su fecha de completado
+     * si el estado es COMPLETED o SUBMITTED, o null en otro caso.
+     *
+     * @param activity La actividad.
+     * @return El día de finalización o null.
+     */
+    public synchronized LocalDate getCountedCompletionDate(Activity activity) {
+        return countedDate(slotOf(activity, false));
+    }
+
+    /**
+     * Recorre los días en que cuentan como finalizadas las actividades (ver
+     * {@link #getCountedCompletionDate(Activity)}) leyendo directamente los arreglos de
+     * estados y fechas, sin buscar cada actividad.
+     *
+     * @param action Recibe cada día.
+     */
+    public synchronized void forEachCountedCompletionDate(Consumer<LocalDate> action) {
+        if (dates == null) {
+            return;
+        }
+        for (int slot = 0; slot < slots.length; slot++) {
+            LocalDate date = countedDate(slot);
+            if (date != null) {
+                action.accept(date);
+            }
         }
     }
 
@@ -141,20 +302,30 @@ public class Progress implements Serializable {
      * @param activity La actividad.
      * @return El estado de la actividad.
      */
-    public ActivityStatus getActivityStatus(Activity activity) {
-        return activityStatuses.get(activity);
+    public synchronized ActivityStatus getActivityStatus(Activity activity) {
+        int slot = slotOf(activity, false);
+        return slot < 0 ? null : statusAt(slot);
     }
 
     /**
-     * Calcula el porcentaje de actividades completadas.
+     * Obtiene la cantidad de actividades que están en un estado, en O(1).
+     *
+     * @param status El estado.
+     * @return La cantidad de actividades en ese estado.
+     */
+    public synchronized int getStatusCount(ActivityStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    /**
+     * Calcula el porcentaje de actividades completadas (COMPLETED o SUBMITTED) a partir
+     * de los contadores, sin recorrer las actividades.
      *
      * @return El porcentaje completado.
      */
-    public double calculateCompletionPercentage() {
-        int total = activityStatuses.size();
-        long completed = activityStatuses.values().stream()
-                .filter(status -> status == ActivityStatus.COMPLETED || status == ActivityStatus.SUBMITTED)
-                .count();
+    public synchronized double calculateCompletionPercentage() {
+        int total = statusSize;
+        int completed = statusCounts[ActivityStatus.COMPLETED.ordinal()] + statusCounts[ActivityStatus.SUBMITTED.ordinal()];
         return (double) completed / total * 100;
     }
 
@@ -162,7 +333,13 @@ public class Progress implements Serializable {
      * Añade una respuesta a una encuesta específica.
      */
     public void addSurveyResponse(Survey survey, SurveyResponse response) {
-        surveyResponses.put(survey, response);
+        synchronized (notificationLock) {
+            surveyResponses.put(survey, response);
+            dirty = true;
+            for (ProgressListener listener : listeners) {
+                listener.surveyResponseAdded(this, survey, response);
+            }
+        }
     }
 
     /**
@@ -176,7 +353,13 @@ public class Progress implements Serializable {
      * Añade una respuesta a un examen de preguntas abiertas específico.
      */
     public void addExamResponse(OpenEndedExam exam, OpenEndedResponse response) {
-        examResponses.put(exam, response);
+        synchronized (notificationLock) {
+            examResponses.put(exam, response);
+            dirty = true;
+            for (ProgressListener listener : listeners) {
+                listener.examResponseAdded(this, exam, response);
+            }
+        }
     }
 
     /**
@@ -187,10 +370,22 @@ public class Progress implements Serializable {
     }
 
     /**
-     * Guarda las respuestas seleccionadas por el estudiante en un Quiz.
+     * Guarda las respuestas seleccionadas por el estudiante en un Quiz. Se guarda una copia
+     * inmutable de la lista; null elimina las respuestas.
      */
     public void saveQuizResponses(Quiz quiz, List<Integer> chosenOptions) {
-        quizResponses.put(quiz, chosenOptions);
+        List<Integer> saved = chosenOptions == null ? null : Collections.unmodifiableList(new ArrayList<>(chosenOptions));
+        synchronized (notificationLock) {
+            if (saved == null) {
+                quizResponses.remove(quiz);
+            } else {
+                quizResponses.put(quiz, saved);
+            }
+            dirty = true;
+            for (ProgressListener listener : listeners) {
+                listener.quizResponsesSaved(this, quiz, saved);
+            }
+        }
     }
 
     /**
@@ -207,26 +402,353 @@ public class Progress implements Serializable {
      * @param a La actividad.
      * @return La fecha de completado o null si no existe.
      */
-    public LocalDate getCompletionDate(Activity a) {
-        return completionDates.get(a);
+    public synchronized LocalDate getCompletionDate(Activity a) {
+        return dateAt(slotOf(a, false));
+    }
+
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    @Override
+    public void markDirty() {
+        dirty = true;
+    }
+
+    @Override
+    public void clearDirty() {
+        dirty = false;
     }
 
     /**
-     * Método readObject para asegurar que completionDates está inicializado después de la deserialización.
+     * Registra un observador que será notificado de cada mutación de este progreso.
+     *
+     * @param listener El observador a registrar.
      */
-    private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
-        ois.defaultReadObject();
-        if (completionDates == null) {
-            completionDates = new HashMap<>();
+    public void addProgressListener(ProgressListener listener) {
+        if (listener != null) {
+            ((CopyOnWriteArrayList<ProgressListener>) listeners).addIfAbsent(listener);
         }
-        if (activityStatuses == null) {
-            activityStatuses = new HashMap<>();
-            for (Activity activity : learningPath.getActivities()) {
-                activityStatuses.put(activity, ActivityStatus.PENDING);
+    }
+
+    /**
+     * Elimina un observador previamente registrado.
+     *
+     * @param listener El observador a eliminar.
+     */
+    public void removeProgressListener(ProgressListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void rebuildStatusCounts() {
+        statusCounts = new int[STATUSES.length];
+        for (byte code : statuses) {
+            if (code >= 0) {
+                statusCounts[code]++;
             }
         }
     }
-}
 
+    // Almacenamiento denso
+
+    private void initSlots() {
+        slotPositions = learningPath.getActivityPositions();
+        slots = slotPositions.toArray();
+        extraSlots = null;
+        statuses = new byte[slots.length];
+        Arrays.fill(statuses, ABSENT);
+        dates = null;
+        statusSize = 0;
+        dateSize = 0;
+    }
+
+    /**
+     * Busca la posición de una actividad en O(1): las del Learning Path en el índice que
+     * comparten sus progresos y las añadidas después en {@code extraSlots}. Las actividades
+     * se comparan por id, como en su equals().
+     *
+     * @param create Si la actividad no está, se añade una posición nueva al final.
+     * @return La posición, o -1 si no está y create es false.
+     */
+    private int slotOf(Activity activity, boolean create) {
+        int slot = slotPositions.positionOf(activity);
+        if (slot >= 0) {
+            return slot;
+        }
+        Integer extra = extraSlots == null ? null : extraSlots.get(activity);
+        if (extra != null) {
+            return extra;
+        }
+        if (!create) {
+            return -1;
+        }
+        slot = slots.length;
+        slots = Arrays.copyOf(slots, slot + 1);
+        slots[slot] = activity;
+        statuses = Arrays.copyOf(statuses, slot + 1);
+        statuses[slot] = ABSENT;
+        if (dates != null) {
+            dates = Arrays.copyOf(dates, slot + 1);
+            dates[slot] = NO_DATE;
+        }
+        if (extraSlots == null) {
+            extraSlots = new HashMap<>(4);
+        }
+        extraSlots.put(activity, slot);
+        return slot;
+    }
+
+    private ActivityStatus statusAt(int slot) {
+        byte code = statuses[slot];
+        return code < 0 ? null : STATUSES[code];
+    }
+
+    private void setStatus(int slot, ActivityStatus status) {
+        byte previous = statuses[slot];
+        if (previous == ABSENT) {
+            statusSize++;
+        } else if (previous >= 0) {
+            statusCounts[previous]--;
+        }
+        statuses[slot] = status == null ? NULL_STATUS : (byte) status.ordinal();
+        if (status != null) {
+            statusCounts[status.ordinal()]++;
+        }
+    }
+
+    private LocalDate dateAt(int slot) {
+        if (slot < 0 || dates == null || dates[slot] == NO_DATE) {
+            return null;
+        }
+        return LocalDate.ofEpochDay(dates[slot]);
+    }
+
+    private void setDate(int slot, LocalDate date) {
+        if (dates == null) {
+            if (date == null) {
+                return;
+            }
+            dates = new int[slots.length];
+            Arrays.fill(dates, NO_DATE);
+        }
+        boolean had = dates[slot] != NO_DATE;
+        dates[slot] = date == null ? NO_DATE : (int) date.toEpochDay();
+        dateSize += (date != null ? 1 : 0) - (had ? 1 : 0);
+    }
+
+    private LocalDate countedDate(int slot) {
+        if (slot < 0) {
+            return null;
+        }
+        byte code = statuses[slot];
+        if (code == ActivityStatus.COMPLETED.ordinal() || code == ActivityStatus.SUBMITTED.ordinal()) {
+            return dateAt(slot);
+        }
+        return null;
+    }
+
+    /**
+     * Vista de solo lectura del estado de las actividades.
+     */
+    private class StatusView extends AbstractMap<Activity, ActivityStatus> {
+        @Override
+        public int size() {
+            synchronized (Progress.this) {
+                return statusSize;
+            }
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            synchronized (Progress.this) {
+                int slot = key instanceof Activity ? slotOf((Activity) key, false) : -1;
+                return slot >= 0 && statuses[slot] != ABSENT;
+            }
+        }
+
+        @Override
+        public ActivityStatus get(Object key) {
+            return key instanceof Activity ? getActivityStatus((Activity) key) : null;
+        }
+
+        @Override
+        public Set<Entry<Activity, ActivityStatus>> entrySet() {
+            return new SlotEntrySet<ActivityStatus>(this) {
+                @Override
+                boolean present(int slot) {
+                    return statuses[slot] != ABSENT;
+                }
+
+                @Override
+                ActivityStatus value(int slot) {
+                    return statusAt(slot);
+                }
+            };
+        }
+    }
 
+    /**
+     * Vista modificable de las fechas de completado.
+     */
+    private class DateView extends AbstractMap<Activity, LocalDate> {
+        @Override
+        public int size() {
+            synchronized (Progress.this) {
+                return dateSize;
+            }
+        }
 
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public LocalDate get(Object key) {
+            return key instanceof Activity ? getCompletionDate((Activity) key) : null;
+        }
+
+        @Override
+        public LocalDate put(Activity key, LocalDate value) {
+            synchronized (Progress.this) {
+                int slot = slotOf(key, true);
+                LocalDate previous = dateAt(slot);
+                setDate(slot, value);
+                dirty = true;
+                return previous;
+            }
+        }
+
+        @Override
+        public LocalDate remove(Object key) {
+            synchronized (Progress.this) {
+                int slot = key instanceof Activity ? slotOf((Activity) key, false) : -1;
+                LocalDate previous = dateAt(slot);
+                if (previous != null) {
+                    setDate(slot, null);
+                    dirty = true;
+                }
+                return previous;
+            }
+        }
+
+        @Override
+        public Set<Entry<Activity, LocalDate>> entrySet() {
+            return new SlotEntrySet<LocalDate>(this) {
+                @Override
+                boolean present(int slot) {
+                    return dates != null && dates[slot] != NO_DATE;
+                }
+
+                @Override
+                LocalDate value(int slot) {
+                    return dateAt(slot);
+                }
+            };
+        }
+    }
+
+    /**
+     * Conjunto de entradas que recorre las posiciones presentes en orden. El iterador copia
+     * las entradas con el monitor del progreso, así que no ve cambios hechos mientras recorre.
+     */
+    private abstract class SlotEntrySet<V> extends AbstractSet<Map.Entry<Activity, V>> {
+        private final Map<Activity, V> view;
+
+        SlotEntrySet(Map<Activity, V> view) {
+            this.view = view;
+        }
+
+        abstract boolean present(int slot);
+
+        abstract V value(int slot);
+
+        @Override
+        public int size() {
+            return view.size();
+        }
+
+        @Override
+        public Iterator<Map.Entry<Activity, V>> iterator() {
+            List<Map.Entry<Activity, V>> entries = new ArrayList<>();
+            synchronized (Progress.this) {
+                for (int slot = 0; slot < slots.length; slot++) {
+                    if (present(slot)) {
+                        entries.add(new AbstractMap.SimpleImmutableEntry<>(slots[slot], value(slot)));
+                    }
+                }
+            }
+            return Collections.unmodifiableList(entries).iterator();
+        }
+    }
+
+    // Se llama desde el constructor y desde readObject, antes de que el progreso se publique.
+    private void initConcurrency() {
+        listeners = new CopyOnWriteArrayList<>();
+        notificationLock = new Object();
+    }
+
+    /**
+     * Escribe los estados y fechas como mapas, igual que las versiones anteriores.
+     */
+    private synchronized void writeObject(ObjectOutputStream oos) throws IOException {
+        ObjectOutputStream.PutField fields = oos.putFields();
+        fields.put("student", student);
+        fields.put("learningPath", learningPath);
+        fields.put("activityStatuses", new HashMap<>(new StatusView()));
+        fields.put("surveyResponses", new HashMap<>(surveyResponses));
+        fields.put("examResponses", new HashMap<>(examResponses));
+        fields.put("quizResponses", new HashMap<>(quizResponses));
+        fields.put("completionDates", new HashMap<>(new DateView()));
+        oos.writeFields();
+    }
+
+    /**
+     * Método readObject que convierte los mapas serializados al almacenamiento denso y
+     * reconstruye los contadores de estados, que no se serializan. Si faltan los estados
+     * o las fechas (versiones anteriores), se inicializan.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
+        ObjectInputStream.GetField fields = ois.readFields();
+        student = (Student) fields.get("student", null);
+        learningPath = (LearningPath) fields.get("learningPath", null);
+        surveyResponses = concurrentCopy((Map<Survey, SurveyResponse>) fields.get("surveyResponses", null));
+        examResponses = concurrentCopy((Map<OpenEndedExam, OpenEndedResponse>) fields.get("examResponses", null));
+        quizResponses = concurrentCopy((Map<Quiz, List<Integer>>) fields.get("quizResponses", null));
+        initConcurrency();
+        Map<Activity, ActivityStatus> activityStatuses = (Map<Activity, ActivityStatus>) fields.get("activityStatuses", null);
+        Map<Activity, LocalDate> completionDates = (Map<Activity, LocalDate>) fields.get("completionDates", null);
+
+        initSlots();
+        statusCounts = new int[STATUSES.length];
+        if (activityStatuses == null) {
+            Arrays.fill(statuses, (byte) ActivityStatus.PENDING.ordinal());
+            statusSize = slots.length;
+        } else {
+            for (Map.Entry<Activity, ActivityStatus> entry : activityStatuses.entrySet()) {
+                setStatus(slotOf(entry.getKey(), true), entry.getValue());
+            }
+        }
+        if (completionDates != null) {
+            for (Map.Entry<Activity, LocalDate> entry : completionDates.entrySet()) {
+                setDate(slotOf(entry.getKey(), true), entry.getValue());
+            }
+        }
+        rebuildStatusCounts();
+    }
+
+    // Los mapas serializados son HashMap y pueden tener valores null, que no se conservan.
+    private static <K, V> Map<K, V> concurrentCopy(Map<K, V> map) {
+        Map<K, V> copy = new ConcurrentHashMap<>();
+        if (map != null) {
+            for (Map.Entry<K, V> entry : map.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    copy.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,61 @@
+package src.com.learningpath;
+
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.OpenEndedExam;
+import src.com.learningpath.activities.OpenEndedResponse;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Observador de las mutaciones de un {@link Progress}.
+ * Todos los métodos tienen una implementación vacía para que cada
+ * observador sobrescriba únicamente los eventos que le interesan.
+ */
+public interface ProgressListener {
+
+    /**
+     * Se invoca después de cambiar el estado de una actividad.
+     *
+     * @param progress       El progreso modificado.
+     * @param activity       La actividad cuyo estado cambió.
+     * @param status         El nuevo estado.
+     * @param completionDate La fecha de completado registrada, o null si no aplica.
+     */
+    default void activityStatusChanged(Progress progress, Activity activity, ActivityStatus status, LocalDate completionDate) {
+    }
+
+    /**
+     * Se invoca cuando cambia el día en que una actividad cuenta como finalizada
+     * (estado COMPLETED o SUBMITTED con fecha de completado).
+     *
+     * @param progress     El progreso modificado.
+     * @param activity     La actividad.
+     * @param previousDate El día en que contaba antes, o null si no contaba.
+     * @param newDate      El día en que cuenta ahora, o null si dejó de contar.
+     */
+    default void completionDateChanged(Progress progress, Activity activity, LocalDate previousDate, LocalDate newDate) {
+    }
+
+    /**
+     * Se invoca después de guardar las respuestas de un Quiz.
+     */
+    default void quizResponsesSaved(Progress progress, Quiz quiz, List<Integer> chosenOptions) {
+    }
+
+    /**
+     * Se invoca después de añadir la respuesta a una encuesta.
+     */
+    default void surveyResponseAdded(Progress progress, Survey survey, SurveyResponse response) {
+    }
+
+    /**
+     * Se invoca después de añadir la respuesta a un examen de preguntas abiertas.
+     */
+    default void examResponseAdded(Progress progress, OpenEndedExam exam, OpenEndedResponse response) {
+    }
+}
@@ -0,0 +1,153 @@
+package src.com.learningpath;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Lista respaldada por un arreglo que entrega instantáneas inmutables en tiempo constante.
+ * <p>
+ * Una instantánea comparte el arreglo de la lista y recuerda su tamaño. Añadir al final
+ * escribe en posiciones que ninguna instantánea lee, así que no copia nada mientras haya
+ * capacidad; al crecer, reemplazar, insertar o quitar, el arreglo se copia solo si alguna
+ * instantánea lo comparte. Como las colecciones de datos casi solo crecen, las instantáneas
+ * cuestan lo mismo que un {@code ArrayList}.
+ * <p>
+ * La lista no es segura entre hilos: las mutaciones y {@link #snapshot()} deben hacerse con
+ * el mismo lock. Las instantáneas sí pueden leerse desde cualquier hilo que las reciba por
+ * una vía que establezca happens-before (un lock, un ejecutor o un campo volatile).
+ */
+public class SnapshotList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] elements;
+    private int size;
+    // El arreglo actual lo lee al menos una instantánea: sus primeras size posiciones no se pueden modificar.
+    private boolean shared;
+
+    public SnapshotList() {
+        elements = EMPTY;
+    }
+
+    public SnapshotList(Collection<? extends E> items) {
+        elements = items.toArray();
+        size = elements.length;
+    }
+
+    /**
+     * Obtiene una instantánea de la lista: no cambia aunque la lista cambie después.
+     */
+    public List<E> snapshot() {
+        shared = true;
+        return new Frozen<>(elements, size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkIndex(index, size);
+        return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        checkIndex(index, size);
+        unshare(size);
+        E previous = (E) elements[index];
+        elements[index] = element;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fuera de rango: " + size);
+        }
+        if (size == elements.length) {
+            grow();
+        } else if (index < size) {
+            unshare(size + 1);
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        checkIndex(index, size);
+        unshare(size);
+        E removed = (E) elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        // Las instantáneas conservan el arreglo anterior.
+        elements = EMPTY;
+        size = 0;
+        shared = false;
+        modCount++;
+    }
+
+    // Métodos auxiliares
+
+    private void grow() {
+        elements = Arrays.copyOf(elements, Math.max(10, elements.length + (elements.length >> 1)));
+        shared = false;
+    }
+
+    private void unshare(int capacity) {
+        if (shared) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, elements.length));
+            shared = false;
+        }
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fuera de rango: " + size);
+        }
+    }
+
+    /**
+     * Vista inmutable de las primeras {@code size} posiciones de un arreglo compartido.
+     */
+    private static final class Frozen<E> extends AbstractList<E> implements RandomAccess {
+        private final Object[] elements;
+        private final int size;
+
+        Frozen(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            checkIndex(index, size);
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package src.com.learningpath.activities;
 
+import src.com.learningpath.IdSequence;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.List;
@@ -11,6 +15,12 @@ import java.util.Set;
 public abstract class Activity implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    private static final IdSequence IDS = new IdSequence();
+
+    // Identificador estable asignado al crear la actividad y persistido con ella.
+    // Es la identidad de la actividad en equals/hashCode y en las claves de Progress.
+    private int id;
+
     // Campos comunes a todas las actividades
     protected String title;
     private String instructions;
@@ -39,6 +49,7 @@ public abstract class Activity implements Serializable {
         this.difficultyLevel = difficultyLevel;
         this.expectedDuration = expectedDuration;
         this.isMandatory = isMandatory;
+        this.id = IDS.next();
     }
 
     /**
@@ -58,6 +69,31 @@ public abstract class Activity implements Serializable {
         // Inicializar tipos si es necesario
     }
 
+    /**
+     * Obtiene el identificador estable de la actividad.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Restaura el identificador guardado. Solo debe usarlo la capa de persistencia.
+     *
+     * @param id El identificador persistido.
+     */
+    public void restoreId(int id) {
+        this.id = id;
+        IDS.observe(id);
+    }
+
+    /**
+     * Identificador de una actividad guardada antes de que existieran los identificadores,
+     * derivado del título y la descripción que antes definían su igualdad.
+     */
+    public static int legacyId(String title, String description) {
+        return IdSequence.legacyId(title, description);
+    }
+
     // Getters para los campos protegidos
     public String getTitle() {
         return title;
@@ -97,18 +133,30 @@ public abstract class Activity implements Serializable {
     // Método abstracto para obtener el tipo de actividad
     public abstract String getType();
 
-    // Sobrescribir equals y hashCode basados en title y description (asumiendo que juntos son únicos)
+    // equals y hashCode basados en el identificador: las copias de una actividad cargadas desde
+    // distintos archivos son iguales, y dos actividades con el mismo título y descripción no.
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
-        if (!(obj instanceof Activity)) return false;
-        Activity other = (Activity) obj;
-        return title.equals(other.title) && description.equals(other.description);
+        if (obj == null || obj.getClass() != getClass()) return false;
+        return id == ((Activity) obj).id;
     }
 
     @Override
     public int hashCode() {
-        return title.hashCode() * 31 + description.hashCode();
+        return id;
+    }
+
+    /**
+     * Los datos serializados antes de existir el identificador reciben uno derivado.
+     */
+    private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
+        ois.defaultReadObject();
+        if (id == 0) {
+            id = legacyId(title, description);
+        } else {
+            IDS.observe(id);
+        }
     }
 }
 
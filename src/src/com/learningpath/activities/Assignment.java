@@ -18,18 +18,4 @@ public class Assignment extends Activity implements Serializable {
     public String getType() {
         return "Assignment";
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Assignment)) return false;
-        Assignment that = (Assignment) o;
-        return this.getTitle().equals(that.getTitle()) &&
-               this.getDescription().equals(that.getDescription());
-    }
-
-    @Override
-    public int hashCode() {
-        return java.util.Objects.hash(getTitle(), getDescription());
-    }
 }
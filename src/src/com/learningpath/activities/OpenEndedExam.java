@@ -1,16 +1,20 @@
 package src.com.learningpath.activities;
 
+import src.com.learningpath.SnapshotList;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
 
 public class OpenEndedExam extends Activity implements Serializable {
     private static final long serialVersionUID = 1L;
     private List<OpenEndedQuestion> questions;
     private List<OpenEndedQuestion> examQuestions;
+    // Solo se modifica con el monitor de la actividad; los lectores reciben instantáneas.
     private List<OpenEndedResponse> examResponses;
     private String instructionsFile;
 
@@ -19,7 +23,7 @@ public class OpenEndedExam extends Activity implements Serializable {
                          List<OpenEndedQuestion> openEndedQuestions) {
         super(title, description, objective, difficultyLevel, expectedDuration, isMandatory);
         this.examQuestions = openEndedQuestions;
-        this.examResponses = new ArrayList<>();
+        this.examResponses = new SnapshotList<>();
         this.questions = new ArrayList<>();
         // types no se usa directamente acá, pero se podría almacenar si se desea
     }
@@ -32,11 +36,15 @@ public class OpenEndedExam extends Activity implements Serializable {
         examQuestions.add(question);
     }
 
-    public List<OpenEndedResponse> getExamResponses() {
-        return examResponses;
+    /**
+     * Obtiene las respuestas recibidas hasta ahora. La lista es una instantánea inmutable:
+     * se puede recorrer mientras otros estudiantes siguen respondiendo.
+     */
+    public synchronized List<OpenEndedResponse> getExamResponses() {
+        return ((SnapshotList<OpenEndedResponse>) examResponses).snapshot();
     }
 
-    public void addExamResponse(OpenEndedResponse response) {
+    public synchronized void addExamResponse(OpenEndedResponse response) {
         examResponses.add(response);
     }
 
@@ -63,18 +71,9 @@ public class OpenEndedExam extends Activity implements Serializable {
         this.instructionsFile = instructionsFile;
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof OpenEndedExam)) return false;
-        OpenEndedExam that = (OpenEndedExam) o;
-        return getTitle().equals(that.getTitle()) &&
-               getDescription().equals(that.getDescription());
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(getTitle(), getDescription());
+    // Las versiones anteriores serializaban las respuestas en un ArrayList.
+    private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
+        ois.defaultReadObject();
+        examResponses = new SnapshotList<>(examResponses);
     }
 }
-
@@ -26,7 +26,20 @@ public class Question implements Serializable {
     public int getCorrectOptionIndex() {
         return correctOptionIndex;
     }
-    
+
+    /**
+     * Corrige la opción correcta. Las entregas ya calificadas no cambian: hay que
+     * recalificarlas con {@code QuizRegrader}.
+     *
+     * @throws IllegalArgumentException Si el índice no corresponde a ninguna opción.
+     */
+    public void setCorrectOptionIndex(int correctOptionIndex) {
+        if (correctOptionIndex < 0 || correctOptionIndex >= options.length) {
+            throw new IllegalArgumentException("Opción fuera de rango: " + correctOptionIndex);
+        }
+        this.correctOptionIndex = correctOptionIndex;
+    }
+
 
     public String getExplanation() {
         return explanation;
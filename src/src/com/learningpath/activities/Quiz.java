@@ -1,7 +1,6 @@
 package src.com.learningpath.activities;
 
 import java.util.List;
-import java.util.Objects;
 
 public class Quiz extends Activity {
     private List<Question> questions;
@@ -20,20 +19,6 @@ public class Quiz extends Activity {
     public double getPassingScore() {
         return passingScore;
     }
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Survey)) return false;
-        Survey other = (Survey) o;
-        return this.getTitle().equals(other.getTitle()) &&
-               this.getDescription().equals(other.getDescription());
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(getTitle(), getDescription());
-    }
-
 
     @Override
     public String getType() {
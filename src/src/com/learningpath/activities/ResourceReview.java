@@ -1,7 +1,6 @@
 package src.com.learningpath.activities;
 
 import java.io.Serializable;
-import java.util.Objects;
 
 /**
  * Clase que representa una actividad de revisión de un recurso.
@@ -35,19 +34,5 @@ public class ResourceReview extends Activity implements Serializable {
     public String getType() {
         return "Resource Review";
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof ResourceReview)) return false;
-        ResourceReview that = (ResourceReview) o;
-        return getTitle().equals(that.getTitle()) &&
-               getDescription().equals(that.getDescription());
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(getTitle(), getDescription());
-    }
 }
 
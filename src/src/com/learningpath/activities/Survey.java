@@ -1,20 +1,24 @@
 package src.com.learningpath.activities;
 
+import src.com.learningpath.SnapshotList;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 public class Survey extends Activity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private List<SurveyQuestion> surveyQuestions;
+    // Solo se modifica con el monitor de la actividad; los lectores reciben instantáneas.
     private List<SurveyResponse> surveyResponses;
 
     public Survey(String title, String description, String objective, int difficultyLevel, int expectedDuration, boolean isMandatory) {
         super(title, description, objective, difficultyLevel, expectedDuration, isMandatory);
         this.surveyQuestions = new ArrayList<>();
-        this.surveyResponses = new ArrayList<>();
+        this.surveyResponses = new SnapshotList<>();
     }
 
     public void addSurveyQuestion(SurveyQuestion question) {
@@ -25,12 +29,16 @@ public class Survey extends Activity implements Serializable {
         return surveyQuestions;
     }
 
-    public void addSurveyResponse(SurveyResponse response) {
+    public synchronized void addSurveyResponse(SurveyResponse response) {
         surveyResponses.add(response);
     }
 
-    public List<SurveyResponse> getSurveyResponses() {
-        return surveyResponses;
+    /**
+     * Obtiene las respuestas recibidas hasta ahora. La lista es una instantánea inmutable:
+     * se puede recorrer mientras otros estudiantes siguen respondiendo.
+     */
+    public synchronized List<SurveyResponse> getSurveyResponses() {
+        return ((SnapshotList<SurveyResponse>) surveyResponses).snapshot();
     }
 
     @Override
@@ -38,18 +46,9 @@ public class Survey extends Activity implements Serializable {
         return "Survey";
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Survey)) return false;
-        Survey that = (Survey) o;
-        return getTitle().equals(that.getTitle()) &&
-               getDescription().equals(that.getDescription());
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(getTitle(), getDescription());
+    // Las versiones anteriores serializaban las respuestas en un ArrayList.
+    private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
+        ois.defaultReadObject();
+        surveyResponses = new SnapshotList<>(surveyResponses);
     }
 }
-
@@ -0,0 +1,245 @@
+package src.com.learningpath.analytics;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.ProgressListener;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.data.codec.MappedProgressStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Histograma preagregado de actividades finalizadas por día, usado por el mapa de calor anual.
+ * <p>
+ * Por cada año se guarda un {@code int[366]} indexado por día del año, con el total general
+ * y desgloses por profesor (usuario del creador) y por Learning Path (su id). Una actividad cuenta en
+ * el día de su fecha de completado mientras su estado sea COMPLETED o SUBMITTED, igual que el
+ * recorrido que hacía MainFrame. El histograma se actualiza como {@link ProgressListener} con
+ * cada cambio de estado, de modo que consultar un año cuesta O(días) y no O(progresos).
+ * <p>
+ * Se persiste junto a cada snapshot; {@link #getProgressCount()} y {@link #getProgressChecksum()}
+ * indican con qué archivo de progresos era consistente, para detectar archivos desactualizados
+ * (por ejemplo, si al cargar se recuperó la copia {@code .bak} de los progresos).
+ */
+public class CompletionHistogram implements ProgressListener {
+    // La versión 2 identifica los Learning Paths por id y la 3 guarda la suma de verificación
+    // de los progresos; los archivos anteriores se reconstruyen.
+    private static final int VERSION = 3;
+    private static final int DAYS = 366;
+
+    private final Map<Integer, int[]> totals = new HashMap<>();
+    private final Map<String, Map<Integer, int[]>> byTeacher = new HashMap<>();
+    private final Map<Integer, Map<Integer, int[]>> byPath = new HashMap<>();
+    private int progressCount;
+    private long progressChecksum = -1;
+
+    /**
+     * Construye el histograma recorriendo todos los progresos. Solo se usa cuando no hay un
+     * histograma persistido válido. Se leen los estados y fechas de cada progreso; en un
+     * {@link MappedProgressStore} los registros no se decodifican.
+     *
+     * @param progresses Los progresos.
+     * @return El histograma.
+     */
+    public static CompletionHistogram build(List<Progress> progresses) {
+        CompletionHistogram histogram = new CompletionHistogram();
+        if (progresses instanceof MappedProgressStore) {
+            ((MappedProgressStore) progresses).forEachCountedCompletionDate((lp, date) -> histogram.add(lp, date, 1));
+        } else {
+            for (Progress p : progresses) {
+                LearningPath lp = p.getLearningPath();
+                p.forEachCountedCompletionDate(date -> histogram.add(lp, date, 1));
+            }
+        }
+        histogram.progressCount = progresses.size();
+        return histogram;
+    }
+
+    @Override
+    public void completionDateChanged(Progress progress, Activity activity, LocalDate previousDate, LocalDate newDate) {
+        add(progress.getLearningPath(), previousDate, -1);
+        add(progress.getLearningPath(), newDate, 1);
+    }
+
+    /**
+     * Obtiene la cantidad de actividades finalizadas por día de un año.
+     *
+     * @param year El año.
+     * @return Mapa día → cantidad, solo con los días que tienen actividad.
+     */
+    public synchronized Map<LocalDate, Integer> getDailyCounts(int year) {
+        return toMap(year, totals.get(year));
+    }
+
+    /**
+     * Igual que {@link #getDailyCounts(int)}, limitado a los Learning Paths de un profesor.
+     */
+    public synchronized Map<LocalDate, Integer> getDailyCountsForTeacher(String teacherUsername, int year) {
+        Map<Integer, int[]> years = byTeacher.get(teacherUsername);
+        return toMap(year, years == null ? null : years.get(year));
+    }
+
+    /**
+     * Igual que {@link #getDailyCounts(int)}, limitado a un Learning Path.
+     */
+    public synchronized Map<LocalDate, Integer> getDailyCountsForLearningPath(LearningPath lp, int year) {
+        Map<Integer, int[]> years = byPath.get(lp.getId());
+        return toMap(year, years == null ? null : years.get(year));
+    }
+
+    /**
+     * Obtiene la cantidad de progresos del snapshot con el que el histograma es consistente.
+     */
+    public synchronized int getProgressCount() {
+        return progressCount;
+    }
+
+    /**
+     * Obtiene la suma de verificación del archivo de progresos con el que el histograma es
+     * consistente, o -1 si no se guardó con un snapshot.
+     */
+    public synchronized long getProgressChecksum() {
+        return progressChecksum;
+    }
+
+    /**
+     * Codifica el histograma para guardarlo junto a un snapshot.
+     *
+     * @param snapshotProgressCount    La cantidad de progresos del snapshot.
+     * @param snapshotProgressChecksum La suma de verificación del archivo de progresos del snapshot.
+     * @return Los bytes codificados.
+     */
+    public synchronized byte[] encode(int snapshotProgressCount, long snapshotProgressChecksum) throws IOException {
+        progressCount = snapshotProgressCount;
+        progressChecksum = snapshotProgressChecksum;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(VERSION);
+        out.writeInt(progressCount);
+        out.writeLong(progressChecksum);
+        writeYears(out, totals);
+        writeBreakdown(out, byTeacher);
+        out.writeInt(byPath.size());
+        for (Map.Entry<Integer, Map<Integer, int[]>> entry : byPath.entrySet()) {
+            out.writeInt(entry.getKey());
+            writeYears(out, entry.getValue());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodifica un histograma escrito con {@link #encode(int, long)}.
+     */
+    public static CompletionHistogram decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Versión de histograma no soportada: " + version);
+        }
+        CompletionHistogram histogram = new CompletionHistogram();
+        histogram.progressCount = in.readInt();
+        histogram.progressChecksum = in.readLong();
+        readYears(in, histogram.totals);
+        readBreakdown(in, histogram.byTeacher);
+        int pathCount = in.readInt();
+        for (int i = 0; i < pathCount; i++) {
+            int pathId = in.readInt();
+            Map<Integer, int[]> years = new HashMap<>();
+            readYears(in, years);
+            histogram.byPath.put(pathId, years);
+        }
+        return histogram;
+    }
+
+    // Métodos auxiliares
+
+    private synchronized void add(LearningPath lp, LocalDate date, int delta) {
+        if (date == null) {
+            return;
+        }
+        increment(totals, date, delta);
+        increment(byTeacher.computeIfAbsent(lp.getCreator().getUsername(), k -> new HashMap<>()), date, delta);
+        increment(byPath.computeIfAbsent(lp.getId(), k -> new HashMap<>()), date, delta);
+    }
+
+    private static void increment(Map<Integer, int[]> years, LocalDate date, int delta) {
+        years.computeIfAbsent(date.getYear(), k -> new int[DAYS])[date.getDayOfYear() - 1] += delta;
+    }
+
+    private static Map<LocalDate, Integer> toMap(int year, int[] days) {
+        Map<LocalDate, Integer> counts = new HashMap<>();
+        if (days == null) {
+            return counts;
+        }
+        int length = Year.isLeap(year) ? 366 : 365;
+        for (int i = 0; i < length; i++) {
+            if (days[i] > 0) {
+                counts.put(LocalDate.ofYearDay(year, i + 1), days[i]);
+            }
+        }
+        return counts;
+    }
+
+    private static void writeBreakdown(DataOutputStream out, Map<String, Map<Integer, int[]>> breakdown) throws IOException {
+        out.writeInt(breakdown.size());
+        for (Map.Entry<String, Map<Integer, int[]>> entry : breakdown.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeYears(out, entry.getValue());
+        }
+    }
+
+    private static void readBreakdown(DataInputStream in, Map<String, Map<Integer, int[]>> breakdown) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            Map<Integer, int[]> years = new HashMap<>();
+            readYears(in, years);
+            breakdown.put(key, years);
+        }
+    }
+
+    // Cada año se escribe de forma dispersa: solo los días con actividad.
+    private static void writeYears(DataOutputStream out, Map<Integer, int[]> years) throws IOException {
+        out.writeInt(years.size());
+        for (Map.Entry<Integer, int[]> entry : years.entrySet()) {
+            int[] days = entry.getValue();
+            int used = 0;
+            for (int count : days) {
+                if (count != 0) {
+                    used++;
+                }
+            }
+            out.writeInt(entry.getKey());
+            out.writeShort(used);
+            for (int i = 0; i < DAYS; i++) {
+                if (days[i] != 0) {
+                    out.writeShort(i);
+                    out.writeInt(days[i]);
+                }
+            }
+        }
+    }
+
+    private static void readYears(DataInputStream in, Map<Integer, int[]> years) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int year = in.readInt();
+            int[] days = new int[DAYS];
+            int used = in.readShort();
+            for (int j = 0; j < used; j++) {
+                days[in.readShort()] = in.readInt();
+            }
+            years.put(year, days);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package src.com.learningpath.analytics;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.ProgressListener;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.grading.AnswerKey;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estadísticas por pregunta de los quizzes, con contadores que se actualizan a medida que
+ * se guardan las respuestas.
+ * <p>
+ * Por cada (Learning Path, quiz) se cuentan las respuestas a cada opción de cada pregunta y,
+ * para el índice de discriminación, la suma de las puntuaciones totales (respuestas
+ * correctas del quiz) de quienes eligieron cada opción, junto con la suma y la suma de
+ * cuadrados de las puntuaciones de todos. Como {@link ProgressListener} recibe cada
+ * {@link Progress#saveQuizResponses(Quiz, List)}: guarda las respuestas contadas de cada
+ * estudiante, resta las anteriores y suma las nuevas sin recorrer los progresos. Por eso
+ * también se puede construir recorriendo los progresos con el observador ya registrado,
+ * sin contar dos veces una respuesta guardada durante el recorrido. Consultar una pregunta
+ * cuesta O(opciones).
+ * <p>
+ * El índice de discriminación es la correlación punto-biserial entre acertar la pregunta y
+ * la puntuación en el resto del quiz: cerca de 1 la pregunta separa bien a quienes dominan
+ * el tema, cerca de 0 no aporta y negativa suele indicar una clave mal cargada. Las
+ * puntuaciones se calculan con la clave de respuestas vigente al registrar cada entrega; al
+ * corregirla, {@code QuizRegrader} llama a {@link #rebuild(LearningPath, Quiz, List)}.
+ */
+public class QuestionStatistics implements ProgressListener {
+    private final Map<QuizKey, QuizCounters> quizzes = new HashMap<>();
+
+    /**
+     * Construye las estadísticas recorriendo todos los progresos.
+     */
+    public static QuestionStatistics build(List<Progress> progresses) {
+        QuestionStatistics statistics = new QuestionStatistics();
+        statistics.addAll(progresses);
+        return statistics;
+    }
+
+    /**
+     * Suma las respuestas ya guardadas en los progresos.
+     */
+    public void addAll(List<Progress> progresses) {
+        for (Progress p : progresses) {
+            for (Quiz quiz : p.getQuizResponses().keySet()) {
+                add(p, quiz);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void quizResponsesSaved(Progress progress, Quiz quiz, List<Integer> chosenOptions) {
+        QuizCounters counters = counters(progress.getLearningPath(), quiz);
+        String username = progress.getStudent().getUsername();
+        if (chosenOptions != null) {
+            counters.put(username, AnswerKey.toArray(chosenOptions));
+        } else {
+            counters.remove(username);
+        }
+    }
+
+    /**
+     * Vuelve a calcular los contadores de un quiz con su clave de respuestas actual.
+     *
+     * @param progresses Los progresos de los estudiantes que respondieron el quiz.
+     */
+    public synchronized void rebuild(LearningPath lp, Quiz quiz, List<Progress> progresses) {
+        QuizCounters counters = new QuizCounters(quiz);
+        for (Progress p : progresses) {
+            List<Integer> answers = p.getQuizResponses(quiz);
+            if (answers != null) {
+                counters.put(p.getStudent().getUsername(), AnswerKey.toArray(answers));
+            }
+        }
+        quizzes.put(new QuizKey(lp.getId(), quiz.getId()), counters);
+    }
+
+    /**
+     * Cuenta los estudiantes con respuestas guardadas en un quiz.
+     */
+    public synchronized int getRespondentCount(LearningPath lp, Quiz quiz) {
+        QuizCounters counters = quizzes.get(new QuizKey(lp.getId(), quiz.getId()));
+        return counters == null ? 0 : counters.responses.size();
+    }
+
+    /**
+     * Obtiene las estadísticas de una pregunta, en O(opciones).
+     *
+     * @param question El índice de la pregunta en el quiz.
+     */
+    public synchronized Item getItem(LearningPath lp, Quiz quiz, int question) {
+        Question q = quiz.getQuestions().get(question);
+        QuizCounters counters = quizzes.get(new QuizKey(lp.getId(), quiz.getId()));
+        int optionCount = q.getOptions().length;
+        if (counters == null || question >= counters.optionCounts.length) {
+            return new Item(question, q.getCorrectOptionIndex(), new int[optionCount], 0, 0, Double.NaN);
+        }
+        int[] counts = counters.optionCounts[question];
+        int[] optionCounts = Arrays.copyOf(counts, optionCount);
+        int unanswered = counts[counts.length - 1];
+        // Opciones que ya no existen (el profesor quitó alguna) cuentan como sin respuesta.
+        for (int o = optionCount; o < counts.length - 1; o++) {
+            unanswered += counts[o];
+        }
+        return new Item(question, q.getCorrectOptionIndex(), optionCounts, unanswered, counters.responses.size(),
+                counters.discrimination(question));
+    }
+
+    /**
+     * Obtiene las estadísticas de todas las preguntas de un quiz.
+     */
+    public synchronized List<Item> getItems(LearningPath lp, Quiz quiz) {
+        List<Item> items = new ArrayList<>();
+        for (int q = 0; q < quiz.getQuestions().size(); q++) {
+            items.add(getItem(lp, quiz, q));
+        }
+        return items;
+    }
+
+    /**
+     * Exporta en CSV una fila por opción de cada pregunta de los quizzes de los Learning
+     * Paths indicados, con su conteo y las estadísticas de la pregunta, para analizarlas
+     * fuera del sistema. Las respuestas en blanco van en una fila con opción -1.
+     */
+    public void exportCsv(List<LearningPath> learningPaths, Writer out) throws IOException {
+        out.write("path_id,path,quiz_id,quiz,question_index,question,option_index,option,count,correct,respondents,percent_correct,discrimination\n");
+        for (LearningPath lp : learningPaths) {
+            for (Activity activity : lp.getActivities()) {
+                if (!(activity instanceof Quiz)) {
+                    continue;
+                }
+                Quiz quiz = (Quiz) activity;
+                List<Question> questions = quiz.getQuestions();
+                for (Item item : getItems(lp, quiz)) {
+                    Question q = questions.get(item.getQuestionIndex());
+                    String prefix = lp.getId() + "," + csv(lp.getTitle()) + "," + quiz.getId() + "," + csv(quiz.getTitle()) + ","
+                            + item.getQuestionIndex() + "," + csv(q.getQuestionText()) + ",";
+                    String suffix = "," + item.getRespondents() + "," + number(item.getPercentCorrect()) + ","
+                            + number(item.getDiscrimination()) + "\n";
+                    for (int o = 0; o < item.getOptionCounts().length; o++) {
+                        out.write(prefix + o + "," + csv(q.getOptions()[o]) + "," + item.getOptionCounts()[o] + ","
+                                + (o == item.getCorrectOption()) + suffix);
+                    }
+                    if (item.getUnanswered() > 0) {
+                        out.write(prefix + "-1,," + item.getUnanswered() + ",false" + suffix);
+                    }
+                }
+            }
+        }
+        out.flush();
+    }
+
+    // Métodos auxiliares
+
+    private synchronized void add(Progress progress, Quiz quiz) {
+        QuizCounters counters = counters(progress.getLearningPath(), quiz);
+        String username = progress.getStudent().getUsername();
+        if (!counters.responses.containsKey(username)) {
+            List<Integer> answers = progress.getQuizResponses(quiz);
+            if (answers != null) {
+                counters.put(username, AnswerKey.toArray(answers));
+            }
+        }
+    }
+
+    private QuizCounters counters(LearningPath lp, Quiz quiz) {
+        return quizzes.computeIfAbsent(new QuizKey(lp.getId(), quiz.getId()), k -> new QuizCounters(quiz));
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "" : String.format(java.util.Locale.ROOT, "%.4f", value);
+    }
+
+    /**
+     * Estadísticas de una pregunta.
+     */
+    public static final class Item {
+        private final int questionIndex;
+        private final int correctOption;
+        private final int[] optionCounts;
+        private final int unanswered;
+        private final int respondents;
+        private final double discrimination;
+
+        Item(int questionIndex, int correctOption, int[] optionCounts, int unanswered, int respondents, double discrimination) {
+            this.questionIndex = questionIndex;
+            this.correctOption = correctOption;
+            this.optionCounts = optionCounts;
+            this.unanswered = unanswered;
+            this.respondents = respondents;
+            this.discrimination = discrimination;
+        }
+
+        public int getQuestionIndex() {
+            return questionIndex;
+        }
+
+        /**
+         * Obtiene la opción correcta según la clave de respuestas actual.
+         */
+        public int getCorrectOption() {
+            return correctOption;
+        }
+
+        /**
+         * Obtiene la cantidad de estudiantes que eligió cada opción.
+         */
+        public int[] getOptionCounts() {
+            return optionCounts.clone();
+        }
+
+        /**
+         * Obtiene la cantidad de estudiantes que dejó la pregunta sin responder.
+         */
+        public int getUnanswered() {
+            return unanswered;
+        }
+
+        public int getRespondents() {
+            return respondents;
+        }
+
+        /**
+         * Obtiene el porcentaje de estudiantes que eligió la opción correcta, o NaN si nadie
+         * respondió el quiz.
+         */
+        public double getPercentCorrect() {
+            if (respondents == 0) {
+                return Double.NaN;
+            }
+            int correct = correctOption >= 0 && correctOption < optionCounts.length ? optionCounts[correctOption] : 0;
+            return (double) correct / respondents * 100;
+        }
+
+        /**
+         * Obtiene el índice de discriminación, entre -1 y 1, o NaN si todos acertaron, todos
+         * fallaron o el resto del quiz no varía entre estudiantes.
+         */
+        public double getDiscrimination() {
+            return discrimination;
+        }
+    }
+
+    /**
+     * Contadores de un quiz, calculados con la clave de respuestas con la que se crearon.
+     */
+    private static final class QuizCounters {
+        private final AnswerKey key;
+        // Las respuestas contadas de cada estudiante, para restarlas cuando cambian.
+        private final Map<String, int[]> responses = new HashMap<>();
+        private long scoreSum;
+        private long scoreSquareSum;
+        // Por pregunta, una posición por opción y la última para las respuestas en blanco.
+        private final int[][] optionCounts;
+        private final long[][] optionScoreSums;
+
+        QuizCounters(Quiz quiz) {
+            key = AnswerKey.of(quiz);
+            List<Question> questions = quiz.getQuestions();
+            optionCounts = new int[questions.size()][];
+            optionScoreSums = new long[questions.size()][];
+            for (int q = 0; q < questions.size(); q++) {
+                optionCounts[q] = new int[questions.get(q).getOptions().length + 1];
+                optionScoreSums[q] = new long[optionCounts[q].length];
+            }
+        }
+
+        void put(String username, int[] chosen) {
+            int[] previous = responses.put(username, chosen);
+            if (previous != null) {
+                apply(previous, -1);
+            }
+            apply(chosen, 1);
+        }
+
+        void remove(String username) {
+            int[] previous = responses.remove(username);
+            if (previous != null) {
+                apply(previous, -1);
+            }
+        }
+
+        private void apply(int[] chosen, int sign) {
+            long score = key.countCorrect(chosen);
+            scoreSum += sign * score;
+            scoreSquareSum += sign * score * score;
+            for (int q = 0; q < optionCounts.length; q++) {
+                int[] counts = optionCounts[q];
+                int option = q < chosen.length ? chosen[q] : AnswerKey.UNANSWERED;
+                int slot = option >= 0 && option < counts.length - 1 ? option : counts.length - 1;
+                counts[slot] += sign;
+                optionScoreSums[q][slot] += sign * score;
+            }
+        }
+
+        /**
+         * Correlación punto-biserial entre acertar la pregunta y la puntuación sin ella
+         * (puntuación total menos la propia pregunta).
+         */
+        double discrimination(int question) {
+            if (question >= key.getQuestionCount()) {
+                return Double.NaN;
+            }
+            int correct = key.getCorrectOption(question);
+            int[] counts = optionCounts[question];
+            long n = responses.size();
+            long n1 = correct >= 0 && correct < counts.length - 1 ? counts[correct] : 0;
+            long n0 = n - n1;
+            if (n1 == 0 || n0 == 0) {
+                return Double.NaN;
+            }
+            long s1 = optionScoreSums[question][correct];
+            // Sin la pregunta: quien acertó tiene un punto menos.
+            double restSum = scoreSum - n1;
+            double restSquareSum = scoreSquareSum - 2.0 * s1 + n1;
+            double mean = restSum / n;
+            double variance = restSquareSum / n - mean * mean;
+            if (variance <= 1e-12) {
+                return Double.NaN;
+            }
+            double mean1 = (double) (s1 - n1) / n1;
+            double mean0 = (double) (scoreSum - s1) / n0;
+            double p = (double) n1 / n;
+            return (mean1 - mean0) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+        }
+    }
+
+    private record QuizKey(int pathId, int quizId) {
+    }
+}
@@ -1,69 +1,825 @@
 package src.com.learningpath.data;
 
+import src.com.learningpath.DirtyTracked;
 import src.com.learningpath.LearningPath;
 import src.com.learningpath.Progress;
+import src.com.learningpath.analytics.CompletionHistogram;
+import src.com.learningpath.data.codec.BinaryCodec;
+import src.com.learningpath.data.codec.EntityResolver;
+import src.com.learningpath.data.codec.MappedProgressStore;
+import src.com.learningpath.data.codec.ProgressFileBuilder;
+import src.com.learningpath.data.codec.ShardManifest;
 import src.com.learningpath.users.User;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.zip.CRC32C;
 
 public class DataManager {
+
+    /**
+     * Organización de los archivos de Learning Paths y progresos.
+     */
+    public enum Layout {
+        /**
+         * Un archivo con todos los Learning Paths y otro con todos los progresos.
+         */
+        SINGLE_FILE,
+        /**
+         * Un archivo de Learning Paths por profesor y uno de progresos por estudiante, más un
+         * manifiesto ({@link ShardManifest}). Guardar reescribe solo los fragmentos modificados.
+         */
+        SHARDED
+    }
+
+    /**
+     * Propiedad del sistema con la organización de los archivos: single_file o sharded.
+     */
+    public static final String LAYOUT_PROPERTY = "learningpath.layout";
+
+    /**
+     * Propiedad del sistema con el almacenamiento a usar: file (archivos binarios y journal)
+     * o sql (base de datos embebida).
+     */
+    public static final String STORAGE_PROPERTY = "learningpath.storage";
+
+    private static final String MANIFEST_FILE = "manifest.dat";
+
     private static String DATA_FOLDER = "data/";
 
+    private static Layout LAYOUT = layoutFromSystemProperties();
+
+    // Manifiesto de la carpeta de datos actual; se lee la primera vez que se usa.
+    private static ShardManifest manifest;
+
+    // Cantidad de registros en el journal a partir de la cual se escribe un snapshot completo.
+    private static int SNAPSHOT_INTERVAL = 500;
+
+    private static Journal journal;
+
+    private static CompletionHistogram histogram;
+
+    // Suma de verificación de los archivos de progresos cargados (ver progressChecksum()); -1 si no se cargaron.
+    private static long loadedProgressChecksum = -1;
+
     public static void saveUsers(List<User> users) throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_FOLDER + "users.dat"))) {
-            oos.writeObject(users);
-        }
+        writeFile(DATA_FOLDER + "users.dat", BinaryCodec.encodeUsers(users));
     }
 
-    @SuppressWarnings("unchecked")
     public static List<User> loadUsers() throws IOException, ClassNotFoundException {
-        File file = new File(DATA_FOLDER + "users.dat");
-        if (!file.exists()) {
-            return new ArrayList<>();
+        return loadWithBackup("users.dat", file -> readList(file, BinaryCodec::decodeUsers));
+    }
+
+    public static void saveLearningPaths(List<LearningPath> learningPaths) throws IOException {
+        writeFile(DATA_FOLDER + "learning_paths.dat", BinaryCodec.encodeLearningPaths(learningPaths));
+    }
+
+    /**
+     * Carga los Learning Paths junto con los usuarios. Para no cargar los usuarios dos veces
+     * se debe usar {@link #loadLearningPaths(List)} con los ya cargados.
+     */
+    public static List<LearningPath> loadLearningPaths() throws IOException, ClassNotFoundException {
+        return loadLearningPaths(loadUsers());
+    }
+
+    /**
+     * Carga los Learning Paths. Sus creadores son las instancias de la lista de usuarios.
+     *
+     * @param users Los usuarios ya cargados.
+     */
+    public static List<LearningPath> loadLearningPaths(List<User> users) throws IOException, ClassNotFoundException {
+        EntityResolver resolver = new EntityResolver(users, new ArrayList<>());
+        Decoder<LearningPath> decoder = data -> BinaryCodec.decodeLearningPaths(data, resolver);
+        if (hasShards()) {
+            return loadShards(ShardManifest.Kind.LEARNING_PATHS, decoder);
         }
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            return (List<User>) ois.readObject();
+        return loadWithBackup("learning_paths.dat", file -> readList(file, decoder));
+    }
+
+    /**
+     * Carga solo los Learning Paths creados por un profesor. Con la organización por
+     * fragmentos se lee únicamente su archivo.
+     *
+     * @param username El usuario del profesor.
+     * @param users    Los usuarios ya cargados.
+     */
+    public static List<LearningPath> loadLearningPathsOf(String username, List<User> users) throws IOException, ClassNotFoundException {
+        if (!hasShards()) {
+            List<LearningPath> result = new ArrayList<>();
+            for (LearningPath lp : loadLearningPaths(users)) {
+                if (lp.getCreator().getUsername().equals(username)) {
+                    result.add(lp);
+                }
+            }
+            return result;
         }
+        EntityResolver resolver = new EntityResolver(users, new ArrayList<>());
+        return loadShard(ShardManifest.Kind.LEARNING_PATHS, username, data -> BinaryCodec.decodeLearningPaths(data, resolver));
     }
 
-    public static void saveLearningPaths(List<LearningPath> learningPaths) throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_FOLDER + "learning_paths.dat"))) {
-            oos.writeObject(learningPaths);
+    public static void saveProgresses(List<Progress> progresses) throws IOException {
+        writeFile(DATA_FOLDER + "progresses.dat", BinaryCodec.encodeProgresses(progresses));
+    }
+
+    public static synchronized void setDataFolder(String folder) {
+        DATA_FOLDER = folder;
+        closeJournal();
+        histogram = null;
+        loadedProgressChecksum = -1;
+        manifest = null;
+    }
+
+    /**
+     * Cambia la organización de los archivos. Los datos existentes se siguen leyendo y el
+     * siguiente snapshot los reescribe en la nueva organización.
+     */
+    public static synchronized void setLayout(Layout layout) {
+        LAYOUT = layout;
+    }
+
+    public static Layout getLayout() {
+        return LAYOUT;
+    }
+
+    /**
+     * Abre el almacenamiento de la carpeta de datos actual según la propiedad
+     * {@value #STORAGE_PROPERTY}. Si la base de datos no se puede abrir, se usan los archivos.
+     */
+    public static Storage openStorage() {
+        String storage = System.getProperty(STORAGE_PROPERTY, "file").trim();
+        if (storage.equalsIgnoreCase("sql")) {
+            try {
+                return SqlStorage.open(DATA_FOLDER);
+            } catch (IOException e) {
+                System.out.println(e.getMessage() + " Se usarán los archivos de datos.");
+            }
+        } else if (!storage.equalsIgnoreCase("file")) {
+            System.out.println("Almacenamiento no válido: " + storage + ". Se usarán los archivos de datos.");
         }
+        return new FileStorage();
     }
 
-    @SuppressWarnings("unchecked")
-    public static List<LearningPath> loadLearningPaths() throws IOException, ClassNotFoundException {
-        File file = new File(DATA_FOLDER + "learning_paths.dat");
-        if (!file.exists()) {
+    public static void setSnapshotInterval(int records) {
+        SNAPSHOT_INTERVAL = records;
+    }
+
+    /**
+     * Obtiene el journal de mutaciones de la carpeta de datos actual, abriéndolo si es necesario.
+     *
+     * @return El journal de la carpeta de datos.
+     */
+    public static synchronized Journal getJournal() {
+        if (journal == null) {
+            journal = new Journal(new File(DATA_FOLDER + "journal.log"));
+        }
+        return journal;
+    }
+
+    /**
+     * Aplica el journal sobre los datos cargados desde el último snapshot.
+     *
+     * @return La cantidad de registros aplicados.
+     */
+    public static int replayJournal(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException {
+        return getJournal().replay(users, learningPaths, progresses);
+    }
+
+    /**
+     * Carga el histograma de actividades finalizadas guardado con el último snapshot.
+     * Si no existe o no corresponde a los progresos cargados (otra cantidad, u otra suma de
+     * verificación porque se recuperó una copia {@code .bak}), se reconstruye a partir de ellos.
+     * Debe llamarse antes de aplicar el journal y registrarse como listener de los progresos,
+     * para que las mutaciones reproducidas también lo actualicen.
+     *
+     * @param progresses Los progresos cargados del snapshot.
+     * @return El histograma.
+     */
+    public static synchronized CompletionHistogram loadHistogram(List<Progress> progresses) {
+        histogram = null;
+        try {
+            byte[] data = readFile(DATA_FOLDER + "histogram.dat");
+            if (data != null) {
+                CompletionHistogram loaded = CompletionHistogram.decode(data);
+                if (loaded.getProgressCount() == progresses.size() && loaded.getProgressChecksum() == loadedProgressChecksum) {
+                    histogram = loaded;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("No se pudo leer el histograma: " + e.getMessage());
+        }
+        if (histogram == null) {
+            histogram = CompletionHistogram.build(progresses);
+        }
+        return histogram;
+    }
+
+    /**
+     * Escribe un snapshot y vacía el journal. Solo se reescriben los archivos que contienen
+     * entidades modificadas ({@link DirtyTracked}) o que aún están en un formato anterior;
+     * después se marcan como guardadas. Con {@link Layout#SHARDED} esto se aplica a cada
+     * fragmento: guardar los cambios de un estudiante reescribe solo su archivo y el manifiesto.
+     * El histograma se guarda con el snapshot; si no se cargó, el archivo anterior se
+     * elimina porque ya no corresponde a los progresos guardados.
+     * <p>
+     * Mientras se escribe se retiene el lock del journal: una mutación hecha desde otro hilo
+     * (cuando el guardado corre en {@link PersistenceExecutor}) anexa su registro después del
+     * vaciado, así que no se pierde aunque el snapshot no la incluya. Por la misma razón las
+     * entidades se marcan como guardadas antes de codificarlas, no después: si cambian mientras
+     * se escriben vuelven a quedar modificadas y el siguiente snapshot reescribe su archivo
+     * antes de vaciar el journal que tiene ese cambio.
+     */
+    public static synchronized void saveSnapshot(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException {
+        Journal journal = getJournal();
+        synchronized (journal) {
+            if (needsSave(users, DATA_FOLDER + "users.dat")) {
+                List<DirtyTracked> taken = takeChanges(users);
+                try {
+                    saveUsers(users);
+                } catch (IOException | RuntimeException e) {
+                    restoreChanges(taken);
+                    throw e;
+                }
+            }
+            if (LAYOUT == Layout.SHARDED) {
+                saveShards(learningPaths, progresses);
+            } else {
+                if (needsSave(learningPaths, DATA_FOLDER + "learning_paths.dat")) {
+                    List<DirtyTracked> taken = takeChanges(learningPaths);
+                    try {
+                        saveLearningPaths(learningPaths);
+                    } catch (IOException | RuntimeException e) {
+                        restoreChanges(taken);
+                        throw e;
+                    }
+                }
+                if (needsSave(progresses, DATA_FOLDER + "progresses.dat")) {
+                    List<DirtyTracked> taken = takeChanges(progresses);
+                    try {
+                        saveProgresses(progresses);
+                    } catch (IOException | RuntimeException e) {
+                        restoreChanges(taken);
+                        throw e;
+                    }
+                }
+                deleteShards();
+            }
+            if (histogram != null) {
+                writeFile(DATA_FOLDER + "histogram.dat", histogram.encode(progresses.size(), progressChecksum()));
+            } else {
+                Files.deleteIfExists(new File(DATA_FOLDER + "histogram.dat").toPath());
+            }
+            journal.reset();
+        }
+    }
+
+    /**
+     * Confirma las mutaciones pendientes. Como cada mutación ya fue anexada al journal,
+     * solo se escribe un snapshot completo cuando el journal supera {@code SNAPSHOT_INTERVAL} registros.
+     *
+     * @return True si se escribió un snapshot completo.
+     */
+    public static synchronized boolean commit(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException {
+        if (getJournal().getRecordCount() >= SNAPSHOT_INTERVAL) {
+            saveSnapshot(users, learningPaths, progresses);
+            return true;
+        }
+        getJournal().flush();
+        return false;
+    }
+
+    // Organización por fragmentos
+
+    /**
+     * Escribe los fragmentos de Learning Paths y progresos que cambiaron y, si alguno cambió,
+     * el manifiesto. Los fragmentos se escriben antes que el manifiesto: un corte en medio deja
+     * el manifiesto anterior, y el journal, que aún no se vació, repone lo que falte. Al migrar
+     * desde un solo archivo, los archivos anteriores se eliminan después del manifiesto.
+     */
+    private static void saveShards(List<LearningPath> learningPaths, List<Progress> progresses) throws IOException {
+        ShardManifest manifest = getManifest();
+        Map<String, List<LearningPath>> pathsByTeacher = new LinkedHashMap<>();
+        for (LearningPath lp : learningPaths) {
+            pathsByTeacher.computeIfAbsent(lp.getCreator().getUsername(), k -> new ArrayList<>()).add(lp);
+        }
+        Map<String, List<Progress>> progressesByStudent = new LinkedHashMap<>();
+        for (Progress p : progresses) {
+            progressesByStudent.computeIfAbsent(p.getStudent().getUsername(), k -> new ArrayList<>()).add(p);
+        }
+
+        List<File> obsolete = new ArrayList<>();
+        boolean changed = saveShardGroup(manifest, ShardManifest.Kind.LEARNING_PATHS, pathsByTeacher,
+                BinaryCodec::encodeLearningPaths, obsolete);
+        changed |= saveShardGroup(manifest, ShardManifest.Kind.PROGRESSES, progressesByStudent,
+                BinaryCodec::encodeProgresses, obsolete);
+        File manifestFile = new File(DATA_FOLDER + MANIFEST_FILE);
+        if (changed || !manifestFile.exists()) {
+            writeFile(manifestFile.getPath(), manifest.encode());
+        }
+
+        obsolete.add(new File(DATA_FOLDER + "learning_paths.dat"));
+        obsolete.add(new File(DATA_FOLDER + "progresses.dat"));
+        for (File file : obsolete) {
+            try {
+                Files.deleteIfExists(file.toPath());
+                Files.deleteIfExists(backupOf(file).toPath());
+            } catch (IOException e) {
+                // Por ejemplo, un archivo aún mapeado en Windows: ya no se carga y se reintenta en el próximo guardado.
+                System.out.println("No se pudo eliminar " + file.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reescribe los fragmentos de un tipo cuyo contenido cambió: tienen entidades modificadas,
+     * otra cantidad de registros o un formato anterior. Los de usuarios que ya no tienen
+     * registros se quitan del manifiesto y sus archivos se agregan a {@code obsolete}.
+     *
+     * @return True si el manifiesto cambió.
+     */
+    private static <T extends DirtyTracked> boolean saveShardGroup(ShardManifest manifest, ShardManifest.Kind kind,
+                                                                  Map<String, List<T>> groups, Encoder<T> encoder,
+                                                                  List<File> obsolete) throws IOException {
+        boolean changed = false;
+        for (Map.Entry<String, List<T>> group : groups.entrySet()) {
+            String owner = group.getKey();
+            List<T> items = group.getValue();
+            ShardManifest.Shard shard = manifest.get(kind, owner);
+            if (shard != null && shard.getCount() == items.size() && shard.getVersion() == BinaryCodec.VERSION
+                    && !isAnyDirty(items) && new File(DATA_FOLDER + shard.getFile()).exists()) {
+                continue;
+            }
+            String file = ShardManifest.fileName(kind, owner);
+            File target = new File(DATA_FOLDER + file);
+            target.getParentFile().mkdirs();
+            List<DirtyTracked> taken = takeChanges(items);
+            try {
+                writeFile(target.getPath(), encoder.encode(items));
+            } catch (IOException | RuntimeException e) {
+                restoreChanges(taken);
+                throw e;
+            }
+            manifest.put(new ShardManifest.Shard(kind, owner, file, items.size(), BinaryCodec.VERSION));
+            changed = true;
+        }
+        for (ShardManifest.Shard shard : manifest.list(kind)) {
+            if (!groups.containsKey(shard.getOwner())) {
+                manifest.remove(kind, shard.getOwner());
+                obsolete.add(new File(DATA_FOLDER + shard.getFile()));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Al volver a un solo archivo, elimina el manifiesto y los fragmentos. Se hace después de
+     * escribir los archivos únicos, que desde entonces son los que se cargan.
+     */
+    private static void deleteShards() throws IOException {
+        File manifestFile = new File(DATA_FOLDER + MANIFEST_FILE);
+        if (!manifestFile.exists()) {
+            return;
+        }
+        ShardManifest current = getManifest();
+        Files.delete(manifestFile.toPath());
+        Files.deleteIfExists(backupOf(manifestFile).toPath());
+        for (ShardManifest.Kind kind : ShardManifest.Kind.values()) {
+            for (ShardManifest.Shard shard : current.list(kind)) {
+                File file = new File(DATA_FOLDER + shard.getFile());
+                Files.deleteIfExists(file.toPath());
+                Files.deleteIfExists(backupOf(file).toPath());
+            }
+        }
+        manifest = null;
+    }
+
+    /**
+     * Indica si la carpeta de datos está organizada por fragmentos, es decir, si tiene manifiesto.
+     */
+    private static boolean hasShards() {
+        return new File(DATA_FOLDER + MANIFEST_FILE).exists();
+    }
+
+    private static <T> List<T> loadShards(ShardManifest.Kind kind, Decoder<T> decoder) throws IOException, ClassNotFoundException {
+        List<T> result = new ArrayList<>();
+        for (ShardManifest.Shard shard : getManifest().list(kind)) {
+            result.addAll(loadWithBackup(shard.getFile(), file -> readList(file, decoder)));
+        }
+        return result;
+    }
+
+    private static <T> List<T> loadShard(ShardManifest.Kind kind, String owner, Decoder<T> decoder) throws IOException, ClassNotFoundException {
+        ShardManifest.Shard shard = getManifest().get(kind, owner);
+        if (shard == null) {
             return new ArrayList<>();
         }
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            return (List<LearningPath>) ois.readObject();
+        return loadWithBackup(shard.getFile(), file -> readList(file, decoder));
+    }
+
+    private static synchronized ShardManifest getManifest() throws IOException {
+        if (manifest == null) {
+            File file = new File(DATA_FOLDER + MANIFEST_FILE);
+            if (!file.exists()) {
+                manifest = new ShardManifest();
+            } else {
+                try {
+                    manifest = ShardManifest.decode(Files.readAllBytes(file.toPath()));
+                } catch (IOException e) {
+                    File backup = backupOf(file);
+                    if (!backup.exists()) {
+                        throw e;
+                    }
+                    System.out.println("No se pudo leer " + MANIFEST_FILE + " (" + e.getMessage() + "). Se recupera la copia anterior.");
+                    manifest = ShardManifest.decode(Files.readAllBytes(backup.toPath()));
+                }
+            }
         }
+        return manifest;
     }
 
-    public static void saveProgresses(List<Progress> progresses) throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_FOLDER + "progresses.dat"))) {
-            oos.writeObject(progresses);
+    private static Layout layoutFromSystemProperties() {
+        String layout = System.getProperty(LAYOUT_PROPERTY);
+        if (layout != null) {
+            try {
+                return Layout.valueOf(layout.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Organización de archivos no válida: " + layout + ". Se usará " + Layout.SINGLE_FILE + ".");
+            }
         }
+        return Layout.SINGLE_FILE;
     }
 
-    public static void setDataFolder(String folder) {
-        DATA_FOLDER = folder;
+    private static boolean isAnyDirty(List<? extends DirtyTracked> items) {
+        for (DirtyTracked item : items) {
+            if (item.isDirty()) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    @SuppressWarnings("unchecked")
+    private static boolean needsSave(List<? extends DirtyTracked> items, String path) throws IOException {
+        MappedProgressStore.Snapshot store = progressSnapshot(items);
+        if (store != null) {
+            if (store.hasChanges()) {
+                return true;
+            }
+        } else if (isAnyDirty(items)) {
+            return true;
+        }
+        return !isCurrentFormat(new File(path));
+    }
+
+    /**
+     * Marca como guardadas las entidades modificadas, antes de leerlas para escribirlas.
+     *
+     * @return Las entidades que estaban modificadas, para restaurarlas si la escritura falla.
+     */
+    private static List<DirtyTracked> takeChanges(List<? extends DirtyTracked> items) {
+        MappedProgressStore.Snapshot store = progressSnapshot(items);
+        if (store != null) {
+            return new ArrayList<>(store.takeChanges());
+        }
+        List<DirtyTracked> taken = new ArrayList<>();
+        for (DirtyTracked item : items) {
+            if (item.isDirty()) {
+                item.clearDirty();
+                taken.add(item);
+            }
+        }
+        return taken;
+    }
+
+    private static void restoreChanges(List<DirtyTracked> taken) {
+        for (DirtyTracked item : taken) {
+            item.markDirty();
+        }
+    }
+
+    // Los progresos de un almacén mapeado: solo se recorren los que ya se decodificaron.
+    private static MappedProgressStore.Snapshot progressSnapshot(List<?> items) {
+        if (items instanceof MappedProgressStore) {
+            return ((MappedProgressStore) items).snapshot();
+        }
+        return items instanceof MappedProgressStore.Snapshot ? (MappedProgressStore.Snapshot) items : null;
+    }
+
+    /**
+     * Indica si el archivo existe y ya está en la versión actual del formato binario y con
+     * la compresión configurada, leyendo solo la cabecera.
+     */
+    private static boolean isCurrentFormat(File file) throws IOException {
+        if (!file.exists()) {
+            return false;
+        }
+        byte[] header = new byte[BinaryCodec.HEADER_SIZE];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readFully(header);
+        } catch (EOFException e) {
+            return false;
+        }
+        return BinaryCodec.isBinary(header) && header[3] == BinaryCodec.VERSION
+                && header[5] == BinaryCodec.getCompression().getCodec().ordinal();
+    }
+
+    private static void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Error al cerrar el journal: " + e.getMessage());
+            }
+            journal = null;
+        }
+    }
+
+    /**
+     * Carga los progresos junto con los usuarios y Learning Paths que referencian. Para que
+     * los progresos compartan las instancias de la aplicación se debe usar
+     * {@link #loadProgresses(List, List)} con las listas ya cargadas.
+     */
     public static List<Progress> loadProgresses() throws IOException, ClassNotFoundException {
-        File file = new File(DATA_FOLDER + "progresses.dat");
+        List<User> users = loadUsers();
+        return loadProgresses(users, loadLearningPaths(users));
+    }
+
+    /**
+     * Carga los progresos. Los archivos con índice se mapean en memoria y cada progreso
+     * se decodifica solo cuando se accede a él (ver {@link MappedProgressStore}).
+     * El estudiante y el Learning Path de cada progreso se resuelven contra las listas
+     * indicadas, de modo que cada entidad se carga una sola vez.
+     *
+     * @param users         Los usuarios ya cargados.
+     * @param learningPaths Los Learning Paths ya cargados.
+     */
+    public static List<Progress> loadProgresses(List<User> users, List<LearningPath> learningPaths) throws IOException, ClassNotFoundException {
+        EntityResolver resolver = new EntityResolver(users, learningPaths);
+        if (hasShards()) {
+            List<ShardManifest.Shard> shards = getManifest().list(ShardManifest.Kind.PROGRESSES);
+            long[] checksums = new long[shards.size()];
+            List<Progress> progresses = new ArrayList<>();
+            for (int i = 0; i < shards.size(); i++) {
+                int shard = i;
+                // Si se recupera la copia .bak, la suma que queda es la de la copia.
+                progresses.addAll(loadWithBackup(shards.get(i).getFile(), file -> {
+                    checksums[shard] = BinaryCodec.checksumOf(file);
+                    return readList(file, data -> BinaryCodec.decodeProgresses(data, resolver));
+                }));
+            }
+            loadedProgressChecksum = combineChecksums(checksums);
+            return progresses;
+        }
+        long[] checksum = new long[1];
+        List<Progress> progresses = loadWithBackup("progresses.dat", file -> {
+            checksum[0] = BinaryCodec.checksumOf(file);
+            if (file.exists() && MappedProgressStore.isMappable(file)) {
+                return MappedProgressStore.open(file, resolver);
+            }
+            return readList(file, data -> BinaryCodec.decodeProgresses(data, resolver));
+        });
+        loadedProgressChecksum = combineChecksums(checksum);
+        return progresses;
+    }
+
+    /**
+     * Calcula la suma de verificación de los archivos de progresos tal como están en disco: la
+     * de cada archivo ({@link BinaryCodec#checksumOf(File)}), en el orden del manifiesto,
+     * combinadas en una CRC-32C. El histograma la guarda para reconocer los progresos con los
+     * que es consistente.
+     */
+    private static long progressChecksum() throws IOException {
+        if (!hasShards()) {
+            return combineChecksums(new long[]{BinaryCodec.checksumOf(new File(DATA_FOLDER + "progresses.dat"))});
+        }
+        List<ShardManifest.Shard> shards = getManifest().list(ShardManifest.Kind.PROGRESSES);
+        long[] checksums = new long[shards.size()];
+        for (int i = 0; i < shards.size(); i++) {
+            checksums[i] = BinaryCodec.checksumOf(new File(DATA_FOLDER + shards.get(i).getFile()));
+        }
+        return combineChecksums(checksums);
+    }
+
+    private static long combineChecksums(long[] checksums) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(checksums.length * 8);
+        for (long checksum : checksums) {
+            buffer.putLong(checksum);
+        }
+        crc.update(buffer.array());
+        return crc.getValue();
+    }
+
+    /**
+     * Carga solo los progresos de un estudiante. Con la organización por fragmentos se lee
+     * únicamente su archivo; si no, se buscan en el índice del archivo de progresos.
+     *
+     * @param username      El usuario del estudiante.
+     * @param users         Los usuarios ya cargados.
+     * @param learningPaths Los Learning Paths ya cargados.
+     */
+    public static List<Progress> loadProgressesOf(String username, List<User> users, List<LearningPath> learningPaths)
+            throws IOException, ClassNotFoundException {
+        if (!hasShards()) {
+            return MappedProgressStore.of(loadProgresses(users, learningPaths)).findByStudent(username);
+        }
+        EntityResolver resolver = new EntityResolver(users, learningPaths);
+        return loadShard(ShardManifest.Kind.PROGRESSES, username, data -> BinaryCodec.decodeProgresses(data, resolver));
+    }
+
+    /**
+     * Recorre los progresos sin retenerlos. Con la organización por fragmentos se decodifica
+     * un archivo a la vez; con un solo archivo indexado, cada registro se decodifica de forma
+     * temporal ({@link MappedProgressStore#peek(int)}). Los archivos sin índice se leen completos.
+     *
+     * @param users         Los usuarios ya cargados.
+     * @param learningPaths Los Learning Paths ya cargados.
+     * @param sink          Recibe cada progreso.
+     */
+    public static void forEachProgress(List<User> users, List<LearningPath> learningPaths, Storage.ProgressSink sink)
+            throws IOException, ClassNotFoundException {
+        if (hasShards()) {
+            EntityResolver resolver = new EntityResolver(users, learningPaths);
+            for (ShardManifest.Shard shard : getManifest().list(ShardManifest.Kind.PROGRESSES)) {
+                for (Progress p : loadWithBackup(shard.getFile(), file -> readList(file, data -> BinaryCodec.decodeProgresses(data, resolver)))) {
+                    sink.accept(p);
+                }
+            }
+            return;
+        }
+        List<Progress> progresses = loadProgresses(users, learningPaths);
+        if (progresses instanceof MappedProgressStore) {
+            MappedProgressStore store = (MappedProgressStore) progresses;
+            for (int i = 0; i < store.size(); i++) {
+                sink.accept(store.peek(i));
+            }
+            return;
+        }
+        for (Progress p : progresses) {
+            sink.accept(p);
+        }
+    }
+
+    /**
+     * Reemplaza los datos de la carpeta por los indicados, por ejemplo al importar una copia.
+     * Los progresos se codifican a medida que llegan ({@link ProgressFileBuilder}), así que se
+     * retienen sus bytes y no los objetos. Se escribe un solo archivo por tipo: con
+     * {@link Layout#SHARDED} el siguiente snapshot los reparte en fragmentos. El journal y el
+     * histograma guardados se descartan porque corresponden a los datos anteriores.
+     *
+     * @param users         Los usuarios a guardar.
+     * @param learningPaths Los Learning Paths a guardar.
+     * @param source        Entrega los progresos, que referencian a los usuarios y Learning Paths anteriores.
+     */
+    public static synchronized void importSnapshot(List<User> users, List<LearningPath> learningPaths,
+                                                   Storage.ProgressSource source) throws IOException {
+        ProgressFileBuilder progresses = new ProgressFileBuilder();
+        for (Progress p = source.next(); p != null; p = source.next()) {
+            progresses.add(p);
+        }
+        new File(DATA_FOLDER).mkdirs();
+        Journal journal = getJournal();
+        synchronized (journal) {
+            saveUsers(users);
+            saveLearningPaths(learningPaths);
+            writeFile(DATA_FOLDER + "progresses.dat", progresses.build());
+            deleteShards();
+            Files.deleteIfExists(new File(DATA_FOLDER + "histogram.dat").toPath());
+            histogram = null;
+            journal.reset();
+        }
+        takeChanges(users);
+        takeChanges(learningPaths);
+    }
+
+    /**
+     * Escribe el archivo en uno temporal, lo sincroniza con el disco y lo renombra
+     * atómicamente sobre el destino. Un corte durante la escritura deja intacto el archivo
+     * anterior, que además nunca se trunca mientras un {@link MappedProgressStore} lo tiene
+     * mapeado. El archivo reemplazado se conserva como copia {@code .bak}.
+     */
+    private static void writeFile(String path, byte[] data) throws IOException {
+        File target = new File(path);
+        File temp = new File(path + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temp)) {
+            fos.write(data);
+            fos.getFD().sync();
+        }
+        if (target.exists()) {
+            keepBackup(target);
+        }
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * Conserva la versión actual del archivo como {@code .bak} antes de reemplazarla. Se usa
+     * un enlace duro para que el destino exista en todo momento; si el sistema de archivos
+     * no los admite, se copia.
+     */
+    private static void keepBackup(File target) throws IOException {
+        File backup = backupOf(target);
+        Files.deleteIfExists(backup.toPath());
+        try {
+            Files.createLink(backup.toPath(), target.toPath());
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(target.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Sincroniza la carpeta para que el renombrado sobreviva a un corte de energía. No todos
+     * los sistemas permiten abrir una carpeta (por ejemplo Windows); ahí se omite.
+     */
+    private static void syncDirectory(File folder) {
+        if (folder == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(folder.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // El renombrado ya se hizo; solo no se pudo forzar su escritura.
+        }
+    }
+
+    private static File backupOf(File file) {
+        return new File(file.getPath() + ".bak");
+    }
+
+    /**
+     * Lee un archivo de datos. Si está dañado (la suma de verificación no coincide o está
+     * truncado) se recupera la copia {@code .bak} del guardado anterior; los registros del
+     * journal se aplican después sobre ella.
+     */
+    private static <T> List<T> loadWithBackup(String name, FileLoader<T> loader) throws IOException, ClassNotFoundException {
+        File file = new File(DATA_FOLDER + name);
+        try {
+            return loader.load(file);
+        } catch (IOException e) {
+            File backup = backupOf(file);
+            if (!backup.exists()) {
+                throw e;
+            }
+            System.out.println("No se pudo leer " + name + " (" + e.getMessage() + "). Se recupera la copia anterior.");
+            return loader.load(backup);
+        }
+    }
+
+    private static <T> List<T> readList(File file, Decoder<T> decoder) throws IOException, ClassNotFoundException {
         if (!file.exists()) {
             return new ArrayList<>();
         }
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            return (List<Progress>) ois.readObject();
+        byte[] data = Files.readAllBytes(file.toPath());
+        if (BinaryCodec.isBinary(data)) {
+            return decoder.decode(data);
+        }
+        return readLegacy(data);
+    }
+
+    @FunctionalInterface
+    private interface FileLoader<T> {
+        List<T> load(File file) throws IOException, ClassNotFoundException;
+    }
+
+    @FunctionalInterface
+    private interface Encoder<T> {
+        byte[] encode(List<T> items) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Decoder<T> {
+        List<T> decode(byte[] data) throws IOException;
+    }
+
+    private static byte[] readFile(String path) throws IOException {
+        File file = new File(path);
+        if (!file.exists()) {
+            return null;
+        }
+        return Files.readAllBytes(file.toPath());
+    }
+
+    /**
+     * Lee un archivo escrito con ObjectOutputStream por versiones anteriores.
+     * El siguiente guardado lo reescribe en formato binario.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> readLegacy(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (List<T>) ois.readObject();
         }
     }
 
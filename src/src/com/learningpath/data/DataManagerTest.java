@@ -1,13 +1,34 @@
 package src.com.learningpath.data;
 
 import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.analytics.CompletionHistogram;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.ResourceReview;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.data.codec.BinaryCodec;
+import src.com.learningpath.data.codec.Compression;
+import src.com.learningpath.data.codec.ShardManifest;
+import src.com.learningpath.users.Student;
 import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class DataManagerTest {
 
@@ -43,4 +64,425 @@ public class DataManagerTest {
         new File(tempDataFolder + "learning_paths.dat").delete();
         new File(tempDataFolder).delete();
     }
+
+    @Test
+    public void testJournalReplayRestoresMutations() throws Exception {
+        String tempDataFolder = "temp_journal/";
+        new File(tempDataFolder).mkdirs();
+        DataManager.setDataFolder(tempDataFolder);
+
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        LearningPath lp = new LearningPath("LP1", "Description 1", "Objectives 1", 1, teacher);
+        ResourceReview review = new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists");
+        lp.addActivity(review);
+
+        List<User> users = new ArrayList<>();
+        users.add(teacher);
+        List<LearningPath> learningPaths = new ArrayList<>();
+        learningPaths.add(lp);
+        DataManager.saveSnapshot(users, learningPaths, new ArrayList<>());
+
+        // Mutaciones posteriores al snapshot: solo quedan en el journal
+        users.add(student);
+        DataManager.getJournal().appendUser(student);
+        Progress progress = new Progress(student, lp);
+        DataManager.getJournal().appendEnrollment(progress);
+        progress.addProgressListener(DataManager.getJournal());
+        progress.updateActivityStatus(review, ActivityStatus.COMPLETED);
+        assertEquals(3, DataManager.getJournal().getRecordCount());
+
+        List<User> loadedUsers = DataManager.loadUsers();
+        List<LearningPath> loadedPaths = DataManager.loadLearningPaths();
+        List<Progress> loadedProgresses = DataManager.loadProgresses();
+        assertEquals(0, loadedProgresses.size());
+
+        DataManager.replayJournal(loadedUsers, loadedPaths, loadedProgresses);
+        assertEquals(2, loadedUsers.size());
+        assertEquals(1, loadedProgresses.size());
+        assertEquals(ActivityStatus.COMPLETED, loadedProgresses.get(0).getActivityStatus(review));
+        assertNotNull(loadedProgresses.get(0).getCompletionDate(review));
+
+        // Reproducir de nuevo no duplica la inscripción
+        DataManager.replayJournal(loadedUsers, loadedPaths, loadedProgresses);
+        assertEquals(1, loadedProgresses.size());
+
+        DataManager.getJournal().close();
+        for (File f : new File(tempDataFolder).listFiles()) {
+            f.delete();
+        }
+        new File(tempDataFolder).delete();
+    }
+
+    @Test
+    public void testJournalReplayRemovesQuizResponses() throws Exception {
+        String tempDataFolder = "temp_journal_quiz/";
+        new File(tempDataFolder).mkdirs();
+        DataManager.setDataFolder(tempDataFolder);
+        try {
+            Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+            LearningPath lp = new LearningPath("LP1", "Description 1", "Objectives 1", 1, teacher);
+            Quiz quiz = new Quiz("Quiz", "Sumas", "Sumar", 1, 10, true, new ArrayList<>(Arrays.asList(
+                    new Question("2 + 2", new String[]{"3", "4"}, 1, "Suma"))), 60.0);
+            lp.addActivity(quiz);
+            Student first = new Student("first", "pass", "First");
+            Student second = new Student("second", "pass", "Second");
+            Progress kept = new Progress(first, lp);
+            kept.saveQuizResponses(quiz, Arrays.asList(1));
+            Progress removed = new Progress(second, lp);
+            removed.saveQuizResponses(quiz, Arrays.asList(0));
+            List<User> users = new ArrayList<>(Arrays.asList(teacher, first, second));
+            DataManager.saveSnapshot(users, new ArrayList<>(Arrays.asList(lp)), new ArrayList<>(Arrays.asList(kept, removed)));
+
+            // Se borran unas respuestas guardadas en el snapshot y otras anexadas al journal
+            kept.addProgressListener(DataManager.getJournal());
+            removed.addProgressListener(DataManager.getJournal());
+            removed.saveQuizResponses(quiz, null);
+            kept.saveQuizResponses(quiz, Arrays.asList(0));
+            kept.saveQuizResponses(quiz, null);
+            assertEquals(3, DataManager.getJournal().getRecordCount());
+
+            List<User> loadedUsers = DataManager.loadUsers();
+            List<LearningPath> loadedPaths = DataManager.loadLearningPaths(loadedUsers);
+            List<Progress> loadedProgresses = DataManager.loadProgresses(loadedUsers, loadedPaths);
+            Quiz loadedQuiz = (Quiz) loadedPaths.get(0).getActivities().get(0);
+            assertNotNull(loadedProgresses.get(1).getQuizResponses(loadedQuiz));
+            assertEquals(3, DataManager.replayJournal(loadedUsers, loadedPaths, loadedProgresses));
+            for (Progress progress : loadedProgresses) {
+                assertNull(progress.getQuizResponses(loadedQuiz));
+            }
+        } finally {
+            DataManager.getJournal().close();
+            try (Stream<Path> files = Files.walk(new File(tempDataFolder).toPath())) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @Test
+    public void testJournalReplayDistinguishesCopiesWithTheSameTitle() throws Exception {
+        String tempDataFolder = "temp_journal_copies/";
+        new File(tempDataFolder).mkdirs();
+        DataManager.setDataFolder(tempDataFolder);
+        try {
+            Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+            Student student = new Student("sstudent", "password456", "Sarah Student");
+            LearningPath original = new LearningPath("Java", "Description 1", "Objectives 1", 1, teacher);
+            original.addActivity(new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists"));
+            LearningPath first = new LearningPath(original, teacher);
+            LearningPath second = new LearningPath(original, teacher);
+            List<User> users = new ArrayList<>(Arrays.asList(teacher, student));
+            DataManager.saveSnapshot(users, new ArrayList<>(Arrays.asList(original, first, second)), new ArrayList<>());
+
+            // Inscripción en ambas copias y avance solo en la segunda
+            Progress inFirst = new Progress(student, first);
+            Progress inSecond = new Progress(student, second);
+            DataManager.getJournal().appendEnrollment(inFirst);
+            DataManager.getJournal().appendEnrollment(inSecond);
+            inSecond.addProgressListener(DataManager.getJournal());
+            inSecond.updateActivityStatus(second.getActivities().get(0), ActivityStatus.COMPLETED);
+
+            List<User> loadedUsers = DataManager.loadUsers();
+            List<LearningPath> loadedPaths = DataManager.loadLearningPaths(loadedUsers);
+            List<Progress> loadedProgresses = DataManager.loadProgresses(loadedUsers, loadedPaths);
+            assertEquals(3, DataManager.replayJournal(loadedUsers, loadedPaths, loadedProgresses));
+            assertEquals(2, loadedProgresses.size());
+            for (Progress progress : loadedProgresses) {
+                LearningPath lp = progress.getLearningPath();
+                ActivityStatus expected = lp.getId() == second.getId() ? ActivityStatus.COMPLETED : ActivityStatus.PENDING;
+                assertEquals(expected, progress.getActivityStatus(lp.getActivities().get(0)));
+            }
+        } finally {
+            DataManager.getJournal().close();
+            try (Stream<Path> files = Files.walk(new File(tempDataFolder).toPath())) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @Test
+    public void testSnapshotRewritesOnlyChangedFiles() throws Exception {
+        String tempDataFolder = "temp_dirty/";
+        new File(tempDataFolder).mkdirs();
+        DataManager.setDataFolder(tempDataFolder);
+
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        LearningPath lp = new LearningPath("LP1", "Description 1", "Objectives 1", 1, teacher);
+        ResourceReview review = new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists");
+        lp.addActivity(review);
+        List<User> users = new ArrayList<>();
+        users.add(teacher);
+        users.add(student);
+        List<LearningPath> learningPaths = new ArrayList<>();
+        learningPaths.add(lp);
+        List<Progress> progresses = new ArrayList<>();
+        progresses.add(new Progress(student, lp));
+        DataManager.saveSnapshot(users, learningPaths, progresses);
+        assertFalse(progresses.get(0).isDirty());
+
+        // Los datos recién cargados están limpios: solo el progreso modificado se reescribe
+        List<User> loadedUsers = DataManager.loadUsers();
+        List<LearningPath> loadedPaths = DataManager.loadLearningPaths();
+        List<Progress> loadedProgresses = DataManager.loadProgresses();
+        Object usersFile = fileKey(tempDataFolder + "users.dat");
+        Object pathsFile = fileKey(tempDataFolder + "learning_paths.dat");
+        Object progressesFile = fileKey(tempDataFolder + "progresses.dat");
+
+        Progress loaded = loadedProgresses.get(0);
+        loaded.updateActivityStatus(loaded.getLearningPath().getActivities().get(0), ActivityStatus.COMPLETED);
+        DataManager.saveSnapshot(loadedUsers, loadedPaths, loadedProgresses);
+
+        assertEquals(usersFile, fileKey(tempDataFolder + "users.dat"));
+        assertEquals(pathsFile, fileKey(tempDataFolder + "learning_paths.dat"));
+        assertNotEquals(progressesFile, fileKey(tempDataFolder + "progresses.dat"));
+        assertFalse(loaded.isDirty());
+        assertEquals(100.0, DataManager.loadProgresses().get(0).calculateCompletionPercentage());
+
+        DataManager.getJournal().close();
+        for (File f : new File(tempDataFolder).listFiles()) {
+            f.delete();
+        }
+        new File(tempDataFolder).delete();
+    }
+
+    @Test
+    public void testProgressesReferenceLoadedEntities() throws Exception {
+        String tempDataFolder = "temp_identity/";
+        new File(tempDataFolder).mkdirs();
+        DataManager.setDataFolder(tempDataFolder);
+
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        LearningPath lp = new LearningPath("LP1", "Description 1", "Objectives 1", 1, teacher);
+        ResourceReview review = new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists");
+        lp.addActivity(review);
+        List<User> users = new ArrayList<>(Arrays.asList(teacher, student));
+        List<LearningPath> learningPaths = new ArrayList<>(Arrays.asList(lp));
+        Progress progress = new Progress(student, lp);
+        progress.updateActivityStatus(review, ActivityStatus.COMPLETED);
+        DataManager.saveSnapshot(users, learningPaths, new ArrayList<>(Arrays.asList(progress)));
+
+        // Los progresos y Learning Paths cargados apuntan a las mismas instancias, no a copias
+        List<User> loadedUsers = DataManager.loadUsers();
+        List<LearningPath> loadedPaths = DataManager.loadLearningPaths(loadedUsers);
+        Progress loaded = DataManager.loadProgresses(loadedUsers, loadedPaths).get(0);
+        assertSame(loadedUsers.get(0), loadedPaths.get(0).getCreator());
+        assertSame(loadedUsers.get(1), loaded.getStudent());
+        assertSame(loadedPaths.get(0), loaded.getLearningPath());
+        assertEquals(ActivityStatus.COMPLETED, loaded.getActivityStatus(loadedPaths.get(0).getActivities().get(0)));
+
+        DataManager.getJournal().close();
+        for (File f : new File(tempDataFolder).listFiles()) {
+            f.delete();
+        }
+        new File(tempDataFolder).delete();
+    }
+
+    @Test
+    public void testCorruptedFileIsRecoveredFromBackup() throws Exception {
+        String tempDataFolder = "temp_checksum/";
+        new File(tempDataFolder).mkdirs();
+        DataManager.setDataFolder(tempDataFolder);
+
+        List<User> users = new ArrayList<>();
+        users.add(new Teacher("jdoe", "password123", "John Doe"));
+        DataManager.saveUsers(users);
+        users.add(new Student("sstudent", "password456", "Sarah Student"));
+        DataManager.saveUsers(users);
+        assertEquals(2, DataManager.loadUsers().size());
+
+        // Un byte dañado o un archivo truncado no pasan la verificación
+        File file = new File(tempDataFolder + "users.dat");
+        byte[] data = Files.readAllBytes(file.toPath());
+        byte[] damaged = data.clone();
+        damaged[damaged.length / 2] ^= 0x40;
+        assertThrows(IOException.class, () -> BinaryCodec.decodeUsers(damaged));
+        assertThrows(IOException.class, () -> BinaryCodec.decodeUsers(Arrays.copyOf(data, data.length - 3)));
+
+        // Al cargar se recupera la copia del guardado anterior en lugar de empezar vacío
+        Files.write(file.toPath(), damaged);
+        List<User> recovered = DataManager.loadUsers();
+        assertEquals(1, recovered.size());
+        assertEquals("jdoe", recovered.get(0).getUsername());
+
+        DataManager.getJournal().close();
+        for (File f : new File(tempDataFolder).listFiles()) {
+            f.delete();
+        }
+        new File(tempDataFolder).delete();
+    }
+
+    @Test
+    public void testHistogramIsRebuiltWhenProgressesComeFromBackup() throws Exception {
+        String tempDataFolder = "temp_histogram_backup/";
+        new File(tempDataFolder).mkdirs();
+        DataManager.setDataFolder(tempDataFolder);
+        try {
+            Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+            Student student = new Student("sstudent", "password456", "Sarah Student");
+            LearningPath lp = new LearningPath("Java", "Description 1", "Objectives 1", 1, teacher);
+            lp.addActivity(new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists"));
+            List<User> users = new ArrayList<>(Arrays.asList(teacher, student));
+            DataManager.saveSnapshot(users, new ArrayList<>(List.of(lp)), new ArrayList<>(List.of(new Progress(student, lp))));
+
+            // Segundo snapshot: la actividad completada queda en el histograma guardado
+            List<User> loadedUsers = DataManager.loadUsers();
+            List<LearningPath> loadedPaths = DataManager.loadLearningPaths(loadedUsers);
+            List<Progress> loadedProgresses = DataManager.loadProgresses(loadedUsers, loadedPaths);
+            CompletionHistogram histogram = DataManager.loadHistogram(loadedProgresses);
+            Progress progress = loadedProgresses.get(0);
+            progress.addProgressListener(histogram);
+            LocalDate march = LocalDate.of(2024, 3, 1);
+            progress.updateActivityStatus(progress.getLearningPath().getActivities().get(0), ActivityStatus.COMPLETED, march);
+            DataManager.saveSnapshot(loadedUsers, loadedPaths, loadedProgresses);
+            loadedProgresses = DataManager.loadProgresses(loadedUsers, loadedPaths);
+            assertEquals(Integer.valueOf(1), DataManager.loadHistogram(loadedProgresses).getDailyCounts(2024).get(march));
+
+            // Con los progresos dañados se recupera la copia anterior, que tiene la misma
+            // cantidad de progresos pero ninguna actividad completada
+            File file = new File(tempDataFolder + "progresses.dat");
+            byte[] damaged = Files.readAllBytes(file.toPath());
+            damaged[damaged.length / 2] ^= 0x40;
+            Files.write(file.toPath(), damaged);
+            loadedProgresses = DataManager.loadProgresses(loadedUsers, loadedPaths);
+            assertEquals(1, loadedProgresses.size());
+            assertNull(loadedProgresses.get(0).getCountedCompletionDate(loadedPaths.get(0).getActivities().get(0)));
+            assertTrue(DataManager.loadHistogram(loadedProgresses).getDailyCounts(2024).isEmpty());
+        } finally {
+            DataManager.getJournal().close();
+            try (Stream<Path> files = Files.walk(new File(tempDataFolder).toPath())) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @Test
+    public void testShardedLayoutRewritesOnlyTouchedShards() throws Exception {
+        String tempDataFolder = "temp_shards/";
+        new File(tempDataFolder).mkdirs();
+        DataManager.setDataFolder(tempDataFolder);
+        DataManager.setLayout(DataManager.Layout.SHARDED);
+        try {
+            Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+            Student sarah = new Student("sstudent", "password456", "Sarah Student");
+            Student mary = new Student("mary", "password789", "Mary Student");
+            LearningPath lp = new LearningPath("LP1", "Description 1", "Objectives 1", 1, teacher);
+            lp.addActivity(new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists"));
+            List<User> users = new ArrayList<>(Arrays.asList(teacher, sarah, mary));
+            List<LearningPath> learningPaths = new ArrayList<>(Arrays.asList(lp));
+            List<Progress> progresses = new ArrayList<>(Arrays.asList(new Progress(sarah, lp), new Progress(mary, lp)));
+            DataManager.saveSnapshot(users, learningPaths, progresses);
+            assertTrue(new File(tempDataFolder + "manifest.dat").exists());
+            assertFalse(new File(tempDataFolder + "progresses.dat").exists());
+
+            List<User> loadedUsers = DataManager.loadUsers();
+            List<LearningPath> loadedPaths = DataManager.loadLearningPaths(loadedUsers);
+            List<Progress> loadedProgresses = DataManager.loadProgresses(loadedUsers, loadedPaths);
+            assertEquals(2, loadedProgresses.size());
+            assertEquals(1, DataManager.loadLearningPathsOf("jdoe", loadedUsers).size());
+
+            // Solo se reescribe el fragmento del estudiante que cambió
+            String sarahShard = tempDataFolder + ShardManifest.fileName(ShardManifest.Kind.PROGRESSES, "sstudent");
+            String maryShard = tempDataFolder + ShardManifest.fileName(ShardManifest.Kind.PROGRESSES, "mary");
+            String teacherShard = tempDataFolder + ShardManifest.fileName(ShardManifest.Kind.LEARNING_PATHS, "jdoe");
+            Object sarahFile = fileKey(sarahShard);
+            Object maryFile = fileKey(maryShard);
+            Object teacherFile = fileKey(teacherShard);
+            Progress mine = DataManager.loadProgressesOf("mary", loadedUsers, loadedPaths).get(0);
+            Progress loaded = loadedProgresses.get(1);
+            assertEquals("mary", mine.getStudent().getUsername());
+            loaded.updateActivityStatus(loaded.getLearningPath().getActivities().get(0), ActivityStatus.COMPLETED);
+            DataManager.saveSnapshot(loadedUsers, loadedPaths, loadedProgresses);
+
+            assertEquals(sarahFile, fileKey(sarahShard));
+            assertEquals(teacherFile, fileKey(teacherShard));
+            assertNotEquals(maryFile, fileKey(maryShard));
+            assertEquals(100.0, DataManager.loadProgressesOf("mary", loadedUsers, loadedPaths).get(0).calculateCompletionPercentage());
+
+            // Volver a un solo archivo elimina los fragmentos
+            DataManager.setLayout(DataManager.Layout.SINGLE_FILE);
+            DataManager.saveSnapshot(loadedUsers, loadedPaths, loadedProgresses);
+            assertFalse(new File(tempDataFolder + "manifest.dat").exists());
+            assertEquals(2, DataManager.loadProgresses(loadedUsers, loadedPaths).size());
+        } finally {
+            DataManager.setLayout(DataManager.Layout.SINGLE_FILE);
+            DataManager.getJournal().close();
+            try (Stream<Path> files = Files.walk(new File(tempDataFolder).toPath())) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @Test
+    public void testCompressedSnapshotAndJournalStayReadable() throws Exception {
+        String tempDataFolder = "temp_compressed/";
+        new File(tempDataFolder).mkdirs();
+        DataManager.setDataFolder(tempDataFolder);
+        try {
+            Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+            LearningPath lp = new LearningPath("LP1", "Description 1", "Objectives 1", 1, teacher);
+            ResourceReview review = new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists");
+            Survey survey = new Survey("Encuesta", "Opinión", "Opinar", 1, 5, false);
+            lp.addActivity(review);
+            lp.addActivity(survey);
+            List<User> users = new ArrayList<>(Arrays.asList(teacher));
+            List<Progress> progresses = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                Student student = new Student("student" + i, "pass", "Student " + i);
+                users.add(student);
+                Progress progress = new Progress(student, lp);
+                progress.updateActivityStatus(review, ActivityStatus.COMPLETED);
+                progresses.add(progress);
+            }
+            int plainSize = BinaryCodec.encodeProgresses(progresses).length;
+            BinaryCodec.setCompression(Compression.parse("deflate:9"));
+            DataManager.saveSnapshot(users, new ArrayList<>(Arrays.asList(lp)), progresses);
+            byte[] stored = Files.readAllBytes(new File(tempDataFolder + "progresses.dat").toPath());
+            assertEquals(Compression.Codec.DEFLATE.ordinal(), stored[5]);
+            assertTrue(stored.length < plainSize);
+
+            // Un registro grande del journal también se comprime y se reproduce igual
+            Progress first = progresses.get(0);
+            SurveyResponse response = new SurveyResponse(first.getStudent(), survey);
+            response.addAnswer("¿Qué opinas?", "Muy completo. ".repeat(100));
+            DataManager.getJournal().appendSurveyResponse(first, survey, response);
+            DataManager.getJournal().flush();
+            String journal = new String(Files.readAllBytes(new File(tempDataFolder + "journal.log").toPath()), "UTF-8");
+            assertFalse(journal.contains("Muy completo. Muy completo."));
+
+            // Con la compresión desactivada, los archivos comprimidos se siguen leyendo
+            BinaryCodec.setCompression(Compression.NONE);
+            List<User> loadedUsers = DataManager.loadUsers();
+            List<LearningPath> loadedPaths = DataManager.loadLearningPaths(loadedUsers);
+            List<Progress> loadedProgresses = DataManager.loadProgresses(loadedUsers, loadedPaths);
+            DataManager.replayJournal(loadedUsers, loadedPaths, loadedProgresses);
+            assertEquals(50, loadedProgresses.size());
+            Progress loaded = loadedProgresses.get(0);
+            assertEquals(ActivityStatus.COMPLETED, loaded.getActivityStatus(loaded.getLearningPath().getActivities().get(0)));
+            Survey loadedSurvey = (Survey) loaded.getLearningPath().getActivities().get(1);
+            assertEquals("Muy completo. ".repeat(100), loaded.getSurveyResponse(loadedSurvey).getAnswers().get("¿Qué opinas?"));
+            // El registro de la respuesta también la repone en la encuesta, una sola vez
+            assertEquals(1, loadedSurvey.getSurveyResponses().size());
+            DataManager.replayJournal(loadedUsers, loadedPaths, loadedProgresses);
+            assertEquals(1, loadedSurvey.getSurveyResponses().size());
+            assertEquals("student0", loadedSurvey.getSurveyResponses().get(0).getStudent().getUsername());
+
+            // El siguiente snapshot vuelve a escribirlos sin comprimir
+            DataManager.saveSnapshot(loadedUsers, loadedPaths, loadedProgresses);
+            assertEquals(Compression.Codec.NONE.ordinal(), Files.readAllBytes(new File(tempDataFolder + "progresses.dat").toPath())[5]);
+            assertEquals(50, DataManager.loadProgresses(loadedUsers, loadedPaths).size());
+        } finally {
+            BinaryCodec.setCompression(Compression.NONE);
+            DataManager.getJournal().close();
+            try (Stream<Path> files = Files.walk(new File(tempDataFolder).toPath())) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    // Identidad del archivo en disco: cambia cuando se reescribe con un archivo temporal y rename.
+    private static Object fileKey(String path) throws Exception {
+        return Files.readAttributes(new File(path).toPath(), BasicFileAttributes.class).fileKey();
+    }
 }
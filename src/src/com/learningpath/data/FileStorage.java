@@ -0,0 +1,121 @@
+package src.com.learningpath.data;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.ProgressListener;
+import src.com.learningpath.analytics.CompletionHistogram;
+import src.com.learningpath.data.codec.MappedProgressStore;
+import src.com.learningpath.users.User;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Almacenamiento en los archivos binarios de la carpeta de datos de {@link DataManager}: cada
+ * mutación se anexa al journal y los snapshots reescriben solo los archivos modificados.
+ */
+public class FileStorage implements Storage {
+
+    @Override
+    public List<User> loadUsers() throws IOException {
+        try {
+            return DataManager.loadUsers();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Archivo de usuarios con clases desconocidas.", e);
+        }
+    }
+
+    @Override
+    public List<LearningPath> loadLearningPaths(List<User> users) throws IOException {
+        try {
+            return DataManager.loadLearningPaths(users);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Archivo de Learning Paths con clases desconocidas.", e);
+        }
+    }
+
+    @Override
+    public List<Progress> loadProgresses(List<User> users, List<LearningPath> learningPaths) throws IOException {
+        try {
+            return DataManager.loadProgresses(users, learningPaths);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Archivo de progresos con clases desconocidas.", e);
+        }
+    }
+
+    @Override
+    public List<Progress> loadProgressesOf(String username, List<User> users, List<LearningPath> learningPaths) throws IOException {
+        try {
+            return DataManager.loadProgressesOf(username, users, learningPaths);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Archivo de progresos con clases desconocidas.", e);
+        }
+    }
+
+    /**
+     * Los registros se buscan en el índice del archivo de progresos; solo se decodifican los del Learning Path.
+     */
+    @Override
+    public List<Progress> loadProgressesOf(LearningPath lp, List<User> users, List<LearningPath> learningPaths) throws IOException {
+        return MappedProgressStore.of(loadProgresses(users, learningPaths)).findByLearningPath(lp);
+    }
+
+    @Override
+    public void forEachProgress(List<User> users, List<LearningPath> learningPaths, ProgressSink sink) throws IOException {
+        try {
+            DataManager.forEachProgress(users, learningPaths, sink);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Archivo de progresos con clases desconocidas.", e);
+        }
+    }
+
+    @Override
+    public void importData(List<User> users, List<LearningPath> learningPaths, ProgressSource source) throws IOException {
+        DataManager.importSnapshot(users, learningPaths, source);
+    }
+
+    @Override
+    public CompletionHistogram loadHistogram(List<Progress> progresses) {
+        return DataManager.loadHistogram(progresses);
+    }
+
+    @Override
+    public int replayJournal(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException {
+        return DataManager.replayJournal(users, learningPaths, progresses);
+    }
+
+    @Override
+    public void appendUser(User user) throws IOException {
+        DataManager.getJournal().appendUser(user);
+    }
+
+    @Override
+    public void appendLearningPath(LearningPath lp) throws IOException {
+        DataManager.getJournal().appendLearningPath(lp);
+    }
+
+    @Override
+    public void appendEnrollment(Progress progress) throws IOException {
+        DataManager.getJournal().appendEnrollment(progress);
+    }
+
+    @Override
+    public ProgressListener getChangeListener() {
+        return DataManager.getJournal();
+    }
+
+    @Override
+    public boolean commit(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException {
+        return DataManager.commit(users, learningPaths, progresses);
+    }
+
+    @Override
+    public void saveSnapshot(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException {
+        DataManager.saveSnapshot(users, learningPaths, progresses);
+    }
+
+    @Override
+    public void close() throws IOException {
+        DataManager.getJournal().close();
+    }
+}
@@ -0,0 +1,615 @@
+package src.com.learningpath.data;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.ProgressListener;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.OpenEndedExam;
+import src.com.learningpath.activities.OpenEndedResponse;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.data.codec.BinaryCodec;
+import src.com.learningpath.data.codec.Compression;
+import src.com.learningpath.data.codec.EntityResolver;
+import src.com.learningpath.data.codec.MappedProgressStore;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.User;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal de escritura anticipada (write-ahead) en el que se anexan las mutaciones
+ * pequeñas (inscripciones, cambios de estado, respuestas) entre dos snapshots completos.
+ * <p>
+ * Cada registro se escribe como {@code [int longitud][byte tipo][datos]}; con compresión
+ * ({@link BinaryCodec#getCompression()}) los datos de los registros grandes se guardan
+ * comprimidos si ocupan menos, con el códec en el propio registro. Al cargar,
+ * {@link #replay(List, List, List)} aplica los registros sobre el último snapshot; un
+ * registro incompleto al final del archivo (corte durante la escritura) se ignora.
+ * Reproducir el mismo registro dos veces no tiene efecto adicional, de modo que un
+ * fallo entre la escritura del snapshot y el vaciado del journal es inofensivo.
+ * <p>
+ * Las respuestas a encuestas y exámenes se anexan solas; al reproducirlas se añaden
+ * también a la lista de respuestas de la actividad, así que no hace falta anexar el
+ * Learning Path completo con cada respuesta.
+ */
+public class Journal implements ProgressListener, Closeable {
+    private static final byte USER = 1;
+    private static final byte LEARNING_PATH = 2;
+    private static final byte ENROLL = 3;
+    private static final byte STATUS = 4;
+    private static final byte QUIZ_RESPONSES = 5;
+    private static final byte SURVEY_RESPONSE = 6;
+    private static final byte EXAM_RESPONSE = 7;
+
+    // Marca de los registros que identifican la actividad por su id y no por título y
+    // descripción. Los journals anteriores no la tienen y se siguen aplicando.
+    private static final byte ID_KEYED = 0x10;
+
+    // Marca de los registros que identifican el Learning Path del progreso por su id y no por
+    // título y creador, que se repiten entre copias de un mismo Learning Path.
+    private static final byte PATH_ID_KEYED = 0x40;
+
+    // Marca de los registros cuyo contenido está comprimido: le siguen el códec, la longitud
+    // sin comprimir y el bloque comprimido. Solo se comprimen los registros grandes.
+    private static final byte COMPRESSED = 0x20;
+    private static final int MIN_COMPRESSED_SIZE = 256;
+
+    private final File file;
+    private DataOutputStream out;
+    private int recordCount;
+
+    /**
+     * Crea un journal sobre el archivo indicado. Si el archivo ya existe se cuentan sus registros.
+     *
+     * @param file El archivo del journal.
+     */
+    public Journal(File file) {
+        this.file = file;
+        this.recordCount = countRecords();
+    }
+
+    /**
+     * Anexa el alta o modificación de un usuario.
+     */
+    public synchronized void appendUser(User user) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(buffer);
+        writeBlob(data, BinaryCodec.encodeUsers(Collections.singletonList(user)));
+        append(USER, buffer.toByteArray());
+    }
+
+    /**
+     * Anexa el alta o modificación de un Learning Path (por ejemplo, al añadir actividades).
+     */
+    public synchronized void appendLearningPath(LearningPath learningPath) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(buffer);
+        writeBlob(data, BinaryCodec.encodeLearningPaths(Collections.singletonList(learningPath)));
+        append(LEARNING_PATH, buffer.toByteArray());
+    }
+
+    /**
+     * Anexa la inscripción de un estudiante en un Learning Path.
+     */
+    public synchronized void appendEnrollment(Progress progress) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(buffer);
+        writeProgressKey(data, progress);
+        append((byte) (ENROLL | PATH_ID_KEYED), buffer.toByteArray());
+    }
+
+    /**
+     * Anexa el cambio de estado de una actividad.
+     */
+    public synchronized void appendStatus(Progress progress, Activity activity, ActivityStatus status, LocalDate date) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(buffer);
+        writeProgressKey(data, progress);
+        writeActivityKey(data, activity);
+        data.writeByte(status.ordinal());
+        data.writeLong(date != null ? date.toEpochDay() : Long.MIN_VALUE);
+        append((byte) (STATUS | ID_KEYED | PATH_ID_KEYED), buffer.toByteArray());
+    }
+
+    /**
+     * Anexa las opciones elegidas por un estudiante en un Quiz.
+     *
+     * @param chosenOptions Las opciones, o null si se eliminaron las respuestas (se escribe
+     *                      la cantidad -1).
+     */
+    public synchronized void appendQuizResponses(Progress progress, Quiz quiz, List<Integer> chosenOptions) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(buffer);
+        writeProgressKey(data, progress);
+        writeActivityKey(data, quiz);
+        if (chosenOptions == null) {
+            data.writeInt(-1);
+        } else {
+            data.writeInt(chosenOptions.size());
+            for (Integer option : chosenOptions) {
+                data.writeInt(option);
+            }
+        }
+        append((byte) (QUIZ_RESPONSES | ID_KEYED | PATH_ID_KEYED), buffer.toByteArray());
+    }
+
+    /**
+     * Anexa la respuesta de un estudiante a una encuesta.
+     */
+    public synchronized void appendSurveyResponse(Progress progress, Survey survey, SurveyResponse response) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(buffer);
+        writeProgressKey(data, progress);
+        writeActivityKey(data, survey);
+        writeAnswers(data, response.getAnswers());
+        append((byte) (SURVEY_RESPONSE | ID_KEYED | PATH_ID_KEYED), buffer.toByteArray());
+    }
+
+    /**
+     * Anexa la respuesta de un estudiante a un examen de preguntas abiertas.
+     */
+    public synchronized void appendExamResponse(Progress progress, OpenEndedExam exam, OpenEndedResponse response) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(buffer);
+        writeProgressKey(data, progress);
+        writeActivityKey(data, exam);
+        writeAnswers(data, response.getAnswers());
+        append((byte) (EXAM_RESPONSE | ID_KEYED | PATH_ID_KEYED), buffer.toByteArray());
+    }
+
+    /**
+     * Obtiene la cantidad de registros anexados desde el último snapshot.
+     */
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Vacía el journal. Se invoca después de escribir un snapshot completo; el truncado se
+     * sincroniza con el disco antes de volver a contar registros.
+     */
+    public synchronized void reset() throws IOException {
+        close();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            channel.truncate(0);
+            channel.force(true);
+        }
+        recordCount = 0;
+    }
+
+    /**
+     * Fuerza la escritura de los registros pendientes en el sistema de archivos.
+     */
+    public synchronized void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    /**
+     * Aplica los registros del journal sobre las listas cargadas desde el último snapshot.
+     *
+     * @param users         Los usuarios del snapshot.
+     * @param learningPaths Los Learning Paths del snapshot.
+     * @param progresses    Los progresos del snapshot.
+     * @return La cantidad de registros aplicados.
+     * @throws IOException Si el journal no se puede leer.
+     */
+    public synchronized int replay(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        // Con un MappedProgressStore el índice se llena bajo demanda para no decodificar todos los progresos.
+        Map<String, Progress> progressIndex = new HashMap<>();
+        if (!(progresses instanceof MappedProgressStore)) {
+            for (Progress p : progresses) {
+                progressIndex.put(progressKey(p.getStudent().getUsername(), p.getLearningPath().getId()), p);
+            }
+        }
+
+        // Los usuarios y Learning Paths del journal usan las instancias ya cargadas como creadores.
+        EntityResolver resolver = new EntityResolver(users, learningPaths);
+
+        int applied = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            byte[] record;
+            while ((record = readRecord(in)) != null) {
+                try {
+                    byte type = record[0];
+                    DataInputStream data = new DataInputStream(new ByteArrayInputStream(record, 1, record.length - 1));
+                    if ((type & COMPRESSED) != 0) {
+                        Compression.Codec codec = Compression.codecOf(data.readByte());
+                        int originalLength = data.readInt();
+                        byte[] payload = Compression.decompress(codec, ByteBuffer.wrap(record, 6, record.length - 6), originalLength);
+                        data = new DataInputStream(new ByteArrayInputStream(payload));
+                        type &= ~COMPRESSED;
+                    }
+                    applyRecord(type, data, users, learningPaths, progresses, progressIndex, resolver);
+                    applied++;
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("Registro del journal ignorado: " + e.getMessage());
+                }
+            }
+        }
+        return applied;
+    }
+
+    private void applyRecord(byte type, DataInputStream data, List<User> users, List<LearningPath> learningPaths,
+                             List<Progress> progresses, Map<String, Progress> progressIndex,
+                             EntityResolver resolver) throws IOException {
+        boolean byId = (type & ID_KEYED) != 0;
+        boolean byPathId = (type & PATH_ID_KEYED) != 0;
+        switch ((byte) (type & ~(ID_KEYED | PATH_ID_KEYED))) {
+            case USER: {
+                User user = BinaryCodec.decodeUsers(readBlob(data)).get(0);
+                users.removeIf(u -> u.getUsername().equals(user.getUsername()));
+                users.add(user);
+                resolver.register(user);
+                break;
+            }
+            case LEARNING_PATH: {
+                LearningPath lp = BinaryCodec.decodeLearningPaths(readBlob(data), resolver).get(0);
+                int index = learningPaths.indexOf(lp);
+                if (index >= 0) {
+                    learningPaths.set(index, lp);
+                } else {
+                    learningPaths.add(lp);
+                }
+                resolver.register(lp);
+                break;
+            }
+            case ENROLL: {
+                String username = data.readUTF();
+                LearningPath lp = readLearningPath(data, learningPaths, byPathId);
+                if (lookupProgress(progresses, progressIndex, username, lp.getId()) == null) {
+                    Student student = findStudent(users, username);
+                    if (student == null) {
+                        throw new IllegalStateException("inscripción sin estudiante: " + username);
+                    }
+                    Progress progress = new Progress(student, lp);
+                    progresses.add(progress);
+                    progressIndex.put(progressKey(username, lp.getId()), progress);
+                }
+                break;
+            }
+            case STATUS: {
+                Progress progress = requireProgress(data, learningPaths, progresses, progressIndex, byPathId);
+                Activity activity = findActivity(progress, learningPaths, data, byId);
+                ActivityStatus status = ActivityStatus.values()[data.readByte()];
+                long epochDay = data.readLong();
+                progress.updateActivityStatus(activity, status, epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay));
+                break;
+            }
+            case QUIZ_RESPONSES: {
+                Progress progress = requireProgress(data, learningPaths, progresses, progressIndex, byPathId);
+                Quiz quiz = (Quiz) findActivity(progress, learningPaths, data, byId);
+                int count = data.readInt();
+                if (count < 0) {
+                    progress.saveQuizResponses(quiz, null);
+                    break;
+                }
+                List<Integer> options = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    options.add(data.readInt());
+                }
+                progress.saveQuizResponses(quiz, options);
+                break;
+            }
+            case SURVEY_RESPONSE: {
+                Progress progress = requireProgress(data, learningPaths, progresses, progressIndex, byPathId);
+                Survey survey = (Survey) findActivity(progress, learningPaths, data, byId);
+                SurveyResponse response = new SurveyResponse(progress.getStudent(), survey);
+                response.getAnswers().putAll(readAnswers(data));
+                progress.addSurveyResponse(survey, response);
+                if (!hasSurveyResponseFrom(survey, progress.getStudent())) {
+                    survey.addSurveyResponse(response);
+                }
+                break;
+            }
+            case EXAM_RESPONSE: {
+                Progress progress = requireProgress(data, learningPaths, progresses, progressIndex, byPathId);
+                OpenEndedExam exam = (OpenEndedExam) findActivity(progress, learningPaths, data, byId);
+                OpenEndedResponse response = new OpenEndedResponse(progress.getStudent(), exam);
+                response.getAnswers().putAll(readAnswers(data));
+                progress.addExamResponse(exam, response);
+                if (!hasExamResponseFrom(exam, progress.getStudent())) {
+                    exam.addExamResponse(response);
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("tipo de registro desconocido " + type);
+        }
+    }
+
+    // Implementación de ProgressListener: cada mutación se anexa en cuanto ocurre.
+
+    @Override
+    public void activityStatusChanged(Progress progress, Activity activity, ActivityStatus status, LocalDate completionDate) {
+        try {
+            appendStatus(progress, activity, status, completionDate);
+        } catch (IOException e) {
+            System.out.println("Error al escribir en el journal: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void quizResponsesSaved(Progress progress, Quiz quiz, List<Integer> chosenOptions) {
+        try {
+            appendQuizResponses(progress, quiz, chosenOptions);
+        } catch (IOException e) {
+            System.out.println("Error al escribir en el journal: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void surveyResponseAdded(Progress progress, Survey survey, SurveyResponse response) {
+        try {
+            appendSurveyResponse(progress, survey, response);
+        } catch (IOException e) {
+            System.out.println("Error al escribir en el journal: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void examResponseAdded(Progress progress, OpenEndedExam exam, OpenEndedResponse response) {
+        try {
+            appendExamResponse(progress, exam, response);
+        } catch (IOException e) {
+            System.out.println("Error al escribir en el journal: " + e.getMessage());
+        }
+    }
+
+    // Métodos auxiliares
+
+    private void append(byte type, byte[] payload) throws IOException {
+        if (out == null) {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        }
+        Compression compression = BinaryCodec.getCompression();
+        if (payload.length >= MIN_COMPRESSED_SIZE && compression.getCodec() != Compression.Codec.NONE) {
+            byte[] compressed = compression.compress(payload, 0, payload.length);
+            if (compressed.length + 5 < payload.length) {
+                out.writeInt(compressed.length + 6);
+                out.writeByte(type | COMPRESSED);
+                out.writeByte(compression.getCodec().ordinal());
+                out.writeInt(payload.length);
+                out.write(compressed);
+                out.flush();
+                recordCount++;
+                return;
+            }
+        }
+        out.writeInt(payload.length + 1);
+        out.writeByte(type);
+        out.write(payload);
+        out.flush();
+        recordCount++;
+    }
+
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length <= 0) {
+            return null;
+        }
+        byte[] record = new byte[length];
+        try {
+            in.readFully(record);
+        } catch (EOFException e) {
+            // Registro truncado por un cierre abrupto: se descarta.
+            return null;
+        }
+        return record;
+    }
+
+    private int countRecords() {
+        if (!file.exists()) {
+            return 0;
+        }
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (readRecord(in) != null) {
+                count++;
+            }
+        } catch (IOException e) {
+            System.out.println("No se pudo leer el journal: " + e.getMessage());
+        }
+        return count;
+    }
+
+    private static void writeBlob(DataOutputStream data, byte[] bytes) throws IOException {
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static byte[] readBlob(DataInputStream data) throws IOException {
+        byte[] bytes = new byte[data.readInt()];
+        data.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeProgressKey(DataOutputStream data, Progress progress) throws IOException {
+        data.writeUTF(progress.getStudent().getUsername());
+        data.writeInt(progress.getLearningPath().getId());
+    }
+
+    private static void writeActivityKey(DataOutputStream data, Activity activity) throws IOException {
+        data.writeInt(activity.getId());
+    }
+
+    private static void writeAnswers(DataOutputStream data, Map<String, String> answers) throws IOException {
+        data.writeInt(answers.size());
+        for (Map.Entry<String, String> entry : answers.entrySet()) {
+            data.writeUTF(entry.getKey());
+            data.writeUTF(entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readAnswers(DataInputStream data) throws IOException {
+        int count = data.readInt();
+        Map<String, String> answers = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            answers.put(data.readUTF(), data.readUTF());
+        }
+        return answers;
+    }
+
+    // Clave de los registros anteriores a PATH_ID_KEYED: título y usuario del creador.
+    private static String legacyPathKey(LearningPath lp) {
+        return lp.getTitle() + '\u0000' + lp.getCreator().getUsername();
+    }
+
+    private static String progressKey(String username, int pathId) {
+        return username + '\u0000' + pathId;
+    }
+
+    /**
+     * Lee la clave del Learning Path de un registro: su id o, en los registros antiguos, su
+     * título y creador, que se resuelven al primer Learning Path que coincide.
+     */
+    private static LearningPath readLearningPath(DataInputStream data, List<LearningPath> learningPaths,
+                                                 boolean byPathId) throws IOException {
+        LearningPath lp;
+        String key;
+        if (byPathId) {
+            int id = data.readInt();
+            lp = findLearningPath(learningPaths, id);
+            key = String.valueOf(id);
+        } else {
+            key = data.readUTF();
+            lp = null;
+            for (LearningPath candidate : learningPaths) {
+                if (legacyPathKey(candidate).equals(key)) {
+                    lp = candidate;
+                    break;
+                }
+            }
+        }
+        if (lp == null) {
+            throw new IllegalStateException("Learning Path no encontrado: " + key);
+        }
+        return lp;
+    }
+
+    private static Progress requireProgress(DataInputStream data, List<LearningPath> learningPaths, List<Progress> progresses,
+                                            Map<String, Progress> progressIndex, boolean byPathId) throws IOException {
+        String username = data.readUTF();
+        LearningPath lp = readLearningPath(data, learningPaths, byPathId);
+        Progress progress = lookupProgress(progresses, progressIndex, username, lp.getId());
+        if (progress == null) {
+            throw new IllegalStateException("progreso no encontrado: " + progressKey(username, lp.getId()));
+        }
+        return progress;
+    }
+
+    private static Progress lookupProgress(List<Progress> progresses, Map<String, Progress> progressIndex,
+                                           String username, int pathId) {
+        String key = progressKey(username, pathId);
+        Progress progress = progressIndex.get(key);
+        if (progress == null && progresses instanceof MappedProgressStore) {
+            progress = ((MappedProgressStore) progresses).find(username, pathId);
+            if (progress != null) {
+                progressIndex.put(key, progress);
+            }
+        }
+        return progress;
+    }
+
+    // Las respuestas de la encuesta o el examen pueden venir ya en el snapshot o en un
+    // registro LEARNING_PATH anterior: se añaden una sola vez por estudiante.
+    private static boolean hasSurveyResponseFrom(Survey survey, Student student) {
+        for (SurveyResponse r : survey.getSurveyResponses()) {
+            if (r.getStudent().getUsername().equals(student.getUsername())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasExamResponseFrom(OpenEndedExam exam, Student student) {
+        for (OpenEndedResponse r : exam.getExamResponses()) {
+            if (r.getStudent().getUsername().equals(student.getUsername())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Student findStudent(List<User> users, String username) {
+        for (User u : users) {
+            if (u instanceof Student && u.getUsername().equals(username)) {
+                return (Student) u;
+            }
+        }
+        return null;
+    }
+
+    private static LearningPath findLearningPath(List<LearningPath> learningPaths, int id) {
+        for (LearningPath lp : learningPaths) {
+            if (lp.getId() == id) {
+                return lp;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lee la clave de la actividad y la busca primero en el Learning Path del progreso y luego
+     * en la versión vigente del Learning Path (por si la actividad se añadió después de la
+     * inscripción). Los registros anteriores a los identificadores la guardan por título y
+     * descripción.
+     */
+    private static Activity findActivity(Progress progress, List<LearningPath> learningPaths, DataInputStream data,
+                                         boolean byId) throws IOException {
+        int id = byId ? data.readInt() : Activity.legacyId(data.readUTF(), data.readUTF());
+        Activity activity = findActivity(progress.getLearningPath(), id);
+        if (activity == null) {
+            LearningPath current = findLearningPath(learningPaths, progress.getLearningPath().getId());
+            if (current != null) {
+                activity = findActivity(current, id);
+            }
+        }
+        if (activity == null) {
+            throw new IllegalStateException("actividad no encontrada: " + id);
+        }
+        return activity;
+    }
+
+    private static Activity findActivity(LearningPath lp, int id) {
+        for (Activity a : lp.getActivities()) {
+            if (a.getId() == id) {
+                return a;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,259 @@
+package src.com.learningpath.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ejecuta los guardados en un hilo de fondo, fuera del hilo de Swing o de la consola,
+ * agrupando las ráfagas de mutaciones en una sola escritura.
+ * <p>
+ * Mientras haya un guardado pendiente que aún no empezó, las nuevas solicitudes se
+ * funden con él. Cuándo se ejecuta depende del modo de durabilidad:
+ * <ul>
+ *     <li>{@link Durability#IMMEDIATE}: en cuanto el hilo de fondo queda libre.</li>
+ *     <li>{@link Durability#BATCHED}: como máximo cada {@code batchMillis} milisegundos.</li>
+ *     <li>{@link Durability#ON_SHUTDOWN}: solo al cerrar el ejecutor.</li>
+ * </ul>
+ * {@link #close()} descarta la espera del lote, ejecuta el guardado pendiente y espera a
+ * que termine, por lo que debe llamarse desde el cierre de la aplicación (shutdown hook).
+ * Se lleva la cuenta de solicitudes, escrituras y su latencia.
+ */
+public class PersistenceExecutor implements Closeable {
+
+    /**
+     * Modo de durabilidad de los guardados.
+     */
+    public enum Durability {
+        IMMEDIATE, BATCHED, ON_SHUTDOWN
+    }
+
+    /**
+     * Tarea de guardado que ejecuta el hilo de fondo.
+     */
+    @FunctionalInterface
+    public interface FlushTask {
+        void flush() throws IOException;
+    }
+
+    /**
+     * Propiedad del sistema con el modo de durabilidad: immediate, batched u on_shutdown.
+     */
+    public static final String DURABILITY_PROPERTY = "learningpath.durability";
+
+    /**
+     * Propiedad del sistema con el intervalo del modo por lotes, en milisegundos.
+     */
+    public static final String BATCH_MILLIS_PROPERTY = "learningpath.batchMillis";
+
+    private static final long DEFAULT_BATCH_MILLIS = 200;
+
+    private final Durability durability;
+    private final long batchMillis;
+    private final FlushTask task;
+    private final ScheduledThreadPoolExecutor worker;
+
+    // Hay un guardado solicitado que todavía no empezó; las nuevas solicitudes se funden con él.
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    /**
+     * Crea el ejecutor.
+     *
+     * @param durability  El modo de durabilidad.
+     * @param batchMillis El intervalo del modo por lotes, en milisegundos.
+     * @param task        La tarea de guardado.
+     */
+    public PersistenceExecutor(Durability durability, long batchMillis, FlushTask task) {
+        this.durability = durability;
+        this.batchMillis = batchMillis;
+        this.task = task;
+        this.worker = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "persistencia");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Al cerrar no se espera a que venza el lote: close() ejecuta el guardado pendiente.
+        worker.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Crea el ejecutor con el modo y el intervalo configurados en las propiedades del sistema
+     * {@value #DURABILITY_PROPERTY} y {@value #BATCH_MILLIS_PROPERTY}. Por omisión usa lotes de
+     * {@value #DEFAULT_BATCH_MILLIS} ms.
+     *
+     * @param task La tarea de guardado.
+     * @return El ejecutor.
+     */
+    public static PersistenceExecutor fromSystemProperties(FlushTask task) {
+        Durability durability = Durability.BATCHED;
+        String mode = System.getProperty(DURABILITY_PROPERTY);
+        if (mode != null) {
+            try {
+                durability = Durability.valueOf(mode.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Modo de durabilidad no válido: " + mode + ". Se usará " + durability + ".");
+            }
+        }
+        long batchMillis = Long.getLong(BATCH_MILLIS_PROPERTY, DEFAULT_BATCH_MILLIS);
+        return new PersistenceExecutor(durability, batchMillis, task);
+    }
+
+    /**
+     * Solicita un guardado. Vuelve de inmediato; si ya había uno pendiente, la solicitud se
+     * funde con él. Después de {@link #close()} el guardado se ejecuta en el hilo que llama.
+     */
+    public void requestFlush() {
+        requestCount.incrementAndGet();
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+        if (closed.get()) {
+            runPending();
+            return;
+        }
+        try {
+            switch (durability) {
+                case IMMEDIATE:
+                    worker.execute(this::runPending);
+                    break;
+                case BATCHED:
+                    worker.schedule(this::runPending, batchMillis, TimeUnit.MILLISECONDS);
+                    break;
+                case ON_SHUTDOWN:
+                    // Se ejecuta en close().
+                    break;
+            }
+        } catch (RejectedExecutionException e) {
+            // close() detuvo el hilo de fondo después de la comprobación anterior.
+            runPending();
+        }
+    }
+
+    /**
+     * Ejecuta ahora el guardado pendiente, si lo hay, y espera a que termine junto con
+     * cualquier guardado en curso. Se usa antes de reemplazar los datos en memoria.
+     */
+    public void drain() {
+        if (closed.get()) {
+            runPending();
+            return;
+        }
+        try {
+            worker.submit(this::runPending).get();
+        } catch (RejectedExecutionException e) {
+            runPending();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Error al guardar datos: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Detiene el hilo de fondo después de ejecutar el guardado pendiente e informa las
+     * estadísticas de latencia. Es idempotente.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        worker.shutdown();
+        try {
+            worker.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        runPending();
+        if (requestCount.get() > 0) {
+            System.out.println(this);
+        }
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Indica si hay un guardado solicitado que todavía no empezó.
+     */
+    public boolean hasPendingFlush() {
+        return pending.get();
+    }
+
+    /**
+     * Obtiene la cantidad de guardados solicitados.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Obtiene la cantidad de guardados ejecutados; la diferencia con
+     * {@link #getRequestCount()} son las solicitudes agrupadas.
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * Obtiene la latencia del último guardado, en milisegundos.
+     */
+    public double getLastFlushMillis() {
+        return lastFlushNanos / 1_000_000.0;
+    }
+
+    /**
+     * Obtiene la latencia media de los guardados, en milisegundos.
+     */
+    public double getAverageFlushMillis() {
+        long flushes = flushCount.get();
+        return flushes == 0 ? 0 : totalFlushNanos.get() / 1_000_000.0 / flushes;
+    }
+
+    /**
+     * Obtiene la latencia máxima de los guardados, en milisegundos.
+     */
+    public double getMaxFlushMillis() {
+        return maxFlushNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Persistencia (%s): %d solicitudes, %d escrituras, latencia media %.2f ms, máxima %.2f ms",
+                durability, getRequestCount(), getFlushCount(), getAverageFlushMillis(), getMaxFlushMillis());
+    }
+
+    // Métodos auxiliares
+
+    // Sincronizado para que el guardado de close() o drain() no se solape con uno en curso.
+    private synchronized void runPending() {
+        if (!pending.compareAndSet(true, false)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            task.flush();
+        } catch (IOException | RuntimeException e) {
+            // Las mutaciones siguen en el journal y marcadas como modificadas: el próximo guardado las incluye.
+            System.out.println("Error al guardar datos: " + e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        lastFlushNanos = elapsed;
+        totalFlushNanos.addAndGet(elapsed);
+        maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        flushCount.incrementAndGet();
+    }
+}
@@ -0,0 +1,73 @@
+package src.com.learningpath.data;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PersistenceExecutorTest {
+
+    @Test
+    public void testBurstIsCoalescedIntoOneFlush() {
+        AtomicInteger flushes = new AtomicInteger();
+        // Un lote largo: ninguna escritura vence durante la prueba, close() la adelanta
+        PersistenceExecutor executor = new PersistenceExecutor(PersistenceExecutor.Durability.BATCHED, 60_000, flushes::incrementAndGet);
+        for (int i = 0; i < 100; i++) {
+            executor.requestFlush();
+        }
+        assertEquals(0, flushes.get());
+        assertTrue(executor.hasPendingFlush());
+
+        executor.close();
+        assertEquals(1, flushes.get());
+        assertEquals(100, executor.getRequestCount());
+        assertEquals(1, executor.getFlushCount());
+        assertFalse(executor.hasPendingFlush());
+
+        // Después de cerrar, los guardados se hacen en el hilo que los solicita
+        executor.requestFlush();
+        assertEquals(2, flushes.get());
+    }
+
+    @Test
+    public void testRequestsDuringFlushAreCoalesced() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger flushes = new AtomicInteger();
+        PersistenceExecutor executor = new PersistenceExecutor(PersistenceExecutor.Durability.IMMEDIATE, 0, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flushes.incrementAndGet();
+        });
+
+        executor.requestFlush();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // Mientras la primera escritura está en curso, las solicitudes se agrupan en una sola
+        for (int i = 0; i < 10; i++) {
+            executor.requestFlush();
+        }
+        release.countDown();
+        executor.drain();
+        assertEquals(2, flushes.get());
+        assertTrue(executor.getMaxFlushMillis() >= executor.getAverageFlushMillis());
+        executor.close();
+    }
+
+    @Test
+    public void testOnShutdownWritesOnlyWhenClosed() {
+        AtomicInteger flushes = new AtomicInteger();
+        PersistenceExecutor executor = new PersistenceExecutor(PersistenceExecutor.Durability.ON_SHUTDOWN, 0, flushes::incrementAndGet);
+        executor.requestFlush();
+        executor.requestFlush();
+        assertEquals(0, flushes.get());
+        executor.close();
+        executor.close();
+        assertEquals(1, flushes.get());
+    }
+}
@@ -0,0 +1,676 @@
+package src.com.learningpath.data;
+
+import src.com.learningpath.DirtyTracked;
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.ProgressListener;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.OpenEndedExam;
+import src.com.learningpath.activities.OpenEndedResponse;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.analytics.CompletionHistogram;
+import src.com.learningpath.data.codec.BinaryCodec;
+import src.com.learningpath.data.codec.EntityResolver;
+import src.com.learningpath.data.codec.MappedProgressStore;
+import src.com.learningpath.users.Role;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Almacenamiento en una base de datos SQL embebida (H2), con una tabla por entidad:
+ * usuarios, Learning Paths, actividades, comentarios, progresos, estados de actividades,
+ * respuestas de quizzes y respuestas de encuestas y exámenes.
+ * <p>
+ * Cada confirmación escribe en una transacción solo las entidades modificadas
+ * ({@link DirtyTracked}), con sentencias preparadas y en lotes; no hay journal porque la base
+ * de datos ya garantiza que cada confirmación se aplica completa o no se aplica. Las
+ * actividades se guardan con su codificación binaria ({@link BinaryCodec#encodeActivity(Activity)})
+ * junto a las columnas que se consultan.
+ * <p>
+ * Las tablas de progreso tienen como clave primaria (estudiante, Learning Path, ...) y un
+ * índice por Learning Path, de modo que {@link #loadProgressesOf(String, List, List)} y
+ * {@link #loadProgressesOf(LearningPath, List, List)} leen solo las filas pedidas.
+ * <p>
+ * Las actividades que un progreso referencia y que ya no están en su Learning Path no se guardan.
+ */
+public class SqlStorage implements Storage {
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS users (username VARCHAR PRIMARY KEY, user_role TINYINT NOT NULL,"
+                    + " password_hash VARCHAR, name VARCHAR)",
+            "CREATE TABLE IF NOT EXISTS learning_paths (id INT PRIMARY KEY, title VARCHAR, description VARCHAR,"
+                    + " objectives VARCHAR, difficulty INT, duration INT, rating DOUBLE, created BIGINT, modified BIGINT,"
+                    + " lp_version VARCHAR, creator VARCHAR NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS learning_paths_creator ON learning_paths (creator)",
+            "CREATE TABLE IF NOT EXISTS activities (path_id INT NOT NULL, seq INT NOT NULL, id INT NOT NULL,"
+                    + " activity_type VARCHAR, title VARCHAR, payload VARBINARY NOT NULL, PRIMARY KEY (path_id, seq))",
+            "CREATE TABLE IF NOT EXISTS path_feedback (path_id INT NOT NULL, seq INT NOT NULL, feedback VARCHAR,"
+                    + " PRIMARY KEY (path_id, seq))",
+            "CREATE TABLE IF NOT EXISTS progresses (student VARCHAR NOT NULL, path_id INT NOT NULL,"
+                    + " PRIMARY KEY (student, path_id))",
+            "CREATE INDEX IF NOT EXISTS progresses_path ON progresses (path_id)",
+            "CREATE TABLE IF NOT EXISTS activity_statuses (student VARCHAR NOT NULL, path_id INT NOT NULL,"
+                    + " activity_id INT NOT NULL, status TINYINT NOT NULL, completed BIGINT,"
+                    + " PRIMARY KEY (student, path_id, activity_id))",
+            "CREATE INDEX IF NOT EXISTS activity_statuses_path ON activity_statuses (path_id)",
+            "CREATE TABLE IF NOT EXISTS quiz_answers (student VARCHAR NOT NULL, path_id INT NOT NULL,"
+                    + " activity_id INT NOT NULL, question INT NOT NULL, answer INT NOT NULL,"
+                    + " PRIMARY KEY (student, path_id, activity_id, question))",
+            "CREATE INDEX IF NOT EXISTS quiz_answers_path ON quiz_answers (path_id)",
+            "CREATE TABLE IF NOT EXISTS responses (student VARCHAR NOT NULL, path_id INT NOT NULL,"
+                    + " activity_id INT NOT NULL, question VARCHAR NOT NULL, answer VARCHAR,"
+                    + " PRIMARY KEY (student, path_id, activity_id, question))",
+            "CREATE INDEX IF NOT EXISTS responses_path ON responses (path_id)",
+    };
+
+    // Tablas en orden inverso de dependencia, para vaciarlas.
+    private static final String[] TABLES = {"responses", "quiz_answers", "activity_statuses", "progresses",
+            "path_feedback", "activities", "learning_paths", "users"};
+
+    private static final int IMPORT_BATCH = 1000;
+
+    // Valores de la columna status además de los ordinales de ActivityStatus.
+    private static final int NULL_STATUS = -1;
+    private static final int NO_STATUS = -2;
+
+    private static final ProgressListener NO_LISTENER = new ProgressListener() {
+    };
+
+    private final Connection connection;
+
+    /**
+     * Abre la base de datos, creando las tablas que falten.
+     *
+     * @param url La URL JDBC.
+     * @throws IOException Si no se puede abrir (por ejemplo, si falta el driver).
+     */
+    public SqlStorage(String url) throws IOException {
+        try {
+            connection = DriverManager.getConnection(url);
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException("No se pudo abrir la base de datos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Abre la base de datos H2 de la carpeta de datos.
+     */
+    public static SqlStorage open(String folder) throws IOException {
+        return new SqlStorage("jdbc:h2:file:" + new File(folder, "learningpath").getAbsolutePath());
+    }
+
+    // Carga
+
+    @Override
+    public synchronized List<User> loadUsers() throws IOException {
+        List<User> users = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT username, user_role, password_hash, name FROM users ORDER BY username")) {
+            while (rs.next()) {
+                String username = rs.getString(1);
+                Role role = Role.values()[rs.getInt(2)];
+                User user = role == Role.TEACHER ? new Teacher(username, null, rs.getString(4)) : new Student(username, null, rs.getString(4));
+                user.restorePassword(rs.getString(3));
+                user.clearDirty();
+                users.add(user);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error al leer los usuarios: " + e.getMessage(), e);
+        }
+        return users;
+    }
+
+    @Override
+    public synchronized List<LearningPath> loadLearningPaths(List<User> users) throws IOException {
+        EntityResolver resolver = new EntityResolver(users, new ArrayList<>());
+        try {
+            Map<Integer, List<Activity>> activities = new HashMap<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT path_id, payload FROM activities ORDER BY path_id, seq")) {
+                while (rs.next()) {
+                    activities.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>()).add(BinaryCodec.decodeActivity(rs.getBytes(2)));
+                }
+            }
+            Map<Integer, List<String>> feedback = new HashMap<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT path_id, feedback FROM path_feedback ORDER BY path_id, seq")) {
+                while (rs.next()) {
+                    feedback.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>()).add(rs.getString(2));
+                }
+            }
+            List<LearningPath> learningPaths = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT id, title, description, objectives, difficulty, duration, rating,"
+                         + " created, modified, lp_version, creator FROM learning_paths ORDER BY id")) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    User creator = resolver.findUser(rs.getString(11));
+                    if (!(creator instanceof Teacher)) {
+                        throw new IOException("Profesor no encontrado: " + rs.getString(11));
+                    }
+                    LearningPath lp = new LearningPath(rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5),
+                            rs.getInt(6), rs.getDouble(7), toDate(rs, 8), toDate(rs, 9), rs.getString(10), (Teacher) creator,
+                            activities.getOrDefault(id, new ArrayList<>()), feedback.getOrDefault(id, new ArrayList<>()));
+                    lp.restoreId(id);
+                    lp.clearDirty();
+                    learningPaths.add(lp);
+                }
+            }
+            return learningPaths;
+        } catch (SQLException e) {
+            throw new IOException("Error al leer los Learning Paths: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized List<Progress> loadProgresses(List<User> users, List<LearningPath> learningPaths) throws IOException {
+        return queryProgresses("", null, new EntityResolver(users, learningPaths));
+    }
+
+    @Override
+    public synchronized List<Progress> loadProgressesOf(String username, List<User> users, List<LearningPath> learningPaths) throws IOException {
+        return queryProgresses(" WHERE student = ?", username, new EntityResolver(users, learningPaths));
+    }
+
+    @Override
+    public synchronized List<Progress> loadProgressesOf(LearningPath lp, List<User> users, List<LearningPath> learningPaths) throws IOException {
+        return queryProgresses(" WHERE path_id = ?", lp.getId(), new EntityResolver(users, learningPaths));
+    }
+
+    /**
+     * Consulta los progresos de un estudiante a la vez, así que solo se retienen los de ese estudiante.
+     */
+    @Override
+    public synchronized void forEachProgress(List<User> users, List<LearningPath> learningPaths, ProgressSink sink) throws IOException {
+        EntityResolver resolver = new EntityResolver(users, learningPaths);
+        for (User user : users) {
+            if (user instanceof Student) {
+                for (Progress progress : queryProgresses(" WHERE student = ?", user.getUsername(), resolver)) {
+                    sink.accept(progress);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vacía las tablas y escribe los datos nuevos. Los progresos se escriben en lotes de
+     * {@value #IMPORT_BATCH} y cada lote se confirma por separado, para no acumular una
+     * transacción del tamaño de toda la importación: si falla a la mitad, quedan los lotes ya
+     * confirmados y la importación debe repetirse.
+     */
+    @Override
+    public synchronized void importData(List<User> users, List<LearningPath> learningPaths, ProgressSource source) throws IOException {
+        try {
+            try (Statement statement = connection.createStatement()) {
+                for (String table : TABLES) {
+                    statement.executeUpdate("DELETE FROM " + table);
+                }
+            }
+            writeUsers(users);
+            writeLearningPaths(learningPaths);
+            connection.commit();
+            List<Progress> batch = new ArrayList<>(IMPORT_BATCH);
+            for (Progress progress = source.next(); progress != null; progress = source.next()) {
+                batch.add(progress);
+                if (batch.size() == IMPORT_BATCH) {
+                    writeProgresses(batch);
+                    connection.commit();
+                    batch.clear();
+                }
+            }
+            writeProgresses(batch);
+            connection.commit();
+        } catch (SQLException | IOException | RuntimeException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // La conexión ya falló; se informa el error original.
+            }
+            throw new IOException("Error al importar en la base de datos: " + e.getMessage(), e);
+        }
+        for (User user : users) {
+            user.clearDirty();
+        }
+        for (LearningPath lp : learningPaths) {
+            lp.clearDirty();
+        }
+    }
+
+    /**
+     * No hay histograma guardado: se construye a partir de los progresos.
+     */
+    @Override
+    public CompletionHistogram loadHistogram(List<Progress> progresses) {
+        return CompletionHistogram.build(progresses);
+    }
+
+    /**
+     * Cada confirmación ya quedó en la base de datos: no hay nada que reproducir.
+     */
+    @Override
+    public int replayJournal(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) {
+        return 0;
+    }
+
+    // Las mutaciones se detectan con DirtyTracked al confirmar.
+
+    @Override
+    public void appendUser(User user) {
+        user.markDirty();
+    }
+
+    @Override
+    public void appendLearningPath(LearningPath lp) {
+        lp.markDirty();
+    }
+
+    @Override
+    public void appendEnrollment(Progress progress) {
+        progress.markDirty();
+    }
+
+    @Override
+    public ProgressListener getChangeListener() {
+        return NO_LISTENER;
+    }
+
+    // Escritura
+
+    /**
+     * Escribe en una transacción los usuarios, Learning Paths y progresos modificados. Cada
+     * entidad se marca como guardada antes de leerla: si cambia mientras se escribe vuelve a
+     * quedar modificada y se incluye en la siguiente confirmación. Si la transacción falla,
+     * se revierte y las entidades vuelven a marcarse como modificadas.
+     *
+     * @return Siempre true: cada confirmación deja la base de datos completa.
+     */
+    @Override
+    public synchronized boolean commit(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException {
+        List<User> dirtyUsers = takeDirty(users);
+        List<LearningPath> dirtyPaths = takeDirty(learningPaths);
+        boolean unchanged = progresses instanceof MappedProgressStore ? !((MappedProgressStore) progresses).hasChanges()
+                : progresses instanceof MappedProgressStore.Snapshot && !((MappedProgressStore.Snapshot) progresses).hasChanges();
+        List<Progress> dirtyProgresses = unchanged ? new ArrayList<>() : takeDirty(progresses);
+        try {
+            writeUsers(dirtyUsers);
+            writeLearningPaths(dirtyPaths);
+            writeProgresses(dirtyProgresses);
+            connection.commit();
+        } catch (SQLException | IOException | RuntimeException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // La conexión ya falló; se informa el error original.
+            }
+            markDirty(dirtyUsers);
+            markDirty(dirtyPaths);
+            markDirty(dirtyProgresses);
+            throw new IOException("Error al guardar en la base de datos: " + e.getMessage(), e);
+        }
+        return true;
+    }
+
+    @Override
+    public void saveSnapshot(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException {
+        commit(users, learningPaths, progresses);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException("Error al cerrar la base de datos: " + e.getMessage(), e);
+        }
+    }
+
+    // Métodos auxiliares
+
+    private void writeUsers(List<User> users) throws SQLException {
+        if (users.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement merge = connection.prepareStatement("MERGE INTO users KEY (username) VALUES (?, ?, ?, ?)")) {
+            for (User user : users) {
+                merge.setString(1, user.getUsername());
+                merge.setInt(2, user.getRole().ordinal());
+                merge.setString(3, user.getPassword());
+                merge.setString(4, user.getName());
+                merge.addBatch();
+            }
+            merge.executeBatch();
+        }
+    }
+
+    private void writeLearningPaths(List<LearningPath> learningPaths) throws SQLException, IOException {
+        if (learningPaths.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement merge = connection.prepareStatement(
+                "MERGE INTO learning_paths KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement deleteActivities = connection.prepareStatement("DELETE FROM activities WHERE path_id = ?");
+             PreparedStatement deleteFeedback = connection.prepareStatement("DELETE FROM path_feedback WHERE path_id = ?");
+             PreparedStatement insertActivity = connection.prepareStatement("INSERT INTO activities VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement insertFeedback = connection.prepareStatement("INSERT INTO path_feedback VALUES (?, ?, ?)")) {
+            for (LearningPath lp : learningPaths) {
+                merge.setInt(1, lp.getId());
+                merge.setString(2, lp.getTitle());
+                merge.setString(3, lp.getDescription());
+                merge.setString(4, lp.getObjectives());
+                merge.setInt(5, lp.getDifficultyLevel());
+                merge.setInt(6, lp.getDuration());
+                merge.setDouble(7, lp.getRating());
+                setDate(merge, 8, lp.getCreationDate());
+                setDate(merge, 9, lp.getModificationDate());
+                merge.setString(10, lp.getVersion());
+                merge.setString(11, lp.getCreator().getUsername());
+                merge.addBatch();
+                deleteActivities.setInt(1, lp.getId());
+                deleteActivities.addBatch();
+                deleteFeedback.setInt(1, lp.getId());
+                deleteFeedback.addBatch();
+
+                int seq = 0;
+                for (Activity activity : lp.getActivities()) {
+                    insertActivity.setInt(1, lp.getId());
+                    insertActivity.setInt(2, seq++);
+                    insertActivity.setInt(3, activity.getId());
+                    insertActivity.setString(4, activity.getType());
+                    insertActivity.setString(5, activity.getTitle());
+                    insertActivity.setBytes(6, BinaryCodec.encodeActivity(activity));
+                    insertActivity.addBatch();
+                }
+                seq = 0;
+                for (String feedback : lp.getFeedbackList()) {
+                    insertFeedback.setInt(1, lp.getId());
+                    insertFeedback.setInt(2, seq++);
+                    insertFeedback.setString(3, feedback);
+                    insertFeedback.addBatch();
+                }
+            }
+            merge.executeBatch();
+            deleteActivities.executeBatch();
+            deleteFeedback.executeBatch();
+            insertActivity.executeBatch();
+            insertFeedback.executeBatch();
+        }
+    }
+
+    private void writeProgresses(List<Progress> progresses) throws SQLException {
+        if (progresses.isEmpty()) {
+            return;
+        }
+        String[] children = {"activity_statuses", "quiz_answers", "responses"};
+        List<PreparedStatement> deletes = new ArrayList<>();
+        try (PreparedStatement merge = connection.prepareStatement("MERGE INTO progresses KEY (student, path_id) VALUES (?, ?)");
+             PreparedStatement insertStatus = connection.prepareStatement("INSERT INTO activity_statuses VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement insertAnswer = connection.prepareStatement("INSERT INTO quiz_answers VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement insertResponse = connection.prepareStatement("INSERT INTO responses VALUES (?, ?, ?, ?, ?)")) {
+            for (String table : children) {
+                deletes.add(connection.prepareStatement("DELETE FROM " + table + " WHERE student = ? AND path_id = ?"));
+            }
+            for (Progress progress : progresses) {
+                String student = progress.getStudent().getUsername();
+                int pathId = progress.getLearningPath().getId();
+                merge.setString(1, student);
+                merge.setInt(2, pathId);
+                merge.addBatch();
+                for (PreparedStatement delete : deletes) {
+                    delete.setString(1, student);
+                    delete.setInt(2, pathId);
+                    delete.addBatch();
+                }
+
+                Set<Integer> known = new HashSet<>();
+                for (Activity a : progress.getLearningPath().getActivities()) {
+                    known.add(a.getId());
+                }
+                Map<Activity, ActivityStatus> statuses = progress.getActivityStatuses();
+                Map<Activity, LocalDate> dates = progress.getCompletionDates();
+                Set<Activity> tracked = new HashSet<>(statuses.keySet());
+                tracked.addAll(dates.keySet());
+                for (Activity activity : tracked) {
+                    if (!known.contains(activity.getId())) {
+                        continue;
+                    }
+                    ActivityStatus status = statuses.get(activity);
+                    insertStatus.setString(1, student);
+                    insertStatus.setInt(2, pathId);
+                    insertStatus.setInt(3, activity.getId());
+                    insertStatus.setInt(4, status != null ? status.ordinal() : statuses.containsKey(activity) ? NULL_STATUS : NO_STATUS);
+                    LocalDate date = dates.get(activity);
+                    if (date != null) {
+                        insertStatus.setLong(5, date.toEpochDay());
+                    } else {
+                        insertStatus.setNull(5, Types.BIGINT);
+                    }
+                    insertStatus.addBatch();
+                }
+                for (Map.Entry<Quiz, List<Integer>> entry : progress.getQuizResponses().entrySet()) {
+                    if (entry.getValue() == null || !known.contains(entry.getKey().getId())) {
+                        continue;
+                    }
+                    int question = 0;
+                    for (Integer answer : entry.getValue()) {
+                        insertAnswer.setString(1, student);
+                        insertAnswer.setInt(2, pathId);
+                        insertAnswer.setInt(3, entry.getKey().getId());
+                        insertAnswer.setInt(4, question++);
+                        insertAnswer.setInt(5, answer);
+                        insertAnswer.addBatch();
+                    }
+                }
+                for (Map.Entry<Survey, SurveyResponse> entry : progress.getSurveyResponses().entrySet()) {
+                    addResponses(insertResponse, student, pathId, entry.getKey(), entry.getValue().getAnswers(), known);
+                }
+                for (Map.Entry<OpenEndedExam, OpenEndedResponse> entry : progress.getExamResponses().entrySet()) {
+                    addResponses(insertResponse, student, pathId, entry.getKey(), entry.getValue().getAnswers(), known);
+                }
+            }
+            merge.executeBatch();
+            for (PreparedStatement delete : deletes) {
+                delete.executeBatch();
+            }
+            insertStatus.executeBatch();
+            insertAnswer.executeBatch();
+            insertResponse.executeBatch();
+        } finally {
+            for (PreparedStatement delete : deletes) {
+                delete.close();
+            }
+        }
+    }
+
+    private static void addResponses(PreparedStatement insert, String student, int pathId, Activity activity,
+                                     Map<String, String> answers, Set<Integer> known) throws SQLException {
+        if (!known.contains(activity.getId())) {
+            return;
+        }
+        for (Map.Entry<String, String> answer : answers.entrySet()) {
+            insert.setString(1, student);
+            insert.setInt(2, pathId);
+            insert.setInt(3, activity.getId());
+            insert.setString(4, answer.getKey());
+            insert.setString(5, answer.getValue());
+            insert.addBatch();
+        }
+    }
+
+    /**
+     * Lee los progresos que cumplen la condición, con una consulta por tabla. Los estudiantes y
+     * Learning Paths se resuelven contra los ya cargados.
+     */
+    private List<Progress> queryProgresses(String where, Object parameter, EntityResolver resolver) throws IOException {
+        try {
+            Map<String, Progress> progresses = new LinkedHashMap<>();
+            try (PreparedStatement query = prepare("SELECT student, path_id FROM progresses" + where
+                    + " ORDER BY student, path_id", parameter);
+                 ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    User student = resolver.findUser(rs.getString(1));
+                    LearningPath lp = resolver.findLearningPath(rs.getInt(2));
+                    if (!(student instanceof Student) || lp == null) {
+                        throw new IOException("Progreso sin estudiante o Learning Path: " + rs.getString(1) + ", " + rs.getInt(2));
+                    }
+                    progresses.put(key(rs.getString(1), rs.getInt(2)), new Progress((Student) student, lp));
+                }
+            }
+
+            Map<Progress, Map<Activity, ActivityStatus>> statuses = new HashMap<>();
+            try (PreparedStatement query = prepare("SELECT student, path_id, activity_id, status, completed FROM activity_statuses" + where, parameter);
+                 ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    Progress progress = progresses.get(key(rs.getString(1), rs.getInt(2)));
+                    Activity activity = progress == null ? null : findActivity(progress, rs.getInt(3));
+                    if (activity == null) {
+                        continue;
+                    }
+                    int status = rs.getInt(4);
+                    if (status != NO_STATUS) {
+                        statuses.computeIfAbsent(progress, k -> new HashMap<>())
+                                .put(activity, status == NULL_STATUS ? null : ActivityStatus.values()[status]);
+                    }
+                    long completed = rs.getLong(5);
+                    if (!rs.wasNull()) {
+                        progress.getCompletionDates().put(activity, LocalDate.ofEpochDay(completed));
+                    }
+                }
+            }
+            for (Progress progress : progresses.values()) {
+                progress.setActivityStatuses(statuses.getOrDefault(progress, new HashMap<>()));
+            }
+
+            Map<Progress, Map<Quiz, List<Integer>>> answers = new HashMap<>();
+            try (PreparedStatement query = prepare("SELECT student, path_id, activity_id, answer FROM quiz_answers" + where
+                    + " ORDER BY student, path_id, activity_id, question", parameter);
+                 ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    Progress progress = progresses.get(key(rs.getString(1), rs.getInt(2)));
+                    Activity quiz = progress == null ? null : findActivity(progress, rs.getInt(3));
+                    if (quiz instanceof Quiz) {
+                        answers.computeIfAbsent(progress, k -> new HashMap<>())
+                                .computeIfAbsent((Quiz) quiz, k -> new ArrayList<>()).add(rs.getInt(4));
+                    }
+                }
+            }
+            for (Map.Entry<Progress, Map<Quiz, List<Integer>>> entry : answers.entrySet()) {
+                for (Map.Entry<Quiz, List<Integer>> quiz : entry.getValue().entrySet()) {
+                    entry.getKey().saveQuizResponses(quiz.getKey(), quiz.getValue());
+                }
+            }
+
+            try (PreparedStatement query = prepare("SELECT student, path_id, activity_id, question, answer FROM responses" + where, parameter);
+                 ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    Progress progress = progresses.get(key(rs.getString(1), rs.getInt(2)));
+                    Activity activity = progress == null ? null : findActivity(progress, rs.getInt(3));
+                    if (activity instanceof Survey) {
+                        Survey survey = (Survey) activity;
+                        SurveyResponse response = progress.getSurveyResponses().get(survey);
+                        if (response == null) {
+                            response = new SurveyResponse(progress.getStudent(), survey);
+                            progress.addSurveyResponse(survey, response);
+                        }
+                        response.getAnswers().put(rs.getString(4), rs.getString(5));
+                    } else if (activity instanceof OpenEndedExam) {
+                        OpenEndedExam exam = (OpenEndedExam) activity;
+                        OpenEndedResponse response = progress.getExamResponses().get(exam);
+                        if (response == null) {
+                            response = new OpenEndedResponse(progress.getStudent(), exam);
+                            progress.addExamResponse(exam, response);
+                        }
+                        response.getAnswers().put(rs.getString(4), rs.getString(5));
+                    }
+                }
+            }
+
+            List<Progress> result = new ArrayList<>(progresses.values());
+            for (Progress progress : result) {
+                progress.clearDirty();
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new IOException("Error al leer los progresos: " + e.getMessage(), e);
+        }
+    }
+
+    private PreparedStatement prepare(String sql, Object parameter) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        if (parameter != null) {
+            statement.setObject(1, parameter);
+        }
+        return statement;
+    }
+
+    private static Activity findActivity(Progress progress, int id) {
+        for (Activity a : progress.getLearningPath().getActivities()) {
+            if (a.getId() == id) {
+                return a;
+            }
+        }
+        return null;
+    }
+
+    private static String key(String student, int pathId) {
+        return student + '\u0000' + pathId;
+    }
+
+    private static <T extends DirtyTracked> List<T> takeDirty(List<T> items) {
+        List<T> dirty = new ArrayList<>();
+        for (T item : items) {
+            if (item.isDirty()) {
+                item.clearDirty();
+                dirty.add(item);
+            }
+        }
+        return dirty;
+    }
+
+    private static void markDirty(List<? extends DirtyTracked> items) {
+        for (DirtyTracked item : items) {
+            item.markDirty();
+        }
+    }
+
+    private static void setDate(PreparedStatement statement, int index, Date date) throws SQLException {
+        if (date != null) {
+            statement.setLong(index, date.getTime());
+        } else {
+            statement.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static Date toDate(ResultSet rs, int index) throws SQLException {
+        long value = rs.getLong(index);
+        return rs.wasNull() ? null : new Date(value);
+    }
+}
@@ -0,0 +1,134 @@
+package src.com.learningpath.data;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.ResourceReview;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SqlStorageTest {
+
+    @Test
+    public void testRoundTripResolvesSharedEntities() throws Exception {
+        String url = "jdbc:h2:mem:round_trip;DB_CLOSE_DELAY=-1";
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        LearningPath lp = new LearningPath("LP1", "Description 1", "Objectives 1", 1, teacher);
+        ResourceReview review = new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists");
+        Question question = new Question("2 + 2", new String[]{"3", "4"}, 1, "Suma");
+        Quiz quiz = new Quiz("Quiz", "Sumas", "Sumar", 1, 10, true, new ArrayList<>(Arrays.asList(question)), 60.0);
+        Survey survey = new Survey("Encuesta", "Opinión", "Opinar", 1, 5, false);
+        lp.addActivity(review);
+        lp.addActivity(quiz);
+        lp.addActivity(survey);
+        lp.addFeedback("Muy útil");
+
+        Progress progress = new Progress(student, lp);
+        progress.updateActivityStatus(review, ActivityStatus.COMPLETED, LocalDate.of(2024, 3, 1));
+        progress.saveQuizResponses(quiz, new ArrayList<>(Arrays.asList(1)));
+        SurveyResponse response = new SurveyResponse(student, survey);
+        response.addAnswer("¿Te gustó?", "Sí");
+        progress.addSurveyResponse(survey, response);
+
+        try (SqlStorage storage = new SqlStorage(url)) {
+            storage.commit(new ArrayList<>(Arrays.asList(teacher, student)), new ArrayList<>(Arrays.asList(lp)),
+                    new ArrayList<>(Arrays.asList(progress)));
+        }
+
+        try (SqlStorage storage = new SqlStorage(url)) {
+            List<User> users = storage.loadUsers();
+            List<LearningPath> learningPaths = storage.loadLearningPaths(users);
+            List<Progress> progresses = storage.loadProgresses(users, learningPaths);
+
+            assertEquals(2, users.size());
+            assertTrue(users.get(1).authenticate("password456"));
+            LearningPath loadedLp = learningPaths.get(0);
+            assertEquals(lp.getId(), loadedLp.getId());
+            assertSame(users.get(0), loadedLp.getCreator());
+            assertEquals(3, loadedLp.getActivities().size());
+            assertEquals(Arrays.asList("Muy útil"), loadedLp.getFeedbackList());
+
+            Progress loaded = progresses.get(0);
+            assertSame(users.get(1), loaded.getStudent());
+            assertSame(loadedLp, loaded.getLearningPath());
+            assertEquals(ActivityStatus.COMPLETED, loaded.getActivityStatus(loadedLp.getActivities().get(0)));
+            assertEquals(LocalDate.of(2024, 3, 1), loaded.getCompletionDate(loadedLp.getActivities().get(0)));
+            assertEquals(ActivityStatus.PENDING, loaded.getActivityStatus(loadedLp.getActivities().get(2)));
+            assertEquals(Arrays.asList(1), loaded.getQuizResponses((Quiz) loadedLp.getActivities().get(1)));
+            assertEquals("Sí", loaded.getSurveyResponse((Survey) loadedLp.getActivities().get(2)).getAnswers().get("¿Te gustó?"));
+            assertFalse(loaded.isDirty());
+        }
+    }
+
+    @Test
+    public void testQueriesByStudentAndLearningPath() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student first = new Student("stud1", "pass", "First");
+        Student second = new Student("stud2", "pass", "Second");
+        LearningPath lp1 = new LearningPath("LP1", "Description 1", "Objectives 1", 1, teacher);
+        LearningPath lp2 = new LearningPath("LP2", "Description 2", "Objectives 2", 2, teacher);
+        List<User> users = new ArrayList<>(Arrays.asList(teacher, first, second));
+        List<LearningPath> learningPaths = new ArrayList<>(Arrays.asList(lp1, lp2));
+        List<Progress> progresses = new ArrayList<>(Arrays.asList(
+                new Progress(first, lp1), new Progress(first, lp2), new Progress(second, lp2)));
+
+        try (SqlStorage storage = new SqlStorage("jdbc:h2:mem:queries")) {
+            storage.commit(users, learningPaths, progresses);
+
+            List<Progress> ofFirst = storage.loadProgressesOf("stud1", users, learningPaths);
+            assertEquals(2, ofFirst.size());
+            for (Progress progress : ofFirst) {
+                assertSame(first, progress.getStudent());
+            }
+
+            List<Progress> ofLp2 = storage.loadProgressesOf(lp2, users, learningPaths);
+            assertEquals(2, ofLp2.size());
+            for (Progress progress : ofLp2) {
+                assertSame(lp2, progress.getLearningPath());
+            }
+            assertTrue(storage.loadProgressesOf("nobody", users, learningPaths).isEmpty());
+        }
+    }
+
+    @Test
+    public void testCommitWritesOnlyDirtyEntities() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        LearningPath lp = new LearningPath("LP1", "Description 1", "Objectives 1", 1, teacher);
+        ResourceReview review = new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists");
+        lp.addActivity(review);
+        Progress progress = new Progress(student, lp);
+        List<User> users = new ArrayList<>(Arrays.asList(teacher, student));
+        List<LearningPath> learningPaths = new ArrayList<>(Arrays.asList(lp));
+        List<Progress> progresses = new ArrayList<>(Arrays.asList(progress));
+
+        try (SqlStorage storage = new SqlStorage("jdbc:h2:mem:dirty")) {
+            storage.commit(users, learningPaths, progresses);
+            assertFalse(teacher.isDirty());
+            assertFalse(lp.isDirty());
+            assertFalse(progress.isDirty());
+
+            progress.updateActivityStatus(review, ActivityStatus.COMPLETED);
+            assertTrue(progress.isDirty());
+            assertFalse(lp.isDirty());
+            storage.commit(users, learningPaths, progresses);
+            assertFalse(progress.isDirty());
+
+            List<Progress> loaded = storage.loadProgresses(users, learningPaths);
+            assertEquals(ActivityStatus.COMPLETED, loaded.get(0).getActivityStatus(review));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package src.com.learningpath.data;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.ProgressListener;
+import src.com.learningpath.analytics.CompletionHistogram;
+import src.com.learningpath.users.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Almacenamiento persistente de usuarios, Learning Paths y progresos.
+ * <p>
+ * Hay dos implementaciones: {@link FileStorage}, con los archivos binarios y el journal de
+ * {@link DataManager}, y {@link SqlStorage}, sobre una base de datos embebida.
+ * {@link DataManager#openStorage()} elige una según la propiedad del sistema
+ * {@value DataManager#STORAGE_PROPERTY}.
+ * <p>
+ * Los Learning Paths se cargan con los usuarios ya cargados y los progresos con ambos, para
+ * que cada entidad exista una sola vez en memoria. Las mutaciones se registran con los
+ * métodos {@code append} y el listener de {@link #getChangeListener()}, y se confirman con
+ * {@link #commit(List, List, List)}; qué se escribe en cada paso depende de la implementación.
+ */
+public interface Storage extends Closeable {
+
+    /**
+     * Recibe los progresos de a uno, por ejemplo al exportarlos.
+     */
+    @FunctionalInterface
+    interface ProgressSink {
+        void accept(Progress progress) throws IOException;
+    }
+
+    /**
+     * Entrega los progresos de a uno, por ejemplo al importarlos.
+     */
+    @FunctionalInterface
+    interface ProgressSource {
+        /**
+         * @return El siguiente progreso, o null si no hay más.
+         */
+        Progress next() throws IOException;
+    }
+
+    List<User> loadUsers() throws IOException;
+
+    List<LearningPath> loadLearningPaths(List<User> users) throws IOException;
+
+    List<Progress> loadProgresses(List<User> users, List<LearningPath> learningPaths) throws IOException;
+
+    /**
+     * Carga solo los progresos de un estudiante.
+     */
+    List<Progress> loadProgressesOf(String username, List<User> users, List<LearningPath> learningPaths) throws IOException;
+
+    /**
+     * Carga solo los progresos de los estudiantes inscritos en un Learning Path.
+     */
+    List<Progress> loadProgressesOf(LearningPath lp, List<User> users, List<LearningPath> learningPaths) throws IOException;
+
+    /**
+     * Recorre todos los progresos sin retenerlos: cada uno se entrega a {@code sink} y puede
+     * descartarse después, de modo que la memoria no depende de la cantidad de progresos.
+     */
+    void forEachProgress(List<User> users, List<LearningPath> learningPaths, ProgressSink sink) throws IOException;
+
+    /**
+     * Reemplaza todos los datos guardados por los indicados. Los progresos se piden a
+     * {@code source} y se escriben a medida que llegan, sin retenerlos.
+     */
+    void importData(List<User> users, List<LearningPath> learningPaths, ProgressSource source) throws IOException;
+
+    /**
+     * Obtiene el histograma de actividades finalizadas de los progresos cargados. Debe
+     * registrarse como listener de los progresos antes de {@link #replayJournal(List, List, List)}.
+     */
+    CompletionHistogram loadHistogram(List<Progress> progresses);
+
+    /**
+     * Aplica sobre los datos cargados las mutaciones registradas después del último snapshot.
+     *
+     * @return La cantidad de mutaciones aplicadas.
+     */
+    int replayJournal(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException;
+
+    /**
+     * Registra un usuario nuevo o modificado.
+     */
+    void appendUser(User user) throws IOException;
+
+    /**
+     * Registra un Learning Path nuevo o modificado.
+     */
+    void appendLearningPath(LearningPath lp) throws IOException;
+
+    /**
+     * Registra la inscripción de un estudiante en un Learning Path.
+     */
+    void appendEnrollment(Progress progress) throws IOException;
+
+    /**
+     * Obtiene el listener que registra las mutaciones de los progresos.
+     */
+    ProgressListener getChangeListener();
+
+    /**
+     * Confirma las mutaciones registradas.
+     *
+     * @return True si se escribió un snapshot completo.
+     */
+    boolean commit(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException;
+
+    /**
+     * Escribe el estado completo de los datos, por ejemplo al cerrar la aplicación.
+     */
+    void saveSnapshot(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) throws IOException;
+}
@@ -0,0 +1,82 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.activities.Activity;
+
+import java.io.IOException;
+
+/**
+ * Codec binario para un tipo concreto de {@link Activity}.
+ * Para soportar un nuevo tipo de actividad basta con implementar esta clase
+ * y registrarla con {@link ActivityCodecRegistry#register(ActivityCodec)}.
+ *
+ * @param <T> El tipo de actividad que codifica.
+ */
+public abstract class ActivityCodec<T extends Activity> {
+    private final int typeId;
+    private final Class<T> activityClass;
+
+    /**
+     * @param typeId        Identificador persistido del tipo; no debe cambiar entre versiones.
+     * @param activityClass La clase de actividad que codifica.
+     */
+    protected ActivityCodec(int typeId, Class<T> activityClass) {
+        this.typeId = typeId;
+        this.activityClass = activityClass;
+    }
+
+    public int getTypeId() {
+        return typeId;
+    }
+
+    public Class<T> getActivityClass() {
+        return activityClass;
+    }
+
+    /**
+     * Escribe los campos de la actividad.
+     */
+    public abstract void encode(RecordWriter writer, T activity) throws IOException;
+
+    /**
+     * Lee una actividad escrita por {@link #encode(RecordWriter, Activity)}.
+     */
+    public abstract T decode(RecordReader reader) throws IOException;
+
+    /**
+     * Escribe los campos comunes a todas las actividades.
+     */
+    protected static void writeHeader(RecordWriter writer, Activity activity) throws IOException {
+        writer.writeString(activity.getTitle());
+        writer.writeString(activity.getDescription());
+        writer.writeString(activity.getObjective());
+        writer.writeInt(activity.getDifficultyLevel());
+        writer.writeInt(activity.getExpectedDuration());
+        writer.writeBoolean(activity.isMandatory());
+    }
+
+    /**
+     * Lee los campos comunes escritos por {@link #writeHeader(RecordWriter, Activity)}.
+     */
+    protected static Header readHeader(RecordReader reader) throws IOException {
+        Header header = new Header();
+        header.title = reader.readString();
+        header.description = reader.readString();
+        header.objective = reader.readString();
+        header.difficultyLevel = reader.readInt();
+        header.expectedDuration = reader.readInt();
+        header.mandatory = reader.readBoolean();
+        return header;
+    }
+
+    /**
+     * Campos comunes de una actividad, leídos antes de invocar al constructor concreto.
+     */
+    protected static final class Header {
+        public String title;
+        public String description;
+        public String objective;
+        public int difficultyLevel;
+        public int expectedDuration;
+        public boolean mandatory;
+    }
+}
@@ -0,0 +1,68 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.activities.Activity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registro de los codecs de actividades, indexado por clase y por identificador de tipo.
+ */
+public class ActivityCodecRegistry {
+    private static final Map<Class<?>, ActivityCodec<?>> BY_CLASS = new HashMap<>();
+    private static final Map<Integer, ActivityCodec<?>> BY_TYPE_ID = new HashMap<>();
+
+    static {
+        register(new AssignmentCodec());
+        register(new QuizCodec());
+        register(new ResourceReviewCodec());
+        register(new SurveyCodec());
+        register(new OpenEndedExamCodec());
+    }
+
+    private ActivityCodecRegistry() {
+    }
+
+    /**
+     * Registra un codec. Si ya existe uno para la misma clase o el mismo identificador, lo reemplaza.
+     *
+     * @param codec El codec a registrar.
+     */
+    public static synchronized void register(ActivityCodec<?> codec) {
+        BY_CLASS.put(codec.getActivityClass(), codec);
+        BY_TYPE_ID.put(codec.getTypeId(), codec);
+    }
+
+    /**
+     * Busca el codec de una actividad recorriendo su jerarquía de clases.
+     *
+     * @param activity La actividad a codificar.
+     * @return El codec correspondiente.
+     * @throws UnsupportedOperationException Si no hay codec registrado.
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized <T extends Activity> ActivityCodec<T> forActivity(T activity) {
+        for (Class<?> c = activity.getClass(); c != null; c = c.getSuperclass()) {
+            ActivityCodec<?> codec = BY_CLASS.get(c);
+            if (codec != null) {
+                return (ActivityCodec<T>) codec;
+            }
+        }
+        throw new UnsupportedOperationException("Tipo de actividad no soportado para persistencia: " + activity.getClass().getName());
+    }
+
+    /**
+     * Busca el codec por su identificador persistido.
+     *
+     * @param typeId El identificador de tipo.
+     * @return El codec correspondiente.
+     * @throws UnsupportedOperationException Si no hay codec registrado.
+     */
+    public static synchronized ActivityCodec<?> forTypeId(int typeId) {
+        ActivityCodec<?> codec = BY_TYPE_ID.get(typeId);
+        if (codec == null) {
+            throw new UnsupportedOperationException("Tipo de actividad desconocido: " + typeId);
+        }
+        return codec;
+    }
+}
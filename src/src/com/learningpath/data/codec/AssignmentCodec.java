@@ -0,0 +1,28 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.activities.Assignment;
+
+import java.io.IOException;
+
+/**
+ * Codec de {@link Assignment}.
+ */
+public class AssignmentCodec extends ActivityCodec<Assignment> {
+
+    public AssignmentCodec() {
+        super(1, Assignment.class);
+    }
+
+    @Override
+    public void encode(RecordWriter writer, Assignment activity) throws IOException {
+        writeHeader(writer, activity);
+        writer.writeString(activity.getSubmissionInstructions());
+    }
+
+    @Override
+    public Assignment decode(RecordReader reader) throws IOException {
+        Header h = readHeader(reader);
+        return new Assignment(h.title, h.description, h.objective, h.difficultyLevel, h.expectedDuration, h.mandatory,
+                reader.readString());
+    }
+}
@@ -0,0 +1,688 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.OpenEndedExam;
+import src.com.learningpath.activities.OpenEndedResponse;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.users.Role;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Formato binario versionado de los archivos de datos.
+ * <p>
+ * Cada archivo comienza con una cabecera de 8 bytes: la firma {@code LPB}, la versión
+ * del formato, el tipo de contenido ({@link #USERS}, {@link #LEARNING_PATHS},
+ * {@link #PROGRESSES}, {@link #MANIFEST} o {@link #ACTIVITY}), el códec de compresión
+ * ({@link Compression.Codec}) y dos bytes reservados. Le siguen la tabla de cadenas y el
+ * cuerpo escritos por {@link RecordWriter}; si están comprimidos, precedidos de su
+ * longitud sin comprimir. Las actividades se delegan en los codecs registrados en
+ * {@link ActivityCodecRegistry}.
+ * <p>
+ * La versión 2 añade al archivo de progresos un índice de desplazamientos. La versión 3
+ * termina cada archivo con un pie de {@link #FOOTER_SIZE} bytes: la longitud del contenido
+ * y su CRC-32C, que se verifican al abrirlo para detectar archivos truncados o dañados.
+ * La versión 4 guarda el identificador estable de cada Learning Path y actividad; al leer
+ * versiones anteriores se deriva de los campos que antes definían su igualdad.
+ * La versión 5 guarda los progresos como referencias: el usuario del estudiante, el
+ * identificador del Learning Path y el de cada actividad, que se resuelven contra los
+ * usuarios y Learning Paths ya cargados ({@link EntityResolver}).
+ * La versión 6 guarda en la cabecera el códec de compresión del contenido.
+ * Los archivos de versiones anteriores se siguen leyendo.
+ */
+public class BinaryCodec {
+    public static final int VERSION = 6;
+    public static final int HEADER_SIZE = 8;
+    public static final int FOOTER_SIZE = 8;
+
+    public static final byte USERS = 1;
+    public static final byte LEARNING_PATHS = 2;
+    public static final byte PROGRESSES = 3;
+    public static final byte MANIFEST = 4;
+    public static final byte ACTIVITY = 5;
+
+    private static final byte[] MAGIC = {'L', 'P', 'B'};
+
+    private static volatile Compression compression = Compression.fromSystemProperties();
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Obtiene la compresión con la que se escriben los archivos.
+     */
+    public static Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Cambia la compresión de los archivos que se escriban desde ahora. Los existentes se
+     * siguen leyendo con el códec de su cabecera.
+     */
+    public static void setCompression(Compression compression) {
+        BinaryCodec.compression = compression;
+    }
+
+    /**
+     * Indica si los datos comienzan con la firma del formato binario.
+     * Los archivos antiguos escritos con ObjectOutputStream no la tienen.
+     */
+    public static boolean isBinary(byte[] data) {
+        return data.length >= HEADER_SIZE && data[0] == MAGIC[0] && data[1] == MAGIC[1] && data[2] == MAGIC[2];
+    }
+
+    /**
+     * Obtiene la suma de verificación de un archivo de datos. Desde la versión 3 es la del pie y
+     * solo se leen la cabecera y el pie; en archivos anteriores se calcula sobre todo el archivo.
+     *
+     * @return La suma (CRC-32C), o 0 si el archivo no existe.
+     */
+    public static long checksumOf(File file) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            long length = in.length();
+            if (length >= HEADER_SIZE + FOOTER_SIZE) {
+                byte[] header = new byte[HEADER_SIZE];
+                in.readFully(header);
+                if (isBinary(header) && header[3] >= 3) {
+                    in.seek(length - 4);
+                    return Integer.toUnsignedLong(in.readInt());
+                }
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(Files.readAllBytes(file.toPath()));
+        return crc.getValue();
+    }
+
+    // Archivos completos
+
+    public static byte[] encodeUsers(List<User> users) throws IOException {
+        RecordWriter writer = new RecordWriter();
+        writer.writeInt(users.size());
+        for (User u : users) {
+            writeUser(writer, u);
+        }
+        return toFile(USERS, writer);
+    }
+
+    public static List<User> decodeUsers(byte[] data) throws IOException {
+        RecordReader reader = openFile(data, USERS);
+        int count = reader.readInt();
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(readUser(reader));
+        }
+        return users;
+    }
+
+    public static byte[] encodeLearningPaths(List<LearningPath> learningPaths) throws IOException {
+        RecordWriter writer = new RecordWriter();
+        writer.writeInt(learningPaths.size());
+        for (LearningPath lp : learningPaths) {
+            writeLearningPath(writer, lp);
+        }
+        return toFile(LEARNING_PATHS, writer);
+    }
+
+    public static List<LearningPath> decodeLearningPaths(byte[] data) throws IOException {
+        return decodeLearningPaths(data, new EntityResolver());
+    }
+
+    /**
+     * Decodifica los Learning Paths usando como creadores los usuarios ya cargados.
+     */
+    public static List<LearningPath> decodeLearningPaths(byte[] data, EntityResolver resolver) throws IOException {
+        RecordReader reader = openFile(data, LEARNING_PATHS);
+        reader.setResolver(resolver);
+        int count = reader.readInt();
+        List<LearningPath> learningPaths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            learningPaths.add(readLearningPath(reader));
+        }
+        return learningPaths;
+    }
+
+    /**
+     * Codifica los progresos. Los Learning Paths no se copian: una tabla al inicio del cuerpo
+     * guarda el identificador de cada uno y los progresos la referencian por índice.
+     * Tras la tabla va un índice de entradas de ancho fijo (usuario, Learning Path,
+     * desplazamiento del registro) que permite a {@link MappedProgressStore} decodificar
+     * cada progreso por separado.
+     * <p>
+     * Si la lista es un {@link MappedProgressStore} o una instantánea suya, los registros aún
+     * no decodificados se leen de forma temporal y no quedan retenidos en memoria.
+     */
+    public static byte[] encodeProgresses(List<Progress> progresses) throws IOException {
+        MappedProgressStore.Snapshot store = progresses instanceof MappedProgressStore ? ((MappedProgressStore) progresses).snapshot()
+                : progresses instanceof MappedProgressStore.Snapshot ? (MappedProgressStore.Snapshot) progresses : null;
+        int count = store != null ? store.size() : progresses.size();
+        Map<LearningPath, Integer> pathIds = new HashMap<>();
+        List<LearningPath> paths = new ArrayList<>();
+        int[] progressPathIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            LearningPath lp = store != null ? store.pathAt(i) : progresses.get(i).getLearningPath();
+            Integer id = pathIds.get(lp);
+            if (id == null) {
+                id = paths.size();
+                pathIds.put(lp, id);
+                paths.add(lp);
+            }
+            progressPathIds[i] = id;
+        }
+
+        RecordWriter writer = new RecordWriter();
+        writer.writeInt(paths.size());
+        for (LearningPath lp : paths) {
+            writer.writeInt(lp.getId());
+        }
+        writer.writeInt(count);
+        int indexStart = writer.size();
+        for (int i = 0; i < count; i++) {
+            writer.writeString(store != null ? store.usernameAt(i) : progresses.get(i).getStudent().getUsername());
+            writer.writeInt(progressPathIds[i]);
+            writer.writeInt(0);
+        }
+        for (int i = 0; i < count; i++) {
+            writer.patchInt(indexStart + i * MappedProgressStore.INDEX_ENTRY_SIZE + 8, writer.size());
+            writeProgress(writer, store != null ? store.get(i) : progresses.get(i), progressPathIds[i]);
+        }
+        return toFile(PROGRESSES, writer);
+    }
+
+    /**
+     * Decodifica los progresos resolviendo los estudiantes y Learning Paths contra los ya cargados.
+     *
+     * @param data     El archivo de progresos.
+     * @param resolver Los usuarios y Learning Paths cargados.
+     * @throws IOException Si el archivo está dañado o referencia una entidad que no está en el mapa.
+     */
+    public static List<Progress> decodeProgresses(byte[] data, EntityResolver resolver) throws IOException {
+        RecordReader reader = openFile(data, PROGRESSES);
+        reader.setResolver(resolver);
+        List<LearningPath> paths = readPathTable(reader);
+        int count = reader.readInt();
+        if (data[3] >= 2) {
+            // Los registros son contiguos tras el índice, que aquí no hace falta.
+            reader.position(reader.position() + count * MappedProgressStore.INDEX_ENTRY_SIZE);
+        }
+        List<Progress> progresses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            progresses.add(readProgress(reader, paths));
+        }
+        return progresses;
+    }
+
+    // Entidades
+
+    /**
+     * Codifica una sola actividad, por ejemplo para guardarla en una columna binaria.
+     */
+    public static byte[] encodeActivity(Activity activity) throws IOException {
+        RecordWriter writer = new RecordWriter();
+        writeActivity(writer, activity);
+        return toFile(ACTIVITY, writer);
+    }
+
+    public static Activity decodeActivity(byte[] data) throws IOException {
+        return readActivity(openFile(data, ACTIVITY));
+    }
+
+    public static void writeUser(RecordWriter writer, User user) throws IOException {
+        writer.writeByte(user.getRole().ordinal());
+        writer.writeString(user.getUsername());
+        writer.writeString(user.getPassword());
+        writer.writeString(user.getName());
+    }
+
+    public static User readUser(RecordReader reader) throws IOException {
+        Role role = Role.values()[reader.readByte()];
+        String username = reader.readString();
+        String password = reader.readString();
+        String name = reader.readString();
+        User known = reader.getResolver().findUser(username);
+        if (known != null && known.getRole() == role) {
+            return known;
+        }
+        String key = role + ":" + username;
+        User user = reader.getUserCache().get(key);
+        if (user == null) {
+            // El archivo guarda el hash: se restaura sin volver a calcularlo.
+            user = role == Role.TEACHER ? new Teacher(username, null, name) : new Student(username, null, name);
+            user.restorePassword(password);
+            user.clearDirty();
+            reader.getUserCache().put(key, user);
+        }
+        return user;
+    }
+
+    public static void writeLearningPath(RecordWriter writer, LearningPath lp) throws IOException {
+        writer.writeInt(lp.getId());
+        writer.writeString(lp.getTitle());
+        writer.writeString(lp.getDescription());
+        writer.writeString(lp.getObjectives());
+        writer.writeInt(lp.getDifficultyLevel());
+        writer.writeInt(lp.getDuration());
+        writer.writeDouble(lp.getRating());
+        writer.writeDate(lp.getCreationDate());
+        writer.writeDate(lp.getModificationDate());
+        writer.writeString(lp.getVersion());
+        writeUser(writer, lp.getCreator());
+        writer.writeInt(lp.getActivities().size());
+        for (Activity a : lp.getActivities()) {
+            writeActivity(writer, a);
+        }
+        writer.writeInt(lp.getFeedbackList().size());
+        for (String feedback : lp.getFeedbackList()) {
+            writer.writeString(feedback);
+        }
+    }
+
+    public static LearningPath readLearningPath(RecordReader reader) throws IOException {
+        int id = reader.getFormatVersion() >= 4 ? reader.readInt() : 0;
+        String title = reader.readString();
+        String description = reader.readString();
+        String objectives = reader.readString();
+        int difficultyLevel = reader.readInt();
+        int duration = reader.readInt();
+        double rating = reader.readDouble();
+        Date creationDate = reader.readDate();
+        Date modificationDate = reader.readDate();
+        String version = reader.readString();
+        Teacher creator = (Teacher) readUser(reader);
+        int activityCount = reader.readInt();
+        List<Activity> activities = new ArrayList<>(activityCount);
+        for (int i = 0; i < activityCount; i++) {
+            activities.add(readActivity(reader));
+        }
+        int feedbackCount = reader.readInt();
+        List<String> feedbackList = new ArrayList<>(feedbackCount);
+        for (int i = 0; i < feedbackCount; i++) {
+            feedbackList.add(reader.readString());
+        }
+        LearningPath lp = new LearningPath(title, description, objectives, difficultyLevel, duration, rating,
+                creationDate, modificationDate, version, creator, activities, feedbackList);
+        lp.restoreId(id != 0 ? id : LearningPath.legacyId(title, creator.getUsername()));
+        lp.clearDirty();
+        return lp;
+    }
+
+    public static <T extends Activity> void writeActivity(RecordWriter writer, T activity) throws IOException {
+        ActivityCodec<T> codec = ActivityCodecRegistry.forActivity(activity);
+        writer.writeInt(codec.getTypeId());
+        writer.writeInt(activity.getId());
+        codec.encode(writer, activity);
+    }
+
+    public static Activity readActivity(RecordReader reader) throws IOException {
+        ActivityCodec<?> codec = ActivityCodecRegistry.forTypeId(reader.readInt());
+        int id = reader.getFormatVersion() >= 4 ? reader.readInt() : 0;
+        Activity activity = codec.decode(reader);
+        activity.restoreId(id != 0 ? id : Activity.legacyId(activity.getTitle(), activity.getDescription()));
+        return activity;
+    }
+
+    /**
+     * Recorre los días en que cuentan como finalizadas las actividades de un progreso (formato
+     * versión 5 o superior) sin decodificarlo: solo se leen las referencias, los estados y las
+     * fechas, con las mismas reglas que {@link #readProgress(RecordReader, List)}. Las
+     * respuestas que siguen no se leen.
+     *
+     * @param activityIds Los ids de las actividades del Learning Path del progreso.
+     * @param action      Recibe cada día.
+     */
+    public static void scanCountedCompletionDates(RecordReader reader, Set<Integer> activityIds, Consumer<LocalDate> action) throws IOException {
+        reader.readString();
+        reader.readInt();
+        Set<Integer> inlineIds = new HashSet<>();
+        Set<Integer> counted = new HashSet<>();
+        int statusCount = reader.readInt();
+        for (int i = 0; i < statusCount; i++) {
+            Integer id = readActivityId(reader, activityIds, inlineIds);
+            byte status = reader.readByte();
+            if (id != null && (status == ActivityStatus.COMPLETED.ordinal() || status == ActivityStatus.SUBMITTED.ordinal())) {
+                counted.add(id);
+            } else if (id != null) {
+                counted.remove(id);
+            }
+        }
+        int dateCount = reader.readInt();
+        for (int i = 0; i < dateCount; i++) {
+            Integer id = readActivityId(reader, activityIds, inlineIds);
+            LocalDate date = reader.readLocalDate();
+            if (date != null && counted.contains(id)) {
+                action.accept(date);
+            }
+        }
+    }
+
+    /**
+     * Escribe un progreso como referencias: el usuario del estudiante, el índice del Learning
+     * Path en la tabla del archivo y el identificador de cada actividad. Las actividades que no
+     * pertenecen al Learning Path se escriben en línea la primera vez que aparecen.
+     */
+    public static void writeProgress(RecordWriter writer, Progress progress, int pathId) throws IOException {
+        writer.writeString(progress.getStudent().getUsername());
+        writer.writeInt(pathId);
+
+        Set<Integer> written = new HashSet<>();
+        for (Activity a : progress.getLearningPath().getActivities()) {
+            written.add(a.getId());
+        }
+
+        writer.writeInt(progress.getActivityStatuses().size());
+        for (Map.Entry<Activity, ActivityStatus> entry : progress.getActivityStatuses().entrySet()) {
+            writeActivityRef(writer, entry.getKey(), written);
+            writer.writeByte(entry.getValue() == null ? -1 : entry.getValue().ordinal());
+        }
+        writer.writeInt(progress.getCompletionDates().size());
+        for (Map.Entry<Activity, LocalDate> entry : progress.getCompletionDates().entrySet()) {
+            writeActivityRef(writer, entry.getKey(), written);
+            writer.writeLocalDate(entry.getValue());
+        }
+        writer.writeInt(progress.getQuizResponses().size());
+        for (Map.Entry<Quiz, List<Integer>> entry : progress.getQuizResponses().entrySet()) {
+            writeActivityRef(writer, entry.getKey(), written);
+            List<Integer> options = entry.getValue();
+            writer.writeInt(options == null ? -1 : options.size());
+            if (options != null) {
+                for (Integer option : options) {
+                    writer.writeInt(option);
+                }
+            }
+        }
+        writer.writeInt(progress.getSurveyResponses().size());
+        for (Map.Entry<Survey, SurveyResponse> entry : progress.getSurveyResponses().entrySet()) {
+            writeActivityRef(writer, entry.getKey(), written);
+            writeAnswers(writer, entry.getValue().getAnswers());
+        }
+        writer.writeInt(progress.getExamResponses().size());
+        for (Map.Entry<OpenEndedExam, OpenEndedResponse> entry : progress.getExamResponses().entrySet()) {
+            writeActivityRef(writer, entry.getKey(), written);
+            writeAnswers(writer, entry.getValue().getAnswers());
+        }
+    }
+
+    /**
+     * Lee un progreso. Desde la versión 5 el estudiante se resuelve en el {@link EntityResolver}
+     * del lector y {@code paths} contiene los Learning Paths ya resueltos. En versiones
+     * anteriores {@code paths} son las copias embebidas en el archivo: el progreso se asocia a
+     * la instancia cargada del Learning Path, si la hay, y a sus actividades.
+     * <p>
+     * Las referencias a actividades que ya no están en el Learning Path se descartan.
+     */
+    public static Progress readProgress(RecordReader reader, List<LearningPath> paths) throws IOException {
+        boolean byReference = reader.getFormatVersion() >= 5;
+        Student student = byReference ? reader.getResolver().requireStudent(reader.readString()) : (Student) readUser(reader);
+        LearningPath embedded = paths.get(reader.readInt());
+        LearningPath lp = byReference ? embedded : reader.getResolver().resolve(embedded);
+        Progress progress = new Progress(student, lp);
+        List<Activity> activities = new ArrayList<>(embedded.getActivities());
+
+        int statusCount = reader.readInt();
+        Map<Activity, ActivityStatus> statuses = new HashMap<>(statusCount * 2);
+        for (int i = 0; i < statusCount; i++) {
+            Activity a = readActivityRef(reader, activities, lp);
+            byte status = reader.readByte();
+            if (a != null) {
+                statuses.put(a, status < 0 ? null : ActivityStatus.values()[status]);
+            }
+        }
+        progress.setActivityStatuses(statuses);
+        int dateCount = reader.readInt();
+        Map<Activity, LocalDate> dates = progress.getCompletionDates();
+        for (int i = 0; i < dateCount; i++) {
+            Activity a = readActivityRef(reader, activities, lp);
+            LocalDate date = reader.readLocalDate();
+            if (a != null) {
+                dates.put(a, date);
+            }
+        }
+        int quizCount = reader.readInt();
+        for (int i = 0; i < quizCount; i++) {
+            Quiz quiz = (Quiz) readActivityRef(reader, activities, lp);
+            int optionCount = reader.readInt();
+            List<Integer> options = null;
+            if (optionCount >= 0) {
+                options = new ArrayList<>(optionCount);
+                for (int j = 0; j < optionCount; j++) {
+                    options.add(reader.readInt());
+                }
+            }
+            if (quiz != null) {
+                progress.saveQuizResponses(quiz, options);
+            }
+        }
+        int surveyCount = reader.readInt();
+        for (int i = 0; i < surveyCount; i++) {
+            Survey survey = (Survey) readActivityRef(reader, activities, lp);
+            SurveyResponse response = new SurveyResponse(student, survey);
+            readAnswers(reader, response.getAnswers());
+            if (survey != null) {
+                progress.addSurveyResponse(survey, response);
+            }
+        }
+        int examCount = reader.readInt();
+        for (int i = 0; i < examCount; i++) {
+            OpenEndedExam exam = (OpenEndedExam) readActivityRef(reader, activities, lp);
+            OpenEndedResponse response = new OpenEndedResponse(student, exam);
+            readAnswers(reader, response.getAnswers());
+            if (exam != null) {
+                progress.addExamResponse(exam, response);
+            }
+        }
+        progress.clearDirty();
+        return progress;
+    }
+
+    public static void writeAnswers(RecordWriter writer, Map<String, String> answers) throws IOException {
+        writer.writeInt(answers.size());
+        for (Map.Entry<String, String> entry : answers.entrySet()) {
+            writer.writeString(entry.getKey());
+            writer.writeString(entry.getValue());
+        }
+    }
+
+    public static void readAnswers(RecordReader reader, Map<String, String> answers) throws IOException {
+        int count = reader.readInt();
+        for (int i = 0; i < count; i++) {
+            answers.put(reader.readString(), reader.readString());
+        }
+    }
+
+    /**
+     * Lee la tabla de Learning Paths del archivo de progresos: desde la versión 5 son
+     * identificadores que se resuelven en el mapa del lector; antes, copias completas.
+     */
+    static List<LearningPath> readPathTable(RecordReader reader) throws IOException {
+        int pathCount = reader.readInt();
+        List<LearningPath> paths = new ArrayList<>(pathCount);
+        for (int i = 0; i < pathCount; i++) {
+            paths.add(reader.getFormatVersion() >= 5
+                    ? reader.getResolver().requireLearningPath(reader.readInt())
+                    : readLearningPath(reader));
+        }
+        return paths;
+    }
+
+    // Métodos auxiliares
+
+    // Identificador de la actividad y un byte que indica si la sigue su codificación en línea.
+    private static void writeActivityRef(RecordWriter writer, Activity activity, Set<Integer> written) throws IOException {
+        writer.writeInt(activity.getId());
+        boolean inline = written.add(activity.getId());
+        writer.writeByte(inline ? 1 : 0);
+        if (inline) {
+            writeActivity(writer, activity);
+        }
+    }
+
+    /**
+     * Lee la referencia a una actividad. En versiones anteriores a la 5 la referencia es la
+     * posición en la copia embebida del Learning Path (-1 si sigue en línea) y se sustituye
+     * por la actividad con el mismo identificador del Learning Path {@code lp}.
+     *
+     * @return La actividad, o null si ya no está en el Learning Path.
+     */
+    private static Activity readActivityRef(RecordReader reader, List<Activity> activities, LearningPath lp) throws IOException {
+        if (reader.getFormatVersion() >= 5) {
+            int id = reader.readInt();
+            if (reader.readByte() != 0) {
+                Activity inline = readActivity(reader);
+                activities.add(inline);
+                return inline;
+            }
+            return findActivity(activities, id);
+        }
+        int position = reader.readInt();
+        Activity activity;
+        if (position == -1) {
+            activity = readActivity(reader);
+            activities.add(activity);
+        } else {
+            activity = activities.get(position);
+        }
+        Activity current = findActivity(lp.getActivities(), activity.getId());
+        return current != null ? current : activity;
+    }
+
+    // Lee una referencia a actividad sin resolverla; las actividades en línea se leen y descartan.
+    // Devuelve el id, o null si la actividad ya no está en el Learning Path.
+    private static Integer readActivityId(RecordReader reader, Set<Integer> activityIds, Set<Integer> inlineIds) throws IOException {
+        int id = reader.readInt();
+        if (reader.readByte() != 0) {
+            readActivity(reader);
+            inlineIds.add(id);
+            return id;
+        }
+        return activityIds.contains(id) || inlineIds.contains(id) ? id : null;
+    }
+
+    private static Activity findActivity(List<Activity> activities, int id) {
+        for (Activity a : activities) {
+            if (a.getId() == id) {
+                return a;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Escribe la cabecera, el contenido del escritor (comprimido según {@link #getCompression()})
+     * y el pie con la suma de verificación, que cubre los bytes tal como quedan en el archivo.
+     */
+    static byte[] toFile(byte kind, RecordWriter writer) throws IOException {
+        Compression compression = BinaryCodec.compression;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(writer.size() + 1024);
+        CheckedOutputStream checked = new CheckedOutputStream(bytes, new CRC32C());
+        DataOutputStream out = new DataOutputStream(checked);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(kind);
+        out.writeByte(compression.getCodec().ordinal());
+        out.write(new byte[2]);
+        if (compression.getCodec() == Compression.Codec.NONE) {
+            writer.writeTo(out);
+        } else {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(writer.size() + 1024);
+            DataOutputStream rawOut = new DataOutputStream(raw);
+            writer.writeTo(rawOut);
+            rawOut.flush();
+            byte[] content = raw.toByteArray();
+            out.writeInt(content.length);
+            out.write(compression.compress(content, 0, content.length));
+        }
+        out.flush();
+        // El pie no entra en la suma de verificación: se escribe directamente en el buffer.
+        DataOutputStream footer = new DataOutputStream(bytes);
+        footer.writeInt(bytes.size());
+        footer.writeInt((int) checked.getChecksum().getValue());
+        footer.flush();
+        return bytes.toByteArray();
+    }
+
+    static RecordReader openFile(byte[] data, byte kind) throws IOException {
+        return openBuffer(ByteBuffer.wrap(data), kind);
+    }
+
+    /**
+     * Valida la cabecera y, desde la versión 3, la suma de verificación del pie; crea un
+     * lector posicionado al inicio del cuerpo, limitado a los datos anteriores al pie. Si el
+     * archivo está comprimido, el lector trabaja sobre una copia descomprimida en memoria.
+     */
+    static RecordReader openBuffer(ByteBuffer buffer, byte kind) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.get(0) != MAGIC[0] || buffer.get(1) != MAGIC[1] || buffer.get(2) != MAGIC[2]) {
+            throw new IOException("El archivo no tiene formato binario.");
+        }
+        if (buffer.get(3) > VERSION) {
+            throw new IOException("Versión de formato no soportada: " + buffer.get(3));
+        }
+        if (buffer.get(4) != kind) {
+            throw new IOException("Tipo de archivo inesperado: " + buffer.get(4));
+        }
+        if (buffer.get(3) >= 3) {
+            buffer.limit(verifyChecksum(buffer));
+        }
+        buffer.position(HEADER_SIZE);
+        Compression.Codec codec = buffer.get(3) >= 6 ? Compression.codecOf(buffer.get(5)) : Compression.Codec.NONE;
+        RecordReader reader;
+        if (codec == Compression.Codec.NONE) {
+            reader = new RecordReader(buffer);
+        } else {
+            int originalLength = buffer.getInt();
+            reader = new RecordReader(ByteBuffer.wrap(Compression.decompress(codec, buffer, originalLength)));
+        }
+        reader.setFormatVersion(buffer.get(3));
+        return reader;
+    }
+
+    /**
+     * Comprueba el pie de un archivo de versión 3 o superior.
+     *
+     * @return La longitud del contenido, sin el pie.
+     * @throws IOException Si el archivo está truncado o la suma de verificación no coincide.
+     */
+    private static int verifyChecksum(ByteBuffer buffer) throws IOException {
+        int total = buffer.limit();
+        if (total < HEADER_SIZE + FOOTER_SIZE || buffer.getInt(total - FOOTER_SIZE) != total - FOOTER_SIZE) {
+            throw new IOException("Archivo truncado o incompleto.");
+        }
+        int length = total - FOOTER_SIZE;
+        ByteBuffer content = buffer.duplicate();
+        content.position(0);
+        content.limit(length);
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        if ((int) crc.getValue() != buffer.getInt(length + 4)) {
+            throw new IOException("La suma de verificación no coincide: el archivo está dañado.");
+        }
+        return length;
+    }
+}
@@ -0,0 +1,192 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.*;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+public class BinaryCodecTest {
+
+    @Test
+    public void testLearningPathRoundTripWithAllActivityTypes() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        LearningPath lp = new LearningPath("Java Basics", "Introduction to Java", "Learn the basics", 2, teacher);
+        lp.addActivity(new Assignment("Hello World", "Write a program", "Syntax", 1, 60, true, "Submit the .java file"));
+        lp.addActivity(new Quiz("Quiz 1", "Basics quiz", "Assess", 1, 20, false,
+                Arrays.asList(new Question("What is Java?", new String[]{"Language", "Coffee", "Island", "Game"}, 0, "It is a language.")), 70.0));
+        lp.addActivity(new ResourceReview("Variables", "Read about variables", "Understand", 1, 30, true, "http://example.com", "Read it"));
+        Survey survey = new Survey("Survey", "Opinion", "Feedback", 1, 10, false);
+        survey.addSurveyQuestion(new SurveyQuestion("Did you like it?"));
+        lp.addActivity(survey);
+        OpenEndedExam exam = new OpenEndedExam("Exam", "Final exam", "Evaluate", 3, 90, true,
+                EnumSet.of(ActivityType.EXAMEN), new ArrayList<>(Arrays.asList(new OpenEndedQuestion("Explain OOP"))));
+        exam.setInstructionsFile("data/instructions_Exam.txt");
+        lp.addActivity(exam);
+        lp.addFeedback("Great course");
+
+        List<LearningPath> decoded = BinaryCodec.decodeLearningPaths(BinaryCodec.encodeLearningPaths(Arrays.asList(lp)));
+
+        LearningPath copy = decoded.get(0);
+        assertEquals(lp, copy);
+        assertEquals(lp.getDuration(), copy.getDuration());
+        assertEquals(lp.getCreationDate(), copy.getCreationDate());
+        assertEquals(5, copy.getActivities().size());
+        assertEquals("Quiz", copy.getActivities().get(1).getType());
+        Quiz quiz = (Quiz) copy.getActivities().get(1);
+        assertEquals("Coffee", quiz.getQuestions().get(0).getOptions()[1]);
+        assertEquals("Read it", ((ResourceReview) copy.getActivities().get(2)).getInstructions());
+        assertEquals("data/instructions_Exam.txt", ((OpenEndedExam) copy.getActivities().get(4)).getInstructionsFile());
+        assertEquals("Great course", copy.getFeedbackList().get(0));
+    }
+
+    @Test
+    public void testIdentifiersSurviveRoundTripAndDisambiguateActivities() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("stud456", "pass123", "Student Mary");
+        LearningPath lp = new LearningPath("Java Basics", "Introduction to Java", "Learn the basics", 2, teacher);
+        // Dos actividades con el mismo título y descripción siguen siendo claves distintas
+        Activity first = new Assignment("Practice", "Exercise", "Syntax", 1, 60, true, "Submit");
+        Activity second = new Assignment("Practice", "Exercise", "Syntax", 1, 60, true, "Submit");
+        lp.addActivity(first);
+        lp.addActivity(second);
+        assertNotEquals(first, second);
+        Progress progress = new Progress(student, lp);
+        progress.updateActivityStatus(second, ActivityStatus.COMPLETED);
+        assertEquals(ActivityStatus.PENDING, progress.getActivityStatus(first));
+
+        LearningPath decodedPath = BinaryCodec.decodeLearningPaths(BinaryCodec.encodeLearningPaths(Arrays.asList(lp))).get(0);
+        assertEquals(lp.getId(), decodedPath.getId());
+        assertEquals(second.getId(), decodedPath.getActivities().get(1).getId());
+
+        // El progreso decodificado usa las actividades del Learning Path cargado; las claves coinciden por id
+        EntityResolver resolver = new EntityResolver(Arrays.<User>asList(teacher, student), Arrays.asList(decodedPath));
+        Progress decoded = BinaryCodec.decodeProgresses(BinaryCodec.encodeProgresses(Arrays.asList(progress)), resolver).get(0);
+        assertEquals(ActivityStatus.COMPLETED, decoded.getActivityStatus(decodedPath.getActivities().get(1)));
+        assertEquals(ActivityStatus.PENDING, decoded.getActivityStatus(decodedPath.getActivities().get(0)));
+
+        // Una copia del Learning Path es una entidad nueva
+        LearningPath copy = new LearningPath(lp, teacher);
+        assertNotEquals(lp, copy);
+        assertNotEquals(first, copy.getActivities().get(0));
+    }
+
+    @Test
+    public void testProgressRoundTripSharesLearningPath() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        LearningPath lp = new LearningPath("Data Structures", "Learn", "Lists", 2, teacher);
+        Activity review = new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists");
+        Quiz quiz = new Quiz("Queues Quiz", "Queues", "Assess", 2, 30, false,
+                Arrays.asList(new Question("Q?", new String[]{"a", "b", "c", "d"}, 1, "b")), 70);
+        lp.addActivity(review);
+        lp.addActivity(quiz);
+
+        List<User> users = new ArrayList<>();
+        List<Progress> progresses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Student student = new Student("student" + i, "pass", "Student " + i);
+            users.add(student);
+            Progress p = new Progress(student, lp);
+            p.updateActivityStatus(review, ActivityStatus.COMPLETED);
+            p.saveQuizResponses(quiz, Arrays.asList(i % 4));
+            progresses.add(p);
+        }
+
+        List<Progress> decoded = BinaryCodec.decodeProgresses(BinaryCodec.encodeProgresses(progresses),
+                new EntityResolver(users, Arrays.asList(lp)));
+
+        assertEquals(3, decoded.size());
+        assertSame(lp, decoded.get(0).getLearningPath());
+        assertSame(decoded.get(0).getLearningPath(), decoded.get(2).getLearningPath());
+        assertSame(users.get(1), decoded.get(1).getStudent());
+        Activity decodedReview = decoded.get(1).getLearningPath().getActivities().get(0);
+        Quiz decodedQuiz = (Quiz) decoded.get(1).getLearningPath().getActivities().get(1);
+        assertEquals(ActivityStatus.COMPLETED, decoded.get(1).getActivityStatus(decodedReview));
+        assertEquals(progresses.get(1).getCompletionDate(review), decoded.get(1).getCompletionDate(decodedReview));
+        assertEquals(Arrays.asList(1), decoded.get(1).getQuizResponses(decodedQuiz));
+        assertEquals(50.0, decoded.get(1).calculateCompletionPercentage());
+    }
+
+    @Test
+    public void testLegacySerializedDataIsNotBinary() throws Exception {
+        List<User> users = new ArrayList<>();
+        users.add(new Student("stud456", "pass123", "Student Mary"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(users);
+        }
+
+        assertFalse(BinaryCodec.isBinary(bytes.toByteArray()));
+        assertTrue(BinaryCodec.isBinary(BinaryCodec.encodeUsers(users)));
+        assertTrue(BinaryCodec.decodeUsers(BinaryCodec.encodeUsers(users)).get(0).authenticate("pass123"));
+    }
+
+    @Test
+    public void testMappedStoreDecodesOnlyTouchedProgress() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        LearningPath java = new LearningPath("Java", "Learn Java", "Basics", 1, teacher);
+        LearningPath python = new LearningPath("Python", "Learn Python", "Basics", 1, teacher);
+        Activity review = new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists");
+        java.addActivity(review);
+        python.addActivity(new Assignment("Hello", "Write a program", "Syntax", 1, 60, true, "Submit"));
+
+        List<User> users = new ArrayList<>();
+        List<Progress> progresses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Student student = new Student("student" + i, "pass", "Student " + i);
+            users.add(student);
+            Progress p = new Progress(student, java);
+            if (i % 2 == 0) {
+                p.updateActivityStatus(review, ActivityStatus.COMPLETED);
+            }
+            progresses.add(p);
+            progresses.add(new Progress(student, python));
+        }
+
+        File file = File.createTempFile("progresses", ".dat");
+        file.deleteOnExit();
+        Files.write(file.toPath(), BinaryCodec.encodeProgresses(progresses));
+        assertTrue(MappedProgressStore.isMappable(file));
+
+        EntityResolver resolver = new EntityResolver(users, Arrays.asList(java, python));
+        MappedProgressStore store = MappedProgressStore.open(file, resolver);
+        assertEquals(20, store.size());
+        assertEquals(0, store.getDecodedCount());
+
+        Progress found = store.find(new Student("student4", "pass", "Student 4"), java);
+        assertNotNull(found);
+        assertEquals(1, store.getDecodedCount());
+        assertEquals("student4", found.getStudent().getUsername());
+        assertEquals(ActivityStatus.COMPLETED, found.getActivityStatus(found.getLearningPath().getActivities().get(0)));
+        assertSame(found, store.find("student4", java.getId()));
+        assertNull(store.find("nobody", java.getId()));
+
+        assertEquals(2, store.findByStudent("student7").size());
+        assertEquals(3, store.getDecodedCount());
+
+        Student late = new Student("late", "pass", "Late");
+        resolver.register(late);
+        store.add(new Progress(late, java));
+        assertEquals(21, store.size());
+        assertNotNull(store.find("late", java.getId()));
+
+        // Reescribir el archivo no retiene los registros que no se habían consultado.
+        List<Progress> reloaded = BinaryCodec.decodeProgresses(BinaryCodec.encodeProgresses(store), resolver);
+        assertEquals(3, store.getDecodedCount());
+        assertEquals(21, reloaded.size());
+        assertEquals("late", reloaded.get(20).getStudent().getUsername());
+        assertEquals(100.0, reloaded.get(0).calculateCompletionPercentage());
+    }
+}
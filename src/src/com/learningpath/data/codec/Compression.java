@@ -0,0 +1,178 @@
+package src.com.learningpath.data.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresión de los archivos de datos y de los registros del journal.
+ * <p>
+ * El códec se guarda en cada archivo ({@link BinaryCodec}) o registro ({@code Journal}), así
+ * que los datos escritos con un códec se siguen leyendo después de cambiarlo. Se configura
+ * con la propiedad del sistema {@value #PROPERTY}: {@code none} (por defecto),
+ * {@code deflate} o {@code deflate:N}, con N el nivel de {@link Deflater} de 1 (más rápido)
+ * a 9 (más pequeño).
+ */
+public final class Compression {
+
+    /**
+     * Códec de compresión. El ordinal es el valor que se guarda en la cabecera.
+     */
+    public enum Codec {
+        NONE, DEFLATE
+    }
+
+    public static final String PROPERTY = "learningpath.compression";
+
+    public static final Compression NONE = new Compression(Codec.NONE, 0);
+
+    // Nivel de "deflate" sin número: el mismo que usa Deflater por defecto.
+    private static final int DEFAULT_LEVEL = 6;
+
+    private final Codec codec;
+    private final int level;
+
+    private Compression(Codec codec, int level) {
+        this.codec = codec;
+        this.level = level;
+    }
+
+    /**
+     * Compresión con {@link Deflater}.
+     *
+     * @param level El nivel, de {@link Deflater#BEST_SPEED} a {@link Deflater#BEST_COMPRESSION}.
+     */
+    public static Compression deflate(int level) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Nivel de compresión fuera de rango: " + level);
+        }
+        return new Compression(Codec.DEFLATE, level);
+    }
+
+    /**
+     * Interpreta una configuración como {@code none}, {@code deflate} o {@code deflate:6}.
+     *
+     * @throws IllegalArgumentException Si no es válida.
+     */
+    public static Compression parse(String value) {
+        String[] parts = value.trim().toLowerCase().split(":", 2);
+        if (parts[0].equals("none") && parts.length == 1) {
+            return NONE;
+        }
+        if (parts[0].equals("deflate")) {
+            try {
+                return deflate(parts.length == 1 ? DEFAULT_LEVEL : Integer.parseInt(parts[1]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Nivel de compresión no válido: " + parts[1]);
+            }
+        }
+        throw new IllegalArgumentException("Compresión no válida: " + value);
+    }
+
+    /**
+     * Lee la configuración de la propiedad {@value #PROPERTY}; si no está o no es válida, no se comprime.
+     */
+    public static Compression fromSystemProperties() {
+        String value = System.getProperty(PROPERTY);
+        if (value != null) {
+            try {
+                return parse(value);
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage() + ". Los archivos no se comprimirán.");
+            }
+        }
+        return NONE;
+    }
+
+    public Codec getCodec() {
+        return codec;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Comprime un bloque. Con {@link Codec#NONE} se devuelve una copia.
+     */
+    public byte[] compress(byte[] data, int offset, int length) {
+        if (codec == Codec.NONE) {
+            byte[] copy = new byte[length];
+            System.arraycopy(data, offset, copy, 0, length);
+            return copy;
+        }
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(data, offset, length);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 2));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Descomprime un bloque.
+     *
+     * @param codec          El códec con el que se escribió.
+     * @param block          El bloque comprimido, entre su posición y su límite.
+     * @param originalLength La longitud sin comprimir, guardada junto al bloque.
+     * @throws IOException Si los datos están dañados o no tienen la longitud esperada.
+     */
+    public static byte[] decompress(Codec codec, ByteBuffer block, int originalLength) throws IOException {
+        if (codec == Codec.NONE) {
+            byte[] copy = new byte[block.remaining()];
+            block.get(copy);
+            return copy;
+        }
+        if (originalLength < 0) {
+            throw new IOException("Longitud de bloque comprimido no válida: " + originalLength);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block);
+            byte[] result = new byte[originalLength];
+            int read = 0;
+            while (read < originalLength) {
+                int n = inflater.inflate(result, read, originalLength - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != originalLength || !inflater.finished()) {
+                throw new IOException("Bloque comprimido dañado o incompleto.");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("Bloque comprimido dañado: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Obtiene el códec guardado en una cabecera o registro.
+     *
+     * @throws IOException Si el valor no corresponde a ningún códec.
+     */
+    public static Codec codecOf(int id) throws IOException {
+        if (id < 0 || id >= Codec.values().length) {
+            throw new IOException("Códec de compresión desconocido: " + id);
+        }
+        return Codec.values()[id];
+    }
+
+    @Override
+    public String toString() {
+        return codec == Codec.NONE ? "none" : "deflate:" + level;
+    }
+}
@@ -0,0 +1,103 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.User;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mapa de identidad de los usuarios y Learning Paths ya cargados, contra el que se resuelven
+ * las referencias de los otros archivos de datos.
+ * <p>
+ * Los progresos (desde la versión 5 del formato) guardan solo el usuario del estudiante y el
+ * identificador del Learning Path; al leerlos se obtienen aquí las mismas instancias que
+ * están en las listas de usuarios y Learning Paths, en lugar de copias. Lo mismo ocurre con
+ * el creador de cada Learning Path y con las copias embebidas de los archivos anteriores.
+ * Así cada entidad se carga una sola vez.
+ */
+public class EntityResolver {
+    private final Map<String, User> users = new HashMap<>();
+    private final Map<Integer, LearningPath> learningPaths = new HashMap<>();
+
+    /**
+     * Crea un mapa vacío: las referencias a estudiantes o Learning Paths no se pueden resolver
+     * y las entidades embebidas se leen como copias.
+     */
+    public EntityResolver() {
+    }
+
+    /**
+     * Crea el mapa con los usuarios y Learning Paths cargados.
+     *
+     * @param users         Los usuarios.
+     * @param learningPaths Los Learning Paths.
+     */
+    public EntityResolver(List<User> users, List<LearningPath> learningPaths) {
+        for (User user : users) {
+            register(user);
+        }
+        for (LearningPath lp : learningPaths) {
+            register(lp);
+        }
+    }
+
+    /**
+     * Registra un usuario, reemplazando al que tuviera el mismo nombre de usuario.
+     */
+    public void register(User user) {
+        users.put(user.getUsername(), user);
+    }
+
+    /**
+     * Registra un Learning Path, reemplazando al que tuviera el mismo identificador.
+     */
+    public void register(LearningPath lp) {
+        learningPaths.put(lp.getId(), lp);
+    }
+
+    /**
+     * Busca un usuario por su nombre de usuario.
+     *
+     * @return El usuario, o null si no está registrado.
+     */
+    public User findUser(String username) {
+        return users.get(username);
+    }
+
+    /**
+     * Busca un Learning Path por su identificador.
+     *
+     * @return El Learning Path, o null si no está registrado.
+     */
+    public LearningPath findLearningPath(int id) {
+        return learningPaths.get(id);
+    }
+
+    /**
+     * Obtiene la instancia cargada del Learning Path decodificado, o el mismo si no está registrado.
+     */
+    public LearningPath resolve(LearningPath decoded) {
+        LearningPath lp = learningPaths.get(decoded.getId());
+        return lp != null ? lp : decoded;
+    }
+
+    Student requireStudent(String username) throws IOException {
+        User user = users.get(username);
+        if (!(user instanceof Student)) {
+            throw new IOException("Estudiante no encontrado: " + username);
+        }
+        return (Student) user;
+    }
+
+    LearningPath requireLearningPath(int id) throws IOException {
+        LearningPath lp = learningPaths.get(id);
+        if (lp == null) {
+            throw new IOException("Learning Path no encontrado: " + id);
+        }
+        return lp;
+    }
+}
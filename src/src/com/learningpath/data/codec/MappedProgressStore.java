@@ -0,0 +1,497 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.ProgressListener;
+import src.com.learningpath.SnapshotList;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.users.Student;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Almacén de progresos respaldado por un {@link MappedByteBuffer} sobre el archivo de progresos
+ * (formato binario versión 2 o superior).
+ * <p>
+ * Al abrirse solo se leen la tabla de Learning Paths y el índice de desplazamientos, que
+ * relaciona cada (usuario del estudiante, Learning Path) con la posición de su registro.
+ * A partir de él se mantienen índices hash por estudiante, por Learning Path y por ambos;
+ * los Learning Paths se identifican por su id, como en su equals(), porque dos copias de
+ * un mismo Learning Path pueden tener el mismo título y creador.
+ * Cada Progress se decodifica la primera vez que se accede a él y se conserva desde entonces,
+ * de modo que la memoria ocupada depende de los progresos realmente consultados y no del
+ * tamaño del archivo. Los estudiantes y Learning Paths de los progresos se resuelven contra
+ * los ya cargados ({@link EntityResolver}), por lo que son las mismas instancias. Los progresos añadidos después de abrir el archivo se guardan en memoria
+ * al final de la lista.
+ * <p>
+ * Si el archivo está comprimido ({@link Compression}) se descomprime completo en memoria al
+ * abrirlo; los progresos se siguen decodificando bajo demanda.
+ * <p>
+ * Implementa {@code List<Progress>} para que el código existente siga funcionando; recorrer la
+ * lista completa decodifica todos los registros, por lo que las búsquedas deben usar
+ * {@link #find(Student, LearningPath)}, {@link #findByStudent(String)} o
+ * {@link #findByLearningPath(LearningPath)}.
+ * <p>
+ * Para guardar en segundo plano se usa {@link #snapshot()}: la lista de progresos tal como
+ * está en ese momento, que no cambia aunque se añadan otros mientras se escribe.
+ */
+public class MappedProgressStore extends AbstractList<Progress> implements RandomAccess {
+    // Cada entrada del índice: usuario (referencia a cadena), índice del Learning Path y desplazamiento.
+    static final int INDEX_ENTRY_SIZE = 12;
+
+    private final RecordReader reader;
+    private final List<LearningPath> paths;
+    private final int indexStart;
+    private final int mappedCount;
+    private final Progress[] decoded;
+    private int decodedCount;
+
+    private final SnapshotList<Progress> appended = new SnapshotList<>();
+    // Índices por posición en la lista: estudiante, Learning Path y (estudiante, Learning Path).
+    private final Map<String, List<Integer>> positionsByStudent = new HashMap<>();
+    private final Map<Integer, List<Integer>> positionsByPath = new HashMap<>();
+    private final Map<Key, Integer> positionByKey = new HashMap<>();
+    private final List<ProgressListener> listeners = new ArrayList<>();
+
+    /**
+     * Crea un almacén vacío, sin archivo asociado.
+     */
+    public MappedProgressStore() {
+        reader = null;
+        paths = Collections.emptyList();
+        indexStart = 0;
+        mappedCount = 0;
+        decoded = new Progress[0];
+    }
+
+    private MappedProgressStore(ByteBuffer buffer, EntityResolver resolver) throws IOException {
+        reader = BinaryCodec.openBuffer(buffer, BinaryCodec.PROGRESSES);
+        if (buffer.get(3) < 2) {
+            throw new IOException("El archivo de progresos no tiene índice (versión " + buffer.get(3) + ").");
+        }
+        reader.setResolver(resolver);
+        paths = BinaryCodec.readPathTable(reader);
+        int pathCount = paths.size();
+        mappedCount = reader.readInt();
+        indexStart = reader.position();
+        decoded = new Progress[mappedCount];
+        int[] pathIds = new int[pathCount];
+        for (int i = 0; i < pathCount; i++) {
+            pathIds[i] = resolver.resolve(paths.get(i)).getId();
+        }
+        for (int i = 0; i < mappedCount; i++) {
+            String username = reader.readString();
+            int pathId = pathIds[reader.readInt()];
+            reader.readInt();
+            index(i, username, pathId);
+        }
+    }
+
+    /**
+     * Mapea en memoria un archivo de progresos. El archivo no se lee completo: el sistema
+     * operativo carga las páginas a medida que se decodifican los registros.
+     *
+     * @param file     El archivo de progresos en formato binario versión 2 o superior.
+     * @param resolver Los usuarios y Learning Paths cargados, a los que referencian los progresos.
+     * @return El almacén sobre el archivo.
+     * @throws IOException Si el archivo no se puede mapear, no tiene índice o referencia un
+     *                     Learning Path que no está en el mapa.
+     */
+    public static MappedProgressStore open(File file, EntityResolver resolver) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedProgressStore(buffer, resolver);
+        }
+    }
+
+    /**
+     * Crea un almacén sobre datos ya cargados en memoria (por ejemplo, la salida de
+     * {@link BinaryCodec#encodeProgresses(List)}).
+     */
+    public static MappedProgressStore wrap(byte[] data, EntityResolver resolver) throws IOException {
+        return new MappedProgressStore(ByteBuffer.wrap(data), resolver);
+    }
+
+    /**
+     * Devuelve la lista como almacén: si ya lo es se devuelve tal cual; si no, se crea un
+     * almacén en memoria con sus elementos.
+     */
+    public static MappedProgressStore of(List<Progress> progresses) {
+        if (progresses instanceof MappedProgressStore) {
+            return (MappedProgressStore) progresses;
+        }
+        MappedProgressStore store = new MappedProgressStore();
+        store.addAll(progresses);
+        return store;
+    }
+
+    /**
+     * Indica si el archivo puede abrirse con {@link #open(File, EntityResolver)}, leyendo solo su cabecera.
+     */
+    public static boolean isMappable(File file) throws IOException {
+        byte[] header = new byte[BinaryCodec.HEADER_SIZE];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readFully(header);
+        } catch (EOFException e) {
+            return false;
+        }
+        return BinaryCodec.isBinary(header) && header[3] >= 2 && header[4] == BinaryCodec.PROGRESSES;
+    }
+
+    @Override
+    public Progress get(int index) {
+        if (index < mappedCount) {
+            return decode(index);
+        }
+        return appended.get(index - mappedCount);
+    }
+
+    @Override
+    public int size() {
+        return mappedCount + appended.size();
+    }
+
+    /**
+     * Solo se admite añadir al final de la lista.
+     */
+    @Override
+    public void add(int index, Progress progress) {
+        if (index != size()) {
+            throw new UnsupportedOperationException("Solo se pueden añadir progresos al final.");
+        }
+        synchronized (this) {
+            index(index, progress.getStudent().getUsername(), progress.getLearningPath().getId());
+            appended.add(progress);
+            for (ProgressListener listener : listeners) {
+                progress.addProgressListener(listener);
+            }
+        }
+        modCount++;
+    }
+
+    /**
+     * Busca el progreso de un estudiante en un Learning Path, decodificando solo ese registro.
+     *
+     * @return El progreso, o null si el estudiante no está inscrito.
+     */
+    public Progress find(Student student, LearningPath lp) {
+        return find(student.getUsername(), lp.getId());
+    }
+
+    /**
+     * Busca un progreso por usuario del estudiante e id del Learning Path.
+     *
+     * @return El progreso, o null si no existe.
+     */
+    public synchronized Progress find(String username, int pathId) {
+        Integer position = positionByKey.get(new Key(username, pathId));
+        return position == null ? null : get(position);
+    }
+
+    /**
+     * Obtiene los progresos de un estudiante; solo se decodifican sus registros.
+     */
+    public synchronized List<Progress> findByStudent(String username) {
+        return collect(positionsByStudent.get(username));
+    }
+
+    /**
+     * Indica si el estudiante está inscrito en el Learning Path, sin decodificar ningún registro.
+     */
+    public synchronized boolean contains(String username, int pathId) {
+        return positionByKey.containsKey(new Key(username, pathId));
+    }
+
+    /**
+     * Obtiene los progresos de un Learning Path; solo se decodifican sus registros.
+     */
+    public synchronized List<Progress> findByLearningPath(LearningPath lp) {
+        return collect(positionsByPath.get(lp.getId()));
+    }
+
+    /**
+     * Recorre los días en que cuentan como finalizadas las actividades de todos los progresos,
+     * junto con el Learning Path de cada uno. Los registros que no se decodificaron se leen sin
+     * crear el Progress ({@link BinaryCodec#scanCountedCompletionDates}), así que recorrer el
+     * archivo completo no lo retiene en memoria.
+     *
+     * @param action Recibe el Learning Path y el día de cada actividad finalizada.
+     */
+    public synchronized void forEachCountedCompletionDate(BiConsumer<LearningPath, LocalDate> action) {
+        Map<Integer, Set<Integer>> activityIds = new HashMap<>();
+        for (int i = 0; i < mappedCount; i++) {
+            // Los archivos anteriores a la versión 5 referencian las actividades por posición.
+            Progress progress = decoded[i] != null || reader.getFormatVersion() < 5 ? peek(i) : null;
+            if (progress != null) {
+                LearningPath lp = progress.getLearningPath();
+                progress.forEachCountedCompletionDate(date -> action.accept(lp, date));
+                continue;
+            }
+            try {
+                reader.position(indexStart + i * INDEX_ENTRY_SIZE + 4);
+                int pathIndex = reader.readInt();
+                reader.position(reader.readInt());
+                LearningPath lp = paths.get(pathIndex);
+                Set<Integer> ids = activityIds.computeIfAbsent(pathIndex, k -> {
+                    Set<Integer> set = new HashSet<>();
+                    for (Activity a : lp.getActivities()) {
+                        set.add(a.getId());
+                    }
+                    return set;
+                });
+                BinaryCodec.scanCountedCompletionDates(reader, ids, date -> action.accept(lp, date));
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Registro de progreso corrupto en la posición " + i, e);
+            }
+        }
+        for (Progress p : appended) {
+            LearningPath lp = p.getLearningPath();
+            p.forEachCountedCompletionDate(date -> action.accept(lp, date));
+        }
+    }
+
+    /**
+     * Registra un listener en todos los progresos, incluidos los que se decodifiquen o añadan después.
+     */
+    public synchronized void addProgressListener(ProgressListener listener) {
+        listeners.add(listener);
+        for (Progress p : decoded) {
+            if (p != null) {
+                p.addProgressListener(listener);
+            }
+        }
+        for (Progress p : appended) {
+            p.addProgressListener(listener);
+        }
+    }
+
+    /**
+     * Indica si algún progreso cambió desde el último guardado. Los registros que nunca se
+     * decodificaron no pueden haber cambiado, así que no se recorren.
+     */
+    public synchronized boolean hasChanges() {
+        for (Progress p : decoded) {
+            if (p != null && p.isDirty()) {
+                return true;
+            }
+        }
+        for (Progress p : appended) {
+            if (p.isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marca como guardados todos los progresos en memoria.
+     */
+    public synchronized void clearChanges() {
+        for (Progress p : decoded) {
+            if (p != null) {
+                p.clearDirty();
+            }
+        }
+        for (Progress p : appended) {
+            p.clearDirty();
+        }
+    }
+
+    /**
+     * Obtiene una instantánea de la lista, en tiempo constante. Los progresos añadidos después
+     * no aparecen en ella; los registros del archivo se leen como en {@link #peek(int)}.
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(this, appended.snapshot());
+    }
+
+    /**
+     * Indica si el progreso en la posición indicada ya fue decodificado.
+     */
+    public synchronized boolean isDecoded(int index) {
+        return index >= mappedCount || decoded[index] != null;
+    }
+
+    /**
+     * Obtiene la cantidad de registros del archivo que ya fueron decodificados.
+     */
+    public synchronized int getDecodedCount() {
+        return decodedCount;
+    }
+
+    // Acceso para BinaryCodec: permite reescribir el archivo sin retener todos los progresos.
+
+    synchronized String usernameAt(int index) throws IOException {
+        if (index >= mappedCount) {
+            return appended.get(index - mappedCount).getStudent().getUsername();
+        }
+        reader.position(indexStart + index * INDEX_ENTRY_SIZE);
+        return reader.readString();
+    }
+
+    synchronized LearningPath pathAt(int index) {
+        if (index >= mappedCount) {
+            return appended.get(index - mappedCount).getLearningPath();
+        }
+        if (decoded[index] != null) {
+            return decoded[index].getLearningPath();
+        }
+        reader.position(indexStart + index * INDEX_ENTRY_SIZE + 4);
+        return paths.get(reader.readInt());
+    }
+
+    /**
+     * Obtiene el progreso ya decodificado o, si no lo está, una copia temporal que no se conserva.
+     * Permite recorrer el archivo completo sin retener los progresos (por ejemplo, al exportarlo).
+     */
+    public synchronized Progress peek(int index) {
+        if (index >= mappedCount) {
+            return appended.get(index - mappedCount);
+        }
+        return decoded[index] != null ? decoded[index] : read(index);
+    }
+
+    private void index(int position, String username, int pathId) {
+        positionsByStudent.computeIfAbsent(username, k -> new ArrayList<>(2)).add(position);
+        positionsByPath.computeIfAbsent(pathId, k -> new ArrayList<>()).add(position);
+        positionByKey.putIfAbsent(new Key(username, pathId), position);
+    }
+
+    private List<Progress> collect(List<Integer> positions) {
+        if (positions == null) {
+            return new ArrayList<>();
+        }
+        List<Progress> result = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            result.add(get(position));
+        }
+        return result;
+    }
+
+    private synchronized Progress decode(int index) {
+        Progress progress = decoded[index];
+        if (progress == null) {
+            progress = read(index);
+            for (ProgressListener listener : listeners) {
+                progress.addProgressListener(listener);
+            }
+            decoded[index] = progress;
+            decodedCount++;
+        }
+        return progress;
+    }
+
+    private Progress read(int index) {
+        try {
+            reader.position(indexStart + index * INDEX_ENTRY_SIZE + 8);
+            reader.position(reader.readInt());
+            return BinaryCodec.readProgress(reader, paths);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Registro de progreso corrupto en la posición " + index, e);
+        }
+    }
+
+    /**
+     * Instantánea inmutable de un {@link MappedProgressStore}. Comparte el archivo con el
+     * almacén, así que puede recorrerse y codificarse desde otro hilo sin retener los registros
+     * que el almacén no había decodificado.
+     */
+    public static final class Snapshot extends AbstractList<Progress> implements RandomAccess {
+        private final MappedProgressStore store;
+        private final List<Progress> appended;
+
+        private Snapshot(MappedProgressStore store, List<Progress> appended) {
+            this.store = store;
+            this.appended = appended;
+        }
+
+        /**
+         * Obtiene el progreso ya decodificado por el almacén o, si no lo está, una copia temporal.
+         */
+        @Override
+        public Progress get(int index) {
+            return index < store.mappedCount ? store.peek(index) : appended.get(index - store.mappedCount);
+        }
+
+        @Override
+        public int size() {
+            return store.mappedCount + appended.size();
+        }
+
+        /**
+         * Indica si algún progreso de la instantánea cambió desde el último guardado.
+         */
+        public boolean hasChanges() {
+            synchronized (store) {
+                for (Progress p : store.decoded) {
+                    if (p != null && p.isDirty()) {
+                        return true;
+                    }
+                }
+            }
+            for (Progress p : appended) {
+                if (p.isDirty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Marca como guardados los progresos modificados de la instantánea.
+         *
+         * @return Los progresos que estaban modificados.
+         */
+        public List<Progress> takeChanges() {
+            List<Progress> taken = new ArrayList<>();
+            synchronized (store) {
+                for (Progress p : store.decoded) {
+                    if (p != null && p.isDirty()) {
+                        p.clearDirty();
+                        taken.add(p);
+                    }
+                }
+            }
+            for (Progress p : appended) {
+                if (p.isDirty()) {
+                    p.clearDirty();
+                    taken.add(p);
+                }
+            }
+            return taken;
+        }
+
+        String usernameAt(int index) throws IOException {
+            return index < store.mappedCount ? store.usernameAt(index) : appended.get(index - store.mappedCount).getStudent().getUsername();
+        }
+
+        LearningPath pathAt(int index) {
+            return index < store.mappedCount ? store.pathAt(index) : appended.get(index - store.mappedCount).getLearningPath();
+        }
+    }
+
+    /**
+     * Clave de un progreso: usuario del estudiante e id del Learning Path.
+     */
+    private record Key(String username, int pathId) {
+    }
+}
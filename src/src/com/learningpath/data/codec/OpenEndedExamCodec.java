@@ -0,0 +1,86 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.activities.ActivityType;
+import src.com.learningpath.activities.OpenEndedExam;
+import src.com.learningpath.activities.OpenEndedQuestion;
+import src.com.learningpath.activities.OpenEndedResponse;
+import src.com.learningpath.users.Student;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Codec de {@link OpenEndedExam}, incluyendo preguntas, calificaciones y respuestas.
+ */
+public class OpenEndedExamCodec extends ActivityCodec<OpenEndedExam> {
+
+    public OpenEndedExamCodec() {
+        super(5, OpenEndedExam.class);
+    }
+
+    @Override
+    public void encode(RecordWriter writer, OpenEndedExam activity) throws IOException {
+        writeHeader(writer, activity);
+        writer.writeString(activity.getInstructionsFile());
+        writeQuestions(writer, activity.getExamQuestions());
+        writeQuestions(writer, activity.getQuestions());
+        writer.writeInt(activity.getExamResponses().size());
+        for (OpenEndedResponse response : activity.getExamResponses()) {
+            BinaryCodec.writeUser(writer, response.getStudent());
+            BinaryCodec.writeAnswers(writer, response.getAnswers());
+        }
+    }
+
+    @Override
+    public OpenEndedExam decode(RecordReader reader) throws IOException {
+        Header h = readHeader(reader);
+        String instructionsFile = reader.readString();
+        List<OpenEndedQuestion> examQuestions = readQuestions(reader);
+        OpenEndedExam exam = new OpenEndedExam(h.title, h.description, h.objective, h.difficultyLevel,
+                h.expectedDuration, h.mandatory, EnumSet.of(ActivityType.EXAMEN), examQuestions);
+        exam.setInstructionsFile(instructionsFile);
+        List<OpenEndedQuestion> questions = readQuestions(reader);
+        if (questions != null) {
+            for (OpenEndedQuestion q : questions) {
+                exam.addQuestion(q);
+            }
+        }
+        int responseCount = reader.readInt();
+        for (int i = 0; i < responseCount; i++) {
+            OpenEndedResponse response = new OpenEndedResponse((Student) BinaryCodec.readUser(reader), exam);
+            BinaryCodec.readAnswers(reader, response.getAnswers());
+            exam.addExamResponse(response);
+        }
+        return exam;
+    }
+
+    private static void writeQuestions(RecordWriter writer, List<OpenEndedQuestion> questions) throws IOException {
+        writer.writeInt(questions == null ? -1 : questions.size());
+        if (questions != null) {
+            for (OpenEndedQuestion q : questions) {
+                writer.writeString(q.getQuestionText());
+                writer.writeString(q.getStudentAnswer());
+                writer.writeString(q.getProfessorFeedback());
+                writer.writeDouble(q.getGrade());
+            }
+        }
+    }
+
+    private static List<OpenEndedQuestion> readQuestions(RecordReader reader) throws IOException {
+        int count = reader.readInt();
+        if (count < 0) {
+            return null;
+        }
+        List<OpenEndedQuestion> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            OpenEndedQuestion q = new OpenEndedQuestion(reader.readString());
+            q.setStudentAnswer(reader.readString());
+            q.setProfessorFeedback(reader.readString());
+            q.setGrade(reader.readDouble());
+            questions.add(q);
+        }
+        return questions;
+    }
+}
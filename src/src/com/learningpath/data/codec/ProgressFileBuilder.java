@@ -0,0 +1,77 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Construye el archivo de progresos agregando un progreso a la vez, para quien los recibe en
+ * secuencia (por ejemplo, al importar) y no debe retenerlos. Cada progreso se codifica al
+ * agregarse; solo se conservan sus bytes y su entrada del índice, que es mucho menos que el
+ * grafo de objetos. El resultado es el mismo formato de {@link BinaryCodec#encodeProgresses(List)}.
+ */
+public class ProgressFileBuilder {
+    private final RecordWriter records = new RecordWriter();
+    private final Map<LearningPath, Integer> pathIds = new IdentityHashMap<>();
+    private final List<LearningPath> paths = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+    private int[] entryPaths = new int[64];
+    private int[] offsets = new int[64];
+
+    /**
+     * Codifica un progreso. El objeto no se conserva.
+     */
+    public void add(Progress progress) throws IOException {
+        LearningPath lp = progress.getLearningPath();
+        Integer pathId = pathIds.get(lp);
+        if (pathId == null) {
+            pathId = paths.size();
+            pathIds.put(lp, pathId);
+            paths.add(lp);
+        }
+        int count = usernames.size();
+        if (count == offsets.length) {
+            entryPaths = Arrays.copyOf(entryPaths, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        usernames.add(progress.getStudent().getUsername());
+        entryPaths[count] = pathId;
+        offsets[count] = records.size();
+        BinaryCodec.writeProgress(records, progress, pathId);
+    }
+
+    /**
+     * Obtiene la cantidad de progresos agregados.
+     */
+    public int size() {
+        return usernames.size();
+    }
+
+    /**
+     * Arma el archivo: la tabla de Learning Paths y el índice, seguidos de los registros ya
+     * codificados, cuyos desplazamientos se corrigen según el tamaño de lo que los precede.
+     */
+    public byte[] build() throws IOException {
+        int count = usernames.size();
+        RecordWriter writer = records.withSameStrings();
+        writer.writeInt(paths.size());
+        for (LearningPath lp : paths) {
+            writer.writeInt(lp.getId());
+        }
+        writer.writeInt(count);
+        int base = writer.size() + count * MappedProgressStore.INDEX_ENTRY_SIZE;
+        for (int i = 0; i < count; i++) {
+            writer.writeString(usernames.get(i));
+            writer.writeInt(entryPaths[i]);
+            writer.writeInt(base + offsets[i]);
+        }
+        writer.writeBody(records);
+        return BinaryCodec.toFile(BinaryCodec.PROGRESSES, writer);
+    }
+}
@@ -0,0 +1,66 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codec de {@link Quiz}, incluyendo sus preguntas.
+ */
+public class QuizCodec extends ActivityCodec<Quiz> {
+
+    public QuizCodec() {
+        super(2, Quiz.class);
+    }
+
+    @Override
+    public void encode(RecordWriter writer, Quiz activity) throws IOException {
+        writeHeader(writer, activity);
+        writer.writeDouble(activity.getPassingScore());
+        List<Question> questions = activity.getQuestions();
+        writer.writeInt(questions == null ? -1 : questions.size());
+        if (questions != null) {
+            for (Question q : questions) {
+                writer.writeString(q.getQuestionText());
+                String[] options = q.getOptions();
+                writer.writeInt(options == null ? -1 : options.length);
+                if (options != null) {
+                    for (String option : options) {
+                        writer.writeString(option);
+                    }
+                }
+                writer.writeInt(q.getCorrectOptionIndex());
+                writer.writeString(q.getExplanation());
+            }
+        }
+    }
+
+    @Override
+    public Quiz decode(RecordReader reader) throws IOException {
+        Header h = readHeader(reader);
+        double passingScore = reader.readDouble();
+        int count = reader.readInt();
+        List<Question> questions = null;
+        if (count >= 0) {
+            questions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String text = reader.readString();
+                int optionCount = reader.readInt();
+                String[] options = null;
+                if (optionCount >= 0) {
+                    options = new String[optionCount];
+                    for (int j = 0; j < optionCount; j++) {
+                        options[j] = reader.readString();
+                    }
+                }
+                int correct = reader.readInt();
+                questions.add(new Question(text, options, correct, reader.readString()));
+            }
+        }
+        return new Quiz(h.title, h.description, h.objective, h.difficultyLevel, h.expectedDuration, h.mandatory,
+                questions, passingScore);
+    }
+}
@@ -0,0 +1,156 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.users.User;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lector de registros escritos con {@link RecordWriter}.
+ * Al construirse recorre la tabla de cadenas guardando solo sus desplazamientos;
+ * cada cadena se decodifica la primera vez que se referencia. El cuerpo queda a
+ * partir de la posición actual del buffer.
+ */
+public class RecordReader {
+    private final ByteBuffer buffer;
+    private final int[] stringOffsets;
+    private final String[] strings;
+    private final int bodyStart;
+    private final int bodyLength;
+    private int formatVersion = BinaryCodec.VERSION;
+    private EntityResolver resolver = new EntityResolver();
+
+    // Usuarios ya decodificados en este archivo, para no duplicar instancias.
+    private final Map<String, User> users = new HashMap<>();
+
+    /**
+     * Crea un lector sobre el buffer, posicionado al inicio de la tabla de cadenas.
+     *
+     * @param buffer El buffer con los datos codificados.
+     * @throws IOException Si la tabla de cadenas está corrupta.
+     */
+    public RecordReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        try {
+            int count = buffer.getInt();
+            if (count < 0) {
+                throw new IOException("Tabla de cadenas corrupta.");
+            }
+            stringOffsets = new int[count];
+            strings = new String[count];
+            for (int i = 0; i < count; i++) {
+                stringOffsets[i] = buffer.position();
+                int length = buffer.getInt();
+                buffer.position(buffer.position() + length);
+            }
+            bodyLength = buffer.getInt();
+            bodyStart = buffer.position();
+        } catch (RuntimeException e) {
+            throw new IOException("Tabla de cadenas corrupta.", e);
+        }
+    }
+
+    /**
+     * Obtiene la versión del formato del archivo que se está leyendo.
+     */
+    public int getFormatVersion() {
+        return formatVersion;
+    }
+
+    void setFormatVersion(int formatVersion) {
+        this.formatVersion = formatVersion;
+    }
+
+    /**
+     * Obtiene el mapa de identidad contra el que se resuelven las referencias a usuarios y Learning Paths.
+     */
+    public EntityResolver getResolver() {
+        return resolver;
+    }
+
+    void setResolver(EntityResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    public String readString() throws IOException {
+        int id = buffer.getInt();
+        if (id == -1) {
+            return null;
+        }
+        if (id < 0 || id >= strings.length) {
+            throw new IOException("Referencia a cadena inválida: " + id);
+        }
+        String value = strings[id];
+        if (value == null) {
+            int offset = stringOffsets[id];
+            int length = buffer.getInt(offset);
+            byte[] bytes = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset + 4);
+            view.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = value;
+        }
+        return value;
+    }
+
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    public long readLong() {
+        return buffer.getLong();
+    }
+
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    public byte readByte() {
+        return buffer.get();
+    }
+
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    public Date readDate() {
+        long value = buffer.getLong();
+        return value == Long.MIN_VALUE ? null : new Date(value);
+    }
+
+    public LocalDate readLocalDate() {
+        long value = buffer.getLong();
+        return value == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(value);
+    }
+
+    /**
+     * Obtiene la posición actual relativa al inicio del cuerpo.
+     */
+    public int position() {
+        return buffer.position() - bodyStart;
+    }
+
+    /**
+     * Mueve la lectura a una posición relativa al inicio del cuerpo.
+     */
+    public void position(int offset) {
+        buffer.position(bodyStart + offset);
+    }
+
+    /**
+     * Obtiene la longitud del cuerpo en bytes.
+     */
+    public int bodyLength() {
+        return bodyLength;
+    }
+
+    Map<String, User> getUserCache() {
+        return users;
+    }
+}
@@ -0,0 +1,151 @@
+package src.com.learningpath.data.codec;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritor de registros binarios de ancho fijo (big-endian, igual que DataOutputStream).
+ * Las cadenas no se escriben en línea: se internan en una tabla y cada registro
+ * guarda solo su índice (int), de modo que cada cadena repetida ocupa 4 bytes.
+ * La tabla se emite delante del cuerpo en {@link #writeTo(DataOutputStream)}.
+ */
+public class RecordWriter {
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private byte[] body = new byte[4096];
+    private int size;
+
+    /**
+     * Escribe la referencia a una cadena interna (-1 si es null).
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            stringIds.put(value, id);
+        }
+        writeInt(id);
+    }
+
+    public void writeInt(int value) throws IOException {
+        ensureCapacity(4);
+        putInt(size, value);
+        size += 4;
+    }
+
+    public void writeLong(long value) throws IOException {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    public void writeDouble(double value) throws IOException {
+        writeLong(Double.doubleToLongBits(value));
+    }
+
+    public void writeByte(int value) throws IOException {
+        ensureCapacity(1);
+        body[size++] = (byte) value;
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Escribe una fecha como milisegundos desde la época ({@code Long.MIN_VALUE} si es null).
+     */
+    public void writeDate(Date value) throws IOException {
+        writeLong(value != null ? value.getTime() : Long.MIN_VALUE);
+    }
+
+    /**
+     * Escribe una fecha como día de la época ({@code Long.MIN_VALUE} si es null).
+     */
+    public void writeLocalDate(LocalDate value) throws IOException {
+        writeLong(value != null ? value.toEpochDay() : Long.MIN_VALUE);
+    }
+
+    /**
+     * Sobrescribe un entero ya escrito; se usa para completar índices de desplazamientos.
+     *
+     * @param position La posición dentro del cuerpo devuelta antes por {@link #size()}.
+     * @param value    El valor definitivo.
+     */
+    public void patchInt(int position, int value) {
+        if (position < 0 || position + 4 > size) {
+            throw new IndexOutOfBoundsException("Posición fuera del cuerpo: " + position);
+        }
+        putInt(position, value);
+    }
+
+    /**
+     * Obtiene la posición actual dentro del cuerpo (sin contar la tabla de cadenas).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Crea un escritor vacío con la misma tabla de cadenas, de modo que las referencias ya
+     * escritas por este siguen siendo válidas en el nuevo (ver {@link #writeBody(RecordWriter)}).
+     */
+    RecordWriter withSameStrings() {
+        RecordWriter copy = new RecordWriter();
+        copy.strings.addAll(strings);
+        copy.stringIds.putAll(stringIds);
+        return copy;
+    }
+
+    /**
+     * Copia el cuerpo de otro escritor al final de este. Las referencias a cadenas se copian
+     * tal cual, por lo que el otro escritor debe compartir la tabla de este, es decir, este
+     * debe haberse creado con {@link #withSameStrings()} después de escribir el otro.
+     */
+    void writeBody(RecordWriter other) {
+        ensureCapacity(other.size);
+        System.arraycopy(other.body, 0, body, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Escribe la tabla de cadenas seguida del cuerpo.
+     *
+     * @param target El flujo de destino.
+     */
+    public void writeTo(DataOutputStream target) throws IOException {
+        target.writeInt(strings.size());
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            target.writeInt(bytes.length);
+            target.write(bytes);
+        }
+        target.writeInt(size);
+        target.write(body, 0, size);
+    }
+
+    private void putInt(int position, int value) {
+        body[position] = (byte) (value >>> 24);
+        body[position + 1] = (byte) (value >>> 16);
+        body[position + 2] = (byte) (value >>> 8);
+        body[position + 3] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > body.length) {
+            body = Arrays.copyOf(body, Math.max(body.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.activities.ResourceReview;
+
+import java.io.IOException;
+
+/**
+ * Codec de {@link ResourceReview}.
+ */
+public class ResourceReviewCodec extends ActivityCodec<ResourceReview> {
+
+    public ResourceReviewCodec() {
+        super(3, ResourceReview.class);
+    }
+
+    @Override
+    public void encode(RecordWriter writer, ResourceReview activity) throws IOException {
+        writeHeader(writer, activity);
+        writer.writeString(activity.getResourceLink());
+        writer.writeString(activity.getInstructions());
+    }
+
+    @Override
+    public ResourceReview decode(RecordReader reader) throws IOException {
+        Header h = readHeader(reader);
+        String resourceLink = reader.readString();
+        String instructions = reader.readString();
+        return new ResourceReview(h.title, h.description, h.objective, h.difficultyLevel, h.expectedDuration, h.mandatory,
+                resourceLink, instructions);
+    }
+}
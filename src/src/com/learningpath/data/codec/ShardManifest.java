@@ -0,0 +1,153 @@
+package src.com.learningpath.data.codec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manifiesto de la organización por fragmentos: un archivo de Learning Paths por profesor y
+ * uno de progresos por estudiante. Cada entrada guarda el tipo, el usuario dueño, el archivo
+ * relativo a la carpeta de datos, la cantidad de registros y la versión del formato con la
+ * que se escribió, de modo que al guardar se sabe qué fragmentos hay que reescribir sin
+ * abrirlos.
+ * <p>
+ * Se guarda en el formato binario de {@link BinaryCodec} con el tipo {@link BinaryCodec#MANIFEST}.
+ */
+public class ShardManifest {
+
+    /**
+     * Contenido de un fragmento.
+     */
+    public enum Kind {
+        LEARNING_PATHS, PROGRESSES
+    }
+
+    /**
+     * Entrada del manifiesto.
+     */
+    public static final class Shard {
+        private final Kind kind;
+        private final String owner;
+        private final String file;
+        private final int count;
+        private final int version;
+
+        public Shard(Kind kind, String owner, String file, int count, int version) {
+            this.kind = kind;
+            this.owner = owner;
+            this.file = file;
+            this.count = count;
+            this.version = version;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        /**
+         * Obtiene la ruta del archivo, relativa a la carpeta de datos.
+         */
+        public String getFile() {
+            return file;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+    }
+
+    private final Map<String, Shard> shards = new LinkedHashMap<>();
+
+    /**
+     * Obtiene el fragmento de un usuario.
+     *
+     * @return El fragmento, o null si el usuario no tiene.
+     */
+    public Shard get(Kind kind, String owner) {
+        return shards.get(key(kind, owner));
+    }
+
+    /**
+     * Obtiene los fragmentos de un tipo, en el orden en que se registraron.
+     */
+    public List<Shard> list(Kind kind) {
+        List<Shard> result = new ArrayList<>();
+        for (Shard shard : shards.values()) {
+            if (shard.kind == kind) {
+                result.add(shard);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Registra o reemplaza el fragmento de un usuario.
+     */
+    public void put(Shard shard) {
+        shards.put(key(shard.kind, shard.owner), shard);
+    }
+
+    /**
+     * Elimina el fragmento de un usuario.
+     *
+     * @return El fragmento eliminado, o null si no existía.
+     */
+    public Shard remove(Kind kind, String owner) {
+        return shards.remove(key(kind, owner));
+    }
+
+    /**
+     * Ruta del archivo de un fragmento. El usuario se codifica en hexadecimal para que el nombre
+     * sea válido en cualquier sistema de archivos y no dependa de mayúsculas y minúsculas.
+     */
+    public static String fileName(Kind kind, String owner) {
+        StringBuilder name = new StringBuilder(kind == Kind.PROGRESSES ? "shards/progresses/" : "shards/learning_paths/");
+        for (byte b : owner.getBytes(StandardCharsets.UTF_8)) {
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return name.append(".dat").toString();
+    }
+
+    public byte[] encode() throws IOException {
+        RecordWriter writer = new RecordWriter();
+        writer.writeInt(shards.size());
+        for (Shard shard : shards.values()) {
+            writer.writeByte(shard.kind.ordinal());
+            writer.writeString(shard.owner);
+            writer.writeString(shard.file);
+            writer.writeInt(shard.count);
+            writer.writeByte(shard.version);
+        }
+        return BinaryCodec.toFile(BinaryCodec.MANIFEST, writer);
+    }
+
+    public static ShardManifest decode(byte[] data) throws IOException {
+        RecordReader reader = BinaryCodec.openFile(data, BinaryCodec.MANIFEST);
+        ShardManifest manifest = new ShardManifest();
+        int count = reader.readInt();
+        for (int i = 0; i < count; i++) {
+            Kind kind = Kind.values()[reader.readByte()];
+            String owner = reader.readString();
+            String file = reader.readString();
+            int records = reader.readInt();
+            int version = reader.readByte();
+            manifest.put(new Shard(kind, owner, file, records, version));
+        }
+        return manifest;
+    }
+
+    private static String key(Kind kind, String owner) {
+        return kind.ordinal() + owner;
+    }
+}
@@ -0,0 +1,52 @@
+package src.com.learningpath.data.codec;
+
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyQuestion;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.users.Student;
+
+import java.io.IOException;
+
+/**
+ * Codec de {@link Survey}, incluyendo sus preguntas y las respuestas acumuladas.
+ */
+public class SurveyCodec extends ActivityCodec<Survey> {
+
+    public SurveyCodec() {
+        super(4, Survey.class);
+    }
+
+    @Override
+    public void encode(RecordWriter writer, Survey activity) throws IOException {
+        writeHeader(writer, activity);
+        writer.writeInt(activity.getSurveyQuestions().size());
+        for (SurveyQuestion q : activity.getSurveyQuestions()) {
+            writer.writeString(q.getQuestionText());
+            writer.writeString(q.getAnswer());
+        }
+        writer.writeInt(activity.getSurveyResponses().size());
+        for (SurveyResponse response : activity.getSurveyResponses()) {
+            BinaryCodec.writeUser(writer, response.getStudent());
+            BinaryCodec.writeAnswers(writer, response.getAnswers());
+        }
+    }
+
+    @Override
+    public Survey decode(RecordReader reader) throws IOException {
+        Header h = readHeader(reader);
+        Survey survey = new Survey(h.title, h.description, h.objective, h.difficultyLevel, h.expectedDuration, h.mandatory);
+        int questionCount = reader.readInt();
+        for (int i = 0; i < questionCount; i++) {
+            SurveyQuestion q = new SurveyQuestion(reader.readString());
+            q.setAnswer(reader.readString());
+            survey.addSurveyQuestion(q);
+        }
+        int responseCount = reader.readInt();
+        for (int i = 0; i < responseCount; i++) {
+            SurveyResponse response = new SurveyResponse((Student) BinaryCodec.readUser(reader), survey);
+            BinaryCodec.readAnswers(reader, response.getAnswers());
+            survey.addSurveyResponse(response);
+        }
+        return survey;
+    }
+}
@@ -0,0 +1,169 @@
+package src.com.learningpath.data.transfer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registros como filas CSV (RFC 4180): el tipo en la primera columna y luego los campos.
+ * Los valores con comas, comillas o saltos de línea van entre comillas; una columna vacía
+ * sin comillas es null y {@code ""} es la cadena vacía.
+ */
+final class Csv {
+
+    private Csv() {
+    }
+
+    static final class Output implements RecordOutput {
+        private final BufferedWriter out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        Output(BufferedWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(RecordType type, Object... values) throws IOException {
+            line.setLength(0);
+            line.append(type.getTag());
+            for (int i = 0; i < type.getFields().size(); i++) {
+                line.append(',');
+                Object value = values[i];
+                if (value != null) {
+                    appendValue(value.toString());
+                }
+            }
+            line.append("\r\n");
+            out.append(line);
+        }
+
+        private void appendValue(String value) {
+            boolean quote = value.isEmpty();
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    static final class Input implements RecordInput {
+        private final BufferedReader in;
+        private long lineNumber = 1;
+        private final List<String> fields = new ArrayList<>();
+        private final StringBuilder field = new StringBuilder();
+
+        Input(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public TransferRecord read() throws IOException {
+            long start;
+            do {
+                start = lineNumber;
+                if (!readRow()) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0) == null);
+
+            RecordType type = fields.get(0) == null ? null : RecordType.fromTag(fields.get(0));
+            if (type == null) {
+                throw new IOException("Línea " + start + ": tipo de registro desconocido: " + fields.get(0));
+            }
+            int count = type.getFields().size();
+            if (fields.size() - 1 > count) {
+                throw new IOException("Línea " + start + ": " + type.getTag() + " tiene " + count + " campos, no " + (fields.size() - 1) + ".");
+            }
+            String[] values = new String[count];
+            for (int i = 1; i < fields.size(); i++) {
+                values[i - 1] = fields.get(i);
+            }
+            return new TransferRecord(type, values, start);
+        }
+
+        /**
+         * Lee una fila, que puede ocupar varias líneas si tiene campos entre comillas.
+         *
+         * @return False al final del archivo.
+         */
+        private boolean readRow() throws IOException {
+            fields.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean inQuotes = false;
+            int c = in.read();
+            if (c < 0) {
+                return false;
+            }
+            while (true) {
+                if (inQuotes) {
+                    if (c < 0) {
+                        throw new IOException("Línea " + lineNumber + ": comillas sin cerrar.");
+                    }
+                    if (c == '"') {
+                        in.mark(1);
+                        int next = in.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            in.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            lineNumber++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0 && !quoted) {
+                    quoted = true;
+                    inQuotes = true;
+                } else if (c == ',' || c == '\n' || c == '\r' || c < 0) {
+                    fields.add(quoted || field.length() > 0 ? field.toString() : null);
+                    field.setLength(0);
+                    quoted = false;
+                    if (c != ',') {
+                        if (c == '\r') {
+                            in.mark(1);
+                            if (in.read() != '\n') {
+                                in.reset();
+                            }
+                        }
+                        if (c >= 0) {
+                            lineNumber++;
+                        }
+                        return true;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package src.com.learningpath.data.transfer;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.OpenEndedExam;
+import src.com.learningpath.activities.OpenEndedResponse;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.data.Storage;
+import src.com.learningpath.data.codec.BinaryCodec;
+import src.com.learningpath.users.User;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Exporta todos los datos de un {@link Storage} a un archivo de texto (ver {@link RecordType}).
+ * <p>
+ * Los usuarios y Learning Paths se cargan completos, porque los progresos los referencian;
+ * los progresos se recorren con {@link Storage#forEachProgress(List, List, Storage.ProgressSink)}
+ * y cada uno se escribe y se descarta, de modo que la memoria no depende de cuántos haya.
+ * Las actividades que un progreso referencia y que ya no están en su Learning Path no se exportan.
+ */
+public class DataExporter {
+    private final RecordOutput out;
+    private final TransferStats stats = new TransferStats();
+
+    private DataExporter(RecordOutput out) {
+        this.out = out;
+    }
+
+    /**
+     * Exporta a un archivo, con el formato que corresponde a su extensión.
+     */
+    public static TransferStats export(Storage storage, Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return export(storage, writer, TransferFormat.forFile(file.getFileName().toString()));
+        }
+    }
+
+    /**
+     * Exporta a un flujo de texto, que se cierra al terminar.
+     */
+    public static TransferStats export(Storage storage, Writer writer, TransferFormat format) throws IOException {
+        try (RecordOutput out = format.open(writer)) {
+            DataExporter exporter = new DataExporter(out);
+            List<User> users = storage.loadUsers();
+            List<LearningPath> learningPaths = storage.loadLearningPaths(users);
+            for (User user : users) {
+                exporter.writeUser(user);
+            }
+            for (LearningPath lp : learningPaths) {
+                exporter.writeLearningPath(lp);
+            }
+            storage.forEachProgress(users, learningPaths, exporter::writeProgress);
+            exporter.stats.finish();
+            return exporter.stats;
+        }
+    }
+
+    private void writeUser(User user) throws IOException {
+        write(RecordType.USER, user.getUsername(), user.getRole().name(), user.getPassword(), user.getName());
+    }
+
+    private void writeLearningPath(LearningPath lp) throws IOException {
+        write(RecordType.LEARNING_PATH, lp.getId(), lp.getTitle(), lp.getDescription(), lp.getObjectives(),
+                lp.getDifficultyLevel(), lp.getDuration(), lp.getRating(), toText(lp.getCreationDate()),
+                toText(lp.getModificationDate()), lp.getVersion(), lp.getCreator().getUsername());
+        Base64.Encoder base64 = Base64.getEncoder();
+        for (Activity activity : lp.getActivities()) {
+            write(RecordType.ACTIVITY, activity.getId(), activity.getType(), activity.getTitle(),
+                    base64.encodeToString(BinaryCodec.encodeActivity(activity)));
+        }
+        for (String feedback : lp.getFeedbackList()) {
+            write(RecordType.FEEDBACK, feedback);
+        }
+    }
+
+    private void writeProgress(Progress progress) throws IOException {
+        write(RecordType.PROGRESS, progress.getStudent().getUsername(), progress.getLearningPath().getId());
+
+        Set<Integer> known = new HashSet<>();
+        for (Activity a : progress.getLearningPath().getActivities()) {
+            known.add(a.getId());
+        }
+        Map<Activity, ActivityStatus> statuses = progress.getActivityStatuses();
+        Map<Activity, LocalDate> dates = progress.getCompletionDates();
+        Set<Activity> tracked = new LinkedHashSet<>(statuses.keySet());
+        tracked.addAll(dates.keySet());
+        for (Activity activity : tracked) {
+            if (known.contains(activity.getId())) {
+                ActivityStatus status = statuses.get(activity);
+                LocalDate date = dates.get(activity);
+                write(RecordType.STATUS, activity.getId(), status != null ? status.name() : null,
+                        date != null ? date.toString() : null);
+            }
+        }
+        for (Map.Entry<Quiz, List<Integer>> entry : progress.getQuizResponses().entrySet()) {
+            if (entry.getValue() == null || !known.contains(entry.getKey().getId())) {
+                continue;
+            }
+            int question = 0;
+            for (Integer answer : entry.getValue()) {
+                write(RecordType.QUIZ_ANSWER, entry.getKey().getId(), question++, answer);
+            }
+        }
+        for (Map.Entry<Survey, SurveyResponse> entry : progress.getSurveyResponses().entrySet()) {
+            writeResponses(entry.getKey(), entry.getValue().getAnswers(), known);
+        }
+        for (Map.Entry<OpenEndedExam, OpenEndedResponse> entry : progress.getExamResponses().entrySet()) {
+            writeResponses(entry.getKey(), entry.getValue().getAnswers(), known);
+        }
+    }
+
+    private void writeResponses(Activity activity, Map<String, String> answers, Set<Integer> known) throws IOException {
+        if (!known.contains(activity.getId())) {
+            return;
+        }
+        for (Map.Entry<String, String> answer : answers.entrySet()) {
+            write(RecordType.RESPONSE, activity.getId(), answer.getKey(), answer.getValue());
+        }
+    }
+
+    private void write(RecordType type, Object... values) throws IOException {
+        out.write(type, values);
+        stats.count(type);
+    }
+
+    private static String toText(Date date) {
+        return date != null ? date.toInstant().toString() : null;
+    }
+}
@@ -0,0 +1,268 @@
+package src.com.learningpath.data.transfer;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.OpenEndedExam;
+import src.com.learningpath.activities.OpenEndedResponse;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.data.Storage;
+import src.com.learningpath.data.codec.BinaryCodec;
+import src.com.learningpath.data.codec.EntityResolver;
+import src.com.learningpath.users.Role;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Importa un archivo de {@link DataExporter} a un {@link Storage}, reemplazando sus datos.
+ * <p>
+ * Los usuarios y Learning Paths, que van al principio del archivo, se leen completos. Desde
+ * el primer progreso el archivo se entrega al almacenamiento con
+ * {@link Storage#importData(List, List, Storage.ProgressSource)}: cada progreso se arma con
+ * sus registros y se escribe antes de leer el siguiente.
+ */
+public class DataImporter implements Storage.ProgressSource {
+    private final RecordInput in;
+    private final TransferStats stats = new TransferStats();
+    private final EntityResolver resolver = new EntityResolver();
+    private final List<User> users = new ArrayList<>();
+    private final List<LearningPath> learningPaths = new ArrayList<>();
+    // Registro leído por adelantado: el siguiente progreso, o null al final del archivo.
+    private TransferRecord pending;
+
+    private DataImporter(RecordInput in) {
+        this.in = in;
+    }
+
+    /**
+     * Importa un archivo, con el formato que corresponde a su extensión.
+     */
+    public static TransferStats importInto(Storage storage, Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importInto(storage, reader, TransferFormat.forFile(file.getFileName().toString()));
+        }
+    }
+
+    /**
+     * Importa desde un flujo de texto, que se cierra al terminar.
+     */
+    public static TransferStats importInto(Storage storage, Reader reader, TransferFormat format) throws IOException {
+        try (RecordInput in = format.open(reader)) {
+            DataImporter importer = new DataImporter(in);
+            importer.readEntities();
+            storage.importData(importer.users, importer.learningPaths, importer);
+            importer.stats.finish();
+            return importer.stats;
+        }
+    }
+
+    /**
+     * Lee los usuarios y Learning Paths, hasta el primer progreso.
+     */
+    private void readEntities() throws IOException {
+        TransferRecord record = read();
+        while (record != null && record.getType() != RecordType.PROGRESS) {
+            switch (record.getType()) {
+                case USER -> {
+                    User user = readUser(record);
+                    users.add(user);
+                    resolver.register(user);
+                    record = read();
+                }
+                case LEARNING_PATH -> {
+                    // Las actividades y comentarios que siguen pertenecen a este Learning Path.
+                    List<Activity> activities = new ArrayList<>();
+                    List<String> feedback = new ArrayList<>();
+                    TransferRecord child = read();
+                    while (child != null && (child.getType() == RecordType.ACTIVITY || child.getType() == RecordType.FEEDBACK)) {
+                        if (child.getType() == RecordType.ACTIVITY) {
+                            activities.add(readActivity(child));
+                        } else {
+                            feedback.add(child.get("text"));
+                        }
+                        child = read();
+                    }
+                    LearningPath lp = readLearningPath(record, activities, feedback);
+                    learningPaths.add(lp);
+                    resolver.register(lp);
+                    record = child;
+                }
+                default -> throw outOfOrder(record);
+            }
+        }
+        pending = record;
+    }
+
+    @Override
+    public Progress next() throws IOException {
+        if (pending == null) {
+            return null;
+        }
+        TransferRecord record = pending;
+        User user = resolver.findUser(record.require("student"));
+        LearningPath lp = resolver.findLearningPath(record.getInt("path_id"));
+        if (!(user instanceof Student) || lp == null) {
+            throw new IOException("Línea " + record.getLine() + ": progreso sin estudiante o Learning Path.");
+        }
+        Student student = (Student) user;
+        Progress progress = new Progress(student, lp);
+        Map<Activity, ActivityStatus> statuses = new HashMap<>();
+        Map<Quiz, List<Integer>> answers = new HashMap<>();
+
+        TransferRecord child = read();
+        while (child != null && child.getType() != RecordType.PROGRESS) {
+            if (child.getType() != RecordType.STATUS && child.getType() != RecordType.QUIZ_ANSWER
+                    && child.getType() != RecordType.RESPONSE) {
+                throw outOfOrder(child);
+            }
+            Activity activity = findActivity(lp, child.getInt("activity_id"));
+            switch (child.getType()) {
+                case STATUS -> {
+                    String status = child.get("status");
+                    String completed = child.get("completed");
+                    if (activity != null && status != null) {
+                        statuses.put(activity, parseStatus(child, status));
+                    }
+                    if (activity != null && completed != null) {
+                        progress.getCompletionDates().put(activity, parseDate(child, completed));
+                    }
+                }
+                case QUIZ_ANSWER -> {
+                    if (activity instanceof Quiz) {
+                        answers.computeIfAbsent((Quiz) activity, k -> new ArrayList<>()).add(child.getInt("answer"));
+                    }
+                }
+                case RESPONSE -> {
+                    if (activity instanceof Survey) {
+                        Survey survey = (Survey) activity;
+                        SurveyResponse response = progress.getSurveyResponses().get(survey);
+                        if (response == null) {
+                            response = new SurveyResponse(student, survey);
+                            progress.addSurveyResponse(survey, response);
+                        }
+                        response.getAnswers().put(child.require("question"), child.get("answer"));
+                    } else if (activity instanceof OpenEndedExam) {
+                        OpenEndedExam exam = (OpenEndedExam) activity;
+                        OpenEndedResponse response = progress.getExamResponses().get(exam);
+                        if (response == null) {
+                            response = new OpenEndedResponse(student, exam);
+                            progress.addExamResponse(exam, response);
+                        }
+                        response.getAnswers().put(child.require("question"), child.get("answer"));
+                    }
+                }
+                default -> {
+                }
+            }
+            child = read();
+        }
+        pending = child;
+
+        progress.setActivityStatuses(statuses);
+        for (Map.Entry<Quiz, List<Integer>> entry : answers.entrySet()) {
+            progress.saveQuizResponses(entry.getKey(), entry.getValue());
+        }
+        return progress;
+    }
+
+    private TransferRecord read() throws IOException {
+        TransferRecord record = in.read();
+        if (record != null) {
+            stats.count(record.getType());
+        }
+        return record;
+    }
+
+    private static User readUser(TransferRecord record) throws IOException {
+        Role role;
+        try {
+            role = Role.valueOf(record.require("role"));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Línea " + record.getLine() + ": rol desconocido: " + record.get("role"), e);
+        }
+        String username = record.require("username");
+        User user = role == Role.TEACHER ? new Teacher(username, null, record.get("name")) : new Student(username, null, record.get("name"));
+        user.restorePassword(record.get("password"));
+        return user;
+    }
+
+    private LearningPath readLearningPath(TransferRecord record, List<Activity> activities, List<String> feedback) throws IOException {
+        User creator = resolver.findUser(record.require("creator"));
+        if (!(creator instanceof Teacher)) {
+            throw new IOException("Línea " + record.getLine() + ": profesor no encontrado: " + record.get("creator"));
+        }
+        LearningPath lp = new LearningPath(record.get("title"), record.get("description"), record.get("objectives"),
+                record.getInt("difficulty"), record.getInt("duration"), record.getDouble("rating"),
+                parseInstant(record, record.get("created")), parseInstant(record, record.get("modified")),
+                record.get("version"), (Teacher) creator, activities, feedback);
+        lp.restoreId(record.getInt("id"));
+        return lp;
+    }
+
+    private static Activity readActivity(TransferRecord record) throws IOException {
+        try {
+            return BinaryCodec.decodeActivity(Base64.getDecoder().decode(record.require("data")));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Línea " + record.getLine() + ": actividad mal codificada.", e);
+        }
+    }
+
+    private static Activity findActivity(LearningPath lp, int id) {
+        for (Activity a : lp.getActivities()) {
+            if (a.getId() == id) {
+                return a;
+            }
+        }
+        return null;
+    }
+
+    private static ActivityStatus parseStatus(TransferRecord record, String status) throws IOException {
+        try {
+            return ActivityStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Línea " + record.getLine() + ": estado desconocido: " + status, e);
+        }
+    }
+
+    private static LocalDate parseDate(TransferRecord record, String date) throws IOException {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IOException("Línea " + record.getLine() + ": fecha no válida: " + date, e);
+        }
+    }
+
+    private static Date parseInstant(TransferRecord record, String instant) throws IOException {
+        if (instant == null) {
+            return null;
+        }
+        try {
+            return Date.from(Instant.parse(instant));
+        } catch (DateTimeParseException e) {
+            throw new IOException("Línea " + record.getLine() + ": fecha no válida: " + instant, e);
+        }
+    }
+
+    private static IOException outOfOrder(TransferRecord record) {
+        return new IOException("Línea " + record.getLine() + ": registro " + record.getType().getTag() + " fuera de lugar.");
+    }
+}
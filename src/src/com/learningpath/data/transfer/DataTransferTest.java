@@ -0,0 +1,144 @@
+package src.com.learningpath.data.transfer;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.ResourceReview;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.data.DataManager;
+import src.com.learningpath.data.FileStorage;
+import src.com.learningpath.data.SqlStorage;
+import src.com.learningpath.data.Storage;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class DataTransferTest {
+
+    @Test
+    public void testNdjsonRoundTripBetweenDatabases() throws Exception {
+        String exported;
+        try (SqlStorage source = new SqlStorage("jdbc:h2:mem:export_source")) {
+            Fixture fixture = new Fixture();
+            source.commit(fixture.users, fixture.learningPaths, fixture.progresses);
+            StringWriter out = new StringWriter();
+            TransferStats stats = DataExporter.export(source, out, TransferFormat.NDJSON);
+            exported = out.toString();
+            assertEquals(3, stats.getCount(RecordType.USER));
+            assertEquals(2, stats.getCount(RecordType.PROGRESS));
+            assertEquals(exported.split("\n").length, stats.getRecordCount());
+        }
+
+        try (SqlStorage target = new SqlStorage("jdbc:h2:mem:import_target")) {
+            TransferStats stats = DataImporter.importInto(target, new StringReader(exported), TransferFormat.NDJSON);
+            assertEquals(2, stats.getCount(RecordType.PROGRESS));
+            assertLoaded(target.loadUsers(), target);
+        }
+    }
+
+    @Test
+    public void testCsvRoundTripBetweenDataFolders() throws Exception {
+        Path sourceFolder = Path.of("temp_export/");
+        Path targetFolder = Path.of("temp_import/");
+        Path file = Path.of("temp_export.csv");
+        try {
+            Files.createDirectories(sourceFolder);
+            DataManager.setDataFolder(sourceFolder + "/");
+            Fixture fixture = new Fixture();
+            DataManager.saveSnapshot(fixture.users, fixture.learningPaths, fixture.progresses);
+            FileStorage storage = new FileStorage();
+            TransferStats exported = DataExporter.export(storage, file);
+            assertTrue(Files.readString(file).contains("\"Comas, \"\"comillas\"\"\ny saltos\""));
+
+            DataManager.setDataFolder(targetFolder + "/");
+            TransferStats imported = DataImporter.importInto(storage, file);
+            assertEquals(exported.getRecordCount(), imported.getRecordCount());
+            assertLoaded(storage.loadUsers(), storage);
+        } finally {
+            DataManager.setDataFolder("data/");
+            Files.deleteIfExists(file);
+            for (Path folder : Arrays.asList(sourceFolder, targetFolder)) {
+                if (Files.exists(folder)) {
+                    try (Stream<Path> files = Files.walk(folder)) {
+                        files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertLoaded(List<User> users, Storage storage) throws Exception {
+        List<LearningPath> learningPaths = storage.loadLearningPaths(users);
+        List<Progress> progresses = storage.loadProgresses(users, learningPaths);
+        assertEquals(3, users.size());
+        User student = users.stream().filter(u -> u.getUsername().equals("sstudent")).findFirst().orElseThrow();
+        assertTrue(student.authenticate("password456"));
+        assertEquals(1, learningPaths.size());
+        LearningPath lp = learningPaths.get(0);
+        assertEquals("Comas, \"comillas\"\ny saltos", lp.getDescription());
+        assertEquals(Arrays.asList("Muy útil"), lp.getFeedbackList());
+        assertSame(users.stream().filter(u -> u.getUsername().equals("jdoe")).findFirst().orElseThrow(), lp.getCreator());
+        assertEquals(2, progresses.size());
+
+        Progress progress = progresses.get(0).getStudent() == student ? progresses.get(0) : progresses.get(1);
+        assertSame(student, progress.getStudent());
+        assertSame(lp, progress.getLearningPath());
+        assertEquals(ActivityStatus.COMPLETED, progress.getActivityStatus(lp.getActivities().get(0)));
+        assertEquals(LocalDate.of(2024, 3, 1), progress.getCompletionDate(lp.getActivities().get(0)));
+        assertEquals(Arrays.asList(1, 0), progress.getQuizResponses((Quiz) lp.getActivities().get(1)));
+        assertEquals("Sí", progress.getSurveyResponse((Survey) lp.getActivities().get(2)).getAnswers().get("¿Te gustó?"));
+        assertEquals("", progress.getSurveyResponse((Survey) lp.getActivities().get(2)).getAnswers().get("¿Algo más?"));
+    }
+
+    private static class Fixture {
+        final List<User> users = new ArrayList<>();
+        final List<LearningPath> learningPaths = new ArrayList<>();
+        final List<Progress> progresses = new ArrayList<>();
+
+        Fixture() {
+            Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+            Student student = new Student("sstudent", "password456", "Sarah Student");
+            Student other = new Student("other", "password789", "Other Student");
+            LearningPath lp = new LearningPath("LP1", "Comas, \"comillas\"\ny saltos", "Objectives 1", 1, teacher);
+            ResourceReview review = new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists");
+            Question first = new Question("2 + 2", new String[]{"3", "4"}, 1, "Suma");
+            Question second = new Question("1 + 1", new String[]{"2", "3"}, 0, "Suma");
+            Quiz quiz = new Quiz("Quiz", "Sumas", "Sumar", 1, 10, true, new ArrayList<>(Arrays.asList(first, second)), 60.0);
+            Survey survey = new Survey("Encuesta", "Opinión", "Opinar", 1, 5, false);
+            lp.addActivity(review);
+            lp.addActivity(quiz);
+            lp.addActivity(survey);
+            lp.addFeedback("Muy útil");
+
+            Progress progress = new Progress(student, lp);
+            progress.updateActivityStatus(review, ActivityStatus.COMPLETED, LocalDate.of(2024, 3, 1));
+            progress.saveQuizResponses(quiz, new ArrayList<>(Arrays.asList(1, 0)));
+            SurveyResponse response = new SurveyResponse(student, survey);
+            response.addAnswer("¿Te gustó?", "Sí");
+            response.addAnswer("¿Algo más?", "");
+            progress.addSurveyResponse(survey, response);
+
+            users.addAll(Arrays.asList(teacher, student, other));
+            learningPaths.add(lp);
+            progresses.add(progress);
+            progresses.add(new Progress(other, lp));
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package src.com.learningpath.data.transfer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Registros como objetos JSON planos, uno por línea. Solo se admiten valores escalares:
+ * cadenas, números, booleanos y null; los números se leen como su texto.
+ */
+final class Ndjson {
+
+    private Ndjson() {
+    }
+
+    static final class Output implements RecordOutput {
+        private final BufferedWriter out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        Output(BufferedWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(RecordType type, Object... values) throws IOException {
+            List<String> fields = type.getFields();
+            line.setLength(0);
+            line.append("{\"type\":");
+            appendString(type.getTag());
+            for (int i = 0; i < fields.size(); i++) {
+                line.append(',');
+                appendString(fields.get(i));
+                line.append(':');
+                Object value = values[i];
+                if (value == null) {
+                    line.append("null");
+                } else if (value instanceof Number) {
+                    line.append(value);
+                } else {
+                    appendString(value.toString());
+                }
+            }
+            line.append("}\n");
+            out.append(line);
+        }
+
+        private void appendString(String value) {
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\t' -> line.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            line.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            line.append(c);
+                        }
+                    }
+                }
+            }
+            line.append('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    static final class Input implements RecordInput {
+        private final BufferedReader in;
+        private long lineNumber;
+        // Estado del análisis de la línea actual.
+        private String text;
+        private int pos;
+
+        Input(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public TransferRecord read() throws IOException {
+            do {
+                text = in.readLine();
+                lineNumber++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+            pos = 0;
+
+            RecordType type = null;
+            String[] names = new String[16];
+            String[] values = new String[16];
+            int count = 0;
+            expect('{');
+            skipSpaces();
+            if (peek() != '}') {
+                do {
+                    skipSpaces();
+                    String name = readString();
+                    skipSpaces();
+                    expect(':');
+                    skipSpaces();
+                    String value = readValue();
+                    if (name.equals("type")) {
+                        type = RecordType.fromTag(value);
+                        if (type == null) {
+                            throw error("tipo de registro desconocido: " + value);
+                        }
+                    } else {
+                        if (count == names.length) {
+                            names = Arrays.copyOf(names, count * 2);
+                            values = Arrays.copyOf(values, count * 2);
+                        }
+                        names[count] = name;
+                        values[count++] = value;
+                    }
+                    skipSpaces();
+                } while (consume(','));
+            }
+            expect('}');
+            if (type == null) {
+                throw error("falta el campo type.");
+            }
+
+            // Los campos pueden venir en cualquier orden; los desconocidos se ignoran.
+            List<String> fields = type.getFields();
+            String[] ordered = new String[fields.size()];
+            for (int i = 0; i < count; i++) {
+                int index = fields.indexOf(names[i]);
+                if (index >= 0) {
+                    ordered[index] = values[i];
+                }
+            }
+            return new TransferRecord(type, ordered, lineNumber);
+        }
+
+        private String readValue() throws IOException {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            int start = pos;
+            while (pos < text.length() && ",} \t".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty() || c == '{' || c == '[') {
+                throw error("valor no admitido en la posición " + start + ".");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String readString() throws IOException {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (pos >= text.length()) {
+                    throw error("cadena sin terminar.");
+                }
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    throw error("cadena sin terminar.");
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw error("secuencia \\u incompleta.");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("secuencia \\u no válida.");
+                        }
+                        pos += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            }
+        }
+
+        private char peek() throws IOException {
+            if (pos >= text.length()) {
+                throw error("línea incompleta.");
+            }
+            return text.charAt(pos);
+        }
+
+        private boolean consume(char c) {
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) throws IOException {
+            if (!consume(c)) {
+                throw error("se esperaba '" + c + "' en la posición " + pos + ".");
+            }
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IOException error(String message) {
+            return new IOException("Línea " + lineNumber + ": " + message);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
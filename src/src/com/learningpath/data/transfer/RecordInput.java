@@ -0,0 +1,18 @@
+package src.com.learningpath.data.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lee registros de exportación de a uno.
+ */
+public interface RecordInput extends Closeable {
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return El registro, o null al final del archivo.
+     * @throws IOException Si el registro está mal formado o su tipo es desconocido.
+     */
+    TransferRecord read() throws IOException;
+}
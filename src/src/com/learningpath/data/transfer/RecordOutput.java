@@ -0,0 +1,19 @@
+package src.com.learningpath.data.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Escribe registros de exportación en un formato de texto, uno por línea.
+ */
+public interface RecordOutput extends Closeable {
+
+    /**
+     * Escribe un registro.
+     *
+     * @param type   El tipo del registro.
+     * @param values Los valores, en el orden de {@link RecordType#getFields()}: cadenas,
+     *               números o null.
+     */
+    void write(RecordType type, Object... values) throws IOException;
+}
@@ -0,0 +1,73 @@
+package src.com.learningpath.data.transfer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tipos de registro del formato de exportación. Cada registro es plano (solo valores
+ * escalares) para que se pueda escribir igual en NDJSON y en CSV.
+ * <p>
+ * Los registros {@link #ACTIVITY} y {@link #FEEDBACK} pertenecen al último
+ * {@link #LEARNING_PATH} anterior, y {@link #STATUS}, {@link #QUIZ_ANSWER} y
+ * {@link #RESPONSE} al último {@link #PROGRESS}; así cada progreso se puede leer y escribir
+ * por separado sin repetir sus claves en cada fila.
+ */
+public enum RecordType {
+    USER("user", "username", "role", "password", "name"),
+    LEARNING_PATH("learning_path", "id", "title", "description", "objectives", "difficulty", "duration", "rating",
+            "created", "modified", "version", "creator"),
+    /**
+     * Una actividad del Learning Path. {@code data} es su codificación binaria en Base64.
+     */
+    ACTIVITY("activity", "id", "activity_type", "title", "data"),
+    FEEDBACK("feedback", "text"),
+    PROGRESS("progress", "student", "path_id"),
+    /**
+     * El estado (null si no tiene) y la fecha de completado (ISO-8601, null si no tiene) de una actividad.
+     */
+    STATUS("status", "activity_id", "status", "completed"),
+    /**
+     * La opción elegida en una pregunta de un quiz.
+     */
+    QUIZ_ANSWER("quiz_answer", "activity_id", "question", "answer"),
+    /**
+     * La respuesta a una pregunta de una encuesta o de un examen de preguntas abiertas.
+     */
+    RESPONSE("response", "activity_id", "question", "answer");
+
+    private final String tag;
+    private final List<String> fields;
+
+    RecordType(String tag, String... fields) {
+        this.tag = tag;
+        this.fields = Arrays.asList(fields);
+    }
+
+    /**
+     * Obtiene el nombre con el que se escribe el tipo.
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Obtiene los nombres de los campos, en el orden de las columnas CSV.
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Busca un tipo por su nombre.
+     *
+     * @return El tipo, o null si no existe.
+     */
+    public static RecordType fromTag(String tag) {
+        for (RecordType type : values()) {
+            if (type.tag.equals(tag)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
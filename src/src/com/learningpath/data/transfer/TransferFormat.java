@@ -0,0 +1,38 @@
+package src.com.learningpath.data.transfer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Formatos de texto de exportación e importación.
+ */
+public enum TransferFormat {
+    /**
+     * Un objeto JSON por línea, con el tipo en el campo {@code type}.
+     */
+    NDJSON,
+    /**
+     * Una fila por registro: el tipo en la primera columna y los campos en el orden de
+     * {@link RecordType#getFields()}. Un campo vacío es null; {@code ""} es la cadena vacía.
+     */
+    CSV;
+
+    /**
+     * Elige el formato según la extensión del archivo: {@code .csv} o, si no, NDJSON.
+     */
+    public static TransferFormat forFile(String name) {
+        return name.toLowerCase().endsWith(".csv") ? CSV : NDJSON;
+    }
+
+    public RecordOutput open(Writer writer) {
+        BufferedWriter out = writer instanceof BufferedWriter ? (BufferedWriter) writer : new BufferedWriter(writer, 1 << 16);
+        return this == CSV ? new Csv.Output(out) : new Ndjson.Output(out);
+    }
+
+    public RecordInput open(Reader reader) {
+        BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+        return this == CSV ? new Csv.Input(in) : new Ndjson.Input(in);
+    }
+}
@@ -0,0 +1,71 @@
+package src.com.learningpath.data.transfer;
+
+import java.io.IOException;
+
+/**
+ * Registro leído de un archivo de exportación: su tipo y el texto de cada campo.
+ */
+public final class TransferRecord {
+    private final RecordType type;
+    private final String[] values;
+    private final long line;
+
+    TransferRecord(RecordType type, String[] values, long line) {
+        this.type = type;
+        this.values = values;
+        this.line = line;
+    }
+
+    public RecordType getType() {
+        return type;
+    }
+
+    /**
+     * Obtiene la línea del archivo donde empieza el registro, para los mensajes de error.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * Obtiene el texto de un campo.
+     *
+     * @return El valor, o null si el campo es nulo o no está.
+     */
+    public String get(String field) {
+        int index = type.getFields().indexOf(field);
+        if (index < 0) {
+            throw new IllegalArgumentException("Campo desconocido para " + type.getTag() + ": " + field);
+        }
+        return values[index];
+    }
+
+    /**
+     * Obtiene un campo obligatorio.
+     *
+     * @throws IOException Si el campo es nulo o no está.
+     */
+    public String require(String field) throws IOException {
+        String value = get(field);
+        if (value == null) {
+            throw new IOException("Línea " + line + ": falta el campo " + field + " en " + type.getTag() + ".");
+        }
+        return value;
+    }
+
+    public int getInt(String field) throws IOException {
+        try {
+            return Integer.parseInt(require(field));
+        } catch (NumberFormatException e) {
+            throw new IOException("Línea " + line + ": el campo " + field + " no es un número.", e);
+        }
+    }
+
+    public double getDouble(String field) throws IOException {
+        try {
+            return Double.parseDouble(require(field));
+        } catch (NumberFormatException e) {
+            throw new IOException("Línea " + line + ": el campo " + field + " no es un número.", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package src.com.learningpath.data.transfer;
+
+/**
+ * Cantidad de registros exportados o importados y el tiempo que tomó.
+ */
+public class TransferStats {
+    private final long[] counts = new long[RecordType.values().length];
+    private final long start = System.nanoTime();
+    private long elapsedNanos = -1;
+
+    void count(RecordType type) {
+        counts[type.ordinal()]++;
+    }
+
+    void finish() {
+        elapsedNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Obtiene la cantidad de registros de un tipo.
+     */
+    public long getCount(RecordType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Obtiene la cantidad total de registros, incluidos los que forman parte de otro
+     * (actividades, estados, respuestas...).
+     */
+    public long getRecordCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene la duración, o la transcurrida hasta ahora si aún no terminó.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - start;
+    }
+
+    public double getRecordsPerSecond() {
+        return getRecordCount() / Math.max(getElapsedNanos() / 1e9, 1e-9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d registros (%d usuarios, %d Learning Paths, %d progresos) en %.2f s: %.0f registros/s",
+                getRecordCount(), getCount(RecordType.USER), getCount(RecordType.LEARNING_PATH),
+                getCount(RecordType.PROGRESS), getElapsedNanos() / 1e9, getRecordsPerSecond());
+    }
+}
@@ -0,0 +1,114 @@
+package src.com.learningpath.grading;
+
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+
+import java.util.List;
+
+/**
+ * Clave de respuestas de un quiz: la opción correcta de cada pregunta en un {@code int[]} y
+ * la puntuación mínima para aprobar.
+ * <p>
+ * Se arma una vez por quiz y luego cada entrega se califica con un recorrido sobre dos
+ * arreglos de enteros, sin pasar por {@link Question} ni desempaquetar {@link Integer}. La
+ * clave es una copia: si el profesor cambia las preguntas del quiz hay que armarla de nuevo.
+ */
+public final class AnswerKey {
+    // Opción de una pregunta sin responder.
+    public static final int UNANSWERED = -1;
+
+    private final int[] correctOptions;
+    private final double passingScore;
+
+    private AnswerKey(int[] correctOptions, double passingScore) {
+        this.correctOptions = correctOptions;
+        this.passingScore = passingScore;
+    }
+
+    /**
+     * Arma la clave de un quiz.
+     */
+    public static AnswerKey of(Quiz quiz) {
+        List<Question> questions = quiz.getQuestions();
+        int[] correctOptions = new int[questions.size()];
+        for (int i = 0; i < correctOptions.length; i++) {
+            correctOptions[i] = questions.get(i).getCorrectOptionIndex();
+        }
+        return new AnswerKey(correctOptions, quiz.getPassingScore());
+    }
+
+    public int getQuestionCount() {
+        return correctOptions.length;
+    }
+
+    public int getCorrectOption(int question) {
+        return correctOptions[question];
+    }
+
+    public double getPassingScore() {
+        return passingScore;
+    }
+
+    /**
+     * Indica si la opción elegida para una pregunta es la correcta.
+     */
+    public boolean isCorrect(int question, int chosenOption) {
+        return correctOptions[question] == chosenOption;
+    }
+
+    /**
+     * Cuenta las respuestas correctas de una entrega. Las preguntas sin respuesta (porque la
+     * entrega es más corta o tienen {@link #UNANSWERED}) cuentan como incorrectas y las
+     * respuestas de más se ignoran.
+     */
+    public int countCorrect(int[] chosenOptions) {
+        int[] key = correctOptions;
+        int n = Math.min(key.length, chosenOptions.length);
+        int correct = 0;
+        for (int i = 0; i < n; i++) {
+            if (key[i] == chosenOptions[i]) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    /**
+     * Cuenta las respuestas correctas de una entrega guardada en un {@code Progress}.
+     */
+    public int countCorrect(List<Integer> chosenOptions) {
+        return countCorrect(toArray(chosenOptions));
+    }
+
+    /**
+     * Calcula la puntuación, en porcentaje, para una cantidad de respuestas correctas. Un
+     * quiz sin preguntas puntúa 0.
+     */
+    public double score(int correctCount) {
+        return correctOptions.length == 0 ? 0 : (double) correctCount / correctOptions.length * 100;
+    }
+
+    public boolean passes(double score) {
+        return score >= passingScore;
+    }
+
+    /**
+     * Obtiene el estado que corresponde a una puntuación: COMPLETED si aprueba, FAILED si no.
+     */
+    public ActivityStatus statusFor(double score) {
+        return passes(score) ? ActivityStatus.COMPLETED : ActivityStatus.FAILED;
+    }
+
+    /**
+     * Copia las opciones elegidas a un arreglo; los valores null quedan como {@link #UNANSWERED}.
+     */
+    public static int[] toArray(List<Integer> chosenOptions) {
+        int[] result = new int[chosenOptions.size()];
+        for (int i = 0; i < result.length; i++) {
+            Integer option = chosenOptions.get(i);
+            result[i] = option == null ? UNANSWERED : option;
+        }
+        return result;
+    }
+}
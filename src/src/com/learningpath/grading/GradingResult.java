@@ -0,0 +1,82 @@
+package src.com.learningpath.grading;
+
+import src.com.learningpath.activities.ActivityStatus;
+
+/**
+ * Calificaciones de un lote de entregas, en el mismo orden que las entregas. Las cantidades
+ * de respuestas correctas y las puntuaciones se guardan en arreglos de primitivos.
+ */
+public final class GradingResult {
+    private final QuizSubmission[] submissions;
+    private final AnswerKey[] keys;
+    private final int[] correctCounts;
+    private final double[] scores;
+
+    GradingResult(QuizSubmission[] submissions, AnswerKey[] keys, int[] correctCounts, double[] scores) {
+        this.submissions = submissions;
+        this.keys = keys;
+        this.correctCounts = correctCounts;
+        this.scores = scores;
+    }
+
+    public int size() {
+        return submissions.length;
+    }
+
+    public QuizSubmission getSubmission(int index) {
+        return submissions[index];
+    }
+
+    /**
+     * Obtiene la clave con la que se calificó una entrega.
+     */
+    public AnswerKey getAnswerKey(int index) {
+        return keys[index];
+    }
+
+    public int getCorrectCount(int index) {
+        return correctCounts[index];
+    }
+
+    /**
+     * Obtiene la puntuación de una entrega, en porcentaje.
+     */
+    public double getScore(int index) {
+        return scores[index];
+    }
+
+    public boolean isPassed(int index) {
+        return keys[index].passes(scores[index]);
+    }
+
+    /**
+     * Obtiene el estado que corresponde a una entrega: COMPLETED si aprueba, FAILED si no.
+     */
+    public ActivityStatus getStatus(int index) {
+        return keys[index].statusFor(scores[index]);
+    }
+
+    /**
+     * Cuenta las entregas aprobadas.
+     */
+    public int getPassedCount() {
+        int passed = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (keys[i].passes(scores[i])) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * Calcula la puntuación promedio del lote, o 0 si está vacío.
+     */
+    public double getAverageScore() {
+        double total = 0;
+        for (double score : scores) {
+            total += score;
+        }
+        return scores.length == 0 ? 0 : total / scores.length;
+    }
+}
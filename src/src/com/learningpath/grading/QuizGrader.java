@@ -0,0 +1,135 @@
+package src.com.learningpath.grading;
+
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.Quiz;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Califica entregas de quizzes en lote y aplica los resultados a los progresos.
+ * <p>
+ * {@link #grade(List)} arma una {@link AnswerKey} por quiz distinto del lote y califica cada
+ * entrega con un recorrido sobre arreglos de enteros. Los lotes grandes se dividen en tramos
+ * contiguos que se califican en paralelo en el pool común de fork/join; cada tramo escribe
+ * solo sus posiciones de los arreglos de resultados, así que no hace falta sincronizar.
+ * <p>
+ * {@link #apply(GradingResult)} guarda las respuestas y el estado de cada entrega en su
+ * progreso. Las entregas de un mismo progreso se aplican en el orden del lote y las de
+ * progresos distintos en paralelo: cada progreso tiene su propio lock y los observadores
+ * (journal, histograma) ya admiten notificaciones concurrentes. Solo se escribe lo que
+ * cambia, de modo que recalificar un lote sin cambios no genera mutaciones.
+ */
+public final class QuizGrader {
+    // Por debajo de esta cantidad de entregas se califica en el hilo que llama.
+    static final int PARALLEL_THRESHOLD = 4096;
+    // Entregas mínimas por tramo paralelo.
+    private static final int MIN_CHUNK = 1024;
+
+    private QuizGrader() {
+    }
+
+    /**
+     * Califica un lote de entregas sin modificar los progresos.
+     */
+    public static GradingResult grade(List<QuizSubmission> submissions) {
+        QuizSubmission[] items = submissions.toArray(new QuizSubmission[0]);
+        int n = items.length;
+        AnswerKey[] keys = new AnswerKey[n];
+        Map<Quiz, AnswerKey> keysByQuiz = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            keys[i] = keysByQuiz.computeIfAbsent(items[i].getQuiz(), AnswerKey::of);
+        }
+        int[] correctCounts = new int[n];
+        double[] scores = new double[n];
+        if (n < PARALLEL_THRESHOLD) {
+            gradeRange(items, keys, correctCounts, scores, 0, n);
+        } else {
+            int chunks = Math.max(1, Math.min(n / MIN_CHUNK, Runtime.getRuntime().availableProcessors() * 4));
+            IntStream.range(0, chunks).parallel().forEach(c ->
+                    gradeRange(items, keys, correctCounts, scores, (int) ((long) n * c / chunks), (int) ((long) n * (c + 1) / chunks)));
+        }
+        return new GradingResult(items, keys, correctCounts, scores);
+    }
+
+    /**
+     * Guarda en cada progreso las respuestas y el estado (COMPLETED si aprueba, FAILED si no)
+     * de sus entregas.
+     *
+     * @return La cantidad de entregas que cambiaron el estado de su actividad.
+     */
+    public static int apply(GradingResult result) {
+        return apply(result, false);
+    }
+
+    /**
+     * Como {@link #apply(GradingResult)}. Al recalificar ({@code keepCompletionDates}) los
+     * estados que cambian conservan la fecha de completado que tenía la actividad, para que
+     * corregir una clave no mueva las entregas al día de la corrección; solo las que nunca
+     * se completaron toman la fecha de hoy.
+     */
+    static int apply(GradingResult result, boolean keepCompletionDates) {
+        Map<Progress, List<Integer>> byProgress = new IdentityHashMap<>();
+        for (int i = 0; i < result.size(); i++) {
+            byProgress.computeIfAbsent(result.getSubmission(i).getProgress(), p -> new ArrayList<>(1)).add(i);
+        }
+        if (result.size() < PARALLEL_THRESHOLD) {
+            int changed = 0;
+            for (List<Integer> indexes : byProgress.values()) {
+                changed += applyAll(result, indexes, keepCompletionDates);
+            }
+            return changed;
+        }
+        return byProgress.values().parallelStream().mapToInt(indexes -> applyAll(result, indexes, keepCompletionDates)).sum();
+    }
+
+    /**
+     * Califica un lote y aplica los resultados a los progresos.
+     */
+    public static GradingResult gradeAndApply(List<QuizSubmission> submissions) {
+        GradingResult result = grade(submissions);
+        apply(result);
+        return result;
+    }
+
+    // Métodos auxiliares
+
+    private static void gradeRange(QuizSubmission[] items, AnswerKey[] keys, int[] correctCounts, double[] scores, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int correct = keys[i].countCorrect(items[i].getChosenOptions());
+            correctCounts[i] = correct;
+            scores[i] = keys[i].score(correct);
+        }
+    }
+
+    private static int applyAll(GradingResult result, List<Integer> indexes, boolean keepCompletionDates) {
+        int changed = 0;
+        for (int i : indexes) {
+            QuizSubmission submission = result.getSubmission(i);
+            Progress progress = submission.getProgress();
+            Quiz quiz = submission.getQuiz();
+            int[] chosen = submission.getChosenOptions();
+            List<Integer> saved = progress.getQuizResponses(quiz);
+            if (saved == null || !Arrays.equals(AnswerKey.toArray(saved), chosen)) {
+                List<Integer> options = new ArrayList<>(chosen.length);
+                for (int option : chosen) {
+                    options.add(option);
+                }
+                progress.saveQuizResponses(quiz, options);
+            }
+            ActivityStatus status = result.getStatus(i);
+            if (progress.getActivityStatus(quiz) != status) {
+                LocalDate previous = keepCompletionDates ? progress.getCompletionDate(quiz) : null;
+                progress.updateActivityStatus(quiz, status, previous != null ? previous : LocalDate.now());
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,108 @@
+package src.com.learningpath.grading;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class QuizGraderTest {
+
+    @Test
+    public void testAnswerKeyScoresIncompleteSubmissions() {
+        Quiz quiz = quiz("Quiz", 4, 75.0, new Random(1));
+        AnswerKey key = AnswerKey.of(quiz);
+        int[] allCorrect = new int[4];
+        for (int i = 0; i < 4; i++) {
+            allCorrect[i] = quiz.getQuestions().get(i).getCorrectOptionIndex();
+        }
+        assertEquals(4, key.countCorrect(allCorrect));
+        assertEquals(100.0, key.score(4));
+        assertEquals(ActivityStatus.COMPLETED, key.statusFor(key.score(3)));
+        assertEquals(ActivityStatus.FAILED, key.statusFor(key.score(2)));
+
+        // Respuestas de menos o sin responder cuentan como incorrectas; las de más se ignoran
+        assertEquals(2, key.countCorrect(Arrays.copyOf(allCorrect, 2)));
+        int[] extra = Arrays.copyOf(allCorrect, 6);
+        extra[0] = AnswerKey.UNANSWERED;
+        assertEquals(3, key.countCorrect(extra));
+        assertEquals(3, key.countCorrect(Arrays.asList(allCorrect[0], null, allCorrect[2], allCorrect[3])));
+        assertEquals(0.0, AnswerKey.of(new Quiz("Vacío", "", "", 1, 1, true, new ArrayList<>(), 50.0)).score(0));
+    }
+
+    @Test
+    public void testBatchGradingMatchesPerQuestionGradingAndAppliesOnce() {
+        Random random = new Random(42);
+        Teacher teacher = new Teacher("teacher", "pass", "Teacher");
+        LearningPath lp = new LearningPath("LP", "Descripción", "Objetivos", 1, teacher);
+        List<Quiz> quizzes = new ArrayList<>();
+        for (int q = 0; q < 3; q++) {
+            Quiz quiz = quiz("Quiz " + q, 5 + q * 5, 60.0, random);
+            quizzes.add(quiz);
+            lp.addActivity(quiz);
+        }
+        // Más entregas que el umbral, para calificar y aplicar en paralelo
+        List<QuizSubmission> submissions = new ArrayList<>();
+        for (int s = 0; s < 2000; s++) {
+            Progress progress = new Progress(new Student("student" + s, "pass", "Student " + s), lp);
+            for (Quiz quiz : quizzes) {
+                int[] chosen = new int[quiz.getQuestions().size()];
+                for (int i = 0; i < chosen.length; i++) {
+                    chosen[i] = random.nextInt(2) == 0 ? quiz.getQuestions().get(i).getCorrectOptionIndex() : random.nextInt(4);
+                }
+                submissions.add(new QuizSubmission(progress, quiz, chosen));
+            }
+        }
+        assertTrue(submissions.size() >= QuizGrader.PARALLEL_THRESHOLD);
+
+        GradingResult result = QuizGrader.grade(submissions);
+        assertEquals(submissions.size(), result.size());
+        int passed = 0;
+        for (int i = 0; i < submissions.size(); i++) {
+            QuizSubmission submission = submissions.get(i);
+            List<Question> questions = submission.getQuiz().getQuestions();
+            int correct = 0;
+            for (int q = 0; q < questions.size(); q++) {
+                if (submission.getChosenOptions()[q] == questions.get(q).getCorrectOptionIndex()) {
+                    correct++;
+                }
+            }
+            double score = (double) correct / questions.size() * 100;
+            assertSame(submission, result.getSubmission(i));
+            assertEquals(correct, result.getCorrectCount(i));
+            assertEquals(score, result.getScore(i));
+            assertEquals(score >= 60.0, result.isPassed(i));
+            passed += score >= 60.0 ? 1 : 0;
+            // Calificar no modifica los progresos
+            assertEquals(ActivityStatus.PENDING, submission.getProgress().getActivityStatus(submission.getQuiz()));
+        }
+        assertEquals(passed, result.getPassedCount());
+
+        assertEquals(submissions.size(), QuizGrader.apply(result));
+        for (int i = 0; i < submissions.size(); i++) {
+            QuizSubmission submission = submissions.get(i);
+            Progress progress = submission.getProgress();
+            assertEquals(result.getStatus(i), progress.getActivityStatus(submission.getQuiz()));
+            assertArrayEquals(submission.getChosenOptions(), AnswerKey.toArray(progress.getQuizResponses(submission.getQuiz())));
+        }
+        // Recalificar sin cambios no vuelve a escribir estados
+        assertEquals(0, QuizGrader.apply(QuizGrader.grade(submissions)));
+    }
+
+    private static Quiz quiz(String title, int questionCount, double passingScore, Random random) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            questions.add(new Question("Pregunta " + i, new String[]{"A", "B", "C", "D"}, random.nextInt(4), "Explicación"));
+        }
+        return new Quiz(title, "Descripción", "Objetivo", 1, 10, true, questions, passingScore);
+    }
+}
@@ -0,0 +1,90 @@
+package src.com.learningpath.grading;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recalifica las entregas de un quiz después de corregir su clave de respuestas (por
+ * ejemplo, con {@code Question.setCorrectOptionIndex}).
+ * <p>
+ * Los estudiantes afectados salen de {@link Repository#getQuizResponders()}, así que solo se
+ * buscan (y, si hace falta, decodifican) sus progresos; el resto no se toca. Las entregas se
+ * califican y aplican con {@link QuizGrader}, en paralelo cuando son muchas, y solo cambian
+ * los estados que pasan de COMPLETED a FAILED o al revés, con la fecha de completado que ya
+ * tenían. Al final se reconstruyen las estadísticas por pregunta del quiz, que dependen de
+ * la clave.
+ */
+public final class QuizRegrader {
+
+    /**
+     * Resultado de una recalificación.
+     */
+    public static final class Result {
+        private final GradingResult grades;
+        private final int changedCount;
+
+        Result(GradingResult grades, int changedCount) {
+            this.grades = grades;
+            this.changedCount = changedCount;
+        }
+
+        /**
+         * Obtiene las nuevas calificaciones, una por estudiante que respondió el quiz.
+         */
+        public GradingResult getGrades() {
+            return grades;
+        }
+
+        /**
+         * Cuenta las entregas recalificadas.
+         */
+        public int getRegradedCount() {
+            return grades.size();
+        }
+
+        /**
+         * Cuenta las entregas cuyo estado cambió.
+         */
+        public int getChangedCount() {
+            return changedCount;
+        }
+    }
+
+    private QuizRegrader() {
+    }
+
+    /**
+     * Recalifica las entregas de un quiz con su clave de respuestas actual.
+     *
+     * @param repository El repositorio con los progresos.
+     * @param lp         El Learning Path del quiz.
+     * @param quiz       El quiz corregido.
+     */
+    public static Result regrade(Repository repository, LearningPath lp, Quiz quiz) {
+        List<QuizSubmission> submissions = new ArrayList<>();
+        List<Progress> progresses = new ArrayList<>();
+        for (String username : repository.getQuizResponders().getResponders(lp, quiz)) {
+            User user = repository.findUser(username);
+            if (!(user instanceof Student)) {
+                continue;
+            }
+            Progress progress = repository.findProgress((Student) user, lp);
+            List<Integer> answers = progress == null ? null : progress.getQuizResponses(quiz);
+            if (answers != null) {
+                submissions.add(QuizSubmission.of(progress, quiz, answers));
+                progresses.add(progress);
+            }
+        }
+        GradingResult grades = QuizGrader.grade(submissions);
+        Result result = new Result(grades, QuizGrader.apply(grades, true));
+        repository.getQuestionStatistics().rebuild(lp, quiz, progresses);
+        return result;
+    }
+}
@@ -0,0 +1,122 @@
+package src.com.learningpath.grading;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class QuizRegraderTest {
+
+    @Test
+    public void testRegradeOnlyTouchesStudentsWhoAnsweredTheQuiz() {
+        Teacher teacher = new Teacher("teacher", "pass", "Teacher");
+        LearningPath lp = new LearningPath("LP", "Descripción", "Objetivos", 1, teacher);
+        // La respuesta correcta de la segunda pregunta está mal cargada: debería ser la opción 2
+        Quiz quiz = new Quiz("Quiz", "Sumas", "Sumar", 1, 10, true, new ArrayList<>(Arrays.asList(
+                new Question("2 + 2", new String[]{"3", "4", "5"}, 1, "Suma"),
+                new Question("2 + 3", new String[]{"4", "6", "5"}, 0, "Suma"))), 100.0);
+        lp.addActivity(quiz);
+        LearningPath copy = new LearningPath(lp, teacher);
+        Quiz copiedQuiz = (Quiz) copy.getActivities().get(0);
+
+        List<User> users = new ArrayList<>(List.of(teacher));
+        Repository repository = new Repository(users, new ArrayList<>(List.of(lp, copy)), new ArrayList<>());
+        List<Progress> answered = new ArrayList<>();
+        for (int s = 0; s < 40; s++) {
+            Student student = new Student("student" + s, "pass", "Student " + s);
+            repository.addUser(student);
+            Progress progress = new Progress(student, lp);
+            repository.addProgress(progress);
+            repository.addProgress(new Progress(student, copy));
+            if (s % 4 == 3) {
+                continue; // No respondió
+            }
+            // La mitad responde antes de que exista el índice y la otra mitad después
+            if (s == 20) {
+                assertEquals(15, repository.getQuizResponders().getResponderCount(lp, quiz));
+            }
+            int[] chosen = s % 2 == 0 ? new int[]{1, 2} : new int[]{1, 0};
+            QuizGrader.gradeAndApply(List.of(new QuizSubmission(progress, quiz, chosen)));
+            answered.add(progress);
+        }
+        Progress copyProgress = repository.findProgress((Student) repository.findUser("student0"), copy);
+        QuizGrader.gradeAndApply(List.of(new QuizSubmission(copyProgress, copiedQuiz, new int[]{1, 0})));
+
+        assertEquals(30, repository.getQuizResponders().getResponderCount(lp, quiz));
+        assertEquals(1, repository.getQuizResponders().getResponderCount(copy, copiedQuiz));
+        for (Progress progress : answered) {
+            boolean choseFive = progress.getQuizResponses(quiz).get(1) == 2;
+            assertEquals(choseFive ? ActivityStatus.FAILED : ActivityStatus.COMPLETED, progress.getActivityStatus(quiz));
+        }
+
+        quiz.getQuestions().get(1).setCorrectOptionIndex(2);
+        QuizRegrader.Result result = QuizRegrader.regrade(repository, lp, quiz);
+
+        assertEquals(30, result.getRegradedCount());
+        assertEquals(30, result.getChangedCount());
+        for (Progress progress : answered) {
+            boolean choseFive = progress.getQuizResponses(quiz).get(1) == 2;
+            assertEquals(choseFive ? ActivityStatus.COMPLETED : ActivityStatus.FAILED, progress.getActivityStatus(quiz));
+        }
+        // Los que no respondieron y la copia del Learning Path no cambian
+        Progress unanswered = repository.findProgress((Student) repository.findUser("student3"), lp);
+        assertEquals(ActivityStatus.PENDING, unanswered.getActivityStatus(quiz));
+        assertEquals(ActivityStatus.COMPLETED, copyProgress.getActivityStatus(copiedQuiz));
+
+        // Sin más cambios, recalificar de nuevo no modifica nada
+        assertEquals(0, QuizRegrader.regrade(repository, lp, quiz).getChangedCount());
+        assertThrows(IllegalArgumentException.class, () -> quiz.getQuestions().get(1).setCorrectOptionIndex(3));
+    }
+
+    @Test
+    public void testRegradeKeepsOriginalCompletionDates() {
+        Teacher teacher = new Teacher("teacher", "pass", "Teacher");
+        LearningPath lp = new LearningPath("LP", "Descripción", "Objetivos", 1, teacher);
+        Quiz quiz = new Quiz("Quiz", "Sumas", "Sumar", 1, 10, true, new ArrayList<>(Arrays.asList(
+                new Question("2 + 3", new String[]{"4", "6", "5"}, 0, "Suma"))), 100.0);
+        lp.addActivity(quiz);
+        Repository repository = new Repository(new ArrayList<>(List.of(teacher)), new ArrayList<>(List.of(lp)), new ArrayList<>());
+        LocalDate march = LocalDate.of(2024, 3, 1);
+
+        // Aprobó en marzo con la clave equivocada
+        Student early = new Student("early", "pass", "Early");
+        repository.addUser(early);
+        Progress passed = new Progress(early, lp);
+        repository.addProgress(passed);
+        passed.saveQuizResponses(quiz, List.of(0));
+        passed.updateActivityStatus(quiz, ActivityStatus.COMPLETED, march);
+        // Reprobó con la clave equivocada: nunca tuvo fecha de completado
+        Student late = new Student("late", "pass", "Late");
+        repository.addUser(late);
+        Progress failed = new Progress(late, lp);
+        repository.addProgress(failed);
+        QuizGrader.gradeAndApply(List.of(new QuizSubmission(failed, quiz, new int[]{2})));
+        assertEquals(ActivityStatus.FAILED, failed.getActivityStatus(quiz));
+        assertNull(failed.getCompletionDate(quiz));
+
+        quiz.getQuestions().get(0).setCorrectOptionIndex(2);
+        assertEquals(2, QuizRegrader.regrade(repository, lp, quiz).getChangedCount());
+        assertEquals(ActivityStatus.FAILED, passed.getActivityStatus(quiz));
+        assertEquals(ActivityStatus.COMPLETED, failed.getActivityStatus(quiz));
+        assertEquals(LocalDate.now(), failed.getCompletionDate(quiz));
+
+        // Si la corrección se revierte, vuelve a contar desde marzo y no desde hoy
+        quiz.getQuestions().get(0).setCorrectOptionIndex(0);
+        QuizRegrader.regrade(repository, lp, quiz);
+        assertEquals(ActivityStatus.COMPLETED, passed.getActivityStatus(quiz));
+        assertEquals(march, passed.getCompletionDate(quiz));
+        assertEquals(march, passed.getCountedCompletionDate(quiz));
+    }
+}
@@ -0,0 +1,95 @@
+package src.com.learningpath.grading;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.ProgressListener;
+import src.com.learningpath.activities.Quiz;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice de los estudiantes que respondieron cada quiz, para recalificar solo a ellos cuando
+ * cambia la clave de respuestas.
+ * <p>
+ * La clave es (Learning Path, quiz): los identificadores de las actividades de datos antiguos
+ * se derivan del título y la descripción ({@code Activity.legacyId}), así que dos Learning
+ * Paths pueden tener quizzes con el mismo identificador. Los estudiantes se guardan por
+ * nombre de usuario, como en los índices de {@code Repository}. Se construye una vez
+ * recorriendo los progresos y luego se mantiene como {@link ProgressListener} con cada
+ * {@link Progress#saveQuizResponses(Quiz, List)}.
+ */
+public class QuizResponderIndex implements ProgressListener {
+    private final Map<QuizKey, Set<String>> responders = new HashMap<>();
+
+    /**
+     * Construye el índice recorriendo todos los progresos. Sobre un
+     * {@code MappedProgressStore} esto decodifica todos los registros.
+     */
+    public static QuizResponderIndex build(List<Progress> progresses) {
+        QuizResponderIndex index = new QuizResponderIndex();
+        index.addAll(progresses);
+        return index;
+    }
+
+    /**
+     * Añade al índice las respuestas ya guardadas en los progresos.
+     */
+    public void addAll(List<Progress> progresses) {
+        for (Progress p : progresses) {
+            for (Quiz quiz : p.getQuizResponses().keySet()) {
+                add(p, quiz);
+            }
+        }
+    }
+
+    @Override
+    public void quizResponsesSaved(Progress progress, Quiz quiz, List<Integer> chosenOptions) {
+        if (chosenOptions != null) {
+            add(progress, quiz);
+        } else {
+            remove(progress, quiz);
+        }
+    }
+
+    /**
+     * Obtiene los usuarios de los estudiantes con respuestas guardadas en un quiz de un
+     * Learning Path.
+     *
+     * @return Una copia, en el orden en que respondieron por primera vez.
+     */
+    public synchronized List<String> getResponders(LearningPath lp, Quiz quiz) {
+        Set<String> students = responders.get(new QuizKey(lp.getId(), quiz.getId()));
+        return students == null ? new ArrayList<>() : new ArrayList<>(students);
+    }
+
+    /**
+     * Cuenta los estudiantes con respuestas guardadas en un quiz de un Learning Path.
+     */
+    public synchronized int getResponderCount(LearningPath lp, Quiz quiz) {
+        Set<String> students = responders.get(new QuizKey(lp.getId(), quiz.getId()));
+        return students == null ? 0 : students.size();
+    }
+
+    // Métodos auxiliares
+
+    private synchronized void add(Progress progress, Quiz quiz) {
+        QuizKey key = new QuizKey(progress.getLearningPath().getId(), quiz.getId());
+        responders.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(progress.getStudent().getUsername());
+    }
+
+    private synchronized void remove(Progress progress, Quiz quiz) {
+        QuizKey key = new QuizKey(progress.getLearningPath().getId(), quiz.getId());
+        Set<String> students = responders.get(key);
+        if (students != null && students.remove(progress.getStudent().getUsername()) && students.isEmpty()) {
+            responders.remove(key);
+        }
+    }
+
+    private record QuizKey(int pathId, int quizId) {
+    }
+}
@@ -0,0 +1,51 @@
+package src.com.learningpath.grading;
+
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.users.Student;
+
+import java.util.List;
+
+/**
+ * Entrega de un quiz para calificar en lote: el progreso del estudiante, el quiz y los
+ * índices de las opciones elegidas, uno por pregunta.
+ */
+public final class QuizSubmission {
+    private final Progress progress;
+    private final Quiz quiz;
+    private final int[] chosenOptions;
+
+    /**
+     * @param progress      El progreso del estudiante en el Learning Path del quiz.
+     * @param quiz          El quiz.
+     * @param chosenOptions Las opciones elegidas; el arreglo no se copia y no debe modificarse.
+     */
+    public QuizSubmission(Progress progress, Quiz quiz, int[] chosenOptions) {
+        this.progress = progress;
+        this.quiz = quiz;
+        this.chosenOptions = chosenOptions;
+    }
+
+    /**
+     * Crea una entrega con las opciones en una lista, como las guarda {@link Progress}.
+     */
+    public static QuizSubmission of(Progress progress, Quiz quiz, List<Integer> chosenOptions) {
+        return new QuizSubmission(progress, quiz, AnswerKey.toArray(chosenOptions));
+    }
+
+    public Progress getProgress() {
+        return progress;
+    }
+
+    public Student getStudent() {
+        return progress.getStudent();
+    }
+
+    public Quiz getQuiz() {
+        return quiz;
+    }
+
+    public int[] getChosenOptions() {
+        return chosenOptions;
+    }
+}
@@ -1,10 +1,11 @@
 package src.com.learningpath.gui;
 
 import java.awt.CardLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -14,17 +15,31 @@ import javax.swing.SwingUtilities;
 
 import src.com.learningpath.LearningPath;
 import src.com.learningpath.Progress;
-import src.com.learningpath.activities.Activity;
-import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.analytics.CompletionHistogram;
 import src.com.learningpath.data.DataManager;
+import src.com.learningpath.data.PersistenceExecutor;
+import src.com.learningpath.data.Storage;
+import src.com.learningpath.data.codec.MappedProgressStore;
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.repository.RepositorySnapshot;
 import src.com.learningpath.users.Role;
 import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
 import src.com.learningpath.users.User;
 
 public class MainFrame extends JFrame {
     private List<User> users;
     private List<LearningPath> learningPaths;
-    private List<Progress> progresses;
+    private MappedProgressStore progresses;
+    // Se reemplaza al recargar y lo leen el hilo de persistencia y el shutdown hook.
+    private volatile Repository repository;
+    private CompletionHistogram histogram;
+
+    // Archivos o base de datos, según la propiedad learningpath.storage.
+    private final Storage storage = DataManager.openStorage();
+
+    // Los guardados se hacen fuera del hilo de Swing, agrupando las ráfagas de cambios.
+    private final PersistenceExecutor persistence = PersistenceExecutor.fromSystemProperties(this::commit);
 
     private User currentUser;
 
@@ -56,50 +71,75 @@ public class MainFrame extends JFrame {
 
         add(mainPanel);
         showLogin();
+
+        // Al cerrar la ventana se consolida el journal en un snapshot completo.
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                checkpoint();
+            }
+        });
+        // También al terminar la JVM por otra vía, para no perder guardados pendientes.
+        Runtime.getRuntime().addShutdownHook(new Thread(this::checkpoint));
     }
 
     /**
-     * Carga los datos desde DataManager.
+     * Carga los datos desde el almacenamiento.
      */
     private void loadData() {
         try {
-            users = DataManager.loadUsers();
-        } catch (IOException | ClassNotFoundException e) {
+            users = storage.loadUsers();
+        } catch (IOException e) {
             System.out.println("No se encontraron usuarios previos. Iniciando con lista vacía.");
             users = new ArrayList<>();
         }
 
         try {
-            learningPaths = DataManager.loadLearningPaths();
-        } catch (IOException | ClassNotFoundException e) {
+            learningPaths = storage.loadLearningPaths(users);
+        } catch (IOException e) {
             System.out.println("No se encontraron Learning Paths previos. Iniciando con lista vacía.");
             learningPaths = new ArrayList<>();
         }
 
         try {
-            progresses = DataManager.loadProgresses();
-        } catch (IOException | ClassNotFoundException e) {
+            // Los progresos referencian a los usuarios y Learning Paths recién cargados.
+            progresses = MappedProgressStore.of(storage.loadProgresses(users, learningPaths));
+        } catch (IOException e) {
             System.out.println("No se encontraron Progresos previos. Iniciando con lista vacía.");
-            progresses = new ArrayList<>();
+            progresses = new MappedProgressStore();
         }
+
+        // El histograma se registra antes de aplicar el journal para que también lo actualice.
+        histogram = storage.loadHistogram(progresses);
+        progresses.addProgressListener(histogram);
+
+        try {
+            int replayed = storage.replayJournal(users, learningPaths, progresses);
+            if (replayed > 0) {
+                System.out.println("Se aplicaron " + replayed + " registros del journal.");
+            }
+        } catch (IOException e) {
+            System.out.println("No se pudo aplicar el journal: " + e.getMessage());
+        }
+
+        repository = new Repository(users, learningPaths, progresses);
+
+        // El listener se registra también en los progresos que se decodifiquen más adelante.
+        progresses.addProgressListener(storage.getChangeListener());
     }
 
     /**
-     * Recarga los datos desde DataManager.
+     * Recarga los datos desde el almacenamiento.
      */
     public void reloadAllData() {
+        // Los guardados pendientes deben escribirse antes de reemplazar los datos en memoria.
+        persistence.drain();
         loadData();
         
         System.out.println("Datos recargados exitosamente.");
         if (currentUser != null) {
-            User newCurrent = null;
-            for (User u : users) {
-                if (u.getUsername().equals(currentUser.getUsername()) && u.getRole() == currentUser.getRole()) {
-                    newCurrent = u;
-                    break;
-                }
-            }
-            currentUser = newCurrent;
+            User newCurrent = repository.findUser(currentUser.getUsername());
+            currentUser = newCurrent != null && newCurrent.getRole() == currentUser.getRole() ? newCurrent : null;
         }
 
         // Actualizar la vista según el usuario actual
@@ -143,12 +183,11 @@ public class MainFrame extends JFrame {
      * @return True si la autenticación es exitosa, false en caso contrario.
      */
     public boolean authenticate(String username, String password) {
-        if (users == null) return false;
-        for (User u : users) {
-            if (u.getUsername().equals(username) && u.authenticate(password)) {
-                currentUser = u;
-                return true;
-            }
+        if (repository == null) return false;
+        User u = repository.authenticate(username, password);
+        if (u != null) {
+            currentUser = u;
+            return true;
         }
         return false;
     }
@@ -168,12 +207,11 @@ public class MainFrame extends JFrame {
      * @throws Exception Si el nombre de usuario ya existe.
      */
     public void registerUser(User newUser) throws Exception {
-        for (User u : users) {
-            if (u.getUsername().equals(newUser.getUsername())) {
-                throw new Exception("El nombre de usuario ya existe.");
-            }
+        if (repository.findUser(newUser.getUsername()) != null) {
+            throw new Exception("El nombre de usuario ya existe.");
         }
-        users.add(newUser);
+        repository.addUser(newUser);
+        storage.appendUser(newUser);
         saveAllData();
     }
 
@@ -184,7 +222,23 @@ public class MainFrame extends JFrame {
      * @throws Exception Si ocurre un error al guardar los datos.
      */
     public void addLearningPath(LearningPath lp) throws Exception {
-        learningPaths.add(lp);
+        repository.addLearningPath(lp);
+        storage.appendLearningPath(lp);
+        saveAllData();
+    }
+
+    /**
+     * Registra la modificación de un Learning Path existente (por ejemplo, al añadir actividades).
+     *
+     * @param lp El Learning Path modificado.
+     */
+    public void updateLearningPath(LearningPath lp) {
+        lp.markDirty();
+        try {
+            storage.appendLearningPath(lp);
+        } catch (IOException e) {
+            System.out.println("Error al guardar datos: " + e.getMessage());
+        }
         saveAllData();
     }
 
@@ -195,7 +249,8 @@ public class MainFrame extends JFrame {
      * @throws Exception Si ocurre un error al guardar los datos.
      */
     public void addProgress(Progress p) throws Exception {
-        progresses.add(p);
+        repository.addProgress(p);
+        storage.appendEnrollment(p);
         saveAllData();
     }
 
@@ -207,45 +262,91 @@ public class MainFrame extends JFrame {
      * @return El objeto Progress si se encuentra, null en caso contrario.
      */
     public Progress findProgress(Student s, LearningPath lp) {
-        for (Progress p : progresses) {
-            if (p.getStudent().equals(s) && p.getLearningPath().equals(lp)) {
-                return p;
-            }
-        }
-        return null;
+        return repository.findProgress(s, lp);
+    }
+
+    /**
+     * Indica si un estudiante está inscrito en un Learning Path.
+     *
+     * @param s  El estudiante.
+     * @param lp El Learning Path.
+     * @return True si existe el Progress correspondiente.
+     */
+    public boolean isEnrolled(Student s, LearningPath lp) {
+        return repository.isEnrolled(s, lp);
+    }
+
+    /**
+     * Obtiene los Learning Paths creados por un profesor.
+     *
+     * @param t El profesor.
+     * @return Los Learning Paths del profesor.
+     */
+    public List<LearningPath> getLearningPathsOf(Teacher t) {
+        return repository.getLearningPathsOf(t);
+    }
+
+    /**
+     * Obtiene los progresos de un estudiante sin decodificar los de los demás.
+     *
+     * @param s El estudiante.
+     * @return Los progresos del estudiante.
+     */
+    public List<Progress> getProgressesOf(Student s) {
+        return repository.getProgressesOf(s);
+    }
+
+    /**
+     * Obtiene los progresos de los estudiantes inscritos en un Learning Path.
+     *
+     * @param lp El Learning Path.
+     * @return Los progresos del Learning Path.
+     */
+    public List<Progress> getProgressesOf(LearningPath lp) {
+        return repository.getProgressesOf(lp);
     }
+    /**
+     * Obtiene la cantidad de actividades finalizadas (COMPLETED o SUBMITTED) por día de un año.
+     * Se sirve desde el histograma preagregado, sin recorrer los progresos.
+     *
+     * @param year El año.
+     * @return Mapa día → cantidad de actividades finalizadas.
+     */
     public Map<LocalDate, Integer> getDailyActivityCountForYear(int year) {
-        Map<LocalDate, Integer> dailyCount = new HashMap<>();
-
-        // Recorremos todos los progresos
-        for (Progress pr : progresses) {
-            // Recorremos todas las actividades y sus estados
-            for (Map.Entry<Activity, ActivityStatus> entry : pr.getActivityStatuses().entrySet()) {
-                ActivityStatus status = entry.getValue();
-
-                // Consideramos actividades COMPLETED o SUBMITTED como finalizadas
-                if (status == ActivityStatus.COMPLETED || status == ActivityStatus.SUBMITTED) {
-                    LocalDate completionDate = pr.getCompletionDate(entry.getKey());
-                    if (completionDate != null && completionDate.getYear() == year) {
-                        dailyCount.put(completionDate, dailyCount.getOrDefault(completionDate, 0) + 1);
-                    }
-                }
-            }
-        }
+        return histogram.getDailyCounts(year);
+    }
 
-        return dailyCount;
+    /**
+     * Igual que {@link #getDailyActivityCountForYear(int)}, limitado a los Learning Paths de un profesor.
+     */
+    public Map<LocalDate, Integer> getDailyActivityCountForYear(Teacher teacher, int year) {
+        return histogram.getDailyCountsForTeacher(teacher.getUsername(), year);
     }
 
 
     /**
-     * Guarda todos los datos utilizando DataManager.
+     * Solicita confirmar los datos. Las mutaciones ya están en el journal; la confirmación
+     * (y el snapshot completo periódico) se hace en segundo plano para no bloquear la interfaz.
      */
     public void saveAllData() {
+        persistence.requestFlush();
+    }
+
+    // Corre en el hilo de persistencia: guarda una instantánea, no las listas que la interfaz sigue modificando.
+    private void commit() throws IOException {
+        RepositorySnapshot snapshot = repository.snapshot();
+        storage.commit(snapshot.getUsers(), snapshot.getLearningPaths(), snapshot.getProgresses());
+        System.out.println("Datos guardados exitosamente.");
+    }
+
+    /**
+     * Escribe los guardados pendientes, luego un snapshot completo y vacía el journal.
+     */
+    public synchronized void checkpoint() {
+        persistence.close();
         try {
-            DataManager.saveUsers(users);
-            DataManager.saveLearningPaths(learningPaths);
-            DataManager.saveProgresses(progresses);
-            System.out.println("Datos guardados exitosamente.");
+            RepositorySnapshot snapshot = repository.snapshot();
+            storage.saveSnapshot(snapshot.getUsers(), snapshot.getLearningPaths(), snapshot.getProgresses());
         } catch (IOException e) {
             System.out.println("Error al guardar datos: " + e.getMessage());
         }
@@ -257,16 +358,20 @@ public class MainFrame extends JFrame {
     }
 
     public List<User> getUsers() {
-        return users;
+        return repository.getUsers();
     }
 
     public List<LearningPath> getLearningPaths() {
-        return learningPaths;
+        return repository.getLearningPaths();
     }
     
 
     public List<Progress> getProgresses() {
-        return progresses;
+        return repository.getProgresses();
+    }
+
+    public Repository getRepository() {
+        return repository;
     }
 
     public static void main(String[] args) {
@@ -5,6 +5,9 @@ import src.com.learningpath.users.User;
 import src.com.learningpath.*;
 import src.com.learningpath.activities.*;
 import src.com.learningpath.activities.OpenEndedResponse;
+import src.com.learningpath.grading.GradingResult;
+import src.com.learningpath.grading.QuizGrader;
+import src.com.learningpath.grading.QuizSubmission;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -148,18 +151,10 @@ public class StudentPanel extends JPanel {
     private void loadAvailableLearningPaths() {
         availableLPTableModel.setRowCount(0);
         Student student = (Student) currentUser;
-        List<LearningPath> enrolledLPs = new ArrayList<>();
 
-        // Obtener los Learning Paths en los que el estudiante ya está inscrito
-        for (Progress p : mainFrame.getProgresses()) {
-            if (p.getStudent().equals(student)) {
-                enrolledLPs.add(p.getLearningPath());
-            }
-        }
-
-        // Listar los Learning Paths no inscritos
+        // Listar los Learning Paths no inscritos (consulta al índice, sin recorrer los progresos)
         for (LearningPath lp : mainFrame.getLearningPaths()) {
-            if (!enrolledLPs.contains(lp)) {
+            if (!mainFrame.isEnrolled(student, lp)) {
                 availableLPTableModel.addRow(new Object[]{
                         lp.getTitle(),
                         lp.getDescription(),
@@ -210,18 +205,16 @@ public class StudentPanel extends JPanel {
         myLPTableModel.setRowCount(0);
         Student student = (Student) currentUser;
 
-        for (Progress p : mainFrame.getProgresses()) {
-            if (p.getStudent().equals(student)) {
-                LearningPath lp = p.getLearningPath();
-                double progress = p.calculateCompletionPercentage();
-                myLPTableModel.addRow(new Object[]{
-                        lp.getTitle(),
-                        lp.getDescription(),
-                        lp.getDifficultyLevel(),
-                        lp.getDuration(),
-                        String.format("%.2f", progress)
-                });
-            }
+        for (Progress p : mainFrame.getProgressesOf(student)) {
+            LearningPath lp = p.getLearningPath();
+            double progress = p.calculateCompletionPercentage();
+            myLPTableModel.addRow(new Object[]{
+                    lp.getTitle(),
+                    lp.getDescription(),
+                    lp.getDifficultyLevel(),
+                    lp.getDuration(),
+                    String.format("%.2f", progress)
+            });
         }
     }
 
@@ -410,18 +403,11 @@ public class StudentPanel extends JPanel {
                 }
             }
 
-            progress.saveQuizResponses(quiz, selectedOptions);
-
-            // Evaluar respuestas
-            int correct = 0;
-            for (int i = 0; i < questions.size(); i++) {
-                if (selectedOptions.get(i) == questions.get(i).getCorrectOptionIndex()) {
-                    correct++;
-                }
-            }
-
-            double score = ((double) correct / questions.size()) * 100.0;
-            boolean passed = score >= quiz.getPassingScore();
+            // Evaluar respuestas y guardarlas junto con el estado del quiz
+            GradingResult grade = QuizGrader.gradeAndApply(List.of(QuizSubmission.of(progress, quiz, selectedOptions)));
+            int correct = grade.getCorrectCount(0);
+            double score = grade.getScore(0);
+            boolean passed = grade.isPassed(0);
 
             String message = "Has obtenido " + correct + " de " + questions.size() + " respuestas correctas.\n" +
                     "Puntuación: " + String.format("%.2f", score) + "%.\n" +
@@ -429,15 +415,9 @@ public class StudentPanel extends JPanel {
 
             JOptionPane.showMessageDialog(this, message, "Resultado del Quiz", JOptionPane.INFORMATION_MESSAGE);
 
-            if (passed) {
-                progress.updateActivityStatus(quiz, ActivityStatus.COMPLETED);
-            } else {
-                progress.updateActivityStatus(quiz, ActivityStatus.FAILED);
-            }
-
             mainFrame.saveAllData();
-            mainFrame.reloadAllData();
-            this.updateData(mainFrame.getCurrentUser());// Vuelves a cargar datos desde DataManager
+            // El estado en memoria ya es el vigente: basta con refrescar la vista.
+            this.updateData(mainFrame.getCurrentUser());
            
 			 // Actualizas la vista del profesor
             
@@ -6,6 +6,7 @@ import src.com.learningpath.users.Teacher;
 import src.com.learningpath.users.Role;
 import src.com.learningpath.*;
 import src.com.learningpath.activities.*;
+import src.com.learningpath.grading.AnswerKey;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -88,15 +89,13 @@ public class TeacherPanel extends JPanel {
         // Si no es profesor, igual puede tener LPs creados (teóricamente), o se deja vacío.
         if (currentUser.getRole() == Role.TEACHER) {
             Teacher t = (Teacher) currentUser;
-            for (LearningPath lp : mainFrame.getLearningPaths()) {
-                if (lp.getCreator().equals(t)) {
-                    myLPTableModel.addRow(new Object[]{
-                            lp.getTitle(),
-                            lp.getDescription(),
-                            lp.getDifficultyLevel(),
-                            lp.getDuration()
-                    });
-                }
+            for (LearningPath lp : mainFrame.getLearningPathsOf(t)) {
+                myLPTableModel.addRow(new Object[]{
+                        lp.getTitle(),
+                        lp.getDescription(),
+                        lp.getDifficultyLevel(),
+                        lp.getDuration()
+                });
             }
         } else {
             // Si el usuario no es profesor, no cargamos LP propios. (O si se quiere, se pueden mostrar todos)
@@ -176,9 +175,7 @@ public class TeacherPanel extends JPanel {
             Teacher t = (Teacher) currentUser;
             LearningPath lp = new LearningPath(title, description, objectives, difficulty, t);
             try {
-                mainFrame.getLearningPaths().add(lp);
-                mainFrame.saveAllData();
-                mainFrame.reloadAllData();
+                mainFrame.addLearningPath(lp);
                 this.updateData(mainFrame.getCurrentUser());
 
                 loadMyLearningPaths();
@@ -302,8 +299,7 @@ public class TeacherPanel extends JPanel {
 
             Quiz quiz = new Quiz(title, desc, obj, diff, dur, mandatory, questions, passingScore);
             selectedLP.addActivity(quiz);
-            mainFrame.saveAllData();
-            mainFrame.reloadAllData();
+            mainFrame.updateLearningPath(selectedLP);
             this.updateData(mainFrame.getCurrentUser());
 
             JOptionPane.showMessageDialog(dialog, "Quiz creado exitosamente en el Learning Path: " + selectedLP.getTitle());
@@ -419,8 +415,7 @@ public class TeacherPanel extends JPanel {
                 survey.addSurveyQuestion(sq);
             }
             selectedLP.addActivity(survey);
-            mainFrame.saveAllData();
-            mainFrame.reloadAllData();
+            mainFrame.updateLearningPath(selectedLP);
             this.updateData(mainFrame.getCurrentUser());
 
             JOptionPane.showMessageDialog(dialog, "Survey creado exitosamente en el Learning Path: " + selectedLP.getTitle());
@@ -563,8 +558,7 @@ public class TeacherPanel extends JPanel {
             }
 
             selectedLP.addActivity(exam);
-            mainFrame.saveAllData();
-            mainFrame.reloadAllData();
+            mainFrame.updateLearningPath(selectedLP);
             this.updateData(mainFrame.getCurrentUser());
 
             JOptionPane.showMessageDialog(dialog, "Examen de Preguntas Abiertas creado exitosamente en el Learning Path: " + selectedLP.getTitle());
@@ -674,8 +668,7 @@ public class TeacherPanel extends JPanel {
 
             ResourceReview rr = new ResourceReview(title, desc, obj, diff, dur, mandatory, resourceLink, instructions);
             selectedLP.addActivity(rr);
-            mainFrame.saveAllData();
-            mainFrame.reloadAllData();
+            mainFrame.updateLearningPath(selectedLP);
             this.updateData(mainFrame.getCurrentUser());
 
             JOptionPane.showMessageDialog(dialog, "Resource Review creado exitosamente en el Learning Path: " + selectedLP.getTitle());
@@ -728,10 +721,8 @@ public class TeacherPanel extends JPanel {
             studentListModel.clear();
             LearningPath selectedLP = (LearningPath) lpComboBox.getSelectedItem();
             if (selectedLP != null) {
-                for (Progress pr : mainFrame.getProgresses()) {
-                    if (pr.getLearningPath().equals(selectedLP)) {
-                        studentListModel.addElement(pr.getStudent());
-                    }
+                for (Progress pr : mainFrame.getProgressesOf(selectedLP)) {
+                    studentListModel.addElement(pr.getStudent());
                 }
             }
         });
@@ -852,13 +843,7 @@ public class TeacherPanel extends JPanel {
     }
 
     private List<LearningPath> getTeacherLPs(Teacher t) {
-        List<LearningPath> teacherLPs = new ArrayList<>();
-        for (LearningPath lp : mainFrame.getLearningPaths()) {
-            if (lp.getCreator().equals(t)) {
-                teacherLPs.add(lp);
-            }
-        }
-        return teacherLPs;
+        return mainFrame.getLearningPathsOf(t);
     }
 
     private JComboBox<LearningPath> createLPComboBox(List<LearningPath> teacherLPs) {
@@ -987,14 +972,8 @@ public class TeacherPanel extends JPanel {
     private double calculateQuizScore(Quiz quiz, Progress pr) {
         List<Integer> studentAnswers = pr.getQuizResponses(quiz);
         if (studentAnswers == null) return 0.0;
-        List<Question> qs = quiz.getQuestions();
-        int correct = 0;
-        for (int i = 0; i < qs.size(); i++) {
-            if (studentAnswers.get(i) == qs.get(i).getCorrectOptionIndex()) {
-                correct++;
-            }
-        }
-        return ((double) correct / qs.size()) * 100.0;
+        AnswerKey key = AnswerKey.of(quiz);
+        return key.score(key.countCorrect(studentAnswers));
     }
 }
 
@@ -0,0 +1,94 @@
+package src.com.learningpath.main;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.data.DataManager;
+import src.com.learningpath.data.PersistenceExecutor;
+import src.com.learningpath.data.Storage;
+import src.com.learningpath.data.codec.MappedProgressStore;
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.repository.RepositorySnapshot;
+import src.com.learningpath.server.ApiServer;
+import src.com.learningpath.users.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inicia la API HTTP/JSON de {@link ApiServer} sobre la carpeta de datos, sin interfaz. Usa
+ * el almacenamiento de la propiedad {@value DataManager#STORAGE_PROPERTY}; al cerrar el
+ * proceso escribe los guardados pendientes y un snapshot completo, como la consola.
+ * <p>
+ * Uso: {@code ApiServerTool <puerto> [carpeta de datos]}
+ */
+public class ApiServerTool {
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Uso: ApiServerTool <puerto> [carpeta de datos]");
+            System.exit(2);
+        }
+        int port;
+        try {
+            port = Integer.parseInt(args[0]);
+        } catch (NumberFormatException e) {
+            System.out.println("Puerto no válido: " + args[0]);
+            System.exit(2);
+            return;
+        }
+        if (args.length == 2) {
+            DataManager.setDataFolder(args[1].endsWith("/") ? args[1] : args[1] + "/");
+        }
+
+        Storage storage = DataManager.openStorage();
+        List<User> users;
+        List<LearningPath> learningPaths;
+        MappedProgressStore progresses;
+        try {
+            users = storage.loadUsers();
+            learningPaths = storage.loadLearningPaths(users);
+            progresses = MappedProgressStore.of(storage.loadProgresses(users, learningPaths));
+        } catch (Exception e) {
+            users = new ArrayList<>();
+            learningPaths = new ArrayList<>();
+            progresses = new MappedProgressStore();
+            System.out.println("No se encontraron datos previos. Se iniciará con datos vacíos.");
+        }
+        // El histograma de actividad se actualiza también con las mutaciones del journal.
+        progresses.addProgressListener(storage.loadHistogram(progresses));
+        try {
+            storage.replayJournal(users, learningPaths, progresses);
+        } catch (IOException e) {
+            System.out.println("No se pudo aplicar el journal: " + e.getMessage());
+        }
+        Repository repository = new Repository(users, learningPaths, progresses);
+        progresses.addProgressListener(storage.getChangeListener());
+
+        PersistenceExecutor persistence = PersistenceExecutor.fromSystemProperties(() -> {
+            // Corre en el hilo de persistencia: guarda una instantánea, no las listas que la API sigue modificando.
+            RepositorySnapshot snapshot = repository.snapshot();
+            storage.commit(snapshot.getUsers(), snapshot.getLearningPaths(), snapshot.getProgresses());
+        });
+        ApiServer server = new ApiServer(repository, storage, persistence);
+
+        // Al cerrar: dejar de atender, escribir los guardados pendientes y consolidar un snapshot completo
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            persistence.close();
+            try {
+                RepositorySnapshot snapshot = repository.snapshot();
+                storage.saveSnapshot(snapshot.getUsers(), snapshot.getLearningPaths(), snapshot.getProgresses());
+                storage.close();
+            } catch (IOException e) {
+                System.out.println("Error al guardar datos: " + e.getMessage());
+            }
+        }));
+
+        try {
+            server.start(port);
+        } catch (IOException e) {
+            System.out.println("No se pudo iniciar el servidor: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println("API de Learning Paths escuchando en el puerto " + server.getPort() + ".");
+    }
+}
@@ -1,12 +1,15 @@
 package src.com.learningpath.main;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Scanner;
 import java.util.Set;
 
@@ -25,7 +28,18 @@ import src.com.learningpath.activities.ResourceReview;
 import src.com.learningpath.activities.Survey;
 import src.com.learningpath.activities.SurveyQuestion;
 import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.analytics.QuestionStatistics;
 import src.com.learningpath.data.DataManager;
+import src.com.learningpath.data.PersistenceExecutor;
+import src.com.learningpath.data.Storage;
+import src.com.learningpath.data.codec.MappedProgressStore;
+import src.com.learningpath.grading.AnswerKey;
+import src.com.learningpath.grading.GradingResult;
+import src.com.learningpath.grading.QuizGrader;
+import src.com.learningpath.grading.QuizRegrader;
+import src.com.learningpath.grading.QuizSubmission;
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.repository.RepositorySnapshot;
 import src.com.learningpath.users.Student;
 import src.com.learningpath.users.Teacher;
 import src.com.learningpath.users.User;
@@ -37,9 +51,16 @@ public class ConsoleInterface {
     private Scanner scanner;
     private List<User> users;
     private List<LearningPath> learningPaths;
-    private List<Progress> progresses;
+    private MappedProgressStore progresses;
+    private Repository repository;
     private User currentUser;
 
+    // Archivos o base de datos, según la propiedad learningpath.storage.
+    private final Storage storage = DataManager.openStorage();
+
+    // Los guardados se hacen en segundo plano, agrupando las ráfagas de cambios.
+    private final PersistenceExecutor persistence = PersistenceExecutor.fromSystemProperties(this::commit);
+
     /**
      * Constructor de la clase ConsoleInterface.
      * Inicializa los componentes y carga los datos.
@@ -48,18 +69,28 @@ public class ConsoleInterface {
         scanner = new Scanner(System.in);
         // Cargar datos
         try {
-            users = DataManager.loadUsers();
-            learningPaths = DataManager.loadLearningPaths();
-            progresses = DataManager.loadProgresses();
+            users = storage.loadUsers();
+            learningPaths = storage.loadLearningPaths(users);
+            progresses = MappedProgressStore.of(storage.loadProgresses(users, learningPaths));
         } catch (Exception e) {
             users = new ArrayList<>();
             learningPaths = new ArrayList<>();
-            progresses = new ArrayList<>();
+            progresses = new MappedProgressStore();
             System.out.println("No se encontraron datos previos. Se iniciará con datos vacíos.");
         }
+        // El histograma de actividad se actualiza también con las mutaciones del journal.
+        progresses.addProgressListener(storage.loadHistogram(progresses));
+        try {
+            storage.replayJournal(users, learningPaths, progresses);
+        } catch (IOException e) {
+            System.out.println("No se pudo aplicar el journal: " + e.getMessage());
+        }
+        repository = new Repository(users, learningPaths, progresses);
+        progresses.addProgressListener(storage.getChangeListener());
 
-        // Registrar el shutdown hook para guardar datos al cerrar la aplicación
-        Runtime.getRuntime().addShutdownHook(new Thread(this::saveData));
+        // Registrar el shutdown hook para escribir los guardados pendientes y consolidar un
+        // snapshot completo al cerrar la aplicación
+        Runtime.getRuntime().addShutdownHook(new Thread(this::checkpoint));
     }
 
     /**
@@ -96,20 +127,46 @@ public class ConsoleInterface {
                 }
             }
         }
-        // Guardar datos antes de salir de forma normal
-        saveData();
+        // Consolidar un snapshot completo antes de salir de forma normal
+        checkpoint();
         System.out.println("Hasta luego.");
     }
 
     /**
-     * Guarda todos los datos utilizando DataManager.
+     * Solicita confirmar los datos. Las mutaciones ya están en el journal; la confirmación
+     * (y el snapshot completo periódico) se hace en segundo plano.
      */
     private void saveData() {
+        persistence.requestFlush();
+        System.out.println("Datos guardados exitosamente.");
+    }
+
+    // Corre en el hilo de persistencia: guarda una instantánea, no las listas que el menú sigue modificando.
+    private void commit() throws IOException {
+        RepositorySnapshot snapshot = repository.snapshot();
+        storage.commit(snapshot.getUsers(), snapshot.getLearningPaths(), snapshot.getProgresses());
+    }
+
+    /**
+     * Escribe los guardados pendientes, luego un snapshot completo y vacía el journal.
+     */
+    private synchronized void checkpoint() {
+        persistence.close();
         try {
-            DataManager.saveUsers(users);
-            DataManager.saveLearningPaths(learningPaths);
-            DataManager.saveProgresses(progresses);
-            System.out.println("Datos guardados exitosamente.");
+            RepositorySnapshot snapshot = repository.snapshot();
+            storage.saveSnapshot(snapshot.getUsers(), snapshot.getLearningPaths(), snapshot.getProgresses());
+        } catch (IOException e) {
+            System.out.println("Error al guardar datos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Anexa al journal el alta o modificación de un Learning Path.
+     */
+    private void journalLearningPath(LearningPath lp) {
+        lp.markDirty();
+        try {
+            storage.appendLearningPath(lp);
         } catch (IOException e) {
             System.out.println("Error al guardar datos: " + e.getMessage());
         }
@@ -123,11 +180,9 @@ public class ConsoleInterface {
         String username = scanner.nextLine();
         System.out.print("Contraseña: ");
         String password = scanner.nextLine();
-        Optional<User> userOpt = users.stream()
-                .filter(u -> u.getUsername().equals(username))
-                .findFirst();
-        if (userOpt.isPresent() && userOpt.get().authenticate(password)) {
-            currentUser = userOpt.get();
+        User user = repository.authenticate(username, password);
+        if (user != null) {
+            currentUser = user;
             System.out.println("Bienvenido, " + currentUser.getName() + " (" + currentUser.getRole() + ")");
         } else {
             System.out.println("Credenciales incorrectas.");
@@ -140,7 +195,7 @@ public class ConsoleInterface {
     private void register() {
         System.out.print("Nombre de usuario: ");
         String username = scanner.nextLine();
-        if (users.stream().anyMatch(u -> u.getUsername().equals(username))) {
+        if (repository.findUser(username) != null) {
             System.out.println("El nombre de usuario ya existe. Por favor, elija otro.");
             return;
         }
@@ -165,8 +220,13 @@ public class ConsoleInterface {
             System.out.println("Rol no válido.");
             return;
         }
-        users.add(newUser);
+        repository.addUser(newUser);
         // Guardar datos inmediatamente después de registrar un nuevo usuario
+        try {
+            storage.appendUser(newUser);
+        } catch (IOException e) {
+            System.out.println("Error al guardar datos: " + e.getMessage());
+        }
         saveData();
         System.out.println("Usuario registrado exitosamente. Ahora puede iniciar sesión.");
     }
@@ -186,7 +246,9 @@ public class ConsoleInterface {
             System.out.println("5. Ver Estudiantes Inscritos");
             System.out.println("6. Ver Respuestas a Encuestas");
             System.out.println("7. Ver Respuestas a Exámenes de Preguntas Abiertas");
-            System.out.println("8. Cerrar sesión");
+            System.out.println("8. Corregir Respuesta de un Quiz");
+            System.out.println("9. Ver Estadísticas de Preguntas de Quizzes");
+            System.out.println("10. Cerrar sesión");
             System.out.print("Seleccione una opción: ");
             String choice = scanner.nextLine();
             switch (choice) {
@@ -212,6 +274,12 @@ public class ConsoleInterface {
                     viewOpenEndedExamResponses(teacher);
                     break;
                 case "8":
+                    correctQuizAnswer(teacher);
+                    break;
+                case "9":
+                    viewQuestionStatistics(teacher);
+                    break;
+                case "10":
                     currentUser = null;
                     back = true;
                     break;
@@ -293,8 +361,9 @@ public class ConsoleInterface {
             }
         }
 
-        learningPaths.add(newLP);
+        repository.addLearningPath(newLP);
         // Guardar datos después de crear un Learning Path
+        journalLearningPath(newLP);
         saveData();
         System.out.println("Learning Path creado exitosamente.");
     }
@@ -464,12 +533,7 @@ public class ConsoleInterface {
      */
     private void viewLearningPaths(Teacher teacher) {
         // Filtrar los Learning Paths creados por el profesor actual
-        List<LearningPath> teacherLPs = new ArrayList<>();
-        for (LearningPath lp : learningPaths) {
-            if (lp.getCreator().equals(teacher)) {
-                teacherLPs.add(lp);
-            }
-        }
+        List<LearningPath> teacherLPs = repository.getLearningPathsOf(teacher);
 
         // Verificar si el profesor tiene Learning Paths creados
         if (teacherLPs.isEmpty()) {
@@ -552,9 +616,10 @@ public class ConsoleInterface {
         LearningPath selectedLP = otherLearningPaths.get(choice - 1);
         try {
             LearningPath copiedLP = new LearningPath(selectedLP, teacher);
-            learningPaths.add(copiedLP);
+            repository.addLearningPath(copiedLP);
 
             // Guardar datos después de copiar
+            journalLearningPath(copiedLP);
             saveData();
 
             System.out.println("Learning Path copiado exitosamente como: " + copiedLP.getTitle());
@@ -570,12 +635,7 @@ public class ConsoleInterface {
      */
     private void viewEnrolledStudents(Teacher teacher) {
         // Obtener los Learning Paths creados por el profesor
-        List<LearningPath> teacherLPs = new ArrayList<>();
-        for (LearningPath lp : learningPaths) {
-            if (lp.getCreator().equals(teacher)) {
-                teacherLPs.add(lp);
-            }
-        }
+        List<LearningPath> teacherLPs = repository.getLearningPathsOf(teacher);
 
         if (teacherLPs.isEmpty()) {
             System.out.println("No tiene Learning Paths creados.");
@@ -586,11 +646,9 @@ public class ConsoleInterface {
         for (LearningPath lp : teacherLPs) {
             System.out.println("\nLearning Path: " + lp.getTitle());
             boolean hasStudents = false;
-            for (Progress p : progresses) {
-                if (p.getLearningPath().equals(lp)) {
-                    System.out.println("- Estudiante: " + p.getStudent().getName());
-                    hasStudents = true;
-                }
+            for (Progress p : repository.getProgressesOf(lp)) {
+                System.out.println("- Estudiante: " + p.getStudent().getName());
+                hasStudents = true;
             }
             if (!hasStudents) {
                 System.out.println("  No hay estudiantes inscritos.");
@@ -605,12 +663,7 @@ public class ConsoleInterface {
      */
     private void viewSurveyResponses(Teacher teacher) {
         // Obtener los Learning Paths creados por el profesor
-        List<LearningPath> teacherLPs = new ArrayList<>();
-        for (LearningPath lp : learningPaths) {
-            if (lp.getCreator().equals(teacher)) {
-                teacherLPs.add(lp);
-            }
-        }
+        List<LearningPath> teacherLPs = repository.getLearningPathsOf(teacher);
 
         if (teacherLPs.isEmpty()) {
             System.out.println("No tiene Learning Paths creados.");
@@ -650,12 +703,7 @@ public class ConsoleInterface {
      */
     private void viewOpenEndedExamResponses(Teacher teacher) {
         // Obtener los Learning Paths creados por el profesor
-        List<LearningPath> teacherLPs = new ArrayList<>();
-        for (LearningPath lp : learningPaths) {
-            if (lp.getCreator().equals(teacher)) {
-                teacherLPs.add(lp);
-            }
-        }
+        List<LearningPath> teacherLPs = repository.getLearningPathsOf(teacher);
 
         if (teacherLPs.isEmpty()) {
             System.out.println("No tiene Learning Paths creados.");
@@ -686,6 +734,123 @@ public class ConsoleInterface {
         }
     }
 
+    /**
+     * Permite al profesor corregir la opción correcta de una pregunta de un Quiz y
+     * recalificar las entregas de los estudiantes que ya lo respondieron.
+     *
+     * @param teacher El profesor que corrige el Quiz.
+     */
+    private void correctQuizAnswer(Teacher teacher) {
+        List<LearningPath> teacherLPs = repository.getLearningPathsOf(teacher);
+        List<LearningPath> quizPaths = new ArrayList<>();
+        List<Quiz> quizzes = new ArrayList<>();
+        for (LearningPath lp : teacherLPs) {
+            for (Activity activity : lp.getActivities()) {
+                if (activity instanceof Quiz) {
+                    quizPaths.add(lp);
+                    quizzes.add((Quiz) activity);
+                }
+            }
+        }
+        if (quizzes.isEmpty()) {
+            System.out.println("No tiene Quizzes en sus Learning Paths.");
+            return;
+        }
+        System.out.println("\n=== Sus Quizzes ===");
+        for (int i = 0; i < quizzes.size(); i++) {
+            System.out.println((i + 1) + ". " + quizzes.get(i).getTitle() + " (Learning Path: " + quizPaths.get(i).getTitle() + ")");
+        }
+        int quizChoice = readIntegerInput("Seleccione un Quiz (0 para regresar): ", 0, quizzes.size());
+        if (quizChoice == 0) {
+            return;
+        }
+        LearningPath lp = quizPaths.get(quizChoice - 1);
+        Quiz quiz = quizzes.get(quizChoice - 1);
+        List<Question> questions = quiz.getQuestions();
+        if (questions.isEmpty()) {
+            System.out.println("El Quiz no tiene preguntas.");
+            return;
+        }
+        for (int i = 0; i < questions.size(); i++) {
+            System.out.println((i + 1) + ". " + questions.get(i).getQuestionText());
+        }
+        Question question = questions.get(readIntegerInput("Seleccione la pregunta a corregir: ", 1, questions.size()) - 1);
+        String[] options = question.getOptions();
+        for (int i = 0; i < options.length; i++) {
+            System.out.println((i + 1) + ". " + options[i] + (i == question.getCorrectOptionIndex() ? " (actual)" : ""));
+        }
+        int correct = readIntegerInput("Seleccione la opción correcta: ", 1, options.length) - 1;
+        if (correct == question.getCorrectOptionIndex()) {
+            System.out.println("La opción correcta no cambió.");
+            return;
+        }
+        question.setCorrectOptionIndex(correct);
+        journalLearningPath(lp);
+
+        // Recalificar solo a los estudiantes que respondieron este Quiz
+        QuizRegrader.Result result = QuizRegrader.regrade(repository, lp, quiz);
+        saveData();
+        System.out.println("Se recalificaron " + result.getRegradedCount() + " entregas; "
+                + result.getChangedCount() + " cambiaron de estado.");
+    }
+
+    /**
+     * Muestra, para cada pregunta de los Quizzes del profesor, el porcentaje de aciertos, el
+     * índice de discriminación y cuántos estudiantes eligieron cada opción, y permite
+     * exportarlo a CSV.
+     *
+     * @param teacher El profesor que revisa sus Quizzes.
+     */
+    private void viewQuestionStatistics(Teacher teacher) {
+        List<LearningPath> teacherLPs = repository.getLearningPathsOf(teacher);
+        if (teacherLPs.isEmpty()) {
+            System.out.println("No tiene Learning Paths creados.");
+            return;
+        }
+        QuestionStatistics statistics = repository.getQuestionStatistics();
+        for (LearningPath lp : teacherLPs) {
+            System.out.println("\n=== Estadísticas de Quizzes en Learning Path: " + lp.getTitle() + " ===");
+            for (Activity activity : lp.getActivities()) {
+                if (!(activity instanceof Quiz)) {
+                    continue;
+                }
+                Quiz quiz = (Quiz) activity;
+                int respondents = statistics.getRespondentCount(lp, quiz);
+                System.out.println("\n  Quiz: " + quiz.getTitle() + " (" + respondents + " estudiantes respondieron)");
+                if (respondents == 0) {
+                    continue;
+                }
+                List<Question> questions = quiz.getQuestions();
+                for (QuestionStatistics.Item item : statistics.getItems(lp, quiz)) {
+                    Question question = questions.get(item.getQuestionIndex());
+                    double discrimination = item.getDiscrimination();
+                    System.out.println("    Pregunta " + (item.getQuestionIndex() + 1) + ": " + question.getQuestionText());
+                    System.out.printf("      Aciertos: %.1f%%, discriminación: %s%n", item.getPercentCorrect(),
+                            Double.isNaN(discrimination) ? "N/A" : String.format("%.2f", discrimination));
+                    int[] counts = item.getOptionCounts();
+                    for (int o = 0; o < counts.length; o++) {
+                        System.out.println("      " + (o + 1) + ". " + question.getOptions()[o] + ": " + counts[o]
+                                + (o == item.getCorrectOption() ? " (correcta)" : ""));
+                    }
+                    if (item.getUnanswered() > 0) {
+                        System.out.println("      Sin responder: " + item.getUnanswered());
+                    }
+                }
+            }
+        }
+
+        if (readBooleanInput("¿Exportar las estadísticas a CSV? (s/n): ")) {
+            System.out.print("Nombre del archivo: ");
+            String fileName = scanner.nextLine();
+            try (Writer out = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8)) {
+                statistics.exportCsv(teacherLPs, out);
+                System.out.println("Estadísticas exportadas a " + fileName);
+            } catch (IOException e) {
+                System.out.println("Error al exportar las estadísticas: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Menú específico para estudiantes.
      */
@@ -724,11 +889,7 @@ public class ConsoleInterface {
     private void enrollInLearningPath(Student student) {
         List<LearningPath> availableLPs = new ArrayList<>(learningPaths);
         // Excluir Learning Paths en los que ya está inscrito
-        for (Progress p : progresses) {
-            if (p.getStudent().equals(student)) {
-                availableLPs.remove(p.getLearningPath());
-            }
-        }
+        availableLPs.removeIf(lp -> repository.isEnrolled(student, lp));
         if (availableLPs.isEmpty()) {
             System.out.println("No hay Learning Paths disponibles para inscribirse.");
             return;
@@ -749,8 +910,13 @@ public class ConsoleInterface {
         }
         LearningPath selectedLP = availableLPs.get(choice - 1);
         Progress progress = new Progress(student, selectedLP);
-        progresses.add(progress);
+        repository.addProgress(progress);
         // Guardar datos
+        try {
+            storage.appendEnrollment(progress);
+        } catch (IOException e) {
+            System.out.println("Error al guardar datos: " + e.getMessage());
+        }
         saveData();
         System.out.println("Inscrito en " + selectedLP.getTitle());
     }
@@ -761,12 +927,7 @@ public class ConsoleInterface {
      * @param student El estudiante cuyo progreso se está visualizando.
      */
     private void viewMyLearningPaths(Student student) {
-        List<Progress> myProgresses = new ArrayList<>();
-        for (Progress p : progresses) {
-            if (p.getStudent().equals(student)) {
-                myProgresses.add(p);
-            }
-        }
+        List<Progress> myProgresses = repository.getProgressesOf(student);
         if (myProgresses.isEmpty()) {
             System.out.println("No está inscrito en ningún Learning Path.");
             return;
@@ -846,6 +1007,7 @@ public class ConsoleInterface {
         // Añadir la respuesta al progreso
         progress.addSurveyResponse(survey, response);
         survey.addSurveyResponse(response);
+        journalLearningPath(progress.getLearningPath());
 
         // Marcar la encuesta como completada
         progress.updateActivityStatus(survey, ActivityStatus.COMPLETED);
@@ -881,6 +1043,7 @@ public class ConsoleInterface {
         // Añadir la respuesta al progreso
         progress.addExamResponse(exam, response);
         exam.addExamResponse(response);
+        journalLearningPath(progress.getLearningPath());
 
         // Marcar el examen como entregado
         progress.updateActivityStatus(exam, ActivityStatus.SUBMITTED);
@@ -922,30 +1085,30 @@ public class ConsoleInterface {
                 break;
             case "Quiz":
                 Quiz quiz = (Quiz) activity;
-                int correctAnswers = 0;
+                AnswerKey key = AnswerKey.of(quiz);
                 List<Question> questions = quiz.getQuestions();
-                for (Question q : questions) {
-                    System.out.println("\nPregunta: " + q.getQuestionText());
-                    String[] options = q.getOptions();
+                int[] chosen = new int[questions.size()];
+                for (int q = 0; q < questions.size(); q++) {
+                    Question question = questions.get(q);
+                    System.out.println("\nPregunta: " + question.getQuestionText());
+                    String[] options = question.getOptions();
                     for (int i = 0; i < options.length; i++) {
                         System.out.println((i + 1) + ". " + options[i]);
                     }
-                    int answer = readIntegerInput("Seleccione una opción: ", 1, options.length) - 1;
-                    if (answer == q.getCorrectOptionIndex()) {
-                        correctAnswers++;
+                    chosen[q] = readIntegerInput("Seleccione una opción: ", 1, options.length) - 1;
+                    if (key.isCorrect(q, chosen[q])) {
                         System.out.println("Correcto!");
                     } else {
-                        System.out.println("Incorrecto. " + q.getExplanation());
+                        System.out.println("Incorrecto. " + question.getExplanation());
                     }
                 }
-                double score = (double) correctAnswers / questions.size() * 100;
+                // Calificar y guardar las respuestas y el estado con el motor de calificación
+                GradingResult grade = QuizGrader.gradeAndApply(List.of(new QuizSubmission(progress, quiz, chosen)));
                 System.out.println("\n=== Resultado del Quiz ===");
-                System.out.println("Su puntuación: " + String.format("%.2f", score) + "%");
-                if (score >= quiz.getPassingScore()) {
-                    progress.updateActivityStatus(activity, ActivityStatus.COMPLETED);
+                System.out.println("Su puntuación: " + String.format("%.2f", grade.getScore(0)) + "%");
+                if (grade.isPassed(0)) {
                     System.out.println("Ha aprobado el quiz.");
                 } else {
-                    progress.updateActivityStatus(activity, ActivityStatus.FAILED);
                     System.out.println("No ha alcanzado la puntuación mínima para aprobar.");
                 }
                 // Guardar datos después de completar un quiz
@@ -0,0 +1,38 @@
+package src.com.learningpath.main;
+
+import src.com.learningpath.data.DataManager;
+import src.com.learningpath.data.Storage;
+import src.com.learningpath.data.transfer.DataExporter;
+import src.com.learningpath.data.transfer.DataImporter;
+import src.com.learningpath.data.transfer.TransferStats;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Exporta o importa la carpeta de datos completa en NDJSON o CSV, según la extensión del
+ * archivo. Usa el almacenamiento de la propiedad {@value DataManager#STORAGE_PROPERTY}.
+ * <p>
+ * Uso: {@code DataTransferTool export|import <archivo> [carpeta de datos]}
+ */
+public class DataTransferTool {
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3 || !(args[0].equals("export") || args[0].equals("import"))) {
+            System.out.println("Uso: DataTransferTool export|import <archivo.ndjson|archivo.csv> [carpeta de datos]");
+            System.exit(2);
+        }
+        if (args.length == 3) {
+            DataManager.setDataFolder(args[2].endsWith("/") ? args[2] : args[2] + "/");
+        }
+        Path file = Path.of(args[1]);
+        try (Storage storage = DataManager.openStorage()) {
+            TransferStats stats = args[0].equals("export")
+                    ? DataExporter.export(storage, file)
+                    : DataImporter.importInto(storage, file);
+            System.out.println((args[0].equals("export") ? "Exportados " : "Importados ") + stats + ".");
+        } catch (IOException e) {
+            System.out.println("Error al " + (args[0].equals("export") ? "exportar: " : "importar: ") + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package src.com.learningpath.repository;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.SnapshotList;
+import src.com.learningpath.analytics.QuestionStatistics;
+import src.com.learningpath.data.codec.MappedProgressStore;
+import src.com.learningpath.grading.QuizResponderIndex;
+import src.com.learningpath.users.CredentialCache;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repositorio en memoria de usuarios, Learning Paths y progresos con índices hash.
+ * <p>
+ * Mantiene las listas que se persisten con DataManager y, junto a ellas, los índices
+ * usuario → User y profesor → Learning Paths. Los índices de progresos (estudiante,
+ * Learning Path y ambos) son los de {@link MappedProgressStore}. Todas las mutaciones
+ * deben pasar por este repositorio para que listas e índices sigan siendo consistentes;
+ * si las listas se modifican por fuera (por ejemplo, al aplicar el journal), hay que
+ * llamar a {@link #rebuildIndexes()}.
+ * <p>
+ * Los usuarios y profesores se indexan por nombre de usuario, no por identidad, porque
+ * cada archivo de datos crea sus propias instancias de User.
+ * <p>
+ * {@link #snapshot()} entrega las tres colecciones tal como están, sin copiarlas, para que
+ * el guardado en segundo plano las recorra mientras la interfaz sigue modificándolas. Para
+ * eso los usuarios y Learning Paths se reflejan en {@link SnapshotList}, otro índice más.
+ */
+public class Repository {
+    private final List<User> users;
+    private final List<LearningPath> learningPaths;
+    private final MappedProgressStore progresses;
+
+    private final SnapshotList<User> userSnapshots = new SnapshotList<>();
+    private final SnapshotList<LearningPath> pathSnapshots = new SnapshotList<>();
+    private final Map<String, User> usersByUsername = new HashMap<>();
+    private final Map<String, List<LearningPath>> pathsByTeacher = new HashMap<>();
+    private final CredentialCache credentials = new CredentialCache(CredentialCache.DEFAULT_CAPACITY);
+    // Se construye la primera vez que se pide: recorrerlo decodifica todos los progresos.
+    private QuizResponderIndex quizResponders;
+    private QuestionStatistics questionStatistics;
+
+    /**
+     * Crea un repositorio sobre los datos cargados.
+     *
+     * @param users         Los usuarios.
+     * @param learningPaths Los Learning Paths.
+     * @param progresses    Los progresos; si no es un {@link MappedProgressStore} se copia en uno.
+     */
+    public Repository(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) {
+        this.users = users;
+        this.learningPaths = learningPaths;
+        this.progresses = MappedProgressStore.of(progresses);
+        rebuildIndexes();
+    }
+
+    /**
+     * Reconstruye los índices de usuarios y Learning Paths a partir de las listas.
+     */
+    public synchronized void rebuildIndexes() {
+        userSnapshots.clear();
+        userSnapshots.addAll(users);
+        pathSnapshots.clear();
+        pathSnapshots.addAll(learningPaths);
+        usersByUsername.clear();
+        for (User u : users) {
+            usersByUsername.putIfAbsent(u.getUsername(), u);
+        }
+        pathsByTeacher.clear();
+        for (LearningPath lp : learningPaths) {
+            indexLearningPath(lp);
+        }
+    }
+
+    // Consultas
+
+    /**
+     * Busca un usuario por su nombre de usuario.
+     *
+     * @return El usuario, o null si no existe.
+     */
+    public synchronized User findUser(String username) {
+        return usersByUsername.get(username);
+    }
+
+    /**
+     * Autentica a un usuario con nombre de usuario y contraseña. Las verificaciones exitosas
+     * recientes se responden desde {@link CredentialCache} sin recalcular el hash; el cálculo
+     * se hace fuera del lock del repositorio para que los inicios de sesión no se bloqueen
+     * entre sí.
+     *
+     * @return El usuario autenticado, o null si las credenciales no son válidas.
+     */
+    public User authenticate(String username, String password) {
+        User user = findUser(username);
+        if (user == null || password == null) {
+            return null;
+        }
+        if (credentials.matches(user, password)) {
+            return user;
+        }
+        if (!user.authenticate(password)) {
+            return null;
+        }
+        credentials.remember(user, password);
+        return user;
+    }
+
+    /**
+     * Obtiene la caché de verificaciones de contraseña.
+     */
+    public CredentialCache getCredentialCache() {
+        return credentials;
+    }
+
+    /**
+     * Obtiene los Learning Paths creados por un profesor.
+     */
+    public synchronized List<LearningPath> getLearningPathsOf(Teacher teacher) {
+        List<LearningPath> paths = pathsByTeacher.get(teacher.getUsername());
+        return paths == null ? new ArrayList<>() : new ArrayList<>(paths);
+    }
+
+    /**
+     * Busca el progreso de un estudiante en un Learning Path.
+     *
+     * @return El progreso, o null si el estudiante no está inscrito.
+     */
+    public Progress findProgress(Student student, LearningPath lp) {
+        return progresses.find(student, lp);
+    }
+
+    /**
+     * Indica si un estudiante está inscrito en un Learning Path, sin decodificar su progreso.
+     */
+    public boolean isEnrolled(Student student, LearningPath lp) {
+        return progresses.contains(student.getUsername(), lp.getId());
+    }
+
+    /**
+     * Obtiene los progresos de un estudiante.
+     */
+    public List<Progress> getProgressesOf(Student student) {
+        return progresses.findByStudent(student.getUsername());
+    }
+
+    /**
+     * Obtiene los progresos de los estudiantes inscritos en un Learning Path.
+     */
+    public List<Progress> getProgressesOf(LearningPath lp) {
+        return progresses.findByLearningPath(lp);
+    }
+
+    /**
+     * Obtiene el índice quiz → estudiantes que lo respondieron. La primera llamada lo
+     * construye recorriendo todos los progresos; desde entonces se mantiene con cada
+     * respuesta guardada, así que las consultas no dependen de la cantidad de progresos.
+     */
+    public synchronized QuizResponderIndex getQuizResponders() {
+        if (quizResponders == null) {
+            quizResponders = new QuizResponderIndex();
+            // Primero el observador, para no perder las respuestas guardadas durante el recorrido.
+            progresses.addProgressListener(quizResponders);
+            quizResponders.addAll(progresses);
+        }
+        return quizResponders;
+    }
+
+    /**
+     * Obtiene las estadísticas por pregunta de los quizzes. Como {@link #getQuizResponders()},
+     * la primera llamada recorre todos los progresos y desde entonces se actualizan con cada
+     * respuesta guardada.
+     */
+    public synchronized QuestionStatistics getQuestionStatistics() {
+        if (questionStatistics == null) {
+            questionStatistics = new QuestionStatistics();
+            progresses.addProgressListener(questionStatistics);
+            questionStatistics.addAll(progresses);
+        }
+        return questionStatistics;
+    }
+
+    // Mutaciones
+
+    /**
+     * Añade un usuario.
+     *
+     * @throws IllegalArgumentException Si el nombre de usuario ya existe.
+     */
+    public synchronized void addUser(User user) {
+        if (usersByUsername.containsKey(user.getUsername())) {
+            throw new IllegalArgumentException("El nombre de usuario ya existe.");
+        }
+        users.add(user);
+        userSnapshots.add(user);
+        usersByUsername.put(user.getUsername(), user);
+    }
+
+    /**
+     * Añade un Learning Path.
+     */
+    public synchronized void addLearningPath(LearningPath lp) {
+        learningPaths.add(lp);
+        pathSnapshots.add(lp);
+        indexLearningPath(lp);
+    }
+
+    /**
+     * Añade un progreso (inscripción de un estudiante en un Learning Path).
+     *
+     * @throws IllegalArgumentException Si el estudiante ya está inscrito en ese Learning Path.
+     */
+    public synchronized void addProgress(Progress progress) {
+        if (isEnrolled(progress.getStudent(), progress.getLearningPath())) {
+            throw new IllegalArgumentException("El estudiante ya está inscrito en este Learning Path.");
+        }
+        progresses.add(progress);
+    }
+
+    /**
+     * Obtiene una instantánea inmutable de los usuarios, Learning Paths y progresos, en tiempo
+     * constante. Las mutaciones posteriores no la afectan, así que puede guardarse desde otro hilo.
+     */
+    public synchronized RepositorySnapshot snapshot() {
+        return new RepositorySnapshot(userSnapshots.snapshot(), pathSnapshots.snapshot(), progresses.snapshot());
+    }
+
+    // Getters de las listas persistidas: instantáneas inmutables, como las de snapshot(), para
+    // que recorrerlas no falle ni vea datos a medias si el repositorio cambia entretanto.
+
+    public synchronized List<User> getUsers() {
+        return userSnapshots.snapshot();
+    }
+
+    public synchronized List<LearningPath> getLearningPaths() {
+        return pathSnapshots.snapshot();
+    }
+
+    public MappedProgressStore getProgresses() {
+        return progresses;
+    }
+
+    private void indexLearningPath(LearningPath lp) {
+        pathsByTeacher.computeIfAbsent(lp.getCreator().getUsername(), k -> new ArrayList<>()).add(lp);
+    }
+}
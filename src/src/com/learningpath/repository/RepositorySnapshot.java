@@ -0,0 +1,35 @@
+package src.com.learningpath.repository;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.users.User;
+
+import java.util.List;
+
+/**
+ * Colecciones del {@link Repository} en un momento dado. Las listas son inmutables y
+ * comparten su estructura con las del repositorio; las entidades son las mismas instancias.
+ */
+public final class RepositorySnapshot {
+    private final List<User> users;
+    private final List<LearningPath> learningPaths;
+    private final List<Progress> progresses;
+
+    RepositorySnapshot(List<User> users, List<LearningPath> learningPaths, List<Progress> progresses) {
+        this.users = users;
+        this.learningPaths = learningPaths;
+        this.progresses = progresses;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public List<LearningPath> getLearningPaths() {
+        return learningPaths;
+    }
+
+    public List<Progress> getProgresses() {
+        return progresses;
+    }
+}
@@ -0,0 +1,20 @@
+package src.com.learningpath.server;
+
+/**
+ * Error de una solicitud a la API. Se responde con su código de estado HTTP y un cuerpo
+ * {@code {"error": mensaje}}.
+ */
+public class ApiException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,633 @@
+package src.com.learningpath.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.Activity;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.Assignment;
+import src.com.learningpath.activities.OpenEndedExam;
+import src.com.learningpath.activities.OpenEndedQuestion;
+import src.com.learningpath.activities.OpenEndedResponse;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.ResourceReview;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyQuestion;
+import src.com.learningpath.activities.SurveyResponse;
+import src.com.learningpath.data.PersistenceExecutor;
+import src.com.learningpath.data.Storage;
+import src.com.learningpath.grading.GradingResult;
+import src.com.learningpath.grading.QuizGrader;
+import src.com.learningpath.grading.QuizSubmission;
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Servidor HTTP/JSON sin interfaz sobre el repositorio, con las mismas operaciones del
+ * estudiante que la consola:
+ * <ul>
+ *     <li>{@code POST /api/login} con {@code {"username", "password"}}: devuelve un token,
+ *     que las demás solicitudes envían en la cabecera {@code Authorization: Bearer <token>}.
+ *     El token vence {@link #DEFAULT_SESSION_TTL} después del inicio de sesión.</li>
+ *     <li>{@code POST /api/logout}: invalida el token.</li>
+ *     <li>{@code GET /api/paths} y {@code GET /api/paths/{id}}: los Learning Paths, sin las
+ *     respuestas correctas de los quizzes.</li>
+ *     <li>{@code POST /api/paths/{id}/enroll}: inscribe al estudiante.</li>
+ *     <li>{@code POST /api/paths/{id}/activities/{activityId}/submit}: realiza una actividad.
+ *     Un quiz recibe {@code {"answers": [índices de opción]}} y se califica; una encuesta o un
+ *     examen, {@code {"answers": {pregunta: respuesta}}}; las demás actividades no llevan cuerpo.</li>
+ *     <li>{@code GET /api/progress}: los progresos del estudiante.</li>
+ *     <li>{@code GET /api/paths/{id}/progresses}: los progresos de un Learning Path, solo para
+ *     el profesor que lo creó.</li>
+ * </ul>
+ * Cada solicitud se atiende en su propio hilo virtual, así que las que esperan (por ejemplo,
+ * al calcular un hash de contraseña o escribir el journal) no ocupan un hilo del sistema. Las
+ * inscripciones y entregas de un mismo estudiante en un mismo Learning Path pasan por el
+ * buzón de esa clave en {@link MailboxExecutor}, que las aplica de a una y en orden de
+ * llegada; las de estudiantes distintos corren en paralelo. El resto de la concurrencia la
+ * resuelven los locks del repositorio y de cada progreso. Los guardados se piden a
+ * {@link PersistenceExecutor}, igual que en la consola.
+ */
+public class ApiServer implements Closeable {
+    /**
+     * Duración por omisión de una sesión.
+     */
+    public static final Duration DEFAULT_SESSION_TTL = Duration.ofHours(8);
+
+    // Tamaño máximo del cuerpo de una solicitud.
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final Repository repository;
+    private final Storage storage;
+    private final PersistenceExecutor persistence;
+    private final long sessionTtlNanos;
+
+    private final SecureRandom random = new SecureRandom();
+    // Token → sesión. Las vencidas se eliminan al consultarlas y, las que nadie vuelve a usar, al iniciar sesión.
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    // Se lee sin el lock del servidor: close() lo toma mientras espera a las solicitudes en curso.
+    private volatile MailboxExecutor progressMailboxes;
+
+    /**
+     * Crea el servidor sobre datos ya cargados.
+     *
+     * @param repository  El repositorio.
+     * @param storage     El almacenamiento donde se registran las mutaciones.
+     * @param persistence El ejecutor que confirma los guardados.
+     */
+    public ApiServer(Repository repository, Storage storage, PersistenceExecutor persistence) {
+        this(repository, storage, persistence, DEFAULT_SESSION_TTL);
+    }
+
+    /**
+     * Crea el servidor con una duración de sesión explícita.
+     *
+     * @param sessionTtl El tiempo que vale un token desde el inicio de sesión.
+     */
+    public ApiServer(Repository repository, Storage storage, PersistenceExecutor persistence, Duration sessionTtl) {
+        this.repository = repository;
+        this.storage = storage;
+        this.persistence = persistence;
+        this.sessionTtlNanos = sessionTtl.toNanos();
+    }
+
+    /**
+     * Empieza a atender solicitudes.
+     *
+     * @param port El puerto, o 0 para elegir uno libre.
+     */
+    public synchronized void start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("El servidor ya está iniciado.");
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        progressMailboxes = new MailboxExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Obtiene el puerto en el que escucha el servidor.
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("El servidor no está iniciado.");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Deja de aceptar solicitudes y espera, como máximo un segundo, a las que están en curso.
+     * Los guardados pendientes los escribe quien cierre {@link PersistenceExecutor}.
+     */
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(1);
+            executor.close();
+            progressMailboxes.close();
+            server = null;
+            executor = null;
+            progressMailboxes = null;
+        }
+    }
+
+    // Enrutamiento
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int status = 200;
+        Object body;
+        try {
+            body = route(exchange);
+        } catch (ApiException e) {
+            status = e.getStatus();
+            body = Map.of("error", e.getMessage());
+        } catch (IOException e) {
+            status = 500;
+            body = Map.of("error", "Error al guardar datos: " + e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body = Map.of("error", "Error interno: " + e.getMessage());
+            System.out.println("Error al atender " + exchange.getRequestURI() + ": " + e);
+        }
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Object route(HttpExchange exchange) throws ApiException, IOException {
+        String method = exchange.getRequestMethod();
+        String[] parts = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+
+        if (parts.length == 1 && parts[0].equals("login")) {
+            requireMethod(method, "POST");
+            return login(readObject(exchange));
+        }
+        User user = authenticate(exchange);
+        if (parts.length == 1 && parts[0].equals("logout")) {
+            requireMethod(method, "POST");
+            sessions.remove(token(exchange));
+            return Map.of("ok", true);
+        }
+        if (parts.length == 1 && parts[0].equals("progress")) {
+            requireMethod(method, "GET");
+            List<Object> result = new ArrayList<>();
+            for (Progress progress : repository.getProgressesOf(requireStudent(user))) {
+                result.add(describe(progress));
+            }
+            return result;
+        }
+        if (parts[0].equals("paths")) {
+            if (parts.length == 1) {
+                requireMethod(method, "GET");
+                List<Object> result = new ArrayList<>();
+                for (LearningPath lp : repository.snapshot().getLearningPaths()) {
+                    result.add(summarize(lp));
+                }
+                return result;
+            }
+            LearningPath lp = findLearningPath(parts[1]);
+            if (parts.length == 2) {
+                requireMethod(method, "GET");
+                return describe(lp);
+            }
+            if (parts.length == 3 && parts[2].equals("enroll")) {
+                requireMethod(method, "POST");
+                Student student = requireStudent(user);
+                return inMailbox(student, lp, () -> enroll(student, lp));
+            }
+            if (parts.length == 3 && parts[2].equals("progresses")) {
+                requireMethod(method, "GET");
+                if (user != lp.getCreator()) {
+                    throw new ApiException(403, "Solo el profesor que creó el Learning Path puede ver sus progresos.");
+                }
+                List<Object> result = new ArrayList<>();
+                for (Progress progress : repository.getProgressesOf(lp)) {
+                    result.add(describe(progress));
+                }
+                return result;
+            }
+            if (parts.length == 5 && parts[2].equals("activities") && parts[4].equals("submit")) {
+                requireMethod(method, "POST");
+                Activity activity = findActivity(lp, parts[3]);
+                Student student = requireStudent(user);
+                String body = readBody(exchange);
+                return inMailbox(student, lp, () -> submit(student, lp, activity, body));
+            }
+        }
+        throw new ApiException(404, "Recurso no encontrado.");
+    }
+
+    // Operaciones
+
+    /**
+     * Ejecuta una operación en el buzón del progreso (estudiante, Learning Path) y espera su
+     * resultado. Las operaciones sobre un mismo progreso no se solapan.
+     */
+    private Object inMailbox(Student student, LearningPath lp, Callable<Object> operation) throws ApiException, IOException {
+        MailboxExecutor mailboxes = progressMailboxes;
+        if (mailboxes == null) {
+            throw new ApiException(503, "El servidor se está cerrando.");
+        }
+        Future<Object> result;
+        try {
+            result = mailboxes.submit(new ProgressKey(student.getUsername(), lp.getId()), operation);
+        } catch (RejectedExecutionException e) {
+            throw new ApiException(503, "El servidor se está cerrando.");
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(503, "Solicitud interrumpida.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ApiException) {
+                throw (ApiException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private Object login(Map<String, Object> request) throws ApiException {
+        User user = repository.authenticate(stringField(request, "username"), stringField(request, "password"));
+        if (user == null) {
+            throw new ApiException(401, "Credenciales incorrectas.");
+        }
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long now = System.nanoTime();
+        sessions.values().removeIf(session -> session.isExpired(now));
+        sessions.put(token, new Session(user.getUsername(), now + sessionTtlNanos));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("token", token);
+        result.put("username", user.getUsername());
+        result.put("name", user.getName());
+        result.put("role", user.getRole().name());
+        return result;
+    }
+
+    private Object enroll(Student student, LearningPath lp) throws ApiException, IOException {
+        Progress progress = new Progress(student, lp);
+        try {
+            repository.addProgress(progress);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(409, e.getMessage());
+        }
+        storage.appendEnrollment(progress);
+        persistence.requestFlush();
+        return describe(progress);
+    }
+
+    private Object submit(Student student, LearningPath lp, Activity activity, String body) throws ApiException, IOException {
+        Progress progress = repository.findProgress(student, lp);
+        if (progress == null) {
+            throw new ApiException(409, "No está inscrito en este Learning Path.");
+        }
+        ActivityStatus status = progress.getActivityStatus(activity);
+        if (status == ActivityStatus.COMPLETED || status == ActivityStatus.SUBMITTED) {
+            throw new ApiException(409, "Esta actividad ya ha sido completada.");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (activity instanceof Quiz) {
+            gradeQuiz(progress, (Quiz) activity, parseObject(body), result);
+        } else if (activity instanceof Survey) {
+            respondToSurvey(student, progress, (Survey) activity, parseObject(body));
+        } else if (activity instanceof OpenEndedExam) {
+            respondToExam(student, progress, (OpenEndedExam) activity, parseObject(body));
+        } else if (activity instanceof Assignment) {
+            progress.updateActivityStatus(activity, ActivityStatus.SUBMITTED);
+        } else if (activity instanceof ResourceReview) {
+            progress.updateActivityStatus(activity, ActivityStatus.COMPLETED);
+        } else {
+            throw new ApiException(400, "Tipo de actividad desconocido.");
+        }
+        persistence.requestFlush();
+        result.put("status", progress.getActivityStatus(activity).name());
+        result.put("completion", progress.calculateCompletionPercentage());
+        return result;
+    }
+
+    private void gradeQuiz(Progress progress, Quiz quiz, Map<String, Object> request, Map<String, Object> result) throws ApiException {
+        List<Question> questions = quiz.getQuestions();
+        if (!(request.get("answers") instanceof List) || ((List<?>) request.get("answers")).size() != questions.size()) {
+            throw new ApiException(400, "Se esperaba una respuesta por pregunta en el campo answers.");
+        }
+        List<?> answers = (List<?>) request.get("answers");
+        int[] chosen = new int[answers.size()];
+        for (int i = 0; i < questions.size(); i++) {
+            if (!(answers.get(i) instanceof Long) || (Long) answers.get(i) < 0 || (Long) answers.get(i) >= questions.get(i).getOptions().length) {
+                throw new ApiException(400, "Opción no válida para la pregunta " + (i + 1) + ".");
+            }
+            chosen[i] = ((Long) answers.get(i)).intValue();
+        }
+        GradingResult grade = QuizGrader.gradeAndApply(List.of(new QuizSubmission(progress, quiz, chosen)));
+        result.put("score", grade.getScore(0));
+        result.put("passed", grade.isPassed(0));
+    }
+
+    private void respondToSurvey(Student student, Progress progress, Survey survey, Map<String, Object> request) throws ApiException, IOException {
+        if (progress.getSurveyResponse(survey) != null) {
+            throw new ApiException(409, "Ya has respondido a esta encuesta.");
+        }
+        Map<?, ?> answers = answersOf(request);
+        SurveyResponse response = new SurveyResponse(student, survey);
+        for (SurveyQuestion question : survey.getSurveyQuestions()) {
+            response.addAnswer(question.getQuestionText(), answerTo(answers, question.getQuestionText()));
+        }
+        progress.addSurveyResponse(survey, response);
+        survey.addSurveyResponse(response);
+        markResponsesChanged(progress.getLearningPath());
+        progress.updateActivityStatus(survey, ActivityStatus.COMPLETED);
+    }
+
+    private void respondToExam(Student student, Progress progress, OpenEndedExam exam, Map<String, Object> request) throws ApiException, IOException {
+        if (progress.getExamResponse(exam) != null) {
+            throw new ApiException(409, "Ya has respondido a este examen.");
+        }
+        Map<?, ?> answers = answersOf(request);
+        OpenEndedResponse response = new OpenEndedResponse(student, exam);
+        for (OpenEndedQuestion question : exam.getExamQuestions()) {
+            response.addAnswer(question.getQuestionText(), answerTo(answers, question.getQuestionText()));
+        }
+        progress.addExamResponse(exam, response);
+        exam.addExamResponse(response);
+        markResponsesChanged(progress.getLearningPath());
+        progress.updateActivityStatus(exam, ActivityStatus.SUBMITTED);
+    }
+
+    /**
+     * Marca el Learning Path como modificado para que el próximo guardado incluya la nueva
+     * respuesta en la lista de la actividad. No se anexa al journal: el registro de la
+     * respuesta, que escribe el listener del progreso, la restaura también en la actividad.
+     */
+    private static void markResponsesChanged(LearningPath lp) {
+        lp.markDirty();
+    }
+
+    // Representación JSON
+
+    private static Map<String, Object> summarize(LearningPath lp) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", lp.getId());
+        result.put("title", lp.getTitle());
+        result.put("description", lp.getDescription());
+        result.put("objectives", lp.getObjectives());
+        result.put("difficulty", lp.getDifficultyLevel());
+        result.put("duration", lp.getDuration());
+        result.put("rating", lp.getRating());
+        result.put("version", lp.getVersion());
+        result.put("creator", lp.getCreator().getUsername());
+        return result;
+    }
+
+    private static Map<String, Object> describe(LearningPath lp) {
+        Map<String, Object> result = summarize(lp);
+        List<Object> activities = new ArrayList<>();
+        for (Activity activity : lp.getActivities()) {
+            activities.add(describe(activity));
+        }
+        result.put("activities", activities);
+        return result;
+    }
+
+    private static Map<String, Object> describe(Activity activity) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", activity.getId());
+        result.put("type", activity.getType());
+        result.put("title", activity.getTitle());
+        result.put("description", activity.getDescription());
+        result.put("objective", activity.getObjective());
+        result.put("difficulty", activity.getDifficultyLevel());
+        result.put("expectedDuration", activity.getExpectedDuration());
+        result.put("mandatory", activity.isMandatory());
+        List<Object> questions = new ArrayList<>();
+        if (activity instanceof Quiz) {
+            // Sin la opción correcta ni la explicación: se califican en el servidor.
+            for (Question q : ((Quiz) activity).getQuestions()) {
+                Map<String, Object> question = new LinkedHashMap<>();
+                question.put("text", q.getQuestionText());
+                question.put("options", List.of(q.getOptions()));
+                questions.add(question);
+            }
+            result.put("passingScore", ((Quiz) activity).getPassingScore());
+            result.put("questions", questions);
+        } else if (activity instanceof Survey) {
+            for (SurveyQuestion q : ((Survey) activity).getSurveyQuestions()) {
+                questions.add(q.getQuestionText());
+            }
+            result.put("questions", questions);
+        } else if (activity instanceof OpenEndedExam) {
+            for (OpenEndedQuestion q : ((OpenEndedExam) activity).getExamQuestions()) {
+                questions.add(q.getQuestionText());
+            }
+            result.put("questions", questions);
+        } else if (activity instanceof ResourceReview) {
+            result.put("resourceLink", ((ResourceReview) activity).getResourceLink());
+        } else if (activity instanceof Assignment) {
+            result.put("submissionInstructions", ((Assignment) activity).getSubmissionInstructions());
+        }
+        return result;
+    }
+
+    private static Map<String, Object> describe(Progress progress) {
+        LearningPath lp = progress.getLearningPath();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("student", progress.getStudent().getUsername());
+        result.put("pathId", lp.getId());
+        result.put("title", lp.getTitle());
+        result.put("completion", progress.calculateCompletionPercentage());
+        List<Object> activities = new ArrayList<>();
+        for (Activity activity : lp.getActivities()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", activity.getId());
+            // Las actividades añadidas después de la inscripción todavía no tienen estado.
+            ActivityStatus status = progress.getActivityStatus(activity);
+            item.put("status", (status == null ? ActivityStatus.PENDING : status).name());
+            LocalDate completed = progress.getCompletionDate(activity);
+            item.put("completed", completed == null ? null : completed.toString());
+            activities.add(item);
+        }
+        result.put("activities", activities);
+        return result;
+    }
+
+    // Métodos auxiliares
+
+    /**
+     * Obtiene el usuario del token. El usuario se busca de nuevo en el repositorio en cada
+     * solicitud, así que un token deja de valer si el usuario ya no existe y sigue la
+     * instancia vigente si los datos se recargaron.
+     */
+    private User authenticate(HttpExchange exchange) throws ApiException {
+        String token = token(exchange);
+        Session session = token == null ? null : sessions.get(token);
+        User user = null;
+        if (session != null) {
+            if (session.isExpired(System.nanoTime())) {
+                sessions.remove(token, session);
+            } else {
+                user = repository.findUser(session.username());
+                if (user == null) {
+                    sessions.remove(token, session);
+                }
+            }
+        }
+        if (user == null) {
+            throw new ApiException(401, "Debe iniciar sesión.");
+        }
+        return user;
+    }
+
+    private static String token(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && header.startsWith("Bearer ") ? header.substring("Bearer ".length()).trim() : null;
+    }
+
+    private static Student requireStudent(User user) throws ApiException {
+        if (!(user instanceof Student)) {
+            throw new ApiException(403, "Solo los estudiantes pueden realizar esta operación.");
+        }
+        return (Student) user;
+    }
+
+    private static void requireMethod(String method, String expected) throws ApiException {
+        if (!method.equals(expected)) {
+            throw new ApiException(405, "Método no permitido: " + method + ".");
+        }
+    }
+
+    private LearningPath findLearningPath(String id) throws ApiException {
+        int pathId = parseId(id);
+        for (LearningPath lp : repository.snapshot().getLearningPaths()) {
+            if (lp.getId() == pathId) {
+                return lp;
+            }
+        }
+        throw new ApiException(404, "Learning Path no encontrado: " + id + ".");
+    }
+
+    private static Activity findActivity(LearningPath lp, String id) throws ApiException {
+        int activityId = parseId(id);
+        for (Activity a : lp.getActivities()) {
+            if (a.getId() == activityId) {
+                return a;
+            }
+        }
+        throw new ApiException(404, "Actividad no encontrada: " + id + ".");
+    }
+
+    private static int parseId(String id) throws ApiException {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Identificador no válido: " + id + ".");
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws ApiException, IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "La solicitud es demasiado grande.");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, Object> readObject(HttpExchange exchange) throws ApiException, IOException {
+        return parseObject(readBody(exchange));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parseObject(String body) throws ApiException {
+        if (body.isBlank()) {
+            return new LinkedHashMap<>();
+        }
+        Object value = Json.parse(body);
+        if (!(value instanceof Map)) {
+            throw new ApiException(400, "Se esperaba un objeto JSON.");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static String stringField(Map<String, Object> request, String name) throws ApiException {
+        Object value = request.get(name);
+        if (!(value instanceof String)) {
+            throw new ApiException(400, "Falta el campo " + name + ".");
+        }
+        return (String) value;
+    }
+
+    private static Map<?, ?> answersOf(Map<String, Object> request) throws ApiException {
+        Object answers = request.get("answers");
+        if (!(answers instanceof Map)) {
+            throw new ApiException(400, "Se esperaba un objeto pregunta: respuesta en el campo answers.");
+        }
+        return (Map<?, ?>) answers;
+    }
+
+    // Las preguntas sin respuesta quedan en blanco, como al presionar Enter en la consola.
+    private static String answerTo(Map<?, ?> answers, String question) {
+        Object answer = answers.get(question);
+        return answer == null ? "" : answer.toString();
+    }
+
+    /**
+     * Sesión abierta con un token.
+     *
+     * @param expiresAt Instante de vencimiento, en la escala de {@link System#nanoTime()}.
+     */
+    private record Session(String username, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Clave del buzón de un progreso.
+     */
+    private record ProgressKey(String username, int pathId) {
+    }
+}
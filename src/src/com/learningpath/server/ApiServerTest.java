@@ -0,0 +1,201 @@
+package src.com.learningpath.server;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.Question;
+import src.com.learningpath.activities.Quiz;
+import src.com.learningpath.activities.ResourceReview;
+import src.com.learningpath.activities.Survey;
+import src.com.learningpath.activities.SurveyQuestion;
+import src.com.learningpath.data.PersistenceExecutor;
+import src.com.learningpath.data.SqlStorage;
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.repository.RepositorySnapshot;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ApiServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private int port;
+
+    @Test
+    public void testStudentFlowOverHttp() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        LearningPath lp = new LearningPath("LP1", "Descripción", "Objetivos", 1, teacher);
+        ResourceReview review = new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists");
+        Quiz quiz = new Quiz("Quiz", "Sumas", "Sumar", 1, 10, true, new ArrayList<>(Arrays.asList(
+                new Question("2 + 2", new String[]{"3", "4"}, 1, "Suma"),
+                new Question("1 + 1", new String[]{"2", "3"}, 0, "Suma"))), 60.0);
+        Survey survey = new Survey("Encuesta", "Opinión", "Opinar", 1, 5, false);
+        survey.addSurveyQuestion(new SurveyQuestion("¿Te gustó?"));
+        lp.addActivity(review);
+        lp.addActivity(quiz);
+        lp.addActivity(survey);
+        List<User> users = new ArrayList<>(Arrays.asList(teacher, student));
+        Repository repository = new Repository(users, new ArrayList<>(List.of(lp)), new ArrayList<>());
+
+        try (SqlStorage storage = new SqlStorage("jdbc:h2:mem:api_server")) {
+            PersistenceExecutor persistence = new PersistenceExecutor(PersistenceExecutor.Durability.IMMEDIATE, 0, () -> {
+                RepositorySnapshot snapshot = repository.snapshot();
+                storage.commit(snapshot.getUsers(), snapshot.getLearningPaths(), snapshot.getProgresses());
+            });
+            try (ApiServer server = new ApiServer(repository, storage, persistence)) {
+                server.start(0);
+                port = server.getPort();
+
+                assertEquals(401, send("GET", "/api/paths", null, null).statusCode());
+                assertEquals(401, send("POST", "/api/login", null, "{\"username\":\"sstudent\",\"password\":\"mal\"}").statusCode());
+                String token = login("sstudent", "password456");
+
+                HttpResponse<String> paths = send("GET", "/api/paths/" + lp.getId(), token, null);
+                assertEquals(200, paths.statusCode());
+                assertTrue(paths.body().contains("\"options\":[\"3\",\"4\"]"));
+                assertFalse(paths.body().contains("\"Suma\""), "Las explicaciones y respuestas no se publican");
+
+                String base = "/api/paths/" + lp.getId();
+                assertEquals(409, send("POST", base + "/activities/" + review.getId() + "/submit", token, null).statusCode());
+                assertEquals(200, send("POST", base + "/enroll", token, null).statusCode());
+                assertEquals(409, send("POST", base + "/enroll", token, null).statusCode());
+
+                HttpResponse<String> graded = send("POST", base + "/activities/" + quiz.getId() + "/submit", token, "{\"answers\":[1,1]}");
+                assertEquals(200, graded.statusCode());
+                assertTrue(graded.body().contains("\"status\":\"FAILED\""));
+                assertEquals(400, send("POST", base + "/activities/" + quiz.getId() + "/submit", token, "{\"answers\":[1]}").statusCode());
+                graded = send("POST", base + "/activities/" + quiz.getId() + "/submit", token, "{\"answers\":[1,0]}");
+                assertTrue(graded.body().contains("\"status\":\"COMPLETED\""));
+
+                assertEquals(200, send("POST", base + "/activities/" + survey.getId() + "/submit", token, "{\"answers\":{\"¿Te gustó?\":\"Sí\"}}").statusCode());
+
+                // Entregas simultáneas de la misma actividad: solo una se acepta
+                ExecutorService clients = Executors.newFixedThreadPool(8);
+                List<Future<Integer>> statuses = new ArrayList<>();
+                for (int i = 0; i < 16; i++) {
+                    statuses.add(clients.submit(() -> send("POST", base + "/activities/" + review.getId() + "/submit", token, null).statusCode()));
+                }
+                int accepted = 0;
+                for (Future<Integer> status : statuses) {
+                    accepted += status.get() == 200 ? 1 : 0;
+                }
+                clients.shutdown();
+                assertEquals(1, accepted);
+
+                HttpResponse<String> progress = send("GET", "/api/progress", token, null);
+                assertEquals(200, progress.statusCode());
+                assertTrue(progress.body().contains("\"completion\":100.0"));
+
+                assertEquals(403, send("GET", base + "/progresses", token, null).statusCode());
+                String teacherToken = login("jdoe", "password123");
+                assertTrue(send("GET", base + "/progresses", teacherToken, null).body().contains("\"student\":\"sstudent\""));
+                assertEquals(403, send("POST", base + "/enroll", teacherToken, null).statusCode());
+
+                assertEquals(200, send("POST", "/api/logout", token, null).statusCode());
+                assertEquals(401, send("GET", "/api/progress", token, null).statusCode());
+            }
+            persistence.close();
+
+            Progress progress = repository.findProgress(student, lp);
+            assertEquals(Arrays.asList(1, 0), progress.getQuizResponses(quiz));
+            assertEquals("Sí", progress.getSurveyResponse(survey).getAnswers().get("¿Te gustó?"));
+            assertEquals(1, survey.getSurveyResponses().size());
+            assertEquals(ActivityStatus.COMPLETED, progress.getActivityStatus(review));
+            List<Progress> saved = storage.loadProgresses(users, List.of(lp));
+            assertEquals(1, saved.size());
+            assertEquals(ActivityStatus.COMPLETED, saved.get(0).getActivityStatus(quiz));
+        }
+    }
+
+    @Test
+    public void testProgressListsActivitiesAddedAfterEnrollment() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        LearningPath lp = new LearningPath("LP1", "Descripción", "Objetivos", 1, teacher);
+        lp.addActivity(new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists"));
+        List<User> users = new ArrayList<>(Arrays.asList(teacher, student));
+        Repository repository = new Repository(users, new ArrayList<>(List.of(lp)), new ArrayList<>());
+
+        try (SqlStorage storage = new SqlStorage("jdbc:h2:mem:api_server_added_activity")) {
+            PersistenceExecutor persistence = new PersistenceExecutor(PersistenceExecutor.Durability.IMMEDIATE, 0, () -> {
+                RepositorySnapshot snapshot = repository.snapshot();
+                storage.commit(snapshot.getUsers(), snapshot.getLearningPaths(), snapshot.getProgresses());
+            });
+            try (ApiServer server = new ApiServer(repository, storage, persistence)) {
+                server.start(0);
+                port = server.getPort();
+                String token = login("sstudent", "password456");
+                String base = "/api/paths/" + lp.getId();
+                assertEquals(200, send("POST", base + "/enroll", token, null).statusCode());
+
+                // El profesor añade una actividad después de la inscripción
+                ResourceReview added = new ResourceReview("Maps", "Learn about maps", "Understand maps", 2, 30, false, "http://example.com/maps");
+                lp.addActivity(added);
+
+                HttpResponse<String> progress = send("GET", "/api/progress", token, null);
+                assertEquals(200, progress.statusCode());
+                assertTrue(progress.body().contains("{\"id\":" + added.getId() + ",\"status\":\"PENDING\",\"completed\":null}"));
+                String teacherToken = login("jdoe", "password123");
+                assertEquals(200, send("GET", base + "/progresses", teacherToken, null).statusCode());
+
+                assertEquals(200, send("POST", base + "/activities/" + added.getId() + "/submit", token, null).statusCode());
+                assertTrue(send("GET", "/api/progress", token, null).body().contains("{\"id\":" + added.getId() + ",\"status\":\"COMPLETED\""));
+            }
+            persistence.close();
+        }
+    }
+
+    @Test
+    public void testSessionsExpire() throws Exception {
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        Repository repository = new Repository(new ArrayList<>(List.of(student)), new ArrayList<>(), new ArrayList<>());
+
+        try (SqlStorage storage = new SqlStorage("jdbc:h2:mem:api_server_sessions")) {
+            PersistenceExecutor persistence = new PersistenceExecutor(PersistenceExecutor.Durability.ON_SHUTDOWN, 0, () -> {
+            });
+            try (ApiServer server = new ApiServer(repository, storage, persistence, Duration.ofMillis(300))) {
+                server.start(0);
+                port = server.getPort();
+                String token = login("sstudent", "password456");
+                assertEquals(200, send("GET", "/api/progress", token, null).statusCode());
+                Thread.sleep(400);
+                assertEquals(401, send("GET", "/api/progress", token, null).statusCode());
+                // Un nuevo inicio de sesión entrega un token que sí vale
+                assertEquals(200, send("GET", "/api/progress", login("sstudent", "password456"), null).statusCode());
+            }
+            persistence.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String login(String username, String password) throws Exception {
+        HttpResponse<String> response = send("POST", "/api/login", null,
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+        assertEquals(200, response.statusCode());
+        return (String) ((Map<String, Object>) Json.parse(response.body())).get("token");
+    }
+
+    private HttpResponse<String> send(String method, String path, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
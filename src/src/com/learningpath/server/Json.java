@@ -0,0 +1,262 @@
+package src.com.learningpath.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON mínimo para la API: escribe mapas, listas y escalares, y lee un documento completo.
+ * <p>
+ * Al leer, los objetos se devuelven como {@code Map<String, Object>} (en el orden del
+ * documento), los arreglos como {@code List<Object>}, los números enteros como {@link Long}
+ * y los demás como {@link Double}.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    // Escritura
+
+    static String write(Object value) {
+        StringBuilder out = new StringBuilder(256);
+        append(out, value);
+        return out.toString();
+    }
+
+    private static void append(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String) {
+            appendString(out, (String) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            // JSON no admite NaN ni infinitos.
+            out.append(Double.isFinite(d) ? String.valueOf(d) : "null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                appendString(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                append(out, entry.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof Iterable) {
+            out.append('[');
+            boolean first = true;
+            for (Object item : (Iterable<?>) value) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                append(out, item);
+            }
+            out.append(']');
+        } else {
+            appendString(out, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    // Lectura
+
+    /**
+     * Lee un documento JSON.
+     *
+     * @throws ApiException Con estado 400 si el documento no es válido.
+     */
+    static Object parse(String text) throws ApiException {
+        Parser parser = new Parser(text);
+        parser.skipSpaces();
+        Object value = parser.readValue();
+        parser.skipSpaces();
+        if (parser.pos != text.length()) {
+            throw parser.error("contenido después del documento");
+        }
+        return value;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object readValue() throws ApiException {
+            if (pos >= text.length()) {
+                throw error("documento incompleto");
+            }
+            char c = text.charAt(pos);
+            switch (c) {
+                case '{':
+                    return readObject();
+                case '[':
+                    return readArray();
+                case '"':
+                    return readString();
+                default:
+                    return readLiteral();
+            }
+        }
+
+        private Map<String, Object> readObject() throws ApiException {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipSpaces();
+            if (consume('}')) {
+                return object;
+            }
+            do {
+                skipSpaces();
+                if (pos >= text.length() || text.charAt(pos) != '"') {
+                    throw error("se esperaba un nombre de campo");
+                }
+                String name = readString();
+                skipSpaces();
+                expect(':');
+                skipSpaces();
+                object.put(name, readValue());
+                skipSpaces();
+            } while (consume(','));
+            expect('}');
+            return object;
+        }
+
+        private List<Object> readArray() throws ApiException {
+            List<Object> array = new ArrayList<>();
+            pos++;
+            skipSpaces();
+            if (consume(']')) {
+                return array;
+            }
+            do {
+                skipSpaces();
+                array.add(readValue());
+                skipSpaces();
+            } while (consume(','));
+            expect(']');
+            return array;
+        }
+
+        private String readString() throws ApiException {
+            pos++;
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (pos >= text.length()) {
+                    throw error("cadena sin terminar");
+                }
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    throw error("cadena sin terminar");
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw error("secuencia \\u incompleta");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("secuencia \\u no válida");
+                        }
+                        pos += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            }
+        }
+
+        private Object readLiteral() throws ApiException {
+            int start = pos;
+            while (pos < text.length() && ",}] \t\r\n".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            switch (literal) {
+                case "null":
+                    return null;
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                default:
+                    try {
+                        if (literal.indexOf('.') < 0 && literal.indexOf('e') < 0 && literal.indexOf('E') < 0) {
+                            return Long.parseLong(literal);
+                        }
+                        return Double.parseDouble(literal);
+                    } catch (NumberFormatException e) {
+                        throw error("valor no válido en la posición " + start);
+                    }
+            }
+        }
+
+        void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private boolean consume(char c) {
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) throws ApiException {
+            if (!consume(c)) {
+                throw error("se esperaba '" + c + "' en la posición " + pos);
+            }
+        }
+
+        ApiException error(String message) {
+            return new ApiException(400, "JSON no válido: " + message + ".");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package src.com.learningpath.server;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Ejecuta tareas en hilos virtuales, de a una por clave y en el orden en que llegan.
+ * <p>
+ * Cada clave tiene un buzón: una cola de tareas que vacía un único hilo virtual. El buzón
+ * existe solo mientras tiene trabajo; la tarea que llega a una clave sin buzón lo crea y
+ * arranca su hilo, y el hilo lo quita al encontrarlo vacío. Las dos operaciones se hacen con
+ * {@link ConcurrentHashMap#compute}, así que nunca hay dos hilos para la misma clave ni una
+ * tarea encolada sin hilo. Las claves distintas avanzan en paralelo, sin un lock global.
+ * <p>
+ * La API lo usa con la clave (estudiante, Learning Path): las entregas sobre un mismo
+ * progreso se aplican en orden de llegada y las de estudiantes distintos no se esperan.
+ */
+public class MailboxExecutor implements AutoCloseable {
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Object, ArrayDeque<Runnable>> mailboxes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Encola una tarea en el buzón de una clave.
+     *
+     * @param key  La clave; las tareas con claves iguales ({@code equals}) se ejecutan de a una.
+     * @param task La tarea.
+     * @return El resultado de la tarea, o la excepción que lanzó.
+     * @throws RejectedExecutionException Si el ejecutor está cerrado.
+     */
+    public <T> CompletableFuture<T> submit(Object key, Callable<T> task) {
+        if (closed) {
+            throw new RejectedExecutionException("El ejecutor está cerrado.");
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable work = () -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+        boolean[] created = new boolean[1];
+        mailboxes.compute(key, (k, mailbox) -> {
+            if (mailbox == null) {
+                mailbox = new ArrayDeque<>();
+                created[0] = true;
+            }
+            mailbox.add(work);
+            return mailbox;
+        });
+        if (created[0]) {
+            try {
+                threads.execute(() -> drain(key));
+            } catch (RejectedExecutionException e) {
+                // Se cerró entre la comprobación y el arranque: nadie vaciará el buzón.
+                mailboxes.remove(key);
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Indica cuántas claves tienen tareas pendientes o en curso.
+     */
+    public int getActiveKeyCount() {
+        return mailboxes.size();
+    }
+
+    /**
+     * Deja de aceptar tareas y espera a que se ejecuten las ya encoladas.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        threads.close();
+    }
+
+    // Corre en el hilo virtual del buzón hasta dejarlo vacío.
+    private void drain(Object key) {
+        while (true) {
+            Runnable[] next = new Runnable[1];
+            mailboxes.computeIfPresent(key, (k, mailbox) -> {
+                next[0] = mailbox.poll();
+                return next[0] == null ? null : mailbox;
+            });
+            if (next[0] == null) {
+                return;
+            }
+            next[0].run();
+        }
+    }
+}
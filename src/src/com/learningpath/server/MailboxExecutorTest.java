@@ -0,0 +1,81 @@
+package src.com.learningpath.server;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MailboxExecutorTest {
+
+    @Test
+    public void testTasksWithTheSameKeyRunOneAtATimeInOrder() throws Exception {
+        int keys = 4;
+        int tasksPerKey = 500;
+        List<List<Integer>> applied = new ArrayList<>();
+        AtomicInteger[] running = new AtomicInteger[keys];
+        for (int k = 0; k < keys; k++) {
+            applied.add(new ArrayList<>());
+            running[k] = new AtomicInteger();
+        }
+        AtomicInteger overlaps = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        try (MailboxExecutor executor = new MailboxExecutor()) {
+            for (int i = 0; i < tasksPerKey; i++) {
+                for (int k = 0; k < keys; k++) {
+                    int key = k;
+                    int sequence = i;
+                    // Listas sin sincronizar: el buzón garantiza que una sola tarea las toca a la vez
+                    results.add(executor.submit("clave" + key, () -> {
+                        if (running[key].incrementAndGet() != 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        applied.get(key).add(sequence);
+                        running[key].decrementAndGet();
+                        return sequence;
+                    }));
+                }
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i / keys, results.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(0, overlaps.get());
+        for (List<Integer> sequence : applied) {
+            assertEquals(tasksPerKey, sequence.size());
+            for (int i = 0; i < tasksPerKey; i++) {
+                assertEquals(i, sequence.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testDifferentKeysRunInParallel() throws Exception {
+        CountDownLatch released = new CountDownLatch(1);
+        try (MailboxExecutor executor = new MailboxExecutor()) {
+            // Si las claves se serializaran entre sí, la primera tarea esperaría para siempre
+            CompletableFuture<Boolean> waiting = executor.submit("a", () -> released.await(10, TimeUnit.SECONDS));
+            executor.submit("b", () -> {
+                released.countDown();
+                return null;
+            }).get(10, TimeUnit.SECONDS);
+            assertTrue(waiting.get(10, TimeUnit.SECONDS));
+
+            CompletableFuture<Object> failed = executor.submit("a", () -> {
+                throw new IllegalStateException("falla");
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertEquals("sigue", executor.submit("a", () -> "sigue").get(10, TimeUnit.SECONDS));
+
+            executor.close();
+            assertThrows(RejectedExecutionException.class, () -> executor.submit("a", () -> null));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package src.com.learningpath.test;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.*;
+import src.com.learningpath.analytics.CompletionHistogram;
+import src.com.learningpath.data.codec.BinaryCodec;
+import src.com.learningpath.data.codec.EntityResolver;
+import src.com.learningpath.data.codec.MappedProgressStore;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class CompletionHistogramTest {
+
+    @Test
+    public void testHistogramFollowsStatusChanges() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        LearningPath lp = new LearningPath("Algorithms", "Learn about algorithms", "Understand sorting", 3, teacher);
+        Activity review = new ResourceReview("Sorting", "Learn about sorting", "Understand sorting", 3, 60, true, "http://example.com/sorting");
+        Activity assignment = new Assignment("Quicksort", "Write quicksort", "Understand sorting", 3, 90, true, "Submit code");
+        lp.addActivity(review);
+        lp.addActivity(assignment);
+
+        List<Progress> progresses = new ArrayList<>();
+        CompletionHistogram histogram = CompletionHistogram.build(progresses);
+        LocalDate march = LocalDate.of(2024, 3, 1);
+        LocalDate april = LocalDate.of(2024, 4, 2);
+
+        Progress first = new Progress(new Student("s1", "pass", "Student 1"), lp);
+        Progress second = new Progress(new Student("s2", "pass", "Student 2"), lp);
+        first.addProgressListener(histogram);
+        second.addProgressListener(histogram);
+        progresses.addAll(Arrays.asList(first, second));
+
+        first.updateActivityStatus(review, ActivityStatus.COMPLETED, march);
+        second.updateActivityStatus(review, ActivityStatus.COMPLETED, march);
+        second.updateActivityStatus(assignment, ActivityStatus.SUBMITTED, april);
+        assertEquals(Integer.valueOf(2), histogram.getDailyCounts(2024).get(march));
+
+        // Completar de nuevo mueve la actividad al nuevo día; fallar la deja de contar
+        first.updateActivityStatus(review, ActivityStatus.COMPLETED, april);
+        second.updateActivityStatus(assignment, ActivityStatus.FAILED, april);
+        Map<LocalDate, Integer> counts = histogram.getDailyCounts(2024);
+        assertEquals(Integer.valueOf(1), counts.get(march));
+        assertEquals(Integer.valueOf(1), counts.get(april));
+        assertEquals(2, counts.size());
+
+        // El histograma incremental coincide con uno reconstruido desde cero
+        assertEquals(counts, CompletionHistogram.build(progresses).getDailyCounts(2024));
+        assertEquals(counts, histogram.getDailyCountsForTeacher("jdoe", 2024));
+        assertTrue(histogram.getDailyCountsForTeacher("other", 2024).isEmpty());
+        assertTrue(histogram.getDailyCounts(2023).isEmpty());
+
+        CompletionHistogram decoded = CompletionHistogram.decode(histogram.encode(progresses.size(), 42));
+        assertEquals(2, decoded.getProgressCount());
+        assertEquals(42, decoded.getProgressChecksum());
+        assertEquals(counts, decoded.getDailyCountsForLearningPath(lp, 2024));
+    }
+
+    @Test
+    public void testBuildFromMappedStoreDoesNotDecodeProgresses() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        LearningPath first = new LearningPath("Algorithms", "Learn about algorithms", "Understand sorting", 3, teacher);
+        LearningPath second = new LearningPath("Graphs", "Learn about graphs", "Understand graphs", 3, teacher);
+        Activity review = new ResourceReview("Sorting", "Learn about sorting", "Understand sorting", 3, 60, true, "http://example.com/sorting");
+        Activity assignment = new Assignment("Quicksort", "Write quicksort", "Understand sorting", 3, 90, true, "Submit code");
+        Activity graphs = new ResourceReview("BFS", "Learn about BFS", "Understand BFS", 3, 60, true, "http://example.com/bfs");
+        first.addActivity(review);
+        first.addActivity(assignment);
+        second.addActivity(graphs);
+
+        List<User> users = new ArrayList<>(List.of(teacher));
+        List<Progress> progresses = new ArrayList<>();
+        for (int s = 0; s < 6; s++) {
+            Student student = new Student("s" + s, "pass", "Student " + s);
+            users.add(student);
+            Progress p = new Progress(student, s % 2 == 0 ? first : second);
+            if (s % 2 == 0) {
+                p.updateActivityStatus(review, ActivityStatus.COMPLETED, LocalDate.of(2024, 3, s + 1));
+                // Una entrega fallida conserva la fecha pero no cuenta
+                p.updateActivityStatus(assignment, s == 0 ? ActivityStatus.FAILED : ActivityStatus.SUBMITTED, LocalDate.of(2024, 4, 1));
+            } else {
+                p.updateActivityStatus(graphs, ActivityStatus.COMPLETED, LocalDate.of(2024, 5, s));
+            }
+            progresses.add(p);
+        }
+        CompletionHistogram expected = CompletionHistogram.build(progresses);
+
+        MappedProgressStore store = MappedProgressStore.wrap(BinaryCodec.encodeProgresses(progresses),
+                new EntityResolver(users, List.of(first, second)));
+        CompletionHistogram mapped = CompletionHistogram.build(store);
+        assertEquals(0, store.getDecodedCount());
+        assertEquals(expected.getDailyCounts(2024), mapped.getDailyCounts(2024));
+        assertEquals(expected.getDailyCountsForLearningPath(first, 2024), mapped.getDailyCountsForLearningPath(first, 2024));
+        assertEquals(expected.getDailyCountsForLearningPath(second, 2024), mapped.getDailyCountsForLearningPath(second, 2024));
+        assertEquals(Integer.valueOf(2), mapped.getDailyCounts(2024).get(LocalDate.of(2024, 4, 1)));
+        assertEquals(8, mapped.getDailyCounts(2024).values().stream().mapToInt(Integer::intValue).sum());
+    }
+}
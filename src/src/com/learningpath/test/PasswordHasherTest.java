@@ -0,0 +1,62 @@
+package src.com.learningpath.test;
+
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.users.PasswordHasher;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PasswordHasherTest {
+
+    @Test
+    public void testPasswordIsStoredSaltedAndHashed() {
+        Student first = new Student("stud456", "pass123", "Student Mary");
+        Student second = new Student("stud789", "pass123", "Student John");
+
+        assertTrue(PasswordHasher.isHashed(first.getPassword()));
+        assertFalse(first.getPassword().contains("pass123"));
+        // La misma contraseña con otra sal produce otro hash
+        assertNotEquals(first.getPassword(), second.getPassword());
+        assertTrue(first.authenticate("pass123"));
+        assertFalse(first.authenticate("pass124"));
+        assertFalse(first.authenticate(null));
+    }
+
+    @Test
+    public void testLegacyPlainTextPasswordIsRehashedOnLogin() {
+        Teacher teacher = new Teacher("jdoe", null, "John Doe");
+        teacher.restorePassword("password123");
+        teacher.clearDirty();
+
+        assertFalse(teacher.authenticate("wrong"));
+        assertFalse(teacher.isDirty());
+        assertTrue(teacher.authenticate("password123"));
+        assertTrue(PasswordHasher.isHashed(teacher.getPassword()));
+        assertTrue(teacher.isDirty());
+        assertTrue(teacher.authenticate("password123"));
+    }
+
+    @Test
+    public void testRepeatedLoginsAreServedFromCache() {
+        List<User> users = new ArrayList<>();
+        Repository repository = new Repository(users, new ArrayList<>(), new ArrayList<>());
+        Student student = new Student("stud456", "pass123", "Student Mary");
+        repository.addUser(student);
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(student, repository.authenticate("stud456", "pass123"));
+        }
+        assertNull(repository.authenticate("stud456", "wrong"));
+        assertEquals(4, repository.getCredentialCache().getHitCount());
+
+        // Si el hash cambia, la verificación guardada deja de valer
+        student.restorePassword(new PasswordHasher(PasswordHasher.MIN_ITERATIONS).hash("other"));
+        assertNull(repository.authenticate("stud456", "pass123"));
+        assertSame(student, repository.authenticate("stud456", "other"));
+    }
+}
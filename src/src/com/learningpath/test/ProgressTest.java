@@ -2,12 +2,29 @@ package src.com.learningpath.test;
 
 import src.com.learningpath.LearningPath;
 import src.com.learningpath.Progress;
+import src.com.learningpath.ProgressListener;
 import src.com.learningpath.activities.*;
+import src.com.learningpath.data.codec.BinaryCodec;
 import src.com.learningpath.users.Student;
 import src.com.learningpath.users.Teacher;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class ProgressTest {
 
     @Test
@@ -62,4 +79,161 @@ public class ProgressTest {
         // Verificamos que el estado se haya actualizado
         assertEquals(ActivityStatus.COMPLETED, progress.getActivityStatuses().get(activity));
     }
+
+    @Test
+    public void testStatusCountersSurviveSerialization() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        LearningPath lp = new LearningPath("Algorithms", "Learn about algorithms", "Understand sorting algorithms", 3, teacher);
+
+        Activity review = new ResourceReview("Sorting Algorithms", "Learn about sorting", "Understand sorting", 3, 60, true, "http://example.com/sorting");
+        Activity assignment = new Assignment("Implement Quicksort", "Write quicksort", "Understand sorting", 3, 90, true, "Submit code");
+        Activity quiz = new Quiz("Sorting Quiz", "Test sorting", "Assess", 2, 30, false, null, 70);
+        lp.addActivity(review);
+        lp.addActivity(assignment);
+        lp.addActivity(quiz);
+
+        Progress progress = new Progress(student, lp);
+        assertEquals(3, progress.getStatusCount(ActivityStatus.PENDING));
+
+        progress.updateActivityStatus(review, ActivityStatus.COMPLETED);
+        progress.updateActivityStatus(assignment, ActivityStatus.SUBMITTED);
+        progress.updateActivityStatus(quiz, ActivityStatus.FAILED);
+        // Un cambio repetido no debe contarse dos veces
+        progress.updateActivityStatus(review, ActivityStatus.COMPLETED);
+
+        assertEquals(0, progress.getStatusCount(ActivityStatus.PENDING));
+        assertEquals(1, progress.getStatusCount(ActivityStatus.COMPLETED));
+        assertEquals(1, progress.getStatusCount(ActivityStatus.SUBMITTED));
+        assertEquals(1, progress.getStatusCount(ActivityStatus.FAILED));
+
+        // Los contadores no se serializan: readObject debe reconstruirlos
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(progress);
+        }
+        Progress copy;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Progress) ois.readObject();
+        }
+        assertEquals(1, copy.getStatusCount(ActivityStatus.FAILED));
+        assertEquals(progress.calculateCompletionPercentage(), copy.calculateCompletionPercentage());
+    }
+
+    @Test
+    public void testActivitiesAddedAfterEnrollment() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        LearningPath lp = new LearningPath("Algorithms", "Learn about algorithms", "Understand sorting algorithms", 3, teacher);
+        Activity review = new ResourceReview("Sorting Algorithms", "Learn about sorting", "Understand sorting", 3, 60, true, "http://example.com/sorting");
+        lp.addActivity(review);
+        Progress progress = new Progress(student, lp);
+
+        // Una actividad añadida después de la inscripción no tiene estado hasta que se actualiza
+        Activity assignment = new Assignment("Implement Quicksort", "Write quicksort", "Understand sorting", 3, 90, true, "Submit code");
+        lp.addActivity(assignment);
+        assertNull(progress.getActivityStatus(assignment));
+        assertEquals(1, progress.getActivityStatuses().size());
+
+        LocalDate day = LocalDate.of(2024, 5, 20);
+        progress.updateActivityStatus(assignment, ActivityStatus.SUBMITTED, day);
+        assertEquals(2, progress.getActivityStatuses().size());
+        assertEquals(50.0, progress.calculateCompletionPercentage());
+        assertEquals(day, progress.getCompletionDate(assignment));
+        assertEquals(day, progress.getCountedCompletionDate(assignment));
+        assertNull(progress.getCountedCompletionDate(review));
+
+        // La vista de fechas es modificable y sigue el orden del Learning Path
+        progress.getCompletionDates().put(review, day.minusDays(1));
+        assertEquals(2, progress.getCompletionDates().size());
+        assertSame(review, progress.getCompletionDates().keySet().iterator().next());
+        progress.getCompletionDates().remove(review);
+        assertNull(progress.getCompletionDate(review));
+        assertEquals(1, progress.getCompletionDates().size());
+
+        // Las posiciones de cada progreso no cambian si después se quita una actividad del
+        // Learning Path, y una copia con el mismo id encuentra la misma posición
+        Progress later = new Progress(new Student("late", "pass", "Late Student"), lp);
+        lp.removeActivity(review);
+        Progress afterRemoval = new Progress(new Student("last", "pass", "Last Student"), lp);
+        assertEquals(ActivityStatus.PENDING, progress.getActivityStatus(review));
+        assertEquals(ActivityStatus.PENDING, later.getActivityStatus(review));
+        assertEquals(ActivityStatus.PENDING, later.getActivityStatus(assignment));
+        assertNull(afterRemoval.getActivityStatus(review));
+        assertEquals(ActivityStatus.PENDING, afterRemoval.getActivityStatus(assignment));
+        Activity copy = BinaryCodec.decodeActivity(BinaryCodec.encodeActivity(assignment));
+        assertNotSame(assignment, copy);
+        assertEquals(ActivityStatus.SUBMITTED, progress.getActivityStatus(copy));
+        assertEquals(day, progress.getCountedCompletionDate(copy));
+    }
+
+    @Test
+    public void testConcurrentSubmissionsAndEditsAreNotLost() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        LearningPath lp = new LearningPath("Concurrency", "Learn threads", "Locks", 2, teacher);
+        List<Quiz> quizzes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Quiz quiz = new Quiz("Quiz " + i, "Threads", "Assess", 1, 10, false,
+                    Arrays.asList(new Question("Q?", new String[]{"a", "b"}, 1, "b")), 50);
+            quizzes.add(quiz);
+            lp.addActivity(quiz);
+        }
+        Survey survey = new Survey("Encuesta", "Opinión", "Opinar", 1, 5, false);
+        lp.addActivity(survey);
+        Student student = new Student("sstudent", "password456", "Sarah Student");
+        Progress progress = new Progress(student, lp);
+        // El último estado notificado de cada actividad debe ser el que quedó en memoria.
+        Map<Activity, ActivityStatus> notified = new ConcurrentHashMap<>();
+        progress.addProgressListener(new ProgressListener() {
+            @Override
+            public void activityStatusChanged(Progress p, Activity activity, ActivityStatus status, LocalDate completionDate) {
+                notified.put(activity, status);
+            }
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger iterations = new AtomicInteger();
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int worker = t;
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        Quiz quiz = quizzes.get((worker + i) % quizzes.size());
+                        progress.saveQuizResponses(quiz, Arrays.asList(i % 2));
+                        progress.updateActivityStatus(quiz, i % 3 == 0 ? ActivityStatus.COMPLETED : ActivityStatus.PENDING);
+                        survey.addSurveyResponse(new SurveyResponse(student, survey));
+                        // Recorrer las vistas mientras otros hilos escriben no falla ni ve estados a medias
+                        for (Map.Entry<Activity, ActivityStatus> entry : progress.getActivityStatuses().entrySet()) {
+                            assertNotNull(entry.getValue());
+                        }
+                        iterations.incrementAndGet();
+                    }
+                }));
+            }
+            // Un profesor edita el Learning Path al mismo tiempo
+            for (int i = 0; i < 50; i++) {
+                lp.addActivity(new ResourceReview("Extra " + i, "More", "Read", 1, 1, false, "http://example.com"));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(4000, iterations.get());
+        assertEquals(4000, survey.getSurveyResponses().size());
+        assertEquals(8 * 10 + 5 + 50, lp.getDuration());
+        int completed = 0;
+        for (Quiz quiz : quizzes) {
+            assertEquals(notified.get(quiz), progress.getActivityStatus(quiz));
+            assertEquals(1, progress.getQuizResponses(quiz).size());
+            if (progress.getActivityStatus(quiz) == ActivityStatus.COMPLETED) {
+                completed++;
+            }
+        }
+        assertEquals(completed, progress.getStatusCount(ActivityStatus.COMPLETED));
+        assertEquals(9, progress.getActivityStatuses().size());
+    }
 }
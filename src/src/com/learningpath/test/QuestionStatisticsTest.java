@@ -0,0 +1,211 @@
+package src.com.learningpath.test;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.*;
+import src.com.learningpath.analytics.QuestionStatistics;
+import src.com.learningpath.grading.QuizRegrader;
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class QuestionStatisticsTest {
+
+    private static Quiz newQuiz() {
+        return new Quiz("Aritmética", "Sumas, restas", "Operar", 1, 20, true, new ArrayList<>(Arrays.asList(
+                new Question("2 + 2", new String[]{"3", "4", "5"}, 1, "Suma"),
+                new Question("5 - 3", new String[]{"2", "8"}, 0, "Resta"),
+                new Question("3 * 3", new String[]{"6", "9", "12", "\"nueve\""}, 1, "Producto"))), 60.0);
+    }
+
+    @Test
+    public void testCountersFollowSavedResponses() {
+        Teacher teacher = new Teacher("teacher", "pass", "Teacher");
+        LearningPath lp = new LearningPath("LP", "Descripción", "Objetivos", 1, teacher);
+        Quiz quiz = newQuiz();
+        lp.addActivity(quiz);
+
+        // Algunos respondieron antes de construir las estadísticas y otros después
+        List<Progress> progresses = new ArrayList<>();
+        List<int[]> expected = new ArrayList<>();
+        Random random = new Random(7);
+        for (int s = 0; s < 30; s++) {
+            progresses.add(new Progress(new Student("s" + s, "pass", "Student " + s), lp));
+        }
+        for (int s = 0; s < 10; s++) {
+            expected.add(answer(progresses.get(s), quiz, random));
+        }
+        QuestionStatistics statistics = new QuestionStatistics();
+        for (Progress p : progresses) {
+            p.addProgressListener(statistics);
+        }
+        statistics.addAll(progresses);
+        // Volver a recorrer no cuenta dos veces
+        statistics.addAll(progresses);
+        for (int s = 10; s < 30; s++) {
+            expected.add(answer(progresses.get(s), quiz, random));
+        }
+        // Cambiar y borrar respuestas resta las anteriores
+        expected.set(3, answer(progresses.get(3), quiz, random));
+        progresses.get(4).saveQuizResponses(quiz, null);
+        expected.set(4, null);
+        // Respuestas incompletas o fuera de rango cuentan como sin responder
+        progresses.get(5).saveQuizResponses(quiz, Arrays.asList(1, null));
+        expected.set(5, new int[]{1, -1, -1});
+        progresses.get(6).saveQuizResponses(quiz, Arrays.asList(1, 0, 7));
+        expected.set(6, new int[]{1, 0, -1});
+
+        assertEquals(29, statistics.getRespondentCount(lp, quiz));
+        for (int q = 0; q < quiz.getQuestions().size(); q++) {
+            assertItem(statistics.getItem(lp, quiz, q), quiz, q, expected);
+        }
+        // Reconstruir desde los progresos da lo mismo
+        QuestionStatistics rebuilt = QuestionStatistics.build(progresses);
+        for (int q = 0; q < quiz.getQuestions().size(); q++) {
+            assertItem(rebuilt.getItem(lp, quiz, q), quiz, q, expected);
+        }
+    }
+
+    @Test
+    public void testDiscriminationSeparatesStrongAndWeakStudents() {
+        Teacher teacher = new Teacher("teacher", "pass", "Teacher");
+        LearningPath lp = new LearningPath("LP", "Descripción", "Objetivos", 1, teacher);
+        Quiz quiz = newQuiz();
+        lp.addActivity(quiz);
+        QuestionStatistics statistics = new QuestionStatistics();
+        // Quienes aciertan las dos primeras aciertan la tercera; quienes las fallan, no
+        for (int s = 0; s < 10; s++) {
+            Progress p = new Progress(new Student("s" + s, "pass", "Student " + s), lp);
+            p.addProgressListener(statistics);
+            p.saveQuizResponses(quiz, s < 5 ? Arrays.asList(1, 0, 1) : Arrays.asList(0, 1, 2));
+        }
+        QuestionStatistics.Item third = statistics.getItem(lp, quiz, 2);
+        assertEquals(50.0, third.getPercentCorrect(), 1e-9);
+        assertEquals(1.0, third.getDiscrimination(), 1e-9);
+
+        // Si todos aciertan no hay discriminación que calcular
+        LearningPath other = new LearningPath("Otro", "Descripción", "Objetivos", 1, teacher);
+        Quiz easy = newQuiz();
+        other.addActivity(easy);
+        for (int s = 0; s < 3; s++) {
+            Progress p = new Progress(new Student("s" + s, "pass", "Student " + s), other);
+            p.addProgressListener(statistics);
+            p.saveQuizResponses(easy, Arrays.asList(1, 0, 1));
+        }
+        assertEquals(100.0, statistics.getItem(other, easy, 0).getPercentCorrect(), 1e-9);
+        assertTrue(Double.isNaN(statistics.getItem(other, easy, 0).getDiscrimination()));
+        assertEquals(3, statistics.getRespondentCount(other, easy));
+        assertEquals(10, statistics.getRespondentCount(lp, quiz));
+    }
+
+    @Test
+    public void testRegradeRebuildsStatisticsAndExportsCsv() throws Exception {
+        Teacher teacher = new Teacher("teacher", "pass", "Teacher");
+        LearningPath lp = new LearningPath("LP, básico", "Descripción", "Objetivos", 1, teacher);
+        Quiz quiz = newQuiz();
+        lp.addActivity(quiz);
+        List<User> users = new ArrayList<>(List.of(teacher));
+        Repository repository = new Repository(users, new ArrayList<>(List.of(lp)), new ArrayList<>());
+        List<int[]> expected = new ArrayList<>();
+        Random random = new Random(11);
+        for (int s = 0; s < 20; s++) {
+            Student student = new Student("s" + s, "pass", "Student " + s);
+            repository.addUser(student);
+            Progress p = new Progress(student, lp);
+            repository.addProgress(p);
+            expected.add(answer(p, quiz, random));
+        }
+        QuestionStatistics statistics = repository.getQuestionStatistics();
+        assertSame(statistics, repository.getQuestionStatistics());
+
+        quiz.getQuestions().get(2).setCorrectOptionIndex(3);
+        QuizRegrader.regrade(repository, lp, quiz);
+        for (int q = 0; q < quiz.getQuestions().size(); q++) {
+            assertItem(statistics.getItem(lp, quiz, q), quiz, q, expected);
+        }
+
+        StringWriter out = new StringWriter();
+        statistics.exportCsv(List.of(lp), out);
+        String[] lines = out.toString().split("\n");
+        assertTrue(lines[0].startsWith("path_id,path,quiz_id,quiz,question_index"));
+        // 3 + 2 + 4 opciones, más el encabezado
+        assertEquals(10, lines.length);
+        assertTrue(lines[9].contains(",3,\"\"\"nueve\"\"\"," + statistics.getItem(lp, quiz, 2).getOptionCounts()[3] + ",true,20,"));
+        assertTrue(lines[1].startsWith(lp.getId() + ",\"LP, básico\"," + quiz.getId() + ",Aritmética,0,2 + 2,0,3,"));
+    }
+
+    // Métodos auxiliares
+
+    private static int[] answer(Progress progress, Quiz quiz, Random random) {
+        int[] chosen = new int[quiz.getQuestions().size()];
+        List<Integer> answers = new ArrayList<>();
+        for (int q = 0; q < chosen.length; q++) {
+            chosen[q] = random.nextInt(quiz.getQuestions().get(q).getOptions().length);
+            answers.add(chosen[q]);
+        }
+        progress.saveQuizResponses(quiz, answers);
+        return chosen;
+    }
+
+    private static void assertItem(QuestionStatistics.Item item, Quiz quiz, int question, List<int[]> responses) {
+        Question q = quiz.getQuestions().get(question);
+        int[] counts = new int[q.getOptions().length];
+        int unanswered = 0;
+        List<double[]> pairs = new ArrayList<>();
+        for (int[] chosen : responses) {
+            if (chosen == null) {
+                continue;
+            }
+            if (chosen[question] < 0) {
+                unanswered++;
+            } else {
+                counts[chosen[question]]++;
+            }
+            int total = 0;
+            for (int i = 0; i < chosen.length; i++) {
+                if (chosen[i] == quiz.getQuestions().get(i).getCorrectOptionIndex()) {
+                    total++;
+                }
+            }
+            int correct = chosen[question] == q.getCorrectOptionIndex() ? 1 : 0;
+            pairs.add(new double[]{correct, total - correct});
+        }
+        assertArrayEquals(counts, item.getOptionCounts());
+        assertEquals(unanswered, item.getUnanswered());
+        assertEquals(pairs.size(), item.getRespondents());
+        assertEquals(100.0 * counts[q.getCorrectOptionIndex()] / pairs.size(), item.getPercentCorrect(), 1e-9);
+        double expectedDiscrimination = pearson(pairs);
+        if (Double.isNaN(expectedDiscrimination)) {
+            assertTrue(Double.isNaN(item.getDiscrimination()));
+        } else {
+            assertEquals(expectedDiscrimination, item.getDiscrimination(), 1e-9);
+        }
+    }
+
+    private static double pearson(List<double[]> pairs) {
+        double meanX = 0, meanY = 0;
+        for (double[] p : pairs) {
+            meanX += p[0] / pairs.size();
+            meanY += p[1] / pairs.size();
+        }
+        double cov = 0, varX = 0, varY = 0;
+        for (double[] p : pairs) {
+            cov += (p[0] - meanX) * (p[1] - meanY);
+            varX += (p[0] - meanX) * (p[0] - meanX);
+            varY += (p[1] - meanY) * (p[1] - meanY);
+        }
+        if (varX < 1e-12 || varY < 1e-12) {
+            return Double.NaN;
+        }
+        return cov / Math.sqrt(varX * varY);
+    }
+}
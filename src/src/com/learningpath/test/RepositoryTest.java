@@ -0,0 +1,142 @@
+package src.com.learningpath.test;
+
+import src.com.learningpath.LearningPath;
+import src.com.learningpath.Progress;
+import src.com.learningpath.activities.ActivityStatus;
+import src.com.learningpath.activities.ResourceReview;
+import src.com.learningpath.data.codec.BinaryCodec;
+import src.com.learningpath.data.codec.EntityResolver;
+import src.com.learningpath.data.codec.MappedProgressStore;
+import src.com.learningpath.repository.Repository;
+import src.com.learningpath.repository.RepositorySnapshot;
+import src.com.learningpath.users.Student;
+import src.com.learningpath.users.Teacher;
+import src.com.learningpath.users.User;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RepositoryTest {
+
+    @Test
+    public void testIndexesFollowMutations() {
+        List<User> users = new ArrayList<>();
+        List<LearningPath> learningPaths = new ArrayList<>();
+        Repository repository = new Repository(users, learningPaths, new ArrayList<>());
+
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("stud456", "pass123", "Student Mary");
+        repository.addUser(teacher);
+        repository.addUser(student);
+        assertThrows(IllegalArgumentException.class, () -> repository.addUser(new Student("jdoe", "x", "Other")));
+
+        LearningPath lp = new LearningPath("Java Basics", "Introduction to Java", "Learn the basics", 1, teacher);
+        repository.addLearningPath(lp);
+        Progress progress = new Progress(student, lp);
+        repository.addProgress(progress);
+
+        // Las listas persistidas reciben las mismas mutaciones que los índices
+        assertEquals(2, users.size());
+        assertEquals(1, learningPaths.size());
+        assertSame(teacher, repository.authenticate("jdoe", "password123"));
+        assertNull(repository.authenticate("jdoe", "wrong"));
+        assertEquals(1, repository.getLearningPathsOf(teacher).size());
+        assertSame(progress, repository.findProgress(student, lp));
+        assertTrue(repository.isEnrolled(student, lp));
+        assertEquals(1, repository.getProgressesOf(student).size());
+        assertEquals(1, repository.getProgressesOf(lp).size());
+        assertThrows(IllegalArgumentException.class, () -> repository.addProgress(new Progress(student, lp)));
+    }
+
+    @Test
+    public void testLookupsUseUsernamesNotInstances() {
+        List<User> users = new ArrayList<>();
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        users.add(teacher);
+        List<LearningPath> learningPaths = new ArrayList<>();
+        // Learning Path cargado desde otro archivo: su creador es otra instancia del mismo profesor
+        learningPaths.add(new LearningPath("Java Basics", "Introduction to Java", "Learn the basics", 1,
+                new Teacher("jdoe", "password123", "John Doe")));
+
+        Repository repository = new Repository(users, learningPaths, new ArrayList<>());
+
+        assertEquals(1, repository.getLearningPathsOf(teacher).size());
+        assertFalse(repository.isEnrolled(new Student("stud456", "pass123", "Student Mary"), learningPaths.get(0)));
+    }
+
+    @Test
+    public void testCopiesWithTheSameTitleAreDistinctPaths() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("stud456", "pass123", "Student Mary");
+        LearningPath original = new LearningPath("Java", "Introduction to Java", "Learn the basics", 1, teacher);
+        original.addActivity(new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists"));
+        // Dos copias del mismo profesor: mismo título ("Java (Copia)") y creador, distinto id
+        LearningPath first = new LearningPath(original, teacher);
+        LearningPath second = new LearningPath(original, teacher);
+        assertEquals(first.getTitle(), second.getTitle());
+        assertNotEquals(first, second);
+        Repository repository = new Repository(new ArrayList<>(Arrays.asList(teacher, student)),
+                new ArrayList<>(Arrays.asList(original, first, second)), new ArrayList<>());
+
+        Progress enrolled = new Progress(student, first);
+        repository.addProgress(enrolled);
+        assertTrue(repository.isEnrolled(student, first));
+        assertFalse(repository.isEnrolled(student, second));
+        assertNull(repository.findProgress(student, second));
+        Progress other = new Progress(student, second);
+        repository.addProgress(other);
+        assertSame(other, repository.findProgress(student, second));
+        assertSame(enrolled, repository.findProgress(student, first));
+        assertEquals(1, repository.getProgressesOf(second).size());
+
+        // Lo mismo sobre el índice del archivo de progresos
+        RepositorySnapshot snapshot = repository.snapshot();
+        MappedProgressStore store = MappedProgressStore.wrap(BinaryCodec.encodeProgresses(snapshot.getProgresses()),
+                new EntityResolver(snapshot.getUsers(), snapshot.getLearningPaths()));
+        assertSame(second, store.find(student, second).getLearningPath());
+        assertSame(first, store.find(student, first).getLearningPath());
+        assertFalse(store.contains("stud456", original.getId()));
+    }
+
+    @Test
+    public void testSnapshotIgnoresLaterMutations() throws Exception {
+        Teacher teacher = new Teacher("jdoe", "password123", "John Doe");
+        Student student = new Student("stud456", "pass123", "Student Mary");
+        LearningPath lp = new LearningPath("Java Basics", "Introduction to Java", "Learn the basics", 1, teacher);
+        lp.addActivity(new ResourceReview("Lists", "Learn about lists", "Understand lists", 2, 45, true, "http://example.com/lists"));
+        Repository repository = new Repository(new ArrayList<>(Arrays.asList(teacher, student)),
+                new ArrayList<>(Arrays.asList(lp)), new ArrayList<>());
+        repository.addProgress(new Progress(student, lp));
+
+        RepositorySnapshot snapshot = repository.snapshot();
+        List<User> users = repository.getUsers();
+        List<LearningPath> learningPaths = repository.getLearningPaths();
+        Student late = new Student("late", "pass", "Late Student");
+        repository.addUser(late);
+        repository.addLearningPath(new LearningPath("Python", "Learn Python", "Basics", 1, teacher));
+        repository.addProgress(new Progress(late, lp));
+
+        assertEquals(2, snapshot.getUsers().size());
+        assertEquals(1, snapshot.getLearningPaths().size());
+        assertEquals(1, snapshot.getProgresses().size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getUsers().add(late));
+        assertEquals(3, repository.snapshot().getUsers().size());
+        // Los getters también devuelven instantáneas, no vistas sobre las listas
+        assertEquals(2, users.size());
+        assertEquals(1, learningPaths.size());
+        assertThrows(UnsupportedOperationException.class, () -> learningPaths.add(lp));
+        assertEquals(3, repository.getUsers().size());
+        assertEquals(2, repository.getLearningPaths().size());
+        assertEquals(2, repository.getProgresses().size());
+
+        // La instantánea se codifica igual que las listas en el momento en que se tomó
+        List<Progress> decoded = BinaryCodec.decodeProgresses(BinaryCodec.encodeProgresses(snapshot.getProgresses()),
+                new EntityResolver(snapshot.getUsers(), snapshot.getLearningPaths()));
+        assertEquals(1, decoded.size());
+        assertEquals("stud456", decoded.get(0).getStudent().getUsername());
+        assertEquals(ActivityStatus.PENDING, decoded.get(0).getActivityStatus(lp.getActivities().get(0)));
+    }
+}
@@ -0,0 +1,109 @@
+package src.com.learningpath.users;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché acotada de las verificaciones de contraseña exitosas más recientes.
+ * <p>
+ * Verificar un hash de {@link PasswordHasher} es lento a propósito; si el mismo usuario vuelve
+ * a iniciar sesión con la misma contraseña (por ejemplo, varias ventanas o reconexiones en
+ * ráfaga) se responde desde aquí. No se guarda la contraseña sino un HMAC-SHA256 de ella con
+ * una clave aleatoria que solo vive en memoria, junto con el hash vigente del usuario: si la
+ * contraseña cambia, la entrada deja de valer. Se conservan como máximo {@code capacity}
+ * usuarios y se descartan los menos usados.
+ */
+public class CredentialCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Map<String, Entry> entries;
+    private final SecretKeySpec key;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Crea la caché.
+     *
+     * @param capacity La cantidad máxima de usuarios recordados.
+     */
+    public CredentialCache(int capacity) {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    /**
+     * Indica si la contraseña ya se verificó para el usuario y su hash no cambió desde entonces.
+     */
+    public synchronized boolean matches(User user, String password) {
+        Entry entry = entries.get(user.getUsername());
+        boolean hit = entry != null && entry.stored.equals(user.getPassword())
+                && MessageDigest.isEqual(entry.digest, digest(user.getUsername(), password));
+        if (hit) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return hit;
+    }
+
+    /**
+     * Recuerda una verificación exitosa.
+     */
+    public synchronized void remember(User user, String password) {
+        entries.put(user.getUsername(), new Entry(user.getPassword(), digest(user.getUsername(), password)));
+    }
+
+    /**
+     * Olvida las verificaciones de un usuario.
+     */
+    public synchronized void forget(String username) {
+        entries.remove(username);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private byte[] digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 no está disponible.", e);
+        }
+    }
+
+    private static final class Entry {
+        final String stored;
+        final byte[] digest;
+
+        Entry(String stored, byte[] digest) {
+            this.stored = stored;
+            this.digest = digest;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package src.com.learningpath.users;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Hash de contraseñas con PBKDF2-HMAC-SHA256 y sal aleatoria.
+ * <p>
+ * El hash se guarda como {@code pbkdf2-sha256$iteraciones$sal$hash} (sal y hash en Base64),
+ * de modo que cada contraseña conserva el costo con el que se calculó y se puede verificar
+ * aunque el costo configurado cambie. Las contraseñas guardadas por versiones anteriores en
+ * texto plano se siguen aceptando; {@link #needsRehash(String)} indica cuándo conviene
+ * recalcularlas con el costo actual.
+ * <p>
+ * El costo por omisión se configura con la propiedad del sistema
+ * {@value #ITERATIONS_PROPERTY}, o se calibra al arrancar con {@value #TARGET_MILLIS_PROPERTY}
+ * para que cada verificación tarde aproximadamente esos milisegundos.
+ */
+public final class PasswordHasher {
+    /**
+     * Propiedad del sistema con la cantidad de iteraciones de PBKDF2.
+     */
+    public static final String ITERATIONS_PROPERTY = "learningpath.passwordIterations";
+
+    /**
+     * Propiedad del sistema con el tiempo objetivo de una verificación, en milisegundos.
+     * Si está definida, tiene prioridad sobre {@value #ITERATIONS_PROPERTY}.
+     */
+    public static final String TARGET_MILLIS_PROPERTY = "learningpath.passwordMillis";
+
+    public static final int DEFAULT_ITERATIONS = 210_000;
+    public static final int MIN_ITERATIONS = 1_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static volatile PasswordHasher defaultHasher;
+
+    private final int iterations;
+
+    /**
+     * Crea un hasher con el costo indicado.
+     *
+     * @param iterations Las iteraciones de PBKDF2; como mínimo {@value #MIN_ITERATIONS}.
+     */
+    public PasswordHasher(int iterations) {
+        if (iterations < MIN_ITERATIONS) {
+            throw new IllegalArgumentException("Se requieren al menos " + MIN_ITERATIONS + " iteraciones.");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Obtiene el hasher con el que se calculan las contraseñas nuevas. Se crea la primera vez
+     * a partir de las propiedades del sistema.
+     */
+    public static PasswordHasher getDefault() {
+        PasswordHasher hasher = defaultHasher;
+        if (hasher == null) {
+            synchronized (PasswordHasher.class) {
+                hasher = defaultHasher;
+                if (hasher == null) {
+                    hasher = fromSystemProperties();
+                    defaultHasher = hasher;
+                }
+            }
+        }
+        return hasher;
+    }
+
+    /**
+     * Reemplaza el hasher por omisión; las contraseñas guardadas con otro costo se recalculan
+     * en su siguiente inicio de sesión.
+     */
+    public static void setDefault(PasswordHasher hasher) {
+        defaultHasher = hasher;
+    }
+
+    /**
+     * Crea un hasher cuyo costo hace que una verificación tarde aproximadamente el tiempo
+     * indicado en esta máquina.
+     *
+     * @param targetMillis El tiempo objetivo, en milisegundos.
+     * @return El hasher calibrado.
+     */
+    public static PasswordHasher calibrate(long targetMillis) {
+        PasswordHasher probe = new PasswordHasher(10_000);
+        byte[] salt = new byte[SALT_BYTES];
+        // La primera medición incluye la compilación JIT: se descarta.
+        probe.derive("calibración", salt);
+        long start = System.nanoTime();
+        probe.derive("calibración", salt);
+        double nanosPerIteration = (double) (System.nanoTime() - start) / probe.iterations;
+        long iterations = Math.round(targetMillis * 1_000_000.0 / Math.max(nanosPerIteration, 1));
+        return new PasswordHasher((int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE, iterations)));
+    }
+
+    private static PasswordHasher fromSystemProperties() {
+        Long targetMillis = Long.getLong(TARGET_MILLIS_PROPERTY);
+        if (targetMillis != null) {
+            return calibrate(targetMillis);
+        }
+        int iterations = Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS);
+        if (iterations < MIN_ITERATIONS) {
+            System.out.println("Iteraciones de contraseña no válidas: " + iterations + ". Se usará " + DEFAULT_ITERATIONS + ".");
+            iterations = DEFAULT_ITERATIONS;
+        }
+        return new PasswordHasher(iterations);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Calcula el hash de una contraseña con una sal nueva.
+     *
+     * @param password La contraseña.
+     * @return El hash codificado.
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + '$' + iterations + '$' + base64.encodeToString(salt) + '$' + base64.encodeToString(derive(password, salt));
+    }
+
+    /**
+     * Verifica una contraseña contra el valor guardado, usando el costo con el que se calculó.
+     * Un valor sin el formato de hash se compara como texto plano (datos anteriores).
+     *
+     * @param password La contraseña ingresada.
+     * @param stored   El hash guardado.
+     * @return True si la contraseña coincide.
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            PasswordHasher hasher = new PasswordHasher(Integer.parseInt(parts[1]));
+            Base64.Decoder base64 = Base64.getDecoder();
+            byte[] expected = base64.decode(parts[3]);
+            return MessageDigest.isEqual(expected, hasher.derive(password, base64.decode(parts[2])));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Indica si el valor guardado está en texto plano o se calculó con otro costo.
+     */
+    public boolean needsRehash(String stored) {
+        return !isHashed(stored) || !stored.startsWith(PREFIX + '$' + iterations + '$');
+    }
+
+    /**
+     * Indica si el valor guardado es un hash y no una contraseña en texto plano.
+     */
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX + '$');
+    }
+
+    private byte[] derive(String password, byte[] salt) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 no está disponible.", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
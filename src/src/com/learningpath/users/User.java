@@ -1,29 +1,38 @@
 package src.com.learningpath.users;
 
+import src.com.learningpath.DirtyTracked;
+
 import java.io.Serializable;
 
 /**
  * Clase abstracta que representa a un usuario en el sistema.
+ * <p>
+ * La contraseña no se guarda: solo su hash con sal ({@link PasswordHasher}).
  */
-public abstract class User implements Serializable {
+public abstract class User implements Serializable, DirtyTracked {
     private static final long serialVersionUID = 1L;
 
     protected String username;
+    // Hash de la contraseña; en datos anteriores, la contraseña en texto plano.
     protected String password;
     protected String name;
     protected Role role;
 
+    // Cambios pendientes de guardar. Al deserializar queda en false.
+    private transient boolean dirty = true;
+
     /**
      * Constructor para crear un usuario.
      *
      * @param username Nombre de usuario.
-     * @param password Contraseña.
+     * @param password Contraseña; se guarda su hash. Puede ser null si el hash se restaura
+     *                 después con {@link #restorePassword(String)}.
      * @param name     Nombre completo.
      * @param role     Rol del usuario.
      */
     public User(String username, String password, String name, Role role) {
         this.username = username;
-        this.password = password;
+        this.password = password == null ? null : PasswordHasher.getDefault().hash(password);
         this.name = name;
         this.role = role;
     }
@@ -43,13 +52,54 @@ public abstract class User implements Serializable {
     }
 
     /**
-     * Método para autenticar al usuario.
+     * Obtiene el hash de la contraseña. Solo debe usarse desde la capa de persistencia.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Restaura el hash de la contraseña al cargar el usuario desde la persistencia.
+     *
+     * @param password El hash guardado, o la contraseña en texto plano de datos anteriores.
+     */
+    public void restorePassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * Método para autenticar al usuario. Si la contraseña estaba en texto plano o con un costo
+     * distinto del configurado, se recalcula su hash y el usuario queda pendiente de guardar.
      *
      * @param password Contraseña a verificar.
      * @return True si la contraseña es correcta, false en caso contrario.
      */
     public boolean authenticate(String password) {
-        return this.password.equals(password);
+        String stored = this.password;
+        if (!PasswordHasher.verify(password, stored)) {
+            return false;
+        }
+        PasswordHasher hasher = PasswordHasher.getDefault();
+        if (hasher.needsRehash(stored)) {
+            this.password = hasher.hash(password);
+            markDirty();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    @Override
+    public void markDirty() {
+        dirty = true;
+    }
+
+    @Override
+    public void clearDirty() {
+        dirty = false;
     }
 
     // Implementaciones de equals y hashCode si es necesario